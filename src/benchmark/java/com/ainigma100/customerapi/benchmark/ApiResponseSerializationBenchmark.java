@@ -0,0 +1,55 @@
+package com.ainigma100.customerapi.benchmark;
+
+import com.ainigma100.customerapi.dto.APIResponse;
+import com.ainigma100.customerapi.dto.CustomerDTO;
+import com.ainigma100.customerapi.enums.Status;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.PagedModel;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of a full search response. With {@code PageSerializationMode.VIA_DTO} (see {@code JacksonConfig})
+ * the {@code Page} is written as a {@link PagedModel}, so the benchmark serializes
+ * {@code APIResponse<PagedModel<CustomerDTO>>}, including the {@code @MaskData} phone numbers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ApiResponseSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int pageSize;
+
+    private ObjectWriter writer;
+    private APIResponse<PagedModel<CustomerDTO>> response;
+
+
+    @Setup
+    public void setUp() {
+
+        writer = JsonMapper.builder().build().writer();
+
+        PageImpl<CustomerDTO> page = new PageImpl<>(CustomerFixtures.customerDTOs(pageSize), PageRequest.of(0, pageSize), 1_000_000L);
+
+        response = APIResponse
+                .<PagedModel<CustomerDTO>>builder()
+                .status(Status.SUCCESS.getValue())
+                .results(new PagedModel<>(page))
+                .build();
+    }
+
+
+    @Benchmark
+    public byte[] serialize() {
+        return writer.writeValueAsBytes(response);
+    }
+
+}
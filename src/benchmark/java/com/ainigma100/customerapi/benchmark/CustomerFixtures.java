@@ -0,0 +1,70 @@
+package com.ainigma100.customerapi.benchmark;
+
+import com.ainigma100.customerapi.dto.CustomerDTO;
+import com.ainigma100.customerapi.entity.Customer;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic test data shared by the benchmarks.
+ */
+public final class CustomerFixtures {
+
+    private CustomerFixtures() {
+        throw new IllegalStateException("Utility class");
+    }
+
+
+    public static Customer customer(long id) {
+
+        Customer customer = new Customer();
+        customer.setId(id);
+        customer.setFirstName("John" + id);
+        customer.setLastName("Wick" + id);
+        customer.setEmail("jwick" + id + "@tester.com");
+        customer.setPhoneNumber(String.format("69%08d", id));
+        customer.setDateOfBirth(LocalDate.of(1980, 1, 1).plusDays(id % 10_000));
+        customer.setCreatedDate(LocalDateTime.of(2024, 1, 1, 12, 0));
+        customer.setUpdatedDate(LocalDateTime.of(2024, 1, 2, 12, 0));
+        customer.setVersion(0L);
+
+        return customer;
+    }
+
+    public static CustomerDTO customerDTO(long id) {
+
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setId(id);
+        customerDTO.setFirstName("John" + id);
+        customerDTO.setLastName("Wick" + id);
+        customerDTO.setEmail("jwick" + id + "@tester.com");
+        customerDTO.setPhoneNumber(String.format("69%08d", id));
+        customerDTO.setDateOfBirth(LocalDate.of(1980, 1, 1).plusDays(id % 10_000));
+
+        return customerDTO;
+    }
+
+    public static List<Customer> customers(int size) {
+
+        List<Customer> customers = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            customers.add(customer(id));
+        }
+
+        return customers;
+    }
+
+    public static List<CustomerDTO> customerDTOs(int size) {
+
+        List<CustomerDTO> customerDTOs = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            customerDTOs.add(customerDTO(id));
+        }
+
+        return customerDTOs;
+    }
+
+}
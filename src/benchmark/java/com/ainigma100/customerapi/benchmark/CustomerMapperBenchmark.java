@@ -0,0 +1,49 @@
+package com.ainigma100.customerapi.benchmark;
+
+import com.ainigma100.customerapi.dto.CustomerDTO;
+import com.ainigma100.customerapi.entity.Customer;
+import com.ainigma100.customerapi.mapper.CustomerMapper;
+import com.ainigma100.customerapi.mapper.CustomerMapperImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapStruct mapping cost of a single entity and of a search page worth of entities.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CustomerMapperBenchmark {
+
+    private final CustomerMapper customerMapper = new CustomerMapperImpl();
+
+    @Param({"10", "100", "1000"})
+    public int pageSize;
+
+    private Customer customer;
+    private List<Customer> customers;
+
+
+    @Setup
+    public void setUp() {
+        customer = CustomerFixtures.customer(1);
+        customers = CustomerFixtures.customers(pageSize);
+    }
+
+
+    @Benchmark
+    public CustomerDTO customerToCustomerDTO() {
+        return customerMapper.customerToCustomerDTO(customer);
+    }
+
+    @Benchmark
+    public List<CustomerDTO> customerListToCustomerDTOList() {
+        return customerMapper.customerListToCustomerDTOList(customers);
+    }
+
+}
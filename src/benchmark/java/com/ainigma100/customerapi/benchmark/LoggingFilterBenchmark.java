@@ -0,0 +1,84 @@
+package com.ainigma100.customerapi.benchmark;
+
+import com.ainigma100.customerapi.filter.LoggingFilter;
+import com.ainigma100.customerapi.filter.RequestPathClassifier;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of {@link LoggingFilter} around a chain that only writes a small body, for a logged API path
+ * and for an excluded actuator path. {@code chainOnly} is the baseline without the filter. The two {@code classify*} benchmarks compare the precompiled
+ * {@link RequestPathClassifier} against the {@code String.matches} check it replaced.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LoggingFilterBenchmark {
+
+    private static final byte[] BODY = new byte[512];
+
+    private final LoggingFilter loggingFilter = new LoggingFilter();
+
+    private final FilterChain chain = (request, response) -> {
+        ((HttpServletResponse) response).setStatus(200);
+        response.getOutputStream().write(BODY);
+    };
+
+    @Param({"/api/v1/customers/1", "/actuator/health"})
+    public String servletPath;
+
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+
+    @Setup
+    public void setUp() {
+
+        request = new MockHttpServletRequest("GET", servletPath);
+        request.setServletPath(servletPath);
+        request.addHeader("X-Forwarded-For", "10.0.0.1");
+
+        response = new MockHttpServletResponse();
+    }
+
+
+    @Benchmark
+    public MockHttpServletResponse doFilter() throws Exception {
+
+        response.reset();
+
+        loggingFilter.doFilter(request, response, chain);
+
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse chainOnly() throws Exception {
+
+        response.reset();
+
+        chain.doFilter(request, response);
+
+        return response;
+    }
+
+    @Benchmark
+    public void classifyPrecompiled(Blackhole blackhole) {
+        blackhole.consume(RequestPathClassifier.isExcluded(servletPath));
+    }
+
+    @Benchmark
+    public void classifyStringMatches(Blackhole blackhole) {
+        blackhole.consume(servletPath.matches("(?i).*\\b(actuator|swagger|api-docs|favicon|ui)\\b.*"));
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.ainigma100.customerapi.benchmark;
+
+import com.ainigma100.customerapi.enums.MaskStrategy;
+import com.ainigma100.customerapi.utils.annotation.DataMasker;
+import com.ainigma100.customerapi.utils.annotation.MaskDataSerializer;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of masking and writing one {@code @MaskData} value, configured like {@code CustomerDTO.phoneNumber}.
+ * {@code serializeRegex} is the {@code String.format} + {@code replaceAll} implementation the {@link DataMasker}
+ * replaced, {@code serializeEmailLocalPart} masks an email with {@link MaskStrategy#EMAIL_LOCAL_PART}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MaskDataSerializerBenchmark {
+
+    private static final String EMAIL = "john.wick@tester.com";
+
+    private final MaskDataSerializer serializer = new MaskDataSerializer(3, "*");
+    private final MaskDataSerializer emailSerializer = new MaskDataSerializer(
+            new DataMasker(MaskStrategy.EMAIL_LOCAL_PART, 1, 0, "*"));
+
+    @Param({"6981234567", "+30 698 123 4567 ext. 1234"})
+    public String value;
+
+    private JsonGenerator generator;
+
+
+    @Setup
+    public void setUp() {
+        generator = JsonMapper.builder().build().createGenerator(OutputStream.nullOutputStream());
+    }
+
+    @TearDown
+    public void tearDown() {
+        generator.close();
+    }
+
+
+    @Benchmark
+    public void serialize() {
+        // the serialization context is not used by the serializer
+        serializer.serialize(value, generator, null);
+    }
+
+    @Benchmark
+    public void serializeRegex() {
+        generator.writeString(value.replaceAll(String.format(".(?=.{%d})", 3), "*"));
+    }
+
+    @Benchmark
+    public void serializeEmailLocalPart() {
+        emailSerializer.serialize(EMAIL, generator, null);
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.ainigma100.customerapi.benchmark;
+
+import com.ainigma100.customerapi.utils.SortItem;
+import com.ainigma100.customerapi.utils.Utils;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Pageable;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning the search criteria paging and sorting into a {@link Pageable}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PageableBenchmark {
+
+    @Param({"[]",
+            "[{\"field\":\"lastName\",\"direction\":\"ASC\"}]",
+            "[{\"field\":\"lastName\",\"direction\":\"ASC\"},{\"field\":\"firstName\",\"direction\":\"ASC\"},{\"field\":\"dateOfBirth\",\"direction\":\"DESC\"}]"})
+    public String sortListJson;
+
+    private List<SortItem> sortList;
+
+
+    @Setup
+    public void setUp() {
+        // SortItem has no setters, build it the same way the request body is read
+        sortList = JsonMapper.builder().build().readValue(sortListJson, new TypeReference<List<SortItem>>() {});
+    }
+
+
+    @Benchmark
+    public Pageable createPageableBasedOnPageAndSizeAndSorting() {
+        return Utils.createPageableBasedOnPageAndSizeAndSorting(sortList, 3, 20);
+    }
+
+}
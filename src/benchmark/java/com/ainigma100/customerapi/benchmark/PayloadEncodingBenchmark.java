@@ -0,0 +1,86 @@
+package com.ainigma100.customerapi.benchmark;
+
+import com.ainigma100.customerapi.benchmark.load.PayloadEncoding;
+import com.ainigma100.customerapi.dto.APIResponse;
+import com.ainigma100.customerapi.dto.CustomerDTO;
+import com.ainigma100.customerapi.dto.CustomerSearchCriteriaDTO;
+import com.ainigma100.customerapi.enums.Status;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.PagedModel;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the body encodings negotiated by {@code CustomerController} for a search round trip:
+ * the server reads the criteria and writes the {@code APIResponse<PagedModel<CustomerDTO>>},
+ * the consumer reads the page back. The encoded sizes are printed once per trial, and the GC profiler
+ * of the {@code jmh} execution reports the allocations per operation.
+ *
+ * <p>End-to-end, {@code exec:exec@load -Dload.encoding=cbor} reports the response sizes and the server CPU per request.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PayloadEncodingBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    public String encoding;
+
+    @Param({"20", "1000"})
+    public int pageSize;
+
+    private ObjectMapper mapper;
+    private APIResponse<PagedModel<CustomerDTO>> response;
+    private byte[] requestBytes;
+    private byte[] responseBytes;
+
+
+    @Setup
+    public void setUp() {
+
+        mapper = PayloadEncoding.fromKey(encoding).newMapper();
+
+        PageImpl<CustomerDTO> page = new PageImpl<>(CustomerFixtures.customerDTOs(pageSize), PageRequest.of(0, pageSize), 1_000_000L);
+
+        response = APIResponse
+                .<PagedModel<CustomerDTO>>builder()
+                .status(Status.SUCCESS.getValue())
+                .results(new PagedModel<>(page))
+                .build();
+
+        CustomerSearchCriteriaDTO criteria = new CustomerSearchCriteriaDTO();
+        criteria.setLastName("Wick");
+        criteria.setPage(0);
+        criteria.setSize(pageSize);
+
+        requestBytes = mapper.writeValueAsBytes(criteria);
+        responseBytes = mapper.writeValueAsBytes(response);
+
+        System.out.printf("%n%s: search request %d bytes, page of %d customers %d bytes%n",
+                encoding, requestBytes.length, pageSize, responseBytes.length);
+    }
+
+
+    @Benchmark
+    public CustomerSearchCriteriaDTO serverReadRequest() {
+        return mapper.readValue(requestBytes, CustomerSearchCriteriaDTO.class);
+    }
+
+    @Benchmark
+    public byte[] serverWriteResponse() {
+        return mapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public JsonNode consumerReadResponse() {
+        return mapper.readTree(responseBytes);
+    }
+
+}
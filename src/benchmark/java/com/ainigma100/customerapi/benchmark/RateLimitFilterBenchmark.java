@@ -0,0 +1,138 @@
+package com.ainigma100.customerapi.benchmark;
+
+import com.ainigma100.customerapi.filter.RateLimitFilter;
+import com.ainigma100.customerapi.filter.RateLimitRule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of {@link RateLimitFilter} per request, with the rules of {@code application.yaml}: {@code doFilter}
+ * against the {@code chainOnly} baseline, for a search (first rule) and a read (last rule).
+ *
+ * <p>The requests come from {@code clients} different addresses, cycled per thread, so {@code 1} measures one hot
+ * bucket and {@code 100000} a full bucket map with its cache misses. One request per thread gets a new address
+ * string for every call, in both benchmarks, like a server request that has just been parsed and is still in the
+ * cache, where 100000 mock requests would mostly measure their own cache misses. The capacity is high enough that no request is rejected, which is the
+ * path every request takes. The filter is shared by all threads, run with {@code -t 4} to see the buckets contended.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RateLimitFilterBenchmark {
+
+    private static final long IDLE_TIMEOUT_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+    private final FilterChain chain = (request, response) -> ((HttpServletResponse) response).setStatus(200);
+
+    @Param({"1", "100000"})
+    public int clients;
+
+    @Param({"/api/v1/customers/search", "/api/v1/customers/1"})
+    public String servletPath;
+
+    private RateLimitFilter rateLimitFilter;
+
+
+    @State(Scope.Thread)
+    public static class Requests {
+
+        private int clients;
+        private ClientRequest request;
+        private MockHttpServletResponse response;
+        private int next;
+
+        @Setup
+        public void setUp(RateLimitFilterBenchmark benchmark) {
+
+            MockHttpServletRequest mockRequest = new MockHttpServletRequest(
+                    benchmark.servletPath.endsWith("/search") ? "POST" : "GET", benchmark.servletPath);
+            mockRequest.setServletPath(benchmark.servletPath);
+
+            clients = benchmark.clients;
+            request = new ClientRequest(mockRequest);
+            response = new MockHttpServletResponse();
+        }
+
+        HttpServletRequest next() {
+
+            request.clientAddress = "10." + (next >>> 16) + "." + ((next >>> 8) & 0xFF) + "." + (next & 0xFF);
+            next = next + 1 == clients ? 0 : next + 1;
+
+            return request;
+        }
+    }
+
+    // answers X-Forwarded-For with the current client address
+    private static class ClientRequest extends HttpServletRequestWrapper {
+
+        private final String servletPath;
+        private final String method;
+        private String clientAddress;
+
+        ClientRequest(HttpServletRequest request) {
+            super(request);
+            this.servletPath = request.getServletPath();
+            this.method = request.getMethod();
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return "X-Forwarded-For".equalsIgnoreCase(name) ? clientAddress : null;
+        }
+
+        @Override
+        public String getServletPath() {
+            return servletPath;
+        }
+
+        @Override
+        public String getMethod() {
+            return method;
+        }
+    }
+
+
+    @Setup
+    public void setUp() {
+
+        int maxClients = 2 * clients + 1000;
+
+        rateLimitFilter = new RateLimitFilter(List.of(
+                new RateLimitRule("search", List.of("POST"), "/api/v1/customers/search/**", 1_000_000, 1_000_000_000, maxClients, IDLE_TIMEOUT_NANOS),
+                new RateLimitRule("write", List.of("POST", "PUT", "PATCH", "DELETE"), "/api/**", 1_000_000, 1_000_000_000, maxClients, IDLE_TIMEOUT_NANOS),
+                new RateLimitRule("default", List.of(), "/api/**", 1_000_000, 1_000_000_000, maxClients, IDLE_TIMEOUT_NANOS)),
+                new SimpleMeterRegistry(), JsonMapper.builder().build());
+    }
+
+
+    @Benchmark
+    public MockHttpServletResponse doFilter(Requests requests) throws Exception {
+
+        rateLimitFilter.doFilter(requests.next(), requests.response, chain);
+
+        return requests.response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse chainOnly(Requests requests) throws Exception {
+
+        HttpServletRequest request = requests.next();
+        chain.doFilter(request, requests.response);
+
+        return requests.response;
+    }
+
+}
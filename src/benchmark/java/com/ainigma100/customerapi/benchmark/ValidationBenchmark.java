@@ -0,0 +1,72 @@
+package com.ainigma100.customerapi.benchmark;
+
+import com.ainigma100.customerapi.dto.CustomerRequestDTO;
+import com.ainigma100.customerapi.utils.annotation.ValidDateOfBirth;
+import com.ainigma100.customerapi.utils.annotation.ValidDateOfBirthValidator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation cost of {@link CustomerRequestDTO}: the custom date of birth validator on its own,
+ * the {@code @Email} regex on the email property, and the whole request body.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ValidationBenchmark {
+
+    @Param({"jwick@tester.com", "john.wick.the.longer.local.part+tag@mail.subdomain.tester.com"})
+    public String email;
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private ValidDateOfBirthValidator dateOfBirthValidator;
+    private LocalDate dateOfBirth;
+    private CustomerRequestDTO customerRequestDTO;
+
+
+    @Setup
+    public void setUp() throws NoSuchFieldException {
+
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+
+        dateOfBirthValidator = new ValidDateOfBirthValidator();
+        dateOfBirthValidator.initialize(CustomerRequestDTO.class.getDeclaredField("dateOfBirth").getAnnotation(ValidDateOfBirth.class));
+        dateOfBirth = LocalDate.of(1989, 1, 2);
+
+        customerRequestDTO = new CustomerRequestDTO("John", "Wick", email, "6981234567", dateOfBirth);
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+
+    @Benchmark
+    public boolean validDateOfBirthValidator() {
+        return dateOfBirthValidator.isValid(dateOfBirth, null);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CustomerRequestDTO>> emailProperty() {
+        return validator.validateValue(CustomerRequestDTO.class, "email", email);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CustomerRequestDTO>> customerRequestDTO() {
+        return validator.validate(customerRequestDTO);
+    }
+
+}
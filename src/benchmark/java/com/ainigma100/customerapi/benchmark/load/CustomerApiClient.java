@@ -0,0 +1,200 @@
+package com.ainigma100.customerapi.benchmark.load;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Builds and sends the {@code /api/v1/customers} requests of the load harness.
+ *
+ * <p>Reads, updates and email patches target the customers created by {@link #seed(int)}, so they never
+ * return 404. Deletes only target customers created by {@link LoadOperation#CREATE} during the run,
+ * which keeps the seeded data set stable for the whole run.</p>
+ *
+ * <p>Request and response bodies use the {@link PayloadEncoding} of the run.</p>
+ */
+public class CustomerApiClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient;
+    private final PayloadEncoding encoding;
+    private final ObjectMapper mapper;
+    private final String customersUrl;
+    private final String authorization;
+    private final int idsPerRequest;
+
+    // unique per run, so emails do not clash with customers left over in a file database
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+
+    private long[] seededIds = new long[0];
+    private final Queue<Long> createdIds = new ConcurrentLinkedQueue<>();
+
+
+    public CustomerApiClient(HttpClient httpClient, String baseUrl, String token, PayloadEncoding encoding, int idsPerRequest) {
+        this.httpClient = httpClient;
+        this.encoding = encoding;
+        this.mapper = encoding.newMapper();
+        this.customersUrl = baseUrl + "/api/v1/customers";
+        this.authorization = "Bearer " + token;
+        this.idsPerRequest = idsPerRequest;
+    }
+
+
+    public void seed(int customers) throws Exception {
+
+        long[] ids = new long[customers];
+
+        for (int i = 0; i < customers; i++) {
+
+            HttpResponse<byte[]> response = this.send(buildCreate());
+
+            if (response.statusCode() != 201) {
+                throw new IllegalStateException("Seeding failed with status " + response.statusCode() + ": " + describe(response.body()));
+            }
+
+            ids[i] = readId(response.body());
+        }
+
+        this.seededIds = ids;
+    }
+
+
+    /**
+     * @return the request for the operation, or {@code null} when it cannot be issued right now
+     */
+    public HttpRequest request(LoadOperation operation) {
+
+        return switch (operation) {
+            case GET_BY_ID -> request(customersUrl + "/" + randomSeededId()).GET().build();
+            case GET_BY_IDS -> buildGetByIds();
+            case SEARCH -> buildSearch();
+            case CREATE -> buildCreate();
+            case UPDATE -> request(customersUrl + "/" + randomSeededId())
+                    .PUT(body(customerRequest(sequence.incrementAndGet())))
+                    .build();
+            case PATCH_EMAIL -> request(customersUrl + "/" + randomSeededId() + "/email")
+                    .method("PATCH", body(Map.of("email", uniqueEmail(sequence.incrementAndGet()))))
+                    .build();
+            case DELETE -> {
+                Long id = createdIds.poll();
+                yield id != null ? request(customersUrl + "/" + id).DELETE().build() : null;
+            }
+        };
+    }
+
+    public HttpResponse<byte[]> send(HttpRequest request) throws Exception {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    public void onResponse(LoadOperation operation, HttpResponse<byte[]> response) {
+
+        if (operation == LoadOperation.CREATE && response.statusCode() == 201) {
+            createdIds.add(readId(response.body()));
+        }
+    }
+
+
+    private HttpRequest buildCreate() {
+
+        return request(customersUrl)
+                .POST(body(customerRequest(sequence.incrementAndGet())))
+                .build();
+    }
+
+    private HttpRequest buildGetByIds() {
+
+        List<Long> ids = new ArrayList<>(idsPerRequest);
+
+        for (int i = 0; i < idsPerRequest; i++) {
+            ids.add(randomSeededId());
+        }
+
+        return request(customersUrl + "/by-ids")
+                .POST(body(Map.of("ids", ids)))
+                .build();
+    }
+
+    private HttpRequest buildSearch() {
+
+        Map<String, Object> criteria = new LinkedHashMap<>();
+        criteria.put("firstName", "Load" + ThreadLocalRandom.current().nextInt(10));
+        criteria.put("page", 0);
+        criteria.put("size", 20);
+        criteria.put("sortList", List.of(Map.of("field", "lastName", "direction", "ASC")));
+
+        return request(customersUrl + "/search")
+                .POST(body(criteria))
+                .build();
+    }
+
+    private Map<String, Object> customerRequest(long number) {
+
+        Map<String, Object> customer = new LinkedHashMap<>();
+        customer.put("firstName", "Load" + number);
+        customer.put("lastName", "Customer" + number);
+        customer.put("email", uniqueEmail(number));
+        customer.put("phoneNumber", String.format("69%08d", number % 100_000_000));
+        customer.put("dateOfBirth", "1989-01-02");
+
+        return customer;
+    }
+
+    private String uniqueEmail(long number) {
+        return "load" + number + "-" + runId + "@tester.com";
+    }
+
+    private long randomSeededId() {
+        return seededIds[ThreadLocalRandom.current().nextInt(seededIds.length)];
+    }
+
+    private HttpRequest.Builder request(String url) {
+
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", authorization)
+                .header("Content-Type", encoding.getMediaType())
+                .header("Accept", encoding.getMediaType());
+    }
+
+    private HttpRequest.BodyPublisher body(Object body) {
+        return HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body));
+    }
+
+    private long readId(byte[] responseBody) {
+
+        JsonNode id = mapper.readTree(responseBody).path("results").path("id");
+
+        if (!id.isNumber()) {
+            throw new IllegalStateException("No customer id in the response: " + describe(responseBody));
+        }
+
+        return id.asLong();
+    }
+
+    private String describe(byte[] responseBody) {
+
+        // error responses of the security filters are always JSON, the others use the negotiated encoding
+        try {
+            return mapper.readTree(responseBody).toString();
+        } catch (RuntimeException e) {
+            return new String(responseBody, StandardCharsets.UTF_8);
+        }
+    }
+
+}
@@ -0,0 +1,136 @@
+package com.ainigma100.customerapi.benchmark.load;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import reactor.core.publisher.Mono;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Makes the in-memory database as slow as a remote one: once {@link #enable() enabled}, every statement execution
+ * waits {@code latency} before it runs, while its connection stays checked out. Registered by {@link LoadHarness}
+ * for {@code load.db-latency-ms}, it wraps the application {@code DataSource} like any other decorator.
+ *
+ * <p>The R2DBC {@code ConnectionFactory} of the reactive stack is wrapped the same way, except that its statements
+ * wait without a thread: the result is only subscribed to once a timer has fired, as it would arrive from a remote
+ * database.</p>
+ */
+class DatabaseLatency implements BeanPostProcessor {
+
+    private final Duration latency;
+
+    // off while the application starts and the customers are seeded
+    private volatile boolean enabled;
+
+
+    DatabaseLatency(Duration latency) {
+        this.latency = latency;
+    }
+
+
+    void enable() {
+        enabled = true;
+    }
+
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+
+        if (bean instanceof DataSource dataSource) {
+            return proxy(DataSource.class, dataSource, (target, method, args) -> {
+                Object result = invoke(target, method, args);
+                return result instanceof Connection connection ? connection(connection) : result;
+            });
+        }
+
+        if (bean instanceof ConnectionFactory connectionFactory) {
+            return proxy(ConnectionFactory.class, connectionFactory, (target, method, args) -> {
+                Object result = invoke(target, method, args);
+                return "create".equals(method.getName())
+                        ? Mono.from((Publisher<? extends io.r2dbc.spi.Connection>) result).map(this::connection)
+                        : result;
+            });
+        }
+
+        return bean;
+    }
+
+
+    private Connection connection(Connection connection) {
+
+        return proxy(Connection.class, connection, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            return result instanceof Statement statement ? statement(statement, method.getReturnType()) : result;
+        });
+    }
+
+    private Statement statement(Statement statement, Class<?> type) {
+
+        @SuppressWarnings("unchecked")
+        Class<Statement> statementType = (Class<Statement>) type;
+
+        return proxy(statementType, statement, (target, method, args) -> {
+            if (enabled && method.getName().startsWith("execute")) {
+                Thread.sleep(latency);
+            }
+            return invoke(target, method, args);
+        });
+    }
+
+
+    private io.r2dbc.spi.Connection connection(io.r2dbc.spi.Connection connection) {
+
+        return proxy(io.r2dbc.spi.Connection.class, connection, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            return result instanceof io.r2dbc.spi.Statement statement ? statement(statement) : result;
+        });
+    }
+
+    private io.r2dbc.spi.Statement statement(io.r2dbc.spi.Statement statement) {
+
+        io.r2dbc.spi.Statement[] self = new io.r2dbc.spi.Statement[1];
+
+        self[0] = proxy(io.r2dbc.spi.Statement.class, statement, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (enabled && "execute".equals(method.getName())) {
+                return Mono.delay(latency).thenMany((Publisher<?>) result);
+            }
+            // bind(), add() and the like return the statement itself, which has to stay the proxy
+            return result == target ? self[0] : result;
+        });
+
+        return self[0];
+    }
+
+
+    private interface Handler<T> {
+        Object invoke(T target, Method method, Object[] args) throws Throwable;
+    }
+
+    private static <T> T proxy(Class<T> type, T target, Handler<T> handler) {
+
+        InvocationHandler invocationHandler = (proxy, method, args) -> handler.invoke(target, method, args);
+
+        return type.cast(Proxy.newProxyInstance(DatabaseLatency.class.getClassLoader(), new Class<?>[]{type}, invocationHandler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+
+        try {
+            return method.invoke(target, args);
+
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+}
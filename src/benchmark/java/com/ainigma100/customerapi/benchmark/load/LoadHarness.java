@@ -0,0 +1,358 @@
+package com.ainigma100.customerapi.benchmark.load;
+
+import com.ainigma100.customerapi.CustomerApiApplication;
+import com.ainigma100.customerapi.reactive.ReactiveCustomerApiApplication;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.lang.management.ManagementFactory;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * End-to-end load harness for {@code CustomerController}.
+ *
+ * <p>Unless {@code load.base-url} points to an already running instance, the harness boots the application
+ * in the same JVM on a random port with the {@code test} profile (in-memory H2 and the mock
+ * {@code JwtDecoder} of {@code SecurityDevMockConfig}), seeds customers through the API and then drives
+ * a weighted mix of requests from virtual-thread {@link HttpClient} workers.</p>
+ *
+ * <ul>
+ *     <li><b>closed</b> loop: {@code load.concurrency} workers each send the next request as soon as the
+ *     previous response arrives. Latency is measured from the moment the request is sent.</li>
+ *     <li><b>open</b> loop: requests are started at a fixed {@code load.rate} per second, whether or not
+ *     earlier ones have completed. Latency is measured from the intended start time, so a server that
+ *     falls behind shows it in the percentiles instead of hiding it (no coordinated omission).</li>
+ * </ul>
+ *
+ * <p>Run with: {@code ./mvnw -Pbenchmark test-compile exec:exec@load -Dload.mode=open -Dload.rate=300}.
+ * The report is printed per operation and written as JSON to {@code load.result.file}.
+ * Environment variables are passed on to the application, e.g. {@code SPRING_JPA_OPEN_IN_VIEW=false}.</p>
+ *
+ * <p>{@code load.encoding} selects the request and response body encoding ({@code json}, {@code cbor} or
+ * {@code smile}). The report includes the average response size per operation and, when the application runs
+ * in the harness JVM, the number of its request threads and their CPU time and allocations per request (see
+ * {@link ServerThreadMeter}).</p>
+ *
+ * <p>{@code load.virtual-threads=true} runs the application on virtual threads ({@code spring.threads.virtual.enabled}),
+ * and {@code load.db-latency-ms} makes every statement wait before it runs (see {@link DatabaseLatency}), which is
+ * where a fixed pool of request threads runs out. The request threads of the server can then no longer be told apart
+ * from the virtual threads of the clients, so the server thread numbers are left out, and the CPU time of the whole
+ * process (server and clients) and the pinned virtual thread events are reported for both modes.</p>
+ *
+ * <p>{@code load.stack=reactive} starts {@code ReactiveCustomerApiApplication} (WebFlux and R2DBC) instead of the
+ * servlet application, with the same endpoints, so both stacks can be run with the same mix and settings. The server
+ * threads are then the Netty event loops, and {@code load.db-latency-ms} delays the R2DBC statements without blocking
+ * them.</p>
+ *
+ * <p>{@code getByIds} fetches {@code load.ids-per-request} random seeded customers with one
+ * {@code POST /by-ids}. Compare its throughput times the ids per request with a {@code getById} only mix, which
+ * fetches the same customers with one request each, e.g. {@code -Dload.mix=getByIds=100 -Dload.ids-per-request=20}
+ * against {@code -Dload.mix=getById=100}.</p>
+ *
+ * <p>For the servlet stack the report includes how long a request held database connections on average, from
+ * {@code customer.api.request.connection.hold}, to compare {@code SPRING_JPA_OPEN_IN_VIEW=true} and {@code false}.</p>
+ *
+ * <p>All workers share one JWT subject, so the per-client rate limit ({@code customer-api.rate-limit}) would cap the
+ * whole run at the rate of one client. It is off unless {@code load.rate-limit=true}.</p>
+ */
+public class LoadHarness {
+
+    private final String mode = System.getProperty("load.mode", "closed");
+    private final String stack = System.getProperty("load.stack", "servlet");
+    private final int concurrency = Integer.getInteger("load.concurrency", 32);
+    private final int rate = Integer.getInteger("load.rate", 200);
+    private final Duration warmup = Duration.ofSeconds(Integer.getInteger("load.warmup", 10));
+    private final Duration duration = Duration.ofSeconds(Integer.getInteger("load.duration", 30));
+    private final int seedCustomers = Integer.getInteger("load.seed-customers", 500);
+    private final int idsPerRequest = Integer.getInteger("load.ids-per-request", 20);
+    private final OperationMix mix = OperationMix.parse(
+            System.getProperty("load.mix", "getById=60,search=20,create=8,update=5,patchEmail=4,delete=3"));
+    private final String baseUrl = System.getProperty("load.base-url", "");
+    private final String token = System.getProperty("load.token", "admin-token");
+    private final PayloadEncoding encoding = PayloadEncoding.fromKey(System.getProperty("load.encoding", "json"));
+    private final boolean virtualThreads = Boolean.getBoolean("load.virtual-threads");
+    private final boolean rateLimit = Boolean.getBoolean("load.rate-limit");
+    private final Duration dbLatency = Duration.ofMillis(Long.getLong("load.db-latency-ms", 0));
+    private final Path resultFile = Path.of(System.getProperty("load.result.file", "target/load-result.json"));
+
+
+    public static void main(String[] args) throws Exception {
+        new LoadHarness().run();
+    }
+
+
+    private void run() throws Exception {
+
+        if (!"closed".equals(mode) && !"open".equals(mode)) {
+            throw new IllegalArgumentException("load.mode must be 'closed' or 'open', got '" + mode + "'");
+        }
+        if (!"servlet".equals(stack) && !"reactive".equals(stack)) {
+            throw new IllegalArgumentException("load.stack must be 'servlet' or 'reactive', got '" + stack + "'");
+        }
+
+        DatabaseLatency databaseLatency = new DatabaseLatency(dbLatency);
+        ConfigurableApplicationContext context = baseUrl.isEmpty() ? startApplication(databaseLatency) : null;
+
+        try (ExecutorService httpExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .executor(httpExecutor)
+                    .build();
+
+            String target = context != null ? localBaseUrl(context) : baseUrl;
+            CustomerApiClient client = new CustomerApiClient(httpClient, target, token, encoding, idsPerRequest);
+            // Tomcat's virtual request threads are not listed by the ThreadMXBean
+            ServerThreadMeter serverThreadMeter = context == null ? null
+                    : isReactive() ? new ServerThreadMeter(ServerThreadMeter.NETTY_THREAD_PREFIX)
+                    : !virtualThreads ? new ServerThreadMeter(ServerThreadMeter.TOMCAT_THREAD_PREFIX)
+                    : null;
+
+            System.out.printf("Target %s, %s stack, mode %s, encoding %s, %s threads, db latency %d ms, mix %s%n", target, stack,
+                    describeMode(), encoding.getKey(), virtualThreads ? "virtual" : "platform", dbLatency.toMillis(), mix);
+            System.out.printf("Seeding %d customers%n", seedCustomers);
+            client.seed(seedCustomers);
+            databaseLatency.enable();
+
+            System.out.printf("Warm-up for %d s%n", warmup.toSeconds());
+            runPhase(client, warmup, null);
+
+            // the pinning monitor and the connection hold time are part of the servlet application
+            boolean servletMetrics = context != null && !isReactive();
+            HoldTime holdTimeBefore = servletMetrics ? holdTime(context) : null;
+
+            System.out.printf("Measuring for %d s%n", duration.toSeconds());
+            Map<String, Object> summary = runPhase(client, duration, serverThreadMeter);
+
+            if (servletMetrics) {
+                summary.put("pinnedVirtualThreadEvents", pinnedEvents(context));
+
+                HoldTime holdTime = holdTime(context).minus(holdTimeBefore);
+                summary.put("connectionHoldMillisPerRequest", holdTime.requests() > 0 ? holdTime.totalMillis() / holdTime.requests() : null);
+                summary.put("connectionCheckoutsPerRequest", holdTime.requests() > 0 ? holdTime.checkouts() / holdTime.requests() : null);
+            }
+
+            LoadStats.print(summary, System.out);
+            if (summary.get("serverCpuMillis") != null) {
+                System.out.printf("server %d threads, cpu %.0f ms, %.1f us per request, %.0f bytes allocated per request%n",
+                        summary.get("serverThreads"), summary.get("serverCpuMillis"), summary.get("serverCpuMicrosPerRequest"),
+                        summary.get("serverAllocatedBytesPerRequest"));
+            }
+            System.out.printf("process cpu %.0f ms, %d pinned virtual thread events%n",
+                    summary.get("processCpuMillis"), summary.get("pinnedVirtualThreadEvents"));
+            if (summary.get("connectionHoldMillisPerRequest") != null) {
+                System.out.printf("connections held %.2f ms and checked out %.2f times per request%n",
+                        summary.get("connectionHoldMillisPerRequest"), summary.get("connectionCheckoutsPerRequest"));
+            }
+            writeResult(target, context, summary);
+
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+
+    private ConfigurableApplicationContext startApplication(DatabaseLatency databaseLatency) {
+
+        SpringApplication application = isReactive()
+                ? ReactiveCustomerApiApplication.application()
+                : new SpringApplication(CustomerApiApplication.class);
+
+        if (dbLatency.isPositive()) {
+            application.addInitializers(context -> context.getBeanFactory().addBeanPostProcessor(databaseLatency));
+        }
+
+        // command line arguments take precedence over application.yaml, default properties do not. The same goes for
+        // the active profiles: additional profiles would only be added to spring.profiles.active (dev) of application.yaml
+        return application.run("--server.port=0", "--spring.profiles.active=" + System.getProperty("load.profile", "test"),
+                "--spring.threads.virtual.enabled=" + virtualThreads, "--customer-api.rate-limit.enabled=" + rateLimit);
+    }
+
+    private String localBaseUrl(ConfigurableApplicationContext context) {
+
+        String port = context.getEnvironment().getRequiredProperty("local.server.port");
+        String contextPath = context.getEnvironment().getProperty("server.servlet.context-path", "");
+
+        return "http://localhost:" + port + contextPath;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> runPhase(CustomerApiClient client, Duration phaseDuration, ServerThreadMeter serverThreadMeter) {
+
+        boolean measureServer = serverThreadMeter != null && serverThreadMeter.isSupported();
+        if (measureServer) {
+            serverThreadMeter.start();
+        }
+
+        LoadStats stats = new LoadStats();
+        long startCpuNanos = processCpuNanos();
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + phaseDuration.toNanos();
+
+        // closing the executor waits for the requests that are still in flight
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            if ("closed".equals(mode)) {
+                for (int i = 0; i < concurrency; i++) {
+                    workers.submit(() -> {
+                        while (System.nanoTime() - deadlineNanos < 0) {
+                            execute(client, stats, System.nanoTime());
+                        }
+                    });
+                }
+            } else {
+                long intervalNanos = 1_000_000_000L / rate;
+
+                for (long i = 0; ; i++) {
+
+                    long intendedStartNanos = startNanos + i * intervalNanos;
+                    if (intendedStartNanos - deadlineNanos >= 0) {
+                        break;
+                    }
+
+                    long waitNanos = intendedStartNanos - System.nanoTime();
+                    if (waitNanos > 0) {
+                        LockSupport.parkNanos(waitNanos);
+                    }
+
+                    workers.submit(() -> execute(client, stats, intendedStartNanos));
+                }
+            }
+        }
+
+        Map<String, Object> summary = stats.summary(Duration.ofNanos(System.nanoTime() - startNanos));
+        summary.put("processCpuMillis", (processCpuNanos() - startCpuNanos) / 1_000_000d);
+
+        if (measureServer) {
+            ServerThreadMeter.Usage usage = serverThreadMeter.stop();
+            double serverCpuMillis = usage.cpuNanos() / 1_000_000d;
+            long requests = (long) ((Map<String, Map<String, Object>>) summary.get("operations")).get("total").get("count");
+
+            summary.put("serverThreads", usage.threads());
+            summary.put("serverCpuMillis", serverCpuMillis);
+            summary.put("serverCpuMicrosPerRequest", requests > 0 ? serverCpuMillis * 1000 / requests : null);
+            summary.put("serverAllocatedBytesPerRequest", requests > 0 ? (double) usage.allocatedBytes() / requests : null);
+        }
+
+        return summary;
+    }
+
+    private void execute(CustomerApiClient client, LoadStats stats, long startNanos) {
+
+        LoadOperation operation = mix.next(ThreadLocalRandom.current());
+        HttpRequest request = client.request(operation);
+
+        if (request == null) {
+            stats.skip();
+            return;
+        }
+
+        try {
+            HttpResponse<byte[]> response = client.send(request);
+            stats.record(operation, System.nanoTime() - startNanos, response.statusCode(), response.body().length);
+            client.onResponse(operation, response);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+        } catch (Exception e) {
+            stats.record(operation, System.nanoTime() - startNanos, 0, 0);
+        }
+    }
+
+    private static long processCpuNanos() {
+        return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean()).getProcessCpuTime();
+    }
+
+    private static long pinnedEvents(ConfigurableApplicationContext context) {
+
+        return context.getBean(MeterRegistry.class).find("customer.api.virtual-threads.pinned").timers().stream()
+                .mapToLong(Timer::count)
+                .sum();
+    }
+
+    private static HoldTime holdTime(ConfigurableApplicationContext context) {
+
+        MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+
+        return new HoldTime(
+                meterRegistry.find("customer.api.request.connection.hold").timers().stream().mapToLong(Timer::count).sum(),
+                meterRegistry.find("customer.api.request.connection.hold").timers().stream()
+                        .mapToDouble(timer -> timer.totalTime(TimeUnit.MILLISECONDS)).sum(),
+                meterRegistry.find("customer.api.request.connection.checkouts").summaries().stream()
+                        .mapToDouble(DistributionSummary::totalAmount).sum());
+    }
+
+    private boolean isReactive() {
+        return "reactive".equals(stack);
+    }
+
+    private String describeMode() {
+        return "closed".equals(mode) ? "closed (" + concurrency + " workers)" : "open (" + rate + " req/s)";
+    }
+
+    private void writeResult(String target, ConfigurableApplicationContext context, Map<String, Object> summary) throws Exception {
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("target", target);
+        result.put("stack", context != null ? stack : null);
+        result.put("mode", mode);
+        result.put("concurrency", "closed".equals(mode) ? concurrency : null);
+        result.put("rate", "open".equals(mode) ? rate : null);
+        result.put("mix", mix.toString());
+        result.put("idsPerRequest", idsPerRequest);
+        result.put("encoding", encoding.getKey());
+        result.put("warmupSeconds", warmup.toSeconds());
+        result.put("durationSeconds", duration.toSeconds());
+        result.put("openInView", context != null && !isReactive() ? context.getEnvironment().getProperty("spring.jpa.open-in-view") : null);
+        result.put("virtualThreads", context != null ? virtualThreads : null);
+        result.put("dbLatencyMillis", context != null ? dbLatency.toMillis() : null);
+        result.put("maximumPoolSize", context == null ? null
+                : isReactive() ? context.getEnvironment().getProperty("spring.r2dbc.pool.max-size")
+                : context.getEnvironment().getProperty("spring.datasource.hikari.maximum-pool-size"));
+        result.putAll(summary);
+
+        if (resultFile.getParent() != null) {
+            Files.createDirectories(resultFile.getParent());
+        }
+
+        JsonMapper.builder()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .build()
+                .writeValue(resultFile.toFile(), result);
+
+        System.out.printf("Result written to %s%n", resultFile.toAbsolutePath());
+    }
+
+
+    /**
+     * The totals of the requests that checked out a connection, see {@code ConnectionHoldTimeFilter}.
+     */
+    private record HoldTime(long requests, double totalMillis, double checkouts) {
+
+        HoldTime minus(HoldTime before) {
+            return new HoldTime(requests - before.requests, totalMillis - before.totalMillis, checkouts - before.checkouts);
+        }
+    }
+
+}
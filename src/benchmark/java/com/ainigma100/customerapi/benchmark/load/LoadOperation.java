@@ -0,0 +1,39 @@
+package com.ainigma100.customerapi.benchmark.load;
+
+import java.util.Arrays;
+
+/**
+ * The {@code CustomerController} endpoints the load harness can drive.
+ * The key is the name used in the {@code load.mix} property, e.g. {@code getById=60,search=20}.
+ */
+public enum LoadOperation {
+
+    GET_BY_ID("getById"),
+    GET_BY_IDS("getByIds"),
+    SEARCH("search"),
+    CREATE("create"),
+    UPDATE("update"),
+    PATCH_EMAIL("patchEmail"),
+    DELETE("delete");
+
+    private final String key;
+
+
+    LoadOperation(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public static LoadOperation fromKey(String key) {
+
+        return Arrays.stream(values())
+                .filter(operation -> operation.key.equalsIgnoreCase(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown load operation '" + key + "', expected one of "
+                        + Arrays.stream(values()).map(LoadOperation::getKey).toList()));
+    }
+
+}
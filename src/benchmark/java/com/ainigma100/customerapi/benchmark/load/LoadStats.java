@@ -0,0 +1,161 @@
+package com.ainigma100.customerapi.benchmark.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms (in microseconds), error counters and response body sizes per {@link LoadOperation}.
+ * A response counts as an error when it is not 2xx or when the request failed altogether. Across all operations it
+ * also counts the responses per status code ({@code failed} for requests without a response) and keeps the latency
+ * of the successful ones apart, so rejected requests do not make the ones that were served look faster.
+ */
+public class LoadStats {
+
+    // anything slower than a minute is recorded as a minute
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<LoadOperation, Histogram> histograms = new EnumMap<>(LoadOperation.class);
+    private final Map<LoadOperation, LongAdder> errors = new EnumMap<>(LoadOperation.class);
+    private final Map<LoadOperation, LongAdder> responseBytes = new EnumMap<>(LoadOperation.class);
+    private final Map<Integer, LongAdder> statusCodes = new ConcurrentHashMap<>();
+    private final Histogram successful = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final LongAdder skipped = new LongAdder();
+
+
+    public LoadStats() {
+
+        for (LoadOperation operation : LoadOperation.values()) {
+            histograms.put(operation, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+            errors.put(operation, new LongAdder());
+            responseBytes.put(operation, new LongAdder());
+        }
+    }
+
+
+    /**
+     * @param statusCode the HTTP status of the response, {@code 0} when the request failed without one
+     */
+    public void record(LoadOperation operation, long latencyNanos, int statusCode, int bodyBytes) {
+
+        long latencyMicros = Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS);
+        histograms.get(operation).recordValue(latencyMicros);
+        responseBytes.get(operation).add(bodyBytes);
+        statusCodes.computeIfAbsent(statusCode, code -> new LongAdder()).increment();
+
+        if (statusCode / 100 == 2) {
+            successful.recordValue(latencyMicros);
+        } else {
+            errors.get(operation).increment();
+        }
+    }
+
+    /**
+     * Counts an operation that could not be issued, e.g. a delete while no created customer is left.
+     */
+    public void skip() {
+        skipped.increment();
+    }
+
+
+    public Map<String, Object> summary(Duration elapsed) {
+
+        double seconds = elapsed.toNanos() / 1_000_000_000d;
+
+        Map<String, Object> operations = new LinkedHashMap<>();
+        Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        long totalErrors = 0;
+        long totalBytes = 0;
+
+        for (LoadOperation operation : LoadOperation.values()) {
+
+            Histogram histogram = histograms.get(operation);
+
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+
+            long operationErrors = errors.get(operation).sum();
+            long operationBytes = responseBytes.get(operation).sum();
+            operations.put(operation.getKey(), describe(histogram, operationErrors, operationBytes, seconds));
+
+            total.add(histogram);
+            totalErrors += operationErrors;
+            totalBytes += operationBytes;
+        }
+
+        operations.put("total", describe(total, totalErrors, totalBytes, seconds));
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("elapsedSeconds", seconds);
+        summary.put("skipped", skipped.sum());
+        summary.put("operations", operations);
+        summary.put("statusCodes", this.statusCodeCounts());
+        summary.put("successful", Map.of(
+                "count", successful.getTotalCount(),
+                "p50Millis", successful.getValueAtPercentile(50) / 1000d,
+                "p99Millis", successful.getValueAtPercentile(99) / 1000d));
+
+        return summary;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static void print(Map<String, Object> summary, PrintStream out) {
+
+        out.printf("%-12s %10s %8s %10s %10s %10s %10s %10s %12s%n",
+                "operation", "count", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "avg bytes");
+
+        Map<String, Map<String, Object>> operations = (Map<String, Map<String, Object>>) summary.get("operations");
+
+        operations.forEach((name, values) -> out.printf("%-12s %10d %8d %10.1f %10.3f %10.3f %10.3f %10.3f %12.0f%n",
+                name,
+                values.get("count"),
+                values.get("errors"),
+                values.get("throughputPerSecond"),
+                values.get("p50Millis"),
+                values.get("p99Millis"),
+                values.get("p999Millis"),
+                values.get("maxMillis"),
+                values.get("avgResponseBytes")));
+
+        Map<String, Object> successful = (Map<String, Object>) summary.get("successful");
+
+        out.printf("successful %d, p50 %.3f ms, p99 %.3f ms, status codes %s%n",
+                successful.get("count"), successful.get("p50Millis"), successful.get("p99Millis"), summary.get("statusCodes"));
+        out.printf("elapsed %.1f s, skipped %d%n", summary.get("elapsedSeconds"), summary.get("skipped"));
+    }
+
+
+    private Map<String, Long> statusCodeCounts() {
+
+        Map<String, Long> counts = new TreeMap<>();
+        statusCodes.forEach((code, count) -> counts.put(code == 0 ? "failed" : String.valueOf(code), count.sum()));
+
+        return counts;
+    }
+
+    private Map<String, Object> describe(Histogram histogram, long errorCount, long bodyBytes, double seconds) {
+
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("count", histogram.getTotalCount());
+        values.put("errors", errorCount);
+        values.put("throughputPerSecond", histogram.getTotalCount() / seconds);
+        values.put("p50Millis", histogram.getValueAtPercentile(50) / 1000d);
+        values.put("p99Millis", histogram.getValueAtPercentile(99) / 1000d);
+        values.put("p999Millis", histogram.getValueAtPercentile(99.9) / 1000d);
+        values.put("maxMillis", histogram.getMaxValue() / 1000d);
+        values.put("avgResponseBytes", (double) bodyBytes / histogram.getTotalCount());
+
+        return values;
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.ainigma100.customerapi.benchmark.load;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Weighted mix of {@link LoadOperation}s, parsed from {@code getById=60,search=20,create=8,...}.
+ * Operations that are not listed have weight 0.
+ */
+public final class OperationMix {
+
+    private final LoadOperation[] operations;
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+
+
+    private OperationMix(Map<LoadOperation, Integer> weights) {
+
+        this.operations = weights.keySet().toArray(new LoadOperation[0]);
+        this.cumulativeWeights = new int[operations.length];
+
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += weights.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+
+        if (total <= 0) {
+            throw new IllegalArgumentException("The load mix needs at least one operation with a positive weight");
+        }
+
+        this.totalWeight = total;
+    }
+
+    public static OperationMix parse(String mix) {
+
+        Map<LoadOperation, Integer> weights = new EnumMap<>(LoadOperation.class);
+
+        for (String entry : mix.split(",")) {
+
+            String[] keyAndWeight = entry.trim().split("=");
+
+            if (keyAndWeight.length != 2) {
+                throw new IllegalArgumentException("Invalid load mix entry '" + entry + "', expected operation=weight");
+            }
+
+            int weight = Integer.parseInt(keyAndWeight[1].trim());
+            if (weight > 0) {
+                weights.put(LoadOperation.fromKey(keyAndWeight[0].trim()), weight);
+            }
+        }
+
+        return new OperationMix(weights);
+    }
+
+
+    public LoadOperation next(RandomGenerator random) {
+
+        int value = random.nextInt(totalWeight);
+
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+
+        return operations[operations.length - 1];
+    }
+
+    @Override
+    public String toString() {
+
+        StringBuilder builder = new StringBuilder();
+        int previous = 0;
+
+        for (int i = 0; i < operations.length; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(operations[i].getKey()).append('=').append(cumulativeWeights[i] - previous);
+            previous = cumulativeWeights[i];
+        }
+
+        return builder.toString();
+    }
+
+}
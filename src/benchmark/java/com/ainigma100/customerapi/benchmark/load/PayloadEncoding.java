@@ -0,0 +1,53 @@
+package com.ainigma100.customerapi.benchmark.load;
+
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * The request and response body encodings negotiated by {@code CustomerController}, see {@code JacksonConfig}.
+ * The key is the value of the {@code load.encoding} property.
+ */
+public enum PayloadEncoding {
+
+    JSON("json", "application/json", () -> JsonMapper.builder().build()),
+    CBOR("cbor", "application/cbor", () -> CBORMapper.builder().build()),
+    SMILE("smile", "application/x-jackson-smile", () -> SmileMapper.builder().build());
+
+    private final String key;
+    private final String mediaType;
+    private final Supplier<ObjectMapper> mapperFactory;
+
+
+    PayloadEncoding(String key, String mediaType, Supplier<ObjectMapper> mapperFactory) {
+        this.key = key;
+        this.mediaType = mediaType;
+        this.mapperFactory = mapperFactory;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public ObjectMapper newMapper() {
+        return mapperFactory.get();
+    }
+
+    public static PayloadEncoding fromKey(String key) {
+
+        return Arrays.stream(values())
+                .filter(encoding -> encoding.key.equalsIgnoreCase(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown payload encoding '" + key + "', expected one of "
+                        + Arrays.stream(values()).map(PayloadEncoding::getKey).toList()));
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.ainigma100.customerapi.benchmark.load;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * CPU time and allocated bytes of the request threads of an application started in the same JVM, the Tomcat
+ * threads ({@code http-nio-*}) by default or the Netty event loops ({@code reactor-http-*}) of the reactive stack. Clients running on virtual threads are not reported by the {@code ThreadMXBean},
+ * so only the server side (request parsing, the controller, the database access and the body encoding) is measured.
+ *
+ * <p>The usage of a request thread that ends during the measurement is lost, Tomcat keeps its threads for 60 s
+ * of idleness, which is longer than a default measurement phase. The event loops never end.</p>
+ */
+public class ServerThreadMeter {
+
+    public static final String TOMCAT_THREAD_PREFIX = "http-nio-";
+    public static final String NETTY_THREAD_PREFIX = "reactor-http-";
+
+    // threads is the number of request threads alive at the end
+    public record Usage(long cpuNanos, long allocatedBytes, int threads) {
+    }
+
+    private final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final String requestThreadPrefix;
+
+    private Map<Long, Usage> startUsage = Map.of();
+
+
+    public ServerThreadMeter() {
+        this(TOMCAT_THREAD_PREFIX);
+    }
+
+    public ServerThreadMeter(String requestThreadPrefix) {
+        this.requestThreadPrefix = requestThreadPrefix;
+    }
+
+
+    public boolean isSupported() {
+        return threadMXBean.isThreadCpuTimeSupported() && threadMXBean.isThreadAllocatedMemorySupported();
+    }
+
+    public void start() {
+        startUsage = this.snapshot();
+    }
+
+    /**
+     * @return the usage of the request threads since {@link #start()}
+     */
+    public Usage stop() {
+
+        long cpuNanos = 0;
+        long allocatedBytes = 0;
+        Map<Long, Usage> endUsage = this.snapshot();
+
+        for (Map.Entry<Long, Usage> thread : endUsage.entrySet()) {
+
+            Usage start = startUsage.getOrDefault(thread.getKey(), new Usage(0, 0, 1));
+
+            cpuNanos += thread.getValue().cpuNanos() - start.cpuNanos();
+            allocatedBytes += thread.getValue().allocatedBytes() - start.allocatedBytes();
+        }
+
+        return new Usage(cpuNanos, allocatedBytes, endUsage.size());
+    }
+
+
+    private Map<Long, Usage> snapshot() {
+
+        Map<Long, Usage> usage = new HashMap<>();
+
+        for (ThreadInfo thread : threadMXBean.getThreadInfo(threadMXBean.getAllThreadIds())) {
+
+            if (thread == null || !thread.getThreadName().startsWith(requestThreadPrefix)) {
+                continue;
+            }
+
+            long cpuNanos = threadMXBean.getThreadCpuTime(thread.getThreadId());
+            long allocatedBytes = threadMXBean.getThreadAllocatedBytes(thread.getThreadId());
+
+            if (cpuNanos >= 0 && allocatedBytes >= 0) {
+                usage.put(thread.getThreadId(), new Usage(cpuNanos, allocatedBytes, 1));
+            }
+        }
+
+        return usage;
+    }
+
+}
@@ -0,0 +1,152 @@
+package com.ainigma100.customerapi.benchmark.search;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DataSource decorator that records the prepared statements executed on the current thread, together with
+ * the calls that bound their parameters, so they can be replayed later (e.g. under {@code EXPLAIN ANALYZE}).
+ * Recording is off unless {@link #startRecording()} was called on the thread.
+ */
+public class RecordingDataSource extends DelegatingDataSource {
+
+    private static final ThreadLocal<List<RecordedStatement>> recorded = new ThreadLocal<>();
+
+
+    public RecordingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+
+    public static void startRecording() {
+        recorded.set(new ArrayList<>());
+    }
+
+    public static List<RecordedStatement> stopRecording() {
+
+        List<RecordedStatement> statements = recorded.get();
+        recorded.remove();
+
+        return statements != null ? statements : List.of();
+    }
+
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection connection = super.getConnection();
+        return proxy(Connection.class, new ConnectionHandler(connection));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Connection connection = super.getConnection(username, password);
+        return proxy(Connection.class, new ConnectionHandler(connection));
+    }
+
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(RecordingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getTargetException();
+        }
+    }
+
+
+    /**
+     * A statement with the {@code setXxx} calls that bound its parameters, in order.
+     */
+    public record RecordedStatement(String sql, List<ParameterBinding> bindings) {
+
+        public void bind(PreparedStatement statement) throws SQLException {
+
+            for (ParameterBinding binding : bindings) {
+                try {
+                    binding.method().invoke(statement, binding.args());
+                } catch (ReflectiveOperationException e) {
+                    throw new SQLException("Unable to replay " + binding.method().getName(), e);
+                }
+            }
+        }
+    }
+
+    public record ParameterBinding(Method method, Object[] args) {
+
+        @Override
+        public String toString() {
+            // setNull(index, sqlType) binds null, its second argument is the type
+            return args[0] + "=" + ("setNull".equals(method.getName()) ? "null" : args[1]);
+        }
+    }
+
+
+    private static final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+            Object result = RecordingDataSource.invoke(target, method, args);
+
+            if (result instanceof PreparedStatement statement && "prepareStatement".equals(method.getName())) {
+                return proxy(PreparedStatement.class, new PreparedStatementHandler(statement, (String) args[0]));
+            }
+
+            return result;
+        }
+    }
+
+    private static final class PreparedStatementHandler implements InvocationHandler {
+
+        private final PreparedStatement target;
+        private final String sql;
+        private final List<ParameterBinding> bindings = new ArrayList<>();
+
+        private PreparedStatementHandler(PreparedStatement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+            String name = method.getName();
+
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                bindings.add(new ParameterBinding(method, args.clone()));
+
+            } else if (name.equals("clearParameters")) {
+                bindings.clear();
+
+            } else if (name.startsWith("execute")) {
+                List<RecordedStatement> statements = recorded.get();
+                if (statements != null) {
+                    statements.add(new RecordedStatement(sql, List.copyOf(bindings)));
+                }
+            }
+
+            return RecordingDataSource.invoke(target, method, args);
+        }
+    }
+
+}
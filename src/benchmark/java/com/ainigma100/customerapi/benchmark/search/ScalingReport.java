@@ -0,0 +1,212 @@
+package com.ainigma100.customerapi.benchmark.search;
+
+import com.ainigma100.customerapi.benchmark.search.SearchScalabilitySuite.ExplainedStatement;
+import com.ainigma100.customerapi.benchmark.search.SearchScalabilitySuite.ShapeMeasurement;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Turns the search measurements into a Markdown and a JSON report.
+ *
+ * <p>Every shape gets the slope of {@code log(value)} over {@code log(rows)} (least squares) for its median latency
+ * and for the rows H2 scanned. A slope around 1 means the cost grows linearly with the table, around 0 means it
+ * does not depend on it. Shapes are classified on the scanned rows, which unlike latency are not affected by
+ * noise or fixed per-request overhead at small sizes.</p>
+ */
+public class ScalingReport {
+
+    private final List<Long> sizes;
+    private final int warmup;
+    private final int iterations;
+    private final Map<SearchShape, List<ShapeMeasurement>> results;
+
+
+    public ScalingReport(List<Long> sizes, int warmup, int iterations, Map<SearchShape, List<ShapeMeasurement>> results) {
+        this.sizes = sizes;
+        this.warmup = warmup;
+        this.iterations = iterations;
+        this.results = results;
+    }
+
+
+    public void write(Path directory) throws IOException {
+
+        Files.createDirectories(directory);
+
+        List<ShapeResult> shapeResults = new ArrayList<>();
+        results.forEach((shape, measurements) -> shapeResults.add(new ShapeResult(shape, measurements)));
+
+        // the shapes that grow the most with the data come first
+        shapeResults.sort(Comparator.comparingDouble(ShapeResult::scanSlope).reversed()
+                .thenComparing(Comparator.comparingDouble(ShapeResult::latencySlope).reversed()));
+
+        Files.writeString(directory.resolve("search-scalability.md"), markdown(shapeResults));
+
+        JsonMapper.builder()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .build()
+                .writeValue(directory.resolve("search-scalability.json").toFile(), json(shapeResults));
+    }
+
+
+    static double slope(List<Long> xs, List<Double> ys) {
+
+        int n = xs.size();
+        if (n < 2) {
+            return Double.NaN;
+        }
+
+        double sumX = 0, sumY = 0, sumXY = 0, sumXX = 0;
+        for (int i = 0; i < n; i++) {
+            double x = Math.log(xs.get(i));
+            // values of 0 (nothing scanned) would be -infinity
+            double y = Math.log(Math.max(ys.get(i), 1e-3));
+            sumX += x;
+            sumY += y;
+            sumXY += x * y;
+            sumXX += x * x;
+        }
+
+        return (n * sumXY - sumX * sumY) / (n * sumXX - sumX * sumX);
+    }
+
+    static String classify(double slope) {
+
+        if (Double.isNaN(slope)) {
+            return "n/a";
+        } else if (slope < 0.15) {
+            return "constant";
+        } else if (slope < 0.85) {
+            return "sublinear";
+        } else if (slope <= 1.15) {
+            return "linear";
+        }
+
+        return "superlinear";
+    }
+
+
+    private String markdown(List<ShapeResult> shapeResults) {
+
+        StringBuilder md = new StringBuilder();
+        md.append("# Search scalability\n\n");
+        md.append(String.format(Locale.ROOT, "Sizes: %s rows, %d warm-up and %d measured executions per shape, page size %d.%n%n",
+                sizes, warmup, iterations, SearchShape.PAGE_SIZE));
+
+        md.append("| filters | sort | page |");
+        sizes.forEach(size -> md.append(" p50 ms @").append(humanReadable(size)).append(" |"));
+        md.append(" latency slope | rows scanned @").append(humanReadable(sizes.get(sizes.size() - 1)))
+                .append(" | scan slope | scaling | table scan |\n");
+
+        md.append("|---|---|---|");
+        sizes.forEach(size -> md.append("---:|"));
+        md.append("---:|---:|---:|---|---|\n");
+
+        for (ShapeResult result : shapeResults) {
+
+            md.append("| ").append(result.shape.filterName())
+                    .append(" | ").append(result.shape.sort())
+                    .append(" | ").append(result.shape.page()).append(" |");
+
+            result.measurements.forEach(measurement ->
+                    md.append(String.format(Locale.ROOT, " %.3f |", measurement.p50Millis())));
+
+            ShapeMeasurement largest = result.measurements.get(result.measurements.size() - 1);
+
+            md.append(String.format(Locale.ROOT, " %.2f | %,d | %.2f | %s | %s |%n",
+                    result.latencySlope(),
+                    largest.rowsScanned(),
+                    result.scanSlope(),
+                    classify(result.scanSlope()),
+                    largest.tableScan() ? "yes" : "no"));
+        }
+
+        md.append("\n## Executed SQL and plans\n\n");
+        md.append("One `EXPLAIN ANALYZE` per distinct statement, from the first shape that executed it on the largest size. ")
+                .append("The plans of every shape are in `search-scalability.json`.\n\n");
+
+        Map<String, ExplainedStatement> distinctStatements = new LinkedHashMap<>();
+        for (ShapeResult result : shapeResults) {
+            for (ExplainedStatement statement : result.measurements.get(result.measurements.size() - 1).statements()) {
+                distinctStatements.putIfAbsent(statement.sql(), statement);
+            }
+        }
+
+        distinctStatements.values().forEach(statement -> md
+                .append("```sql\n").append(statement.sql()).append("\n```\n\n")
+                .append("Parameters: `").append(statement.parameters()).append("`\n\n")
+                .append("```\n").append(statement.plan()).append("\n```\n\n"));
+
+        return md.toString();
+    }
+
+    private List<Map<String, Object>> json(List<ShapeResult> shapeResults) {
+
+        List<Map<String, Object>> shapes = new ArrayList<>();
+
+        for (ShapeResult result : shapeResults) {
+
+            Map<String, Object> shape = new LinkedHashMap<>();
+            shape.put("filters", result.shape.filterName());
+            shape.put("sort", result.shape.sort());
+            shape.put("page", result.shape.page());
+            // NaN (a single size) is not valid JSON
+            shape.put("latencySlope", Double.isNaN(result.latencySlope()) ? null : result.latencySlope());
+            shape.put("scanSlope", Double.isNaN(result.scanSlope()) ? null : result.scanSlope());
+            shape.put("scaling", classify(result.scanSlope()));
+            shape.put("measurements", result.measurements);
+            shapes.add(shape);
+        }
+
+        return shapes;
+    }
+
+    private static String humanReadable(long size) {
+
+        if (size >= 1_000_000 && size % 1_000_000 == 0) {
+            return size / 1_000_000 + "M";
+        } else if (size >= 1_000 && size % 1_000 == 0) {
+            return size / 1_000 + "k";
+        }
+
+        return Long.toString(size);
+    }
+
+
+    private static final class ShapeResult {
+
+        private final SearchShape shape;
+        private final List<ShapeMeasurement> measurements;
+        private final double latencySlope;
+        private final double scanSlope;
+
+        private ShapeResult(SearchShape shape, List<ShapeMeasurement> measurements) {
+
+            this.shape = shape;
+            this.measurements = measurements;
+
+            List<Long> sizes = measurements.stream().map(ShapeMeasurement::size).toList();
+            this.latencySlope = slope(sizes, measurements.stream().map(ShapeMeasurement::p50Millis).toList());
+            this.scanSlope = slope(sizes, measurements.stream().map(measurement -> (double) measurement.rowsScanned()).toList());
+        }
+
+        private double latencySlope() {
+            return latencySlope;
+        }
+
+        private double scanSlope() {
+            return scanSlope;
+        }
+    }
+
+}
@@ -0,0 +1,226 @@
+package com.ainigma100.customerapi.benchmark.search;
+
+import com.ainigma100.customerapi.CustomerApiApplication;
+import com.ainigma100.customerapi.benchmark.search.RecordingDataSource.RecordedStatement;
+import com.ainigma100.customerapi.dataset.CustomerDatasetGenerator;
+import com.ainigma100.customerapi.dataset.CustomerDatasetLoader;
+import com.ainigma100.customerapi.dto.CustomerDTO;
+import com.ainigma100.customerapi.service.CustomerService;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Measures how {@code CustomerService.getAllCustomersUsingPagination} scales with the size of the
+ * {@code customers} table, for every combination of the {@code CustomerSearchCriteriaDTO} filters,
+ * several sort lists and page depths.
+ *
+ * <p>For each data size the application is started on its own H2 file database (loaded once with
+ * {@link CustomerDatasetLoader} and kept in {@code search.data-dir} for the next runs). Each shape is
+ * executed {@code search.warmup + search.iterations} times through the service. The SQL of the last
+ * execution is captured by {@link RecordingDataSource} and replayed under H2 {@code EXPLAIN ANALYZE}
+ * with the same parameters.</p>
+ *
+ * <p>{@link ScalingReport} writes {@code search-scalability.md} and {@code search-scalability.json} to
+ * {@code search.report-dir}. The default sizes (100k, 1M, 10M) take hours on a small machine, narrow the run
+ * down with e.g. {@code -Dsearch.sizes=100000,1000000 -Dsearch.include="sort=none page=0"}.</p>
+ *
+ * <p>Run with: {@code ./mvnw -Pbenchmark test-compile exec:exec@search}.</p>
+ */
+public class SearchScalabilitySuite {
+
+    private static final Pattern SCAN_COUNT = Pattern.compile("scanCount: (\\d+)");
+
+    private final List<Long> sizes = Arrays.stream(System.getProperty("search.sizes", "100000,1000000,10000000").split(","))
+            .map(String::trim).map(Long::parseLong).sorted().toList();
+    private final int warmup = Integer.getInteger("search.warmup", 1);
+    private final int iterations = Integer.getInteger("search.iterations", 3);
+    private final List<Integer> pages = Arrays.stream(System.getProperty("search.pages", "0,10,1000").split(","))
+            .map(String::trim).map(Integer::parseInt).toList();
+    private final List<String> sorts = Arrays.stream(System.getProperty("search.sorts", String.join(";", SearchShape.SORTS)).split(";"))
+            .map(String::trim).toList();
+    private final Pattern include = Pattern.compile(System.getProperty("search.include", ".*"));
+    private final Path dataDirectory = Path.of(System.getProperty("search.data-dir", "target/search-benchmark")).toAbsolutePath();
+    private final Path reportDirectory = Path.of(System.getProperty("search.report-dir", "target")).toAbsolutePath();
+
+
+    public static void main(String[] args) throws Exception {
+        new SearchScalabilitySuite().run();
+    }
+
+
+    private void run() throws Exception {
+
+        List<SearchShape> shapes = SearchShape.all(sorts, pages).stream()
+                .filter(shape -> include.matcher(shape.name()).find())
+                .toList();
+
+        System.out.printf("%d shapes x %d sizes %s%n", shapes.size(), sizes.size(), sizes);
+
+        Map<SearchShape, List<ShapeMeasurement>> results = new LinkedHashMap<>();
+        shapes.forEach(shape -> results.put(shape, new ArrayList<>()));
+
+        for (long size : sizes) {
+
+            try (ConfigurableApplicationContext context = startApplication(size)) {
+
+                DataSource dataSource = context.getBean(DataSource.class);
+                CustomerService customerService = context.getBean(CustomerService.class);
+
+                ensureDataset(dataSource, size);
+
+                for (SearchShape shape : shapes) {
+                    ShapeMeasurement measurement = measure(customerService, dataSource, shape, size);
+                    results.get(shape).add(measurement);
+                    System.out.printf("%,12d  %-70s p50 %10.3f ms  scanned %,d%n",
+                            size, shape.name(), measurement.p50Millis(), measurement.rowsScanned());
+                }
+            }
+        }
+
+        new ScalingReport(sizes, warmup, iterations, results).write(reportDirectory);
+        System.out.printf("Report written to %s%n", reportDirectory.resolve("search-scalability.md"));
+    }
+
+
+    private ConfigurableApplicationContext startApplication(long size) throws Exception {
+
+        Files.createDirectories(dataDirectory);
+        String url = "jdbc:h2:file:" + dataDirectory.resolve("customers-" + size) + ";MODE=PostgreSQL";
+
+        return new SpringApplicationBuilder(CustomerApiApplication.class)
+                .initializers(context -> context.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+                    @Override
+                    public Object postProcessAfterInitialization(Object bean, String beanName) {
+                        return bean instanceof DataSource dataSource && !(bean instanceof RecordingDataSource)
+                                ? new RecordingDataSource(dataSource)
+                                : bean;
+                    }
+                }))
+                // command line arguments take precedence over application.yaml and application-test.yaml
+                .run("--server.port=0", "--spring.profiles.active=test", "--spring.datasource.url=" + url);
+    }
+
+    private void ensureDataset(DataSource dataSource, long size) throws Exception {
+
+        long existingRows;
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM customers")) {
+
+            resultSet.next();
+            existingRows = resultSet.getLong(1);
+        }
+
+        if (existingRows != size) {
+            System.out.printf("Loading %,d customers (found %,d)%n", size, existingRows);
+            new CustomerDatasetLoader(dataSource)
+                    .load(new CustomerDatasetGenerator(42), size, CustomerDatasetLoader.Strategy.BATCH, 0, true);
+        }
+    }
+
+    private ShapeMeasurement measure(CustomerService customerService, DataSource dataSource, SearchShape shape, long size)
+            throws Exception {
+
+        for (int i = 0; i < warmup; i++) {
+            customerService.getAllCustomersUsingPagination(shape.toCriteria());
+        }
+
+        long[] latencies = new long[iterations];
+        List<RecordedStatement> statements = List.of();
+        long totalElements = 0;
+
+        for (int i = 0; i < iterations; i++) {
+
+            boolean last = i == iterations - 1;
+            if (last) {
+                RecordingDataSource.startRecording();
+            }
+
+            long startNanos = System.nanoTime();
+            Page<CustomerDTO> page = customerService.getAllCustomersUsingPagination(shape.toCriteria());
+            latencies[i] = System.nanoTime() - startNanos;
+
+            if (last) {
+                statements = RecordingDataSource.stopRecording();
+                totalElements = page.getTotalElements();
+            }
+        }
+
+        Arrays.sort(latencies);
+
+        List<ExplainedStatement> explained = new ArrayList<>();
+        for (RecordedStatement statement : statements) {
+            explained.add(explain(dataSource, statement));
+        }
+
+        return new ShapeMeasurement(size,
+                latencies[latencies.length / 2] / 1_000_000d,
+                latencies[latencies.length - 1] / 1_000_000d,
+                totalElements,
+                explained);
+    }
+
+    private ExplainedStatement explain(DataSource dataSource, RecordedStatement recordedStatement) throws Exception {
+
+        StringBuilder plan = new StringBuilder();
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN ANALYZE " + recordedStatement.sql())) {
+
+            recordedStatement.bind(statement);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1)).append('\n');
+                }
+            }
+        }
+
+        long rowsScanned = 0;
+        Matcher matcher = SCAN_COUNT.matcher(plan);
+        while (matcher.find()) {
+            rowsScanned += Long.parseLong(matcher.group(1));
+        }
+
+        return new ExplainedStatement(recordedStatement.sql(),
+                recordedStatement.bindings().stream().map(Object::toString).toList(),
+                plan.toString().trim(),
+                rowsScanned,
+                plan.indexOf("tableScan") >= 0);
+    }
+
+
+    public record ExplainedStatement(String sql, List<String> parameters, String plan, long rowsScanned, boolean tableScan) {
+    }
+
+    public record ShapeMeasurement(long size, double p50Millis, double maxMillis, long totalElements,
+                                   List<ExplainedStatement> statements) {
+
+        public long rowsScanned() {
+            return statements.stream().mapToLong(ExplainedStatement::rowsScanned).sum();
+        }
+
+        public boolean tableScan() {
+            return statements.stream().anyMatch(ExplainedStatement::tableScan);
+        }
+    }
+
+}
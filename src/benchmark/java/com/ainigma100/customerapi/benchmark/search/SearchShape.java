@@ -0,0 +1,108 @@
+package com.ainigma100.customerapi.benchmark.search;
+
+import com.ainigma100.customerapi.dto.CustomerSearchCriteriaDTO;
+import com.ainigma100.customerapi.utils.SortItem;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * One search request shape: which {@link CustomerSearchCriteriaDTO} filters are set, how the result is sorted
+ * and which page is requested.
+ *
+ * @param filters bit mask over {@link #FILTER_NAMES}
+ * @param sort    a key of {@link #SORTS}
+ * @param page    zero based page number, pages have {@link #PAGE_SIZE} rows
+ */
+public record SearchShape(int filters, String sort, int page) {
+
+    public static final int PAGE_SIZE = 20;
+
+    // the filter values match a realistic share of the generated dataset (see CustomerDatasetGenerator)
+    static final String[] FILTER_NAMES = {"firstName", "lastName", "email", "phoneNumber", "dateOfBirth"};
+    private static final String FIRST_NAME_PREFIX = "jo";
+    private static final String LAST_NAME_PREFIX = "pa";
+    private static final String EMAIL_PART = "gmail";
+    private static final String PHONE_PART = "4567";
+    private static final LocalDate DATE_OF_BIRTH = LocalDate.of(1985, 6, 15);
+
+    static final List<String> SORTS = List.of("none", "lastName", "lastName,firstName,dateOfBirth:desc");
+
+    private static final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+
+    public static List<SearchShape> all(List<String> sorts, List<Integer> pages) {
+
+        List<SearchShape> shapes = new ArrayList<>();
+
+        for (int filters = 0; filters < 1 << FILTER_NAMES.length; filters++) {
+            for (String sort : sorts) {
+                for (int page : pages) {
+                    shapes.add(new SearchShape(filters, sort, page));
+                }
+            }
+        }
+
+        return shapes;
+    }
+
+
+    public String filterName() {
+
+        StringJoiner joiner = new StringJoiner("+");
+
+        for (int i = 0; i < FILTER_NAMES.length; i++) {
+            if ((filters & (1 << i)) != 0) {
+                joiner.add(FILTER_NAMES[i]);
+            }
+        }
+
+        return joiner.length() > 0 ? joiner.toString() : "none";
+    }
+
+    public String name() {
+        return "filters=" + filterName() + " sort=" + sort + " page=" + page;
+    }
+
+    public CustomerSearchCriteriaDTO toCriteria() {
+
+        CustomerSearchCriteriaDTO criteria = new CustomerSearchCriteriaDTO();
+        criteria.setFirstName(has(0) ? FIRST_NAME_PREFIX : null);
+        criteria.setLastName(has(1) ? LAST_NAME_PREFIX : null);
+        criteria.setEmail(has(2) ? EMAIL_PART : null);
+        criteria.setPhoneNumber(has(3) ? PHONE_PART : null);
+        criteria.setDateOfBirth(has(4) ? DATE_OF_BIRTH : null);
+        criteria.setPage(page);
+        criteria.setSize(PAGE_SIZE);
+        criteria.setSortList(sortItems());
+
+        return criteria;
+    }
+
+
+    private boolean has(int filter) {
+        return (filters & (1 << filter)) != 0;
+    }
+
+    private List<SortItem> sortItems() {
+
+        if ("none".equals(sort)) {
+            return List.of();
+        }
+
+        // SortItem has no setters, build it the same way the request body is read
+        StringJoiner json = new StringJoiner(",", "[", "]");
+        for (String item : sort.split(",")) {
+            String[] fieldAndDirection = item.split(":");
+            String direction = fieldAndDirection.length > 1 ? fieldAndDirection[1].toUpperCase() : "ASC";
+            json.add("{\"field\":\"" + fieldAndDirection[0] + "\",\"direction\":\"" + direction + "\"}");
+        }
+
+        return jsonMapper.readValue(json.toString(), new TypeReference<List<SortItem>>() {});
+    }
+
+}
@@ -0,0 +1,166 @@
+package com.ainigma100.customerapi.benchmark.search;
+
+import com.ainigma100.customerapi.CustomerApiApplication;
+import com.ainigma100.customerapi.benchmark.load.ServerThreadMeter;
+import com.ainigma100.customerapi.dataset.CustomerDatasetGenerator;
+import com.ainigma100.customerapi.dataset.CustomerDatasetLoader;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares {@code POST /search} (entities, DTOs, {@code PageImpl}, {@code PagedModel}, then serialization) with
+ * {@code POST /search/stream} (each row written from the {@code ResultSet} to the generator) for growing page sizes.
+ *
+ * <p>The application is started in this JVM with the {@code test} profile and {@code stream.rows} generated customers.
+ * The requests are sent one at a time, so the CPU time and the bytes allocated by the Tomcat request threads
+ * (see {@link ServerThreadMeter}) belong to a single request. The embedded H2 database runs on the request
+ * thread as well, so its own allocations for reading the rows are part of both numbers.</p>
+ *
+ * <p>Run with: {@code ./mvnw -Pbenchmark test-compile exec:exec@stream -Dstream.page-sizes=100,1000,10000,100000}.</p>
+ */
+public class StreamingSearchComparison {
+
+    private static final List<String> ENDPOINTS = List.of("/search", "/search/stream");
+
+    private final long rows = Long.getLong("stream.rows", 200_000);
+    private final List<Integer> pageSizes = Arrays.stream(System.getProperty("stream.page-sizes", "100,1000,10000,100000").split(","))
+            .map(String::trim)
+            .map(Integer::valueOf)
+            .toList();
+    private final int warmupRequests = Integer.getInteger("stream.warmup", 3);
+    private final int requests = Integer.getInteger("stream.requests", 5);
+    private final Path resultFile = Path.of(System.getProperty("stream.result.file", "target/search-streaming.json"));
+
+
+    public static void main(String[] args) throws Exception {
+        new StreamingSearchComparison().run();
+    }
+
+
+    private void run() throws Exception {
+
+        // command line arguments take precedence over application.yaml, including the active profiles
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(CustomerApiApplication.class)
+                .run("--server.port=0", "--spring.profiles.active=test")) {
+
+            new CustomerDatasetLoader(context.getBean(DataSource.class))
+                    .load(new CustomerDatasetGenerator(42), rows, CustomerDatasetLoader.Strategy.BATCH, 0, true);
+
+            String customersUrl = "http://localhost:" + context.getEnvironment().getRequiredProperty("local.server.port")
+                    + context.getEnvironment().getProperty("server.servlet.context-path", "") + "/api/v1/customers";
+
+            HttpClient httpClient = HttpClient.newHttpClient();
+            ServerThreadMeter serverThreadMeter = new ServerThreadMeter();
+
+            if (!serverThreadMeter.isSupported()) {
+                throw new IllegalStateException("This JVM does not report the CPU time and allocations per thread");
+            }
+
+            List<Map<String, Object>> results = new ArrayList<>();
+
+            System.out.printf("%-16s %10s %12s %14s %14s %12s%n",
+                    "endpoint", "page size", "avg ms", "response bytes", "allocated MB", "cpu ms");
+
+            for (int pageSize : pageSizes) {
+                for (String endpoint : ENDPOINTS) {
+
+                    Map<String, Object> result = measure(httpClient, customersUrl + endpoint, pageSize, serverThreadMeter);
+                    result.put("endpoint", endpoint);
+                    results.add(result);
+
+                    System.out.printf("%-16s %10d %12.1f %14d %14.1f %12.1f%n",
+                            endpoint, pageSize,
+                            result.get("averageMillis"),
+                            result.get("responseBytes"),
+                            (double) result.get("allocatedBytesPerRequest") / (1024 * 1024),
+                            result.get("cpuMillisPerRequest"));
+                }
+            }
+
+            writeResult(results);
+        }
+    }
+
+    private Map<String, Object> measure(HttpClient httpClient, String url, int pageSize, ServerThreadMeter serverThreadMeter)
+            throws Exception {
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("Authorization", "Bearer user-token")
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"page\": 0, \"size\": " + pageSize
+                        + ", \"sortList\": [{\"field\": \"id\", \"direction\": \"ASC\"}]}"))
+                .build();
+
+        for (int i = 0; i < warmupRequests; i++) {
+            send(httpClient, request);
+        }
+
+        serverThreadMeter.start();
+        long startNanos = System.nanoTime();
+        long responseBytes = 0;
+
+        for (int i = 0; i < requests; i++) {
+            responseBytes = send(httpClient, request);
+        }
+
+        long elapsedNanos = System.nanoTime() - startNanos;
+        ServerThreadMeter.Usage usage = serverThreadMeter.stop();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("pageSize", pageSize);
+        result.put("requests", requests);
+        result.put("averageMillis", elapsedNanos / 1_000_000d / requests);
+        result.put("responseBytes", responseBytes);
+        result.put("allocatedBytesPerRequest", (double) usage.allocatedBytes() / requests);
+        result.put("cpuMillisPerRequest", usage.cpuNanos() / 1_000_000d / requests);
+
+        return result;
+    }
+
+    private static long send(HttpClient httpClient, HttpRequest request) throws Exception {
+
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Search failed with status " + response.statusCode() + ": "
+                    + new String(response.body()));
+        }
+
+        return response.body().length;
+    }
+
+    private void writeResult(List<Map<String, Object>> results) throws Exception {
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("rows", rows);
+        result.put("results", results);
+
+        if (resultFile.getParent() != null) {
+            Files.createDirectories(resultFile.getParent());
+        }
+
+        JsonMapper.builder()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .build()
+                .writeValue(resultFile.toFile(), result);
+
+        System.out.printf("Result written to %s%n", resultFile.toAbsolutePath());
+    }
+
+}
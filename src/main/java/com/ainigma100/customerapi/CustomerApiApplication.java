@@ -1,13 +1,20 @@
 package com.ainigma100.customerapi;
 
+import com.ainigma100.customerapi.startup.StartupTimelineReport;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.r2dbc.autoconfigure.R2dbcAutoConfiguration;
 
-@SpringBootApplication
+// R2DBC is only used by the reactive variant (ReactiveCustomerApiApplication), its transaction manager would compete
+// with the JPA one here
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 public class CustomerApiApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(CustomerApiApplication.class, args);
+
+        SpringApplication application = new SpringApplication(CustomerApiApplication.class);
+        application.addListeners(new StartupTimelineReport());
+        application.run(args);
     }
 
 }
@@ -0,0 +1,167 @@
+package com.ainigma100.customerapi.config;
+
+import com.ainigma100.customerapi.datasource.ConnectionHoldTimeDataSource;
+import com.ainigma100.customerapi.datasource.PostgresReplicationPosition;
+import com.ainigma100.customerapi.datasource.ReadWriteRoutingDataSource;
+import com.ainigma100.customerapi.datasource.ReadWriteRoutingProperties;
+import com.ainigma100.customerapi.datasource.ReplicaDataSources;
+import com.ainigma100.customerapi.datasource.ReplicaHealthCheck;
+import com.ainigma100.customerapi.datasource.ReplicationPosition;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+public class DataSourceConfig {
+
+
+    /**
+     * Decorates the application DataSource so the connection hold time can be measured per request.
+     * The bean post processor is static so it does not force the early creation of this configuration class.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "customer-api.datasource.hold-time-tracking.enabled", havingValue = "true", matchIfMissing = true)
+    public static BeanPostProcessor connectionHoldTimeDataSourcePostProcessor() {
+
+        return new BeanPostProcessor() {
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConnectionHoldTimeDataSource)) {
+                    return new ConnectionHoldTimeDataSource(dataSource);
+                }
+
+                return bean;
+            }
+        };
+    }
+
+
+    /**
+     * On virtual threads nothing in front of the pool bounds the waiting requests any more, so they wait for a
+     * connection for {@code customer-api.virtual-threads.connection-timeout} instead of Hikari's 30 s, unless
+     * {@code spring.datasource.hikari.connection-timeout} is set. Runs after the Hikari properties are bound.
+     */
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public static BeanPostProcessor virtualThreadConnectionTimeoutPostProcessor(Environment environment) {
+
+        // bound rather than injected, a post processor is created before the conversion service may be set up
+        Duration connectionTimeout = Binder.get(environment)
+                .bind("customer-api.virtual-threads.connection-timeout", Duration.class)
+                .orElse(Duration.ofSeconds(5));
+
+        return new BeanPostProcessor() {
+
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+
+                if (bean instanceof HikariDataSource hikariDataSource
+                        && !environment.containsProperty("spring.datasource.hikari.connection-timeout")) {
+                    hikariDataSource.setConnectionTimeout(connectionTimeout.toMillis());
+                }
+
+                return bean;
+            }
+        };
+    }
+
+
+    /**
+     * Sends the read-only transactions to the replicas of {@code customer-api.datasource.routing} and everything
+     * else to the auto-configured primary DataSource, see {@link ReadWriteRoutingDataSource}.
+     */
+    @Configuration
+    @ConditionalOnProperty(name = "customer-api.datasource.routing.enabled", havingValue = "true")
+    @EnableConfigurationProperties(ReadWriteRoutingProperties.class)
+    public static class ReadWriteRoutingConfiguration {
+
+        @Bean
+        public ReplicaDataSources replicaDataSources(ReadWriteRoutingProperties properties,
+                                                     ObjectProvider<ReplicationPosition> replicationPosition,
+                                                     @Value("${spring.liquibase.change-log}") String changeLog,
+                                                     ResourceLoader resourceLoader, MeterRegistry meterRegistry) {
+
+            return new ReplicaDataSources(properties.getReplicas(),
+                    properties.getReadYourWrites().isEnabled()
+                            ? replicationPosition.getIfAvailable(PostgresReplicationPosition::new)
+                            : null,
+                    changeLog, resourceLoader, meterRegistry);
+        }
+
+        @Bean
+        public ReplicaHealthCheck replicaHealthCheck(ReplicaDataSources replicaDataSources,
+                                                     ReadWriteRoutingProperties properties) {
+            return new ReplicaHealthCheck(replicaDataSources, properties.getHealthCheck());
+        }
+
+        /**
+         * With open-in-view the session would otherwise keep the connection of its first transaction, a replica one
+         * included, until the response has been written. Every transaction has to choose a connection of its own.
+         */
+        @Bean
+        public HibernatePropertiesCustomizer connectionReleaseAfterTransactionCustomizer() {
+
+            return hibernateProperties -> hibernateProperties.put(AvailableSettings.CONNECTION_HANDLING,
+                    PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+        }
+
+        @Bean
+        public static ReadWriteRoutingPostProcessor readWriteRoutingPostProcessor(
+                ObjectProvider<ReplicaDataSources> replicaDataSources, ObjectProvider<MeterRegistry> meterRegistry) {
+            return new ReadWriteRoutingPostProcessor(replicaDataSources, meterRegistry);
+        }
+    }
+
+
+    /**
+     * Ordered, so it runs before the hold-time post processor, which keeps decorating the outermost DataSource.
+     */
+    static class ReadWriteRoutingPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<ReplicaDataSources> replicaDataSources;
+        private final ObjectProvider<MeterRegistry> meterRegistry;
+
+        ReadWriteRoutingPostProcessor(ObjectProvider<ReplicaDataSources> replicaDataSources,
+                                      ObjectProvider<MeterRegistry> meterRegistry) {
+            this.replicaDataSources = replicaDataSources;
+            this.meterRegistry = meterRegistry;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+
+            if (bean instanceof DataSource dataSource && !(bean instanceof LazyConnectionDataSourceProxy)) {
+                return ReadWriteRoutingDataSource.wrap(dataSource, replicaDataSources.getObject(), meterRegistry.getObject());
+            }
+
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+
+}
@@ -1,11 +1,56 @@
 package com.ainigma100.customerapi.config;
 
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.web.config.EnableSpringDataWebSupport;
+import org.springframework.http.converter.HttpMessageConverters;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.http.converter.smile.JacksonSmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import tools.jackson.databind.JacksonModule;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
 
+/**
+ * Besides JSON, the API can read and write the binary {@code application/cbor} and {@code application/x-jackson-smile}
+ * encodings, selected with the {@code Content-Type} and {@code Accept} headers. JSON is registered first, so it
+ * stays the default when a client does not ask for a specific encoding.
+ *
+ * <p>Spring would otherwise create the binary converters with default mappers, without the Jackson modules of the
+ * application context, and a {@code Page} would not be written as a {@code PagedModel} (VIA_DTO) in those encodings.</p>
+ */
+@RequiredArgsConstructor
 @Configuration
 @EnableSpringDataWebSupport(
         pageSerializationMode = EnableSpringDataWebSupport.PageSerializationMode.VIA_DTO
 )
-public class JacksonConfig {
+public class JacksonConfig implements WebMvcConfigurer {
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+
+    private final CBORMapper cborMapper;
+    private final SmileMapper smileMapper;
+
+
+    /**
+     * Spring Boot only auto-configures the {@link CBORMapper}, the Smile mapper is built with the same modules.
+     */
+    @Bean
+    public static SmileMapper smileMapper(ObjectProvider<JacksonModule> modules) {
+
+        return SmileMapper.builder()
+                .addModules(modules.orderedStream().toList())
+                .build();
+    }
+
+    @Override
+    public void configureMessageConverters(HttpMessageConverters.ServerBuilder builder) {
+
+        builder.withCborConverter(new JacksonCborHttpMessageConverter(cborMapper))
+                .withSmileConverter(new JacksonSmileHttpMessageConverter(smileMapper));
+    }
+
 }
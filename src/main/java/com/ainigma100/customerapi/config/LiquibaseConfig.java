@@ -0,0 +1,146 @@
+package com.ainigma100.customerapi.config;
+
+import com.ainigma100.customerapi.enums.LiquibaseMode;
+import liquibase.Contexts;
+import liquibase.LabelExpression;
+import liquibase.Liquibase;
+import liquibase.changelog.ChangeSet;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.LiquibaseException;
+import liquibase.integration.spring.SpringLiquibase;
+import liquibase.integration.spring.SpringResourceAccessor;
+import liquibase.snapshot.SnapshotGeneratorFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.BeanInitializationException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Applies {@code customer-api.liquibase.mode} to the auto-configured Liquibase bean.
+ *
+ * <p>The mode is read when the beans are created, not with conditions, so an image built with the Spring AOT
+ * processing can run as the init job and as a replica alike.</p>
+ */
+@Slf4j
+@Configuration
+public class LiquibaseConfig {
+
+    private static final String MODE = "customer-api.liquibase.mode";
+
+
+    /**
+     * Static, so it is in place before the Liquibase bean is created.
+     */
+    @Bean
+    public static BeanPostProcessor liquibaseModePostProcessor(Environment environment) {
+        return new LiquibaseModePostProcessor(mode(environment));
+    }
+
+    /**
+     * In the {@code migrate-only} mode the change log has been applied while the context was refreshed, what is
+     * left is to exit. Before the other runners, e.g. the warm-up.
+     */
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public ApplicationRunner migrateOnlyRunner(ConfigurableApplicationContext context, Environment environment) {
+
+        return args -> {
+            if (mode(environment) == LiquibaseMode.MIGRATE_ONLY) {
+                log.info("The database is migrated, exiting ({}=migrate-only)", MODE);
+                System.exit(SpringApplication.exit(context, () -> 0));
+            }
+        };
+    }
+
+
+    // bound like a configuration property, so migrate-only works as well as MIGRATE_ONLY
+    private static LiquibaseMode mode(Environment environment) {
+        return Binder.get(environment).bind(MODE, LiquibaseMode.class).orElse(LiquibaseMode.MIGRATE);
+    }
+
+
+    static class LiquibaseModePostProcessor implements BeanPostProcessor {
+
+        private final LiquibaseMode mode;
+
+        LiquibaseModePostProcessor(LiquibaseMode mode) {
+            this.mode = mode;
+        }
+
+        @Override
+        public Object postProcessBeforeInitialization(Object bean, String beanName) {
+
+            if (bean instanceof SpringLiquibase liquibase && (mode == LiquibaseMode.VALIDATE || mode == LiquibaseMode.NONE)) {
+
+                liquibase.setShouldRun(false);
+
+                if (mode == LiquibaseMode.VALIDATE) {
+                    checkAllChangeSetsApplied(liquibase, beanName);
+                }
+            }
+
+            return bean;
+        }
+
+
+        /**
+         * Reads the change log and the {@code DATABASECHANGELOG} table, without the lock and without creating the
+         * Liquibase tables. A missing change set means the migration has not run yet, or was made for another version.
+         */
+        private static void checkAllChangeSetsApplied(SpringLiquibase springLiquibase, String beanName) {
+
+            try (Connection connection = springLiquibase.getDataSource().getConnection()) {
+
+                Database database = DatabaseFactory.getInstance()
+                        .findCorrectDatabaseImplementation(new JdbcConnection(connection));
+
+                // listing the change sets would create the table
+                if (!SnapshotGeneratorFactory.getInstance().hasDatabaseChangeLogTable(database)) {
+                    throw new BeanInitializationException(String.format(
+                            "The database has not been migrated, the %s table does not exist."
+                                    + " Run the migration first (%s=migrate-only)",
+                            database.getDatabaseChangeLogTableName(), MODE));
+                }
+
+                Liquibase liquibase = new Liquibase(springLiquibase.getChangeLog(),
+                        new SpringResourceAccessor(springLiquibase.getResourceLoader()), database);
+
+                List<ChangeSet> unrunChangeSets = liquibase.listUnrunChangeSets(
+                        new Contexts(springLiquibase.getContexts()),
+                        new LabelExpression(springLiquibase.getLabelFilter()),
+                        false);
+
+                if (!unrunChangeSets.isEmpty()) {
+                    throw new BeanInitializationException(String.format(
+                            "The database schema is behind the change log, %d change set(s) have not been applied: %s."
+                                    + " Run the migration first (%s=migrate-only)",
+                            unrunChangeSets.size(),
+                            unrunChangeSets.stream().map(ChangeSet::toString).collect(Collectors.joining(", ")),
+                            MODE));
+                }
+
+                log.info("The database schema is up to date with {}, Liquibase did not run ({}=validate)",
+                        springLiquibase.getChangeLog(), MODE);
+
+            } catch (SQLException | LiquibaseException ex) {
+                throw new BeanInitializationException("Could not check the database schema of " + beanName, ex);
+            }
+        }
+    }
+
+}
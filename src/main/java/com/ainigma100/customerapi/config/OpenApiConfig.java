@@ -6,35 +6,23 @@ import io.swagger.v3.oas.models.info.Info;
 import io.swagger.v3.oas.models.security.SecurityRequirement;
 import io.swagger.v3.oas.models.security.SecurityScheme;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringBootVersion;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.context.annotation.Profile;
 import org.springframework.core.env.Environment;
-import org.springframework.web.client.RestClient;
-import tools.jackson.core.JacksonException;
-import tools.jackson.databind.JsonNode;
-import tools.jackson.databind.SerializationFeature;
-import tools.jackson.databind.json.JsonMapper;
-
-import java.io.File;
-import java.net.InetAddress;
-import java.net.UnknownHostException;
+
 import java.util.Optional;
 
 /**
- * Configuration class for generating OpenAPI documentation.
+ * Configuration class for the OpenAPI documentation.
  *
- * <p>This class configures and generates the OpenAPI documentation for the application
- * using the springdoc-openapi library. It automatically generates and formats the OpenAPI
- * JSON file based on the application's REST endpoints. The generated JSON file is then
- * stored in the root directory of the project for easy access and reference.</p>
+ * <p>This class configures the OpenAPI documentation that the springdoc-openapi library builds from the
+ * application's REST endpoints. springdoc only scans the controllers on the first request to {@code /v3/api-docs}.
+ * The JSON file is generated at build time by {@link OpenApiSpecGenerator} and served by the
+ * {@code OpenApiSpecController}, so a regular start does none of this work.</p>
  */
 @RequiredArgsConstructor
-@Slf4j
 @Configuration
 public class OpenApiConfig {
 
@@ -42,15 +30,6 @@ public class OpenApiConfig {
     private final Environment environment;
 
 
-    @Value("${server.port:8080}")
-    private int serverPort;
-
-    @Value("${openapi.output.file:openapi-default.json}")
-    private String outputFileName;
-
-    @Value("${spring.application.name:@project.name@}")
-    private String appName;
-
     @Value("${springdoc.version:1.0}")
     private String documentationVersion;
 
@@ -94,88 +73,4 @@ public class OpenApiConfig {
 
     }
 
-
-    @Bean
-    @Profile("!test & !prod")
-    public CommandLineRunner generateOpenApiJson() {
-
-        String serverSslKeyStore = "server.ssl.key-store";
-        String serverServletContextPath = "server.servlet.context-path";
-
-
-        return args -> {
-            String protocol = Optional.ofNullable(environment.getProperty(serverSslKeyStore)).map(key -> "https").orElse("http");
-            String host = getServerIP();
-            String contextPath = Optional.ofNullable(environment.getProperty(serverServletContextPath)).orElse("");
-
-            // Define the API docs URL
-            String apiDocsUrl = String.format("%s://%s:%d%s/v3/api-docs", protocol, host, serverPort, contextPath);
-
-            log.info("Attempting to fetch OpenAPI docs from URL: {}", apiDocsUrl);
-
-            try {
-                // Create RestClient instance
-                RestClient restClient = RestClient.create();
-
-                // Fetch the OpenAPI JSON
-                String response = restClient.get()
-                        .uri(apiDocsUrl)
-                        .retrieve()
-                        .body(String.class);
-
-                // Delete all previous Swagger files in the root directory before saving the new one
-                deletePreviousSwaggerFiles();
-
-                // Format and save the JSON to a file
-                formatAndSaveToFile(response, outputFileName);
-
-                log.info("OpenAPI documentation generated successfully at {}", outputFileName);
-
-            } catch (Exception e) {
-                log.error("Failed to generate OpenAPI documentation from URL: {}", apiDocsUrl, e);
-            }
-        };
-    }
-
-    private String getServerIP() {
-        try {
-            return InetAddress.getLocalHost().getHostAddress();
-        } catch (UnknownHostException e) {
-            log.error("Error resolving host address", e);
-            return "unknown";
-        }
-    }
-
-    private void formatAndSaveToFile(String content, String fileName) {
-        try {
-            // Jackson 3: build a pretty-printing JsonMapper via the builder
-            JsonMapper jsonMapper = JsonMapper.builder()
-                    .enable(SerializationFeature.INDENT_OUTPUT)
-                    .build();
-
-            // Read the JSON content as a JsonNode
-            JsonNode jsonNode = jsonMapper.readTree(content);
-
-            // Write the formatted JSON to a file
-            jsonMapper.writeValue(new File(fileName), jsonNode);
-
-        } catch (JacksonException e) {
-            log.error("Error while saving JSON to file", e);
-        }
-    }
-
-    private void deletePreviousSwaggerFiles() {
-
-        File rootDir = new File(System.getProperty("user.dir"));
-        File[] swaggerFiles = rootDir.listFiles((dir, name) -> name.startsWith("openapi-") && name.endsWith(".json"));
-
-        if (swaggerFiles != null) {
-            for (File file : swaggerFiles) {
-                if (file.getName().contains(appName) && file.delete()) {
-                    log.info("Deleted old OpenAPI file: {}", file.getName());
-                }
-            }
-        }
-    }
-
-}
\ No newline at end of file
+}
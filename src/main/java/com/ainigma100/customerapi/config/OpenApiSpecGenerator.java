@@ -0,0 +1,100 @@
+package com.ainigma100.customerapi.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The generation mode of the OpenAPI file, started with {@code customer-api.openapi.generate.enabled=true}, e.g. by
+ * the {@code openapi} Maven profile. It reads the spec from the springdoc endpoint of this instance, writes it
+ * formatted to {@code openapi.output.file} and stops the application.
+ *
+ * <p>The generated server url of springdoc points to this short-lived instance. It is replaced by the context path,
+ * a relative url, which clients resolve against the address they loaded the file from.</p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "customer-api.openapi.generate.enabled", havingValue = "true")
+public class OpenApiSpecGenerator implements ApplicationRunner {
+
+    private final ConfigurableApplicationContext context;
+    private final Environment environment;
+    private final Path outputFile;
+
+
+    public OpenApiSpecGenerator(ConfigurableApplicationContext context, Environment environment,
+                                @Value("${openapi.output.file:openapi-default.json}") Path outputFile) {
+        this.context = context;
+        this.environment = environment;
+        this.outputFile = outputFile;
+    }
+
+
+    @Override
+    public void run(ApplicationArguments args) {
+
+        int exitCode;
+
+        try {
+            this.writeSpec(outputFile);
+            log.info("OpenAPI documentation generated successfully at {}", outputFile.toAbsolutePath());
+            exitCode = 0;
+
+        } catch (IOException | RuntimeException ex) {
+            log.error("Failed to generate the OpenAPI documentation", ex);
+            exitCode = 1;
+        }
+
+        int status = exitCode;
+        System.exit(SpringApplication.exit(context, () -> status));
+    }
+
+
+    /**
+     * Fetches the spec from the running application and writes it to the file.
+     */
+    public void writeSpec(Path file) throws IOException {
+
+        String contextPath = environment.getProperty("server.servlet.context-path", "");
+        String apiDocsUrl = String.format("http://localhost:%s%s%s",
+                environment.getRequiredProperty("local.server.port"),
+                contextPath,
+                environment.getProperty("springdoc.api-docs.path", "/v3/api-docs"));
+
+        log.info("Fetching the OpenAPI docs from {}", apiDocsUrl);
+
+        String spec = RestClient.create().get()
+                .uri(apiDocsUrl)
+                .retrieve()
+                .body(String.class);
+
+        JsonMapper jsonMapper = JsonMapper.builder()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .build();
+
+        ObjectNode openApi = (ObjectNode) jsonMapper.readTree(spec);
+        openApi.putArray("servers").addObject().put("url", contextPath.isEmpty() ? "/" : contextPath);
+
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        jsonMapper.writeValue(file.toFile(), openApi);
+    }
+
+}
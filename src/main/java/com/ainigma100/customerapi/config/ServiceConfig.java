@@ -0,0 +1,45 @@
+package com.ainigma100.customerapi.config;
+
+import com.ainigma100.customerapi.repository.CustomerJdbcRepository;
+import com.ainigma100.customerapi.service.MultiGetProperties;
+import com.ainigma100.customerapi.service.concurrency.BatchLoaderProperties;
+import com.ainigma100.customerapi.service.concurrency.CustomerBatchLoader;
+import com.ainigma100.customerapi.service.concurrency.CustomerSingleFlight;
+import com.ainigma100.customerapi.service.concurrency.ParallelPageQuery;
+import com.ainigma100.customerapi.service.concurrency.ParallelSearchProperties;
+import com.ainigma100.customerapi.service.concurrency.SingleFlightProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * How the service runs its queries. The beans are always there, their settings are read on every call.
+ */
+@Configuration
+@EnableConfigurationProperties({ParallelSearchProperties.class, SingleFlightProperties.class, BatchLoaderProperties.class,
+        MultiGetProperties.class})
+public class ServiceConfig {
+
+    @Bean
+    public ParallelPageQuery parallelPageQuery(ParallelSearchProperties properties,
+                                               PlatformTransactionManager transactionManager,
+                                               MeterRegistry meterRegistry) {
+        return new ParallelPageQuery(properties, transactionManager, meterRegistry);
+    }
+
+    @Bean
+    public CustomerSingleFlight customerSingleFlight(SingleFlightProperties properties, MeterRegistry meterRegistry) {
+        return new CustomerSingleFlight(properties, meterRegistry);
+    }
+
+    @Bean
+    public CustomerBatchLoader customerBatchLoader(BatchLoaderProperties properties,
+                                                   CustomerJdbcRepository customerJdbcRepository,
+                                                   PlatformTransactionManager transactionManager,
+                                                   MeterRegistry meterRegistry) {
+        return new CustomerBatchLoader(properties, customerJdbcRepository, transactionManager, meterRegistry);
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.ainigma100.customerapi.config;
+
+import com.ainigma100.customerapi.repository.CustomerShards;
+import com.ainigma100.customerapi.repository.ShardedCustomerJdbcRepository;
+import com.ainigma100.customerapi.repository.ShardedCustomerRepository;
+import com.ainigma100.customerapi.repository.ShardingProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.ResourceLoader;
+
+import javax.sql.DataSource;
+
+/**
+ * Stores the customers on the shards of {@code customer-api.sharding} instead of {@code spring.datasource}. The
+ * sharded repositories are {@link Primary}, so they are the ones the service gets.
+ */
+@Configuration
+@ConditionalOnProperty(name = "customer-api.sharding.enabled", havingValue = "true")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    @Bean
+    public CustomerShards customerShards(ShardingProperties properties,
+                                         @Value("${spring.liquibase.change-log}") String changeLog,
+                                         ResourceLoader resourceLoader, MeterRegistry meterRegistry) {
+        return new CustomerShards(properties, changeLog, resourceLoader, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public ShardedCustomerJdbcRepository shardedCustomerJdbcRepository(DataSource dataSource, CustomerShards customerShards) {
+        return new ShardedCustomerJdbcRepository(dataSource, customerShards);
+    }
+
+    @Bean
+    @Primary
+    public ShardedCustomerRepository shardedCustomerRepository(DataSource dataSource,
+                                                               ShardedCustomerJdbcRepository shardedCustomerJdbcRepository) {
+        return new ShardedCustomerRepository(dataSource, shardedCustomerJdbcRepository);
+    }
+
+}
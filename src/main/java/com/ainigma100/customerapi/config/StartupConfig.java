@@ -0,0 +1,42 @@
+package com.ainigma100.customerapi.config;
+
+import com.ainigma100.customerapi.CustomerApiApplication;
+import com.ainigma100.customerapi.startup.AotProfilesCheck;
+import com.ainigma100.customerapi.startup.WarmUpProperties;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration
+@EnableConfigurationProperties(WarmUpProperties.class)
+public class StartupConfig {
+
+
+    /**
+     * With {@code spring.main.lazy-initialization=true} the beans of this application stay eager, so the controllers,
+     * services, repositories and filters, with the DataSource, Liquibase and Hibernate they depend on, are ready
+     * before the first request. Everything only some requests need is created on first use.
+     * Static, so the lazy initialization post processor finds it without creating this configuration class.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter applicationBeansLazyInitializationExcludeFilter() {
+
+        String applicationPackage = CustomerApiApplication.class.getPackageName() + ".";
+
+        return (beanName, beanDefinition, beanType) ->
+                beanType != null && beanType.getName().startsWith(applicationPackage);
+    }
+
+
+    /**
+     * Fails a start with {@code -Dspring.aot.enabled=true} under other profiles than the AOT build's.
+     * Static, like every post processor of the bean definitions.
+     */
+    @Bean
+    public static AotProfilesCheck aotProfilesCheck(Environment environment) {
+        return new AotProfilesCheck(environment);
+    }
+
+}
@@ -1,24 +1,32 @@
 package com.ainigma100.customerapi.controller;
 
 
+import com.ainigma100.customerapi.config.JacksonConfig;
 import com.ainigma100.customerapi.dto.*;
+import com.ainigma100.customerapi.enums.CustomerField;
 import com.ainigma100.customerapi.enums.Status;
 import com.ainigma100.customerapi.mapper.CustomerMapper;
 import com.ainigma100.customerapi.service.CustomerService;
+import com.ainigma100.customerapi.utils.annotation.ValidCustomerFields;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
+import java.util.List;
+import java.util.Map;
 
 @RequiredArgsConstructor
-@RequestMapping("/api/v1/customers")
+// JSON stays the default, the binary encodings are selected with the Accept and Content-Type headers
+@RequestMapping(value = "/api/v1/customers",
+        produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
 @RestController
 public class CustomerController {
 
@@ -27,7 +35,7 @@ public class CustomerController {
 
 
     @Operation(summary = "Add a new customer")
-    @PostMapping
+    @PostMapping(consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
     public ResponseEntity<APIResponse<CustomerDTO>> createCustomer(
             @Valid @RequestBody CustomerRequestDTO customerRequestDTO,
             UriComponentsBuilder uriComponentsBuilder) {
@@ -72,8 +80,50 @@ public class CustomerController {
     }
 
 
+    @Operation(summary = "Find customer fields by ID",
+            description = "Returns only the requested fields of a single customer, e.g. ?fields=id,email")
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<APIResponse<Map<String, Object>>> getCustomerFieldsById(
+            @PathVariable("id") Long id,
+            @RequestParam("fields") @ValidCustomerFields List<String> fields) {
+
+        Map<String, Object> result = customerService.getCustomerFieldsById(id, CustomerField.setOf(fields));
+
+        // Builder Design pattern
+        APIResponse<Map<String, Object>> responseDTO = APIResponse
+                .<Map<String, Object>>builder()
+                .status(Status.SUCCESS.getValue())
+                .results(result)
+                .build();
+
+
+        return new ResponseEntity<>(responseDTO, HttpStatus.OK);
+
+    }
+
+
+    @Operation(summary = "Find customers by a list of IDs",
+            description = "Returns the customers in the order of the IDs, each once, and the IDs that were not found. "
+                    + "Fetched with one query instead of one request per customer")
+    @PostMapping(value = "/by-ids", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<APIResponse<CustomersByIdsDTO>> getCustomersByIds(
+            @Valid @RequestBody CustomerIdsRequestDTO customerIdsRequestDTO) {
+
+        CustomersByIdsDTO result = customerService.getCustomersByIds(customerIdsRequestDTO.getIds());
+
+        // Builder Design pattern
+        APIResponse<CustomersByIdsDTO> responseDTO = APIResponse
+                .<CustomersByIdsDTO>builder()
+                .status(Status.SUCCESS.getValue())
+                .results(result)
+                .build();
+
+        return new ResponseEntity<>(responseDTO, HttpStatus.OK);
+    }
+
+
     @Operation(summary = "Update an existing customer")
-    @PutMapping("/{id}")
+    @PutMapping(value = "/{id}", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
     public ResponseEntity<APIResponse<CustomerDTO>> updateCustomer(
             @PathVariable("id") Long id,
             @Valid @RequestBody CustomerRequestDTO customerRequestDTO) {
@@ -95,7 +145,7 @@ public class CustomerController {
     }
 
     @Operation(summary = "Partially update a customer's email")
-    @PatchMapping("/{id}/email")
+    @PatchMapping(value = "/{id}/email", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
     public ResponseEntity<APIResponse<CustomerDTO>> updateCustomerEmail(
             @PathVariable("id") Long id,
             @Valid @RequestBody CustomerEmailUpdateDTO emailUpdateDTO) {
@@ -136,16 +186,44 @@ public class CustomerController {
 
 
     @Operation(summary = "Search customers with pagination",
-            description = "Returns a paginated list of customers based on the search criteria")
-    @PostMapping("/search")
-    public ResponseEntity<APIResponse<Page<CustomerDTO>>> getAllCustomersUsingPagination(
+            description = "Returns a paginated list of customers based on the search criteria, "
+                    + "limited to the requested fields when there are any")
+    @PostMapping(value = "/search", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<APIResponse<Page<?>>> getAllCustomersUsingPagination(
+            @Valid @RequestBody CustomerSearchCriteriaDTO customerSearchCriteriaDTO) {
+
+        List<String> fields = customerSearchCriteriaDTO.getFields();
+
+        Page<?> result = fields == null || fields.isEmpty()
+                ? customerService.getAllCustomersUsingPagination(customerSearchCriteriaDTO)
+                : customerService.getAllCustomerFieldsUsingPagination(customerSearchCriteriaDTO);
+
+        // Builder Design pattern
+        APIResponse<Page<?>> responseDTO = APIResponse
+                .<Page<?>>builder()
+                .status(Status.SUCCESS.getValue())
+                .results(result)
+                .build();
+
+        return new ResponseEntity<>(responseDTO, HttpStatus.OK);
+    }
+
+
+    @Operation(summary = "Search customers with pagination, streaming the rows",
+            description = "Same request and response as the search, but each row is written from the database result "
+                    + "straight to the response, without building the page in memory first. The count is taken before "
+                    + "the rows are read, in a transaction of its own, so page.totalElements can differ from the rows "
+                    + "when customers are added or deleted in between. A database error while the rows are written "
+                    + "closes the connection before the end of the body")
+    @PostMapping(value = "/search/stream", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<APIResponse<CustomerPageStream>> streamAllCustomersUsingPagination(
             @Valid @RequestBody CustomerSearchCriteriaDTO customerSearchCriteriaDTO) {
 
-        Page<CustomerDTO> result = customerService.getAllCustomersUsingPagination(customerSearchCriteriaDTO);
+        CustomerPageStream result = customerService.streamAllCustomersUsingPagination(customerSearchCriteriaDTO);
 
         // Builder Design pattern
-        APIResponse<Page<CustomerDTO>> responseDTO = APIResponse
-                .<Page<CustomerDTO>>builder()
+        APIResponse<CustomerPageStream> responseDTO = APIResponse
+                .<CustomerPageStream>builder()
                 .status(Status.SUCCESS.getValue())
                 .results(result)
                 .build();
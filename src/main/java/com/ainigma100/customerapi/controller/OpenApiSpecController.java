@@ -0,0 +1,99 @@
+package com.ainigma100.customerapi.controller;
+
+import io.swagger.v3.oas.annotations.Hidden;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+
+/**
+ * Serves the OpenAPI file generated at build time (see {@code OpenApiSpecGenerator}), which Swagger UI loads
+ * instead of the springdoc endpoint. The file is read on the first request and kept as a byte array, with an
+ * {@code ETag} so clients can revalidate it with {@code If-None-Match}.
+ *
+ * <p>Without a generated file, e.g. when started from the IDE, it redirects to springdoc, which then scans the
+ * controllers on that first request.</p>
+ */
+@Hidden
+@RestController
+public class OpenApiSpecController {
+
+    private final Resource specLocation;
+    private final String apiDocsPath;
+
+    private volatile Spec spec;
+
+    private record Spec(byte[] body, String eTag) {
+    }
+
+
+    public OpenApiSpecController(@Value("${customer-api.openapi.spec-location:classpath:openapi/openapi.json}") Resource specLocation,
+                                 @Value("${springdoc.api-docs.path:/v3/api-docs}") String apiDocsPath) {
+        this.specLocation = specLocation;
+        this.apiDocsPath = apiDocsPath;
+    }
+
+
+    @GetMapping(value = "/api-docs/openapi.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getOpenApiSpec(WebRequest webRequest, HttpServletRequest request) {
+
+        if (!specLocation.exists()) {
+            return ResponseEntity.status(302)
+                    .location(URI.create(request.getContextPath() + apiDocsPath))
+                    .build();
+        }
+
+        Spec current = this.loadSpec();
+
+        if (webRequest.checkNotModified(current.eTag())) {
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .eTag(current.eTag())
+                .cacheControl(CacheControl.noCache())
+                .body(current.body());
+    }
+
+
+    /**
+     * Reads the generated file ahead of the first request, see {@code ApplicationWarmUp}.
+     */
+    public void preload() {
+
+        if (specLocation.exists()) {
+            this.loadSpec();
+        }
+    }
+
+
+    private Spec loadSpec() {
+
+        Spec current = spec;
+
+        if (current == null) {
+            try (InputStream inputStream = specLocation.getInputStream()) {
+                byte[] body = inputStream.readAllBytes();
+                current = new Spec(body, "\"" + DigestUtils.md5DigestAsHex(body) + "\"");
+                spec = current;
+
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not read the OpenAPI file " + specLocation, ex);
+            }
+        }
+
+        return current;
+    }
+
+}
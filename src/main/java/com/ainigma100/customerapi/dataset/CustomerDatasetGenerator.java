@@ -0,0 +1,112 @@
+package com.ainigma100.customerapi.dataset;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Generates synthetic customers that pass the {@code CustomerRequestDTO} validation.
+ *
+ * <p>Every row is derived only from the seed and its row index, so the same seed always produces the same
+ * population, and any range of rows can be generated independently (and in parallel).</p>
+ *
+ * <ul>
+ *     <li>first names, last names and email domains follow a Zipf distribution, a few values are very common</li>
+ *     <li>emails are {@code first.last<row>@domain}, unique per row index</li>
+ *     <li>phone numbers have exactly 10 digits ({@code 69xxxxxxxx})</li>
+ *     <li>customers are between 18 and 90 years old on the reference date</li>
+ * </ul>
+ */
+public class CustomerDatasetGenerator {
+
+    // fixed, so the output does not depend on the day the generator runs; it is in the past, so everyone is still 18+
+    public static final LocalDate DEFAULT_REFERENCE_DATE = LocalDate.of(2026, 1, 1);
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private static final List<String> FIRST_NAMES = List.of(
+            "John", "Maria", "James", "Anna", "Robert", "Elena", "Michael", "Sofia", "William", "Olivia",
+            "David", "Emma", "Richard", "Eleni", "Joseph", "Laura", "Thomas", "Sarah", "George", "Katerina",
+            "Charles", "Julia", "Christopher", "Emily", "Daniel", "Hannah", "Matthew", "Grace", "Anthony", "Chloe",
+            "Nikolaos", "Georgia", "Dimitrios", "Ioanna", "Konstantinos", "Vasiliki", "Panagiotis", "Despina", "Andreas", "Irene",
+            "Mark", "Lucy", "Paul", "Alice", "Steven", "Amelia", "Andrew", "Isabella", "Kevin", "Mia",
+            "Brian", "Zoe", "Edward", "Ella", "Jason", "Victoria", "Ryan", "Natalie", "Jacob", "Ava");
+
+    private static final List<String> LAST_NAMES = List.of(
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Papadopoulos", "Garcia", "Miller", "Davis", "Wick",
+            "Rodriguez", "Martinez", "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore",
+            "Jackson", "Martin", "Lee", "Perez", "Thompson", "White", "Harris", "Sanchez", "Clark", "Ramirez",
+            "Lewis", "Robinson", "Walker", "Young", "Allen", "King", "Wright", "Scott", "Torres", "Nguyen",
+            "Georgiou", "Nikolaou", "Ioannou", "Dimitriou", "Konstantinou", "Vlachos", "Pappas", "Oikonomou", "Makris", "Angelopoulos",
+            "Hill", "Flores", "Green", "Adams", "Nelson", "Baker", "Hall", "Rivera", "Campbell", "Mitchell");
+
+    private static final List<String> EMAIL_DOMAINS = List.of(
+            "gmail.com", "yahoo.com", "hotmail.com", "outlook.com", "icloud.com",
+            "protonmail.com", "gmx.com", "aol.com", "mail.com", "tester.com");
+
+    private static final int MIN_AGE = 18;
+    private static final int MAX_AGE = 90;
+    private static final int CREATED_WITHIN_DAYS = 3 * 365;
+
+    private final ZipfDistribution firstNameDistribution = new ZipfDistribution(FIRST_NAMES.size(), 1.0);
+    private final ZipfDistribution lastNameDistribution = new ZipfDistribution(LAST_NAMES.size(), 0.9);
+    private final ZipfDistribution domainDistribution = new ZipfDistribution(EMAIL_DOMAINS.size(), 1.3);
+
+    private final long seed;
+    private final LocalDate referenceDate;
+    private final long oldestDateOfBirth;
+    private final long dateOfBirthRange;
+
+
+    public CustomerDatasetGenerator(long seed) {
+        this(seed, DEFAULT_REFERENCE_DATE);
+    }
+
+    public CustomerDatasetGenerator(long seed, LocalDate referenceDate) {
+        this.seed = seed;
+        this.referenceDate = referenceDate;
+        // born after referenceDate - MAX_AGE and at the latest on referenceDate - MIN_AGE
+        this.oldestDateOfBirth = referenceDate.minusYears(MAX_AGE).plusDays(1).toEpochDay();
+        this.dateOfBirthRange = referenceDate.minusYears(MIN_AGE).toEpochDay() - oldestDateOfBirth + 1;
+    }
+
+
+    public GeneratedCustomer generate(long rowIndex) {
+
+        SplittableRandom random = new SplittableRandom(mix64(seed + (rowIndex + 1) * GOLDEN_GAMMA));
+
+        String firstName = FIRST_NAMES.get(firstNameDistribution.sample(random));
+        String lastName = LAST_NAMES.get(lastNameDistribution.sample(random));
+        String domain = EMAIL_DOMAINS.get(domainDistribution.sample(random));
+
+        String email = (firstName + "." + lastName + rowIndex + "@" + domain).toLowerCase(Locale.ROOT);
+        // 1xxxxxxxx without the leading 1 is the zero padded 8 digit suffix, cheaper than String.format
+        String phoneNumber = "69" + Integer.toString(100_000_000 + random.nextInt(100_000_000)).substring(1);
+        LocalDate dateOfBirth = LocalDate.ofEpochDay(oldestDateOfBirth + random.nextLong(dateOfBirthRange));
+        LocalDateTime createdDate = referenceDate.atStartOfDay()
+                .minusDays(random.nextInt(CREATED_WITHIN_DAYS))
+                .plusSeconds(random.nextInt(86_400));
+
+        return new GeneratedCustomer(firstName, lastName, email, phoneNumber, dateOfBirth, createdDate);
+    }
+
+
+    // Stafford variant 13 of the MurmurHash3 finalizer, gives unrelated seeds for consecutive row indexes
+    private static long mix64(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
+
+    public record GeneratedCustomer(String firstName,
+                                    String lastName,
+                                    String email,
+                                    String phoneNumber,
+                                    LocalDate dateOfBirth,
+                                    LocalDateTime createdDate) {
+    }
+
+}
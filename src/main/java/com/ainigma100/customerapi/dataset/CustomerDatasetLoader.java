@@ -0,0 +1,347 @@
+package com.ainigma100.customerapi.dataset;
+
+import com.ainigma100.customerapi.dataset.CustomerDatasetGenerator.GeneratedCustomer;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk loads a generated customer population straight into the {@code customers} table with JDBC, bypassing JPA.
+ *
+ * <ul>
+ *     <li>{@link Strategy#BATCH} (any database): multi-row {@code INSERT ... VALUES (...), (...)} statements,
+ *     sent in JDBC batches, with one connection per thread</li>
+ *     <li>{@link Strategy#CSVREAD} (H2 only): chunks are written to CSV files in parallel and each chunk is
+ *     inserted with a single {@code INSERT ... SELECT FROM CSVREAD(...)} statement</li>
+ * </ul>
+ *
+ * <p>{@code BATCH} is the default: on the file based H2 database of the dev profile it loaded about twice as many
+ * rows per second as {@code CSVREAD}, the single large insert per chunk costs more than the extra round trips.</p>
+ *
+ * <p>The rows only depend on the seed, the ids are assigned by the database. With more than one thread the
+ * {@code BATCH} strategy inserts the chunks in a nondeterministic order, so use one thread when the
+ * ids must be reproducible as well. {@code CSVREAD} always inserts the chunks in order.</p>
+ */
+@Slf4j
+public class CustomerDatasetLoader {
+
+    public enum Strategy {
+        BATCH,
+        CSVREAD
+    }
+
+    private static final int CHUNK_SIZE = 250_000;
+    private static final int ROWS_PER_STATEMENT = 100;
+    private static final int STATEMENTS_PER_BATCH = 20;
+
+    private static final String COLUMNS =
+            "first_name, last_name, email, phone_number, date_of_birth, created_date, updated_date, version";
+
+    private final DataSource dataSource;
+
+
+    public CustomerDatasetLoader(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+
+    /**
+     * @return the number of inserted rows
+     */
+    public long load(CustomerDatasetGenerator generator, long rows, Strategy strategy, int threads, boolean truncate)
+            throws SQLException, IOException, InterruptedException {
+
+        this.checkSupported(strategy);
+        int resolvedThreads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+
+        if (truncate) {
+            this.truncate();
+        }
+
+        log.info("Loading {} customers with {} and {} thread(s)", rows, strategy, resolvedThreads);
+        long startNanos = System.nanoTime();
+
+        long inserted = strategy == Strategy.CSVREAD
+                ? this.loadWithCsvRead(generator, rows, resolvedThreads)
+                : this.loadWithBatches(generator, rows, resolvedThreads);
+
+        double seconds = (System.nanoTime() - startNanos) / 1_000_000_000d;
+        log.info("Loaded {} customers in {} s ({} rows/s)",
+                inserted, String.format(Locale.ROOT, "%.1f", seconds), Math.round(inserted / seconds));
+
+        return inserted;
+    }
+
+
+    private void checkSupported(Strategy strategy) throws SQLException {
+
+        if (strategy != Strategy.CSVREAD) {
+            return;
+        }
+
+        try (Connection connection = dataSource.getConnection()) {
+            if (!"H2".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName())) {
+                throw new IllegalArgumentException("The CSVREAD strategy is only supported on H2");
+            }
+        }
+    }
+
+    private void truncate() throws SQLException {
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+
+            statement.execute("TRUNCATE TABLE customers RESTART IDENTITY");
+        }
+    }
+
+
+    private long loadWithCsvRead(CustomerDatasetGenerator generator, long rows, int threads)
+            throws SQLException, IOException, InterruptedException {
+
+        Path directory = Files.createTempDirectory("customer-dataset-");
+        long chunks = (rows + CHUNK_SIZE - 1) / CHUNK_SIZE;
+
+        // bounds the CSV files waiting on disk while the database is busy with an earlier chunk
+        Semaphore pendingChunks = new Semaphore(threads * 2);
+        List<Future<Path>> csvFiles = new ArrayList<>();
+        long inserted = 0;
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+
+            for (long chunk = 0; chunk < chunks; chunk++) {
+
+                pendingChunks.acquire();
+
+                long fromRow = chunk * CHUNK_SIZE;
+                long toRow = Math.min(rows, fromRow + CHUNK_SIZE);
+                Path csvFile = directory.resolve("customers-" + chunk + ".csv");
+
+                csvFiles.add(executor.submit(() -> writeCsv(generator, fromRow, toRow, csvFile)));
+
+                // insert the chunks in order as soon as they are written
+                while (!csvFiles.isEmpty() && (csvFiles.get(0).isDone() || pendingChunks.availablePermits() == 0)) {
+                    inserted += this.insertCsv(await(csvFiles.remove(0)));
+                    pendingChunks.release();
+                }
+            }
+
+            while (!csvFiles.isEmpty()) {
+                inserted += this.insertCsv(await(csvFiles.remove(0)));
+                pendingChunks.release();
+            }
+
+        } finally {
+            try (var files = Files.list(directory)) {
+                for (Path file : files.toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(directory);
+        }
+
+        return inserted;
+    }
+
+    private static Path writeCsv(CustomerDatasetGenerator generator, long fromRow, long toRow, Path csvFile) throws IOException {
+
+        try (BufferedWriter writer = Files.newBufferedWriter(csvFile, StandardCharsets.UTF_8)) {
+
+            writer.write("FIRST_NAME,LAST_NAME,EMAIL,PHONE_NUMBER,DATE_OF_BIRTH,CREATED_DATE\n");
+
+            // the generated values never contain commas, quotes or line breaks, so no escaping is needed
+            for (long row = fromRow; row < toRow; row++) {
+
+                GeneratedCustomer customer = generator.generate(row);
+
+                writer.write(customer.firstName());
+                writer.write(',');
+                writer.write(customer.lastName());
+                writer.write(',');
+                writer.write(customer.email());
+                writer.write(',');
+                writer.write(customer.phoneNumber());
+                writer.write(',');
+                writer.write(customer.dateOfBirth().toString());
+                writer.write(',');
+                writer.write(Timestamp.valueOf(customer.createdDate()).toString());
+                writer.write('\n');
+            }
+        }
+
+        return csvFile;
+    }
+
+    private long insertCsv(Path csvFile) throws SQLException, IOException {
+
+        // H2 resolves the CSVREAD arguments when the statement is prepared, so the file name cannot be a parameter
+        String fileName = csvFile.toAbsolutePath().toString().replace("'", "''");
+
+        String sql = "INSERT INTO customers (" + COLUMNS + ") " +
+                "SELECT FIRST_NAME, LAST_NAME, EMAIL, PHONE_NUMBER, " +
+                "CAST(DATE_OF_BIRTH AS DATE), CAST(CREATED_DATE AS TIMESTAMP), CAST(CREATED_DATE AS TIMESTAMP), 0 " +
+                "FROM CSVREAD('" + fileName + "', NULL, 'charset=UTF-8')";
+
+        long inserted;
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+
+            inserted = statement.executeUpdate(sql);
+        }
+
+        Files.deleteIfExists(csvFile);
+
+        return inserted;
+    }
+
+
+    private long loadWithBatches(CustomerDatasetGenerator generator, long rows, int threads)
+            throws SQLException, InterruptedException {
+
+        long chunks = (rows + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        AtomicLong nextChunk = new AtomicLong();
+        List<Future<Long>> workers = new ArrayList<>();
+        long inserted = 0;
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+
+            for (int i = 0; i < threads; i++) {
+                workers.add(executor.submit(() -> {
+
+                    long workerInserted = 0;
+
+                    for (long chunk = nextChunk.getAndIncrement(); chunk < chunks; chunk = nextChunk.getAndIncrement()) {
+                        long fromRow = chunk * CHUNK_SIZE;
+                        workerInserted += this.insertBatches(generator, fromRow, Math.min(rows, fromRow + CHUNK_SIZE));
+                    }
+
+                    return workerInserted;
+                }));
+            }
+
+            for (Future<Long> worker : workers) {
+                inserted += await(worker);
+            }
+        }
+
+        return inserted;
+    }
+
+    private long insertBatches(CustomerDatasetGenerator generator, long fromRow, long toRow) throws SQLException {
+
+        long inserted = 0;
+
+        try (Connection connection = dataSource.getConnection()) {
+
+            connection.setAutoCommit(false);
+
+            try (PreparedStatement fullStatement = connection.prepareStatement(insertSql(ROWS_PER_STATEMENT))) {
+
+                long row = fromRow;
+                int statementsInBatch = 0;
+
+                while (toRow - row >= ROWS_PER_STATEMENT) {
+
+                    bind(fullStatement, generator, row, ROWS_PER_STATEMENT);
+                    fullStatement.addBatch();
+                    row += ROWS_PER_STATEMENT;
+
+                    if (++statementsInBatch == STATEMENTS_PER_BATCH) {
+                        fullStatement.executeBatch();
+                        connection.commit();
+                        statementsInBatch = 0;
+                    }
+                }
+
+                if (statementsInBatch > 0) {
+                    fullStatement.executeBatch();
+                }
+
+                int remainingRows = (int) (toRow - row);
+                if (remainingRows > 0) {
+                    try (PreparedStatement lastStatement = connection.prepareStatement(insertSql(remainingRows))) {
+                        bind(lastStatement, generator, row, remainingRows);
+                        lastStatement.executeUpdate();
+                    }
+                }
+
+                connection.commit();
+                inserted += toRow - fromRow;
+
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+
+        return inserted;
+    }
+
+    private static String insertSql(int rows) {
+
+        StringBuilder sql = new StringBuilder("INSERT INTO customers (").append(COLUMNS).append(") VALUES ");
+
+        for (int i = 0; i < rows; i++) {
+            sql.append(i == 0 ? "" : ", ").append("(?, ?, ?, ?, ?, ?, ?, 0)");
+        }
+
+        return sql.toString();
+    }
+
+    private static void bind(PreparedStatement statement, CustomerDatasetGenerator generator, long fromRow, int rows)
+            throws SQLException {
+
+        int parameter = 1;
+
+        for (long row = fromRow; row < fromRow + rows; row++) {
+
+            GeneratedCustomer customer = generator.generate(row);
+            Timestamp createdDate = Timestamp.valueOf(customer.createdDate());
+
+            statement.setString(parameter++, customer.firstName());
+            statement.setString(parameter++, customer.lastName());
+            statement.setString(parameter++, customer.email());
+            statement.setString(parameter++, customer.phoneNumber());
+            statement.setDate(parameter++, Date.valueOf(customer.dateOfBirth()));
+            statement.setTimestamp(parameter++, createdDate);
+            statement.setTimestamp(parameter++, createdDate);
+        }
+    }
+
+    private static <T> T await(Future<T> future) throws SQLException, InterruptedException {
+
+        try {
+            return future.get();
+
+        } catch (ExecutionException e) {
+
+            if (e.getCause() instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+
+            throw new IllegalStateException("Dataset loading failed", e.getCause());
+        }
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.ainigma100.customerapi.dataset;
+
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line entry point of the dataset loader. It does not start Spring, it only needs a JDBC url
+ * of a database whose schema is already migrated (start the application once, or run Liquibase).
+ *
+ * <pre>
+ * java -cp target/customer-api-v1.0.0.jar -Dloader.main=com.ainigma100.customerapi.dataset.DatasetCli \
+ *      org.springframework.boot.loader.launch.PropertiesLauncher \
+ *      --url="jdbc:h2:file:./data/customer-db;AUTO_SERVER=true;MODE=PostgreSQL" --username=sa --password=pass \
+ *      --rows=10000000 --seed=42 --strategy=BATCH --threads=0 --truncate=true
+ * </pre>
+ */
+public final class DatasetCli {
+
+    private DatasetCli() {
+        throw new IllegalStateException("Utility class");
+    }
+
+
+    public static void main(String[] args) throws Exception {
+
+        Map<String, String> options = parse(args);
+
+        String url = options.get("url");
+        if (url == null) {
+            throw new IllegalArgumentException("--url is required");
+        }
+
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url,
+                options.getOrDefault("username", "sa"),
+                options.getOrDefault("password", ""));
+
+        new CustomerDatasetLoader(dataSource).load(
+                new CustomerDatasetGenerator(Long.parseLong(options.getOrDefault("seed", "42"))),
+                Long.parseLong(options.getOrDefault("rows", "1000000")),
+                CustomerDatasetLoader.Strategy.valueOf(options.getOrDefault("strategy", "BATCH").toUpperCase()),
+                Integer.parseInt(options.getOrDefault("threads", "0")),
+                Boolean.parseBoolean(options.getOrDefault("truncate", "true")));
+    }
+
+    private static Map<String, String> parse(String[] args) {
+
+        Map<String, String> options = new HashMap<>();
+
+        for (String arg : args) {
+
+            int separator = arg.indexOf('=');
+
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Invalid argument '" + arg + "', expected --name=value");
+            }
+
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        return options;
+    }
+
+}
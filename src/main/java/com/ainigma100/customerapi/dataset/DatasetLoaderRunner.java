@@ -0,0 +1,57 @@
+package com.ainigma100.customerapi.dataset;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Loads a synthetic customer population at startup when the {@code dataset} profile is active.
+ * Liquibase has already created the schema at this point, and the application only reports itself ready once the rows are loaded.
+ *
+ * <pre>
+ * java -jar target/customer-api-v1.0.0.jar --spring.profiles.active=dev,dataset --customer-api.dataset.rows=10000000
+ * </pre>
+ *
+ * <p>See {@code application-dataset.yaml} for the options, and {@link DatasetCli} to load a database without
+ * starting the application.</p>
+ */
+@Slf4j
+@Component
+@Profile("dataset")
+@RequiredArgsConstructor
+public class DatasetLoaderRunner implements ApplicationRunner {
+
+    private final DataSource dataSource;
+
+    @Value("${customer-api.dataset.rows:1000000}")
+    private long rows;
+
+    @Value("${customer-api.dataset.seed:42}")
+    private long seed;
+
+    @Value("${customer-api.dataset.strategy:BATCH}")
+    private CustomerDatasetLoader.Strategy strategy;
+
+    @Value("${customer-api.dataset.threads:0}")
+    private int threads;
+
+    @Value("${customer-api.dataset.truncate:true}")
+    private boolean truncate;
+
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+
+        log.info("Generating the customer dataset with seed {}", seed);
+
+        new CustomerDatasetLoader(dataSource)
+                .load(new CustomerDatasetGenerator(seed), rows, strategy, threads, truncate);
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.ainigma100.customerapi.dataset;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Zipf distribution over the ranks {@code 0..n-1}: rank {@code k} is picked with a probability
+ * proportional to {@code 1 / (k + 1)^exponent}, so the first entries of a list are much more popular than the last.
+ */
+public final class ZipfDistribution {
+
+    private final double[] cumulativeProbabilities;
+
+
+    public ZipfDistribution(int size, double exponent) {
+
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be positive");
+        }
+
+        cumulativeProbabilities = new double[size];
+
+        double total = 0;
+        for (int rank = 0; rank < size; rank++) {
+            total += 1 / Math.pow(rank + 1, exponent);
+            cumulativeProbabilities[rank] = total;
+        }
+
+        for (int rank = 0; rank < size; rank++) {
+            cumulativeProbabilities[rank] /= total;
+        }
+    }
+
+
+    public int sample(SplittableRandom random) {
+
+        int index = Arrays.binarySearch(cumulativeProbabilities, random.nextDouble());
+
+        // binarySearch returns (-(insertion point) - 1) when the value is not an exact match
+        int rank = index >= 0 ? index : -index - 1;
+
+        return Math.min(rank, cumulativeProbabilities.length - 1);
+    }
+
+}
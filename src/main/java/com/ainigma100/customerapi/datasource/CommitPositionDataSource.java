@@ -0,0 +1,79 @@
+package com.ainigma100.customerapi.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Primary DataSource decorator that reports the replication position of every read-write transaction of a
+ * {@link ReadYourWrites} scope, once it has committed, which is when the write is in the replication stream.
+ *
+ * <p>The position is read with a connection of its own, the transaction's connection has gone back to the pool
+ * by then. A transaction that only read from the primary reports a position as well, it is one more query per
+ * transaction for a token that is never ahead of the data.</p>
+ */
+@Slf4j
+class CommitPositionDataSource extends DelegatingDataSource {
+
+    private final ReplicationPosition replicationPosition;
+
+
+    CommitPositionDataSource(DataSource primary, ReplicationPosition replicationPosition) {
+        super(primary);
+        this.replicationPosition = replicationPosition;
+    }
+
+
+    @Override
+    public Connection getConnection() throws SQLException {
+
+        Connection connection = super.getConnection();
+
+        ReadYourWrites.Scope scope = ReadYourWrites.current();
+
+        if (scope != null
+                && TransactionSynchronizationManager.isSynchronizationActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !TransactionSynchronizationManager.hasResource(this)) {
+
+            // once per transaction
+            TransactionSynchronizationManager.bindResource(this, scope);
+            TransactionSynchronizationManager.registerSynchronization(new CommitPositionSynchronization(scope));
+        }
+
+        return connection;
+    }
+
+
+    private final class CommitPositionSynchronization implements TransactionSynchronization {
+
+        private final ReadYourWrites.Scope scope;
+
+        private CommitPositionSynchronization(ReadYourWrites.Scope scope) {
+            this.scope = scope;
+        }
+
+        @Override
+        public void afterCommit() {
+
+            try (Connection connection = obtainTargetDataSource().getConnection()) {
+                scope.committed(replicationPosition.primary(connection));
+
+            } catch (SQLException ex) {
+                // the client gets no token, and may not read its write from a replica
+                log.warn("Could not read the replication position of the primary after a commit: {}", ex.getMessage());
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(CommitPositionDataSource.this);
+        }
+    }
+
+}
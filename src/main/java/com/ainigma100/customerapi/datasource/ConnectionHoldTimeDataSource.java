@@ -0,0 +1,97 @@
+package com.ainigma100.customerapi.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * DataSource decorator that measures how long each connection is held, from checkout until {@code close()}
+ * returns it to the pool, and reports it to {@link ConnectionHoldTimeTracker}.
+ *
+ * <p>Spring Boot unwraps {@link DelegatingDataSource}, so the Hikari pool metrics keep working on the
+ * target pool.</p>
+ */
+public class ConnectionHoldTimeDataSource extends DelegatingDataSource {
+
+
+    public ConnectionHoldTimeDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return track(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return track(super.getConnection(username, password));
+    }
+
+
+    private Connection track(Connection connection) {
+
+        return (Connection) Proxy.newProxyInstance(
+                ConnectionHoldTimeDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new HoldTimeInvocationHandler(connection));
+    }
+
+
+    private static final class HoldTimeInvocationHandler implements InvocationHandler {
+
+        private final Connection target;
+        private final long checkoutNanos = System.nanoTime();
+        private boolean closed;
+
+        private HoldTimeInvocationHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!closed) {
+                        closed = true;
+                        ConnectionHoldTimeTracker.record(System.nanoTime() - checkoutNanos);
+                    }
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "unwrap" -> {
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                }
+                case "isWrapperFor" -> {
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return true;
+                    }
+                }
+                default -> {
+                    // delegate everything else to the pooled connection
+                }
+            }
+
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getTargetException();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.ainigma100.customerapi.datasource;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Thread-bound accumulator of the time JDBC connections are held while a request is processed.
+ *
+ * <p>{@code ConnectionHoldTimeFilter} opens a scope per request and {@link ConnectionHoldTimeDataSource}
+ * adds the hold time of every connection closed on that thread, or on a thread the scope was passed to with
+ * {@link #propagate}. Outside a scope (startup, Liquibase, background work) {@link #record(long)} does nothing.</p>
+ */
+public final class ConnectionHoldTimeTracker {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+
+    private ConnectionHoldTimeTracker() {
+        throw new IllegalStateException("Utility class");
+    }
+
+
+    public static Scope begin() {
+
+        Scope scope = new Scope();
+        CURRENT.set(scope);
+
+        return scope;
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return the task, adding the connections it holds to the scope of the calling thread on whichever thread runs it
+     */
+    public static <T> Callable<T> propagate(Callable<T> task) {
+
+        Scope scope = CURRENT.get();
+
+        if (scope == null) {
+            return task;
+        }
+
+        return () -> {
+            CURRENT.set(scope);
+            try {
+                return task.call();
+            } finally {
+                CURRENT.remove();
+            }
+        };
+    }
+
+    static void record(long holdNanos) {
+
+        Scope scope = CURRENT.get();
+
+        if (scope != null) {
+            scope.add(holdNanos);
+        }
+    }
+
+
+    public static final class Scope {
+
+        private long totalHoldNanos;
+        private int checkouts;
+
+        // a scope can be shared with the threads the request forks work to
+        private synchronized void add(long holdNanos) {
+            totalHoldNanos += holdNanos;
+            checkouts++;
+        }
+
+        public synchronized long getTotalHoldNanos() {
+            return totalHoldNanos;
+        }
+
+        public synchronized int getCheckouts() {
+            return checkouts;
+        }
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.ainigma100.customerapi.datasource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * The write-ahead log positions of PostgreSQL streaming replication, in bytes: {@code pg_current_wal_lsn()} on the
+ * primary and {@code pg_last_wal_replay_lsn()} on a standby.
+ */
+public class PostgresReplicationPosition implements ReplicationPosition {
+
+    private static final String PRIMARY_QUERY = "SELECT pg_current_wal_lsn() - '0/0'";
+    private static final String REPLICA_QUERY = "SELECT pg_last_wal_replay_lsn() - '0/0'";
+
+
+    @Override
+    public long primary(Connection connection) throws SQLException {
+
+        long position = query(connection, PRIMARY_QUERY);
+
+        if (position < 0) {
+            throw new SQLException("The primary did not report its WAL position");
+        }
+
+        return position;
+    }
+
+    @Override
+    public long replica(Connection connection) throws SQLException {
+        // null, so -1, on a server that is not a standby
+        return query(connection, REPLICA_QUERY);
+    }
+
+
+    private static long query(Connection connection, String sql) throws SQLException {
+
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+
+            if (!resultSet.next()) {
+                return -1;
+            }
+
+            long position = resultSet.getLong(1);
+
+            return resultSet.wasNull() ? -1 : position;
+        }
+    }
+
+}
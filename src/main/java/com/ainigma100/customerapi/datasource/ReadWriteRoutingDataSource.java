@@ -0,0 +1,127 @@
+package com.ainigma100.customerapi.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Hands out a replica connection inside a read-only transaction and a primary connection everywhere else:
+ * writes, Liquibase and the queries outside a transaction (e.g. lazy loading with open-in-view).
+ *
+ * <p>The transaction manager asks for the connection before the transaction is marked read-only, which is why
+ * {@link #wrap} puts a {@link LazyConnectionDataSourceProxy} in front: the connection is only chosen by the first
+ * statement. A read-only transaction goes to the primary as well when no healthy replica has replayed the
+ * {@link ReadYourWrites} position of the request, or when the chosen replica cannot hand out a connection, which
+ * ejects it until the next successful health check.</p>
+ *
+ * <p>The connections handed out are counted by {@code customer.api.datasource.reads}, tagged with the
+ * {@code target} (the replica name or {@code primary}).</p>
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+
+    private static final String READS_METRIC = "customer.api.datasource.reads";
+    private static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final ReplicaDataSources replicas;
+    private final Counter primaryReads;
+    private final Map<Replica, Counter> replicaReads;
+
+
+    private ReadWriteRoutingDataSource(DataSource primary, ReplicaDataSources replicas, MeterRegistry meterRegistry) {
+
+        this.primary = primary;
+        this.replicas = replicas;
+        this.primaryReads = readsCounter(PRIMARY, meterRegistry);
+        this.replicaReads = replicas.getReplicas().stream()
+                .collect(Collectors.toUnmodifiableMap(Function.identity(),
+                        replica -> readsCounter(replica.getName(), meterRegistry)));
+    }
+
+
+    /**
+     * @return the primary behind a proxy that routes every connection at its first statement
+     */
+    public static LazyConnectionDataSourceProxy wrap(DataSource primary, ReplicaDataSources replicas,
+                                                     MeterRegistry meterRegistry) {
+
+        DataSource writes = replicas.getReplicationPosition() != null
+                ? new CommitPositionDataSource(primary, replicas.getReplicationPosition())
+                : primary;
+
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(writes, replicas, meterRegistry));
+    }
+
+
+    @Override
+    public Connection getConnection() throws SQLException {
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return primary.getConnection();
+        }
+
+        Replica replica = replicas.next(ReadYourWrites.minPosition());
+
+        if (replica != null) {
+            try {
+                Connection connection = replica.getConnection();
+                replicaReads.get(replica).increment();
+
+                return connection;
+
+            } catch (SQLException ex) {
+                if (replica.eject()) {
+                    log.warn("Ejected the replica {}, it could not hand out a connection: {}", replica.getName(), ex.getMessage());
+                }
+            }
+        }
+
+        primaryReads.increment();
+
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("The routing DataSource only hands out connections of its pools");
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+
+        if (iface.isInstance(this)) {
+            return (T) this;
+        }
+
+        // e.g. the HikariDataSource of the primary, for the pool metrics
+        return primary.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || primary.isWrapperFor(iface);
+    }
+
+
+    private static Counter readsCounter(String target, MeterRegistry meterRegistry) {
+
+        return Counter.builder(READS_METRIC)
+                .description("Connections handed out to read-only transactions")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+
+}
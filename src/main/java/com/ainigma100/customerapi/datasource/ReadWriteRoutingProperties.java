@@ -0,0 +1,71 @@
+package com.ainigma100.customerapi.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code customer-api.datasource.routing} settings: the read replicas next to the primary
+ * {@code spring.datasource}, how their health is checked and whether reads follow the client's own writes.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "customer-api.datasource.routing")
+public class ReadWriteRoutingProperties {
+
+    private boolean enabled = false;
+
+    // read-only transactions are spread over the healthy ones, round robin
+    private List<Replica> replicas = new ArrayList<>();
+
+    private HealthCheck healthCheck = new HealthCheck();
+
+    private ReadYourWrites readYourWrites = new ReadYourWrites();
+
+
+    @Getter
+    @Setter
+    public static class Replica {
+
+        private String name;
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        private int maximumPoolSize = 10;
+
+        // short, a replica that does not answer is ejected and the read goes to the primary
+        private Duration connectionTimeout = Duration.ofSeconds(1);
+
+        // runs the Liquibase change log on the replica, only for stand-ins without replication (e.g. H2)
+        private boolean migrate = false;
+    }
+
+    @Getter
+    @Setter
+    public static class HealthCheck {
+
+        private Duration interval = Duration.ofSeconds(1);
+
+        private Duration timeout = Duration.ofSeconds(1);
+
+        // consecutive failed checks before a replica is ejected, one successful check readmits it
+        private int ejectAfterFailures = 3;
+    }
+
+    @Getter
+    @Setter
+    public static class ReadYourWrites {
+
+        // a Consistency-Token header on every write, a read carrying it only goes to a replica that has caught up
+        private boolean enabled = false;
+    }
+
+}
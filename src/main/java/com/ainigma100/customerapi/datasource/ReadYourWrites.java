@@ -0,0 +1,111 @@
+package com.ainigma100.customerapi.datasource;
+
+import java.util.concurrent.Callable;
+import java.util.function.LongConsumer;
+
+/**
+ * Thread-bound read-your-writes state of the request being processed: the replication position its reads have to
+ * see, from the client's {@code Consistency-Token}, and where to report the position of a write once it has been
+ * committed.
+ *
+ * <p>{@code ConsistencyTokenFilter} opens a scope per request. Outside a scope reads go to any healthy replica and
+ * writes are not tracked.</p>
+ */
+public final class ReadYourWrites {
+
+    // no token, any replica will do
+    public static final long ANY_POSITION = -1;
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+
+    private ReadYourWrites() {
+        throw new IllegalStateException("Utility class");
+    }
+
+
+    public static void begin(long minPosition, LongConsumer onCommitted) {
+        CURRENT.set(new Scope(minPosition, onCommitted));
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return the task, run in the scope of the calling thread on whichever thread runs it
+     */
+    public static <T> Callable<T> propagate(Callable<T> task) {
+
+        Scope scope = CURRENT.get();
+
+        if (scope == null) {
+            return task;
+        }
+
+        return () -> {
+            CURRENT.set(scope);
+            try {
+                return task.call();
+            } finally {
+                CURRENT.remove();
+            }
+        };
+    }
+
+    /**
+     * @return a token as sent by a client, {@link Long#MAX_VALUE} for one that cannot be parsed, so the reads go to
+     * the primary rather than miss a write
+     */
+    public static long parseToken(String token) {
+
+        if (token == null || token.isBlank()) {
+            return ANY_POSITION;
+        }
+
+        try {
+            return Math.max(ANY_POSITION, Long.parseLong(token.trim()));
+
+        } catch (NumberFormatException ex) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * @return the replication position the reads of the request have to see, {@link #ANY_POSITION} without a token
+     */
+    public static long minPosition() {
+
+        Scope scope = CURRENT.get();
+
+        return scope != null ? scope.minPosition : ANY_POSITION;
+    }
+
+    static Scope current() {
+        return CURRENT.get();
+    }
+
+
+    static final class Scope {
+
+        private final LongConsumer onCommitted;
+        private long minPosition;
+
+        private Scope(long minPosition, LongConsumer onCommitted) {
+            this.minPosition = minPosition;
+            this.onCommitted = onCommitted;
+        }
+
+        /**
+         * Later reads of the same request have to see the write as well.
+         */
+        void committed(long position) {
+
+            if (position > minPosition) {
+                minPosition = position;
+                onCommitted.accept(position);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.ainigma100.customerapi.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One read replica: its connection pool, whether it takes reads and how far it has replayed the primary.
+ */
+class Replica {
+
+    private final String name;
+    private final HikariDataSource pool;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile boolean healthy = true;
+    private volatile long position = ReadYourWrites.ANY_POSITION;
+
+
+    Replica(String name, HikariDataSource pool) {
+        this.name = name;
+        this.pool = pool;
+    }
+
+
+    Connection getConnection() throws SQLException {
+        return pool.getConnection();
+    }
+
+    /**
+     * @return true when the replica has just been readmitted
+     */
+    boolean checked(long replayedPosition) {
+
+        position = replayedPosition;
+        consecutiveFailures.set(0);
+
+        boolean readmitted = !healthy;
+        healthy = true;
+
+        return readmitted;
+    }
+
+    /**
+     * @return true when the replica has just been ejected
+     */
+    boolean failed(int ejectAfterFailures) {
+
+        if (consecutiveFailures.incrementAndGet() < ejectAfterFailures || !healthy) {
+            return false;
+        }
+
+        healthy = false;
+
+        return true;
+    }
+
+    /**
+     * A replica a read could not get a connection from is ejected right away, the next successful check
+     * readmits it.
+     */
+    boolean eject() {
+
+        boolean ejected = healthy;
+        healthy = false;
+
+        return ejected;
+    }
+
+    boolean canServe(long minPosition) {
+        return healthy && (minPosition == ReadYourWrites.ANY_POSITION || position >= minPosition);
+    }
+
+    String getName() {
+        return name;
+    }
+
+    HikariDataSource getPool() {
+        return pool;
+    }
+
+    boolean isHealthy() {
+        return healthy;
+    }
+
+}
@@ -0,0 +1,140 @@
+package com.ainigma100.customerapi.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import liquibase.integration.spring.SpringLiquibase;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The connection pools of the read replicas. Deliberately not a {@code DataSource} itself, so Spring Boot still
+ * auto-configures the primary one.
+ *
+ * <p>The pools start even when a replica is down, it is then ejected by the first health check. Their
+ * {@code hikaricp.connections.*} metrics are tagged with the replica name as {@code pool}, the number of replicas
+ * taking reads is {@code customer.api.datasource.replicas.healthy}.</p>
+ */
+@Slf4j
+public class ReplicaDataSources implements AutoCloseable {
+
+    private final List<Replica> replicas;
+    private final ReplicationPosition replicationPosition;
+    private final AtomicInteger next = new AtomicInteger();
+
+
+    /**
+     * @param replicationPosition null unless read-your-writes is enabled
+     */
+    public ReplicaDataSources(List<ReadWriteRoutingProperties.Replica> replicaProperties,
+                              ReplicationPosition replicationPosition, String changeLog,
+                              ResourceLoader resourceLoader, MeterRegistry meterRegistry) {
+
+        this.replicationPosition = replicationPosition;
+        this.replicas = new ArrayList<>();
+
+        try {
+            for (ReadWriteRoutingProperties.Replica properties : replicaProperties) {
+
+                Replica replica = new Replica(properties.getName(), createPool(properties, meterRegistry));
+                replicas.add(replica);
+
+                if (properties.isMigrate()) {
+                    migrate(properties, changeLog, resourceLoader);
+                }
+            }
+
+        } catch (RuntimeException ex) {
+            this.close();
+            throw ex;
+        }
+
+        Gauge.builder("customer.api.datasource.replicas.healthy", this, ReplicaDataSources::getHealthyCount)
+                .description("Read replicas currently taking reads")
+                .register(meterRegistry);
+    }
+
+
+    /**
+     * @return the next healthy replica, round robin, that has replayed at least up to {@code minPosition},
+     * null when there is none
+     */
+    Replica next(long minPosition) {
+
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+
+        for (int i = 0; i < size; i++) {
+
+            Replica replica = replicas.get((start + i) % size);
+
+            if (replica.canServe(minPosition)) {
+                return replica;
+            }
+        }
+
+        return null;
+    }
+
+    List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    ReplicationPosition getReplicationPosition() {
+        return replicationPosition;
+    }
+
+    public int getHealthyCount() {
+        return (int) replicas.stream().filter(Replica::isHealthy).count();
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.getPool().close());
+    }
+
+
+    private static HikariDataSource createPool(ReadWriteRoutingProperties.Replica properties, MeterRegistry meterRegistry) {
+
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(properties.getName());
+        pool.setJdbcUrl(properties.getUrl());
+        pool.setUsername(properties.getUsername());
+        pool.setPassword(properties.getPassword());
+        pool.setMaximumPoolSize(properties.getMaximumPoolSize());
+        pool.setConnectionTimeout(properties.getConnectionTimeout().toMillis());
+        pool.setReadOnly(true);
+        // do not fail the startup for a replica that is down
+        pool.setInitializationFailTimeout(-1);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+        return pool;
+    }
+
+    private static void migrate(ReadWriteRoutingProperties.Replica properties, String changeLog,
+                                ResourceLoader resourceLoader) {
+
+        log.info("Running the Liquibase change log on the replica {}", properties.getName());
+
+        // the migration writes, the pool only hands out read-only connections
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(new DriverManagerDataSource(
+                properties.getUrl(), properties.getUsername(), properties.getPassword()));
+        liquibase.setChangeLog(changeLog);
+        liquibase.setResourceLoader(resourceLoader);
+
+        try {
+            liquibase.afterPropertiesSet();
+
+        } catch (Exception ex) {
+            throw new IllegalStateException("Could not migrate the replica " + properties.getName(), ex);
+        }
+    }
+
+}
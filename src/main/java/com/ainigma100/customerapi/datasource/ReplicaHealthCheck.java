@@ -0,0 +1,105 @@
+package com.ainigma100.customerapi.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks every replica at a fixed interval with {@code Connection.isValid}, and reads how far it has replayed when
+ * read-your-writes is enabled. A replica is ejected after {@code eject-after-failures} failed checks in a row and
+ * readmitted by the first successful one.
+ */
+@Slf4j
+public class ReplicaHealthCheck implements SmartLifecycle {
+
+    private final ReplicaDataSources replicas;
+    private final Duration interval;
+    private final Duration timeout;
+    private final int ejectAfterFailures;
+
+    private volatile ScheduledExecutorService scheduler;
+
+
+    public ReplicaHealthCheck(ReplicaDataSources replicas, ReadWriteRoutingProperties.HealthCheck properties) {
+        this.replicas = replicas;
+        this.interval = properties.getInterval();
+        this.timeout = properties.getTimeout();
+        this.ejectAfterFailures = Math.max(1, properties.getEjectAfterFailures());
+    }
+
+
+    @Override
+    public void start() {
+
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        executor.scheduleWithFixedDelay(this::checkReplicas, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+
+        scheduler = executor;
+    }
+
+    @Override
+    public void stop() {
+
+        ScheduledExecutorService executor = scheduler;
+        scheduler = null;
+
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+
+    /**
+     * Checks every replica once, on the calling thread.
+     */
+    public void checkReplicas() {
+
+        for (Replica replica : replicas.getReplicas()) {
+            try {
+                long position = this.check(replica);
+
+                if (replica.checked(position)) {
+                    log.info("Readmitted the replica {}", replica.getName());
+                }
+
+            } catch (SQLException | RuntimeException ex) {
+                if (replica.failed(ejectAfterFailures)) {
+                    log.warn("Ejected the replica {} after {} failed health checks: {}",
+                            replica.getName(), ejectAfterFailures, ex.getMessage());
+                }
+            }
+        }
+    }
+
+
+    private long check(Replica replica) throws SQLException {
+
+        try (Connection connection = replica.getConnection()) {
+
+            if (!connection.isValid((int) Math.max(1, timeout.toSeconds()))) {
+                throw new SQLException("The connection is not valid");
+            }
+
+            ReplicationPosition replicationPosition = replicas.getReplicationPosition();
+
+            return replicationPosition != null ? replicationPosition.replica(connection) : ReadYourWrites.ANY_POSITION;
+        }
+    }
+
+}
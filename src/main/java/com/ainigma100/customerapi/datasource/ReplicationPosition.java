@@ -0,0 +1,25 @@
+package com.ainigma100.customerapi.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * How far the primary has written and how far a replica has replayed, as comparable positions in the replication
+ * stream. It is what the read-your-writes {@code Consistency-Token} carries.
+ *
+ * <p>{@link PostgresReplicationPosition} is used unless the application defines a bean of its own, e.g. for a
+ * stand-in replica without replication.</p>
+ */
+public interface ReplicationPosition {
+
+    /**
+     * @return the position of the last commit on the primary
+     */
+    long primary(Connection connection) throws SQLException;
+
+    /**
+     * @return the position the replica has replayed up to, or -1 when it is unknown
+     */
+    long replica(Connection connection) throws SQLException;
+
+}
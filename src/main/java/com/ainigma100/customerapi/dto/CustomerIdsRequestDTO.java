@@ -0,0 +1,22 @@
+package com.ainigma100.customerapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerIdsRequestDTO {
+
+    // at most customer-api.multi-get.max-ids of them
+    @Schema(example = "[3, 1, 2]")
+    @NotEmpty(message = "ids cannot be empty")
+    private List<@NotNull(message = "ids cannot contain null") Long> ids;
+
+}
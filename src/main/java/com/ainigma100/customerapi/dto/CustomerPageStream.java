@@ -0,0 +1,36 @@
+package com.ainigma100.customerapi.dto;
+
+import com.ainigma100.customerapi.enums.CustomerField;
+import com.ainigma100.customerapi.utils.CustomerPageStreamSerializer;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.web.PagedModel;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import tools.jackson.databind.annotation.JsonSerialize;
+
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * A page of customers whose rows are only read while the response is written. It is serialized exactly like
+ * the {@code PagedModel<CustomerDTO>} of the regular search ({@code content} and {@code page}), but every row
+ * goes from the {@code ResultSet} straight to the generator, see {@link CustomerPageStreamSerializer}.
+ */
+@Getter
+@AllArgsConstructor
+@JsonSerialize(using = CustomerPageStreamSerializer.class)
+@Schema(implementation = PagedModel.class) // documents what is written, not the getters
+public class CustomerPageStream {
+
+    private final int number;
+    private final int size;
+    private final long totalElements;
+
+    // the columns the rows are selected with, written in declaration order
+    private final Set<CustomerField> fields;
+
+    // runs the page query and hands every row of the result to the callback
+    private final Consumer<RowCallbackHandler> rows;
+
+}
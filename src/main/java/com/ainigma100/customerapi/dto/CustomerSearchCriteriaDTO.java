@@ -2,6 +2,7 @@ package com.ainigma100.customerapi.dto;
 
 
 import com.ainigma100.customerapi.utils.SortItem;
+import com.ainigma100.customerapi.utils.annotation.ValidCustomerFields;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.*;
 import lombok.Getter;
@@ -34,4 +35,8 @@ public class CustomerSearchCriteriaDTO {
 
     private List<SortItem> sortList;
 
+    // the customer properties to return, all of them when empty
+    @ValidCustomerFields
+    private List<String> fields;
+
 }
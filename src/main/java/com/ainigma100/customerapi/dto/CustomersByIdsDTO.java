@@ -0,0 +1,43 @@
+package com.ainigma100.customerapi.dto;
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomersByIdsDTO {
+
+    // in the order of the requested ids, each customer once
+    private List<CustomerDTO> customers;
+
+    // the requested ids without a customer, in the order they were requested
+    private List<Long> missingIds;
+
+
+    public static CustomersByIdsDTO of(List<Long> ids, Map<Long, CustomerDTO> customersById) {
+
+        List<CustomerDTO> customers = new ArrayList<>(customersById.size());
+        List<Long> missingIds = new ArrayList<>();
+
+        for (Long id : new LinkedHashSet<>(ids)) {
+
+            CustomerDTO customer = customersById.get(id);
+
+            if (customer != null) {
+                customers.add(customer);
+            } else {
+                missingIds.add(id);
+            }
+        }
+
+        return new CustomersByIdsDTO(customers, missingIds);
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.ainigma100.customerapi.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The {@code CustomerDTO} properties a client can ask for with {@code fields=}, in the order of the DTO.
+ * The selected columns, and so the SQL, always follow this order, whatever the order of the request.
+ */
+@Getter
+@AllArgsConstructor
+public enum CustomerField {
+
+    ID("id", "id"),
+    FIRST_NAME("firstName", "first_name"),
+    LAST_NAME("lastName", "last_name"),
+    EMAIL("email", "email"),
+    PHONE_NUMBER("phoneNumber", "phone_number"),
+    DATE_OF_BIRTH("dateOfBirth", "date_of_birth");
+
+    private final String property;
+    private final String column;
+
+
+    public Object read(ResultSet resultSet) throws SQLException {
+
+        return switch (this) {
+            case ID -> resultSet.getLong(column);
+            case DATE_OF_BIRTH -> resultSet.getObject(column, LocalDate.class);
+            default -> resultSet.getString(column);
+        };
+    }
+
+
+    public static Optional<CustomerField> fromProperty(String property) {
+
+        return Arrays.stream(values())
+                .filter(field -> field.property.equals(property))
+                .findFirst();
+    }
+
+    /**
+     * @return all the fields when none are requested
+     * @throws IllegalArgumentException for an unknown property, requests are validated before they get here
+     */
+    public static Set<CustomerField> setOf(Collection<String> properties) {
+
+        if (properties == null || properties.isEmpty()) {
+            return EnumSet.allOf(CustomerField.class);
+        }
+
+        Set<CustomerField> fields = EnumSet.noneOf(CustomerField.class);
+
+        for (String property : properties) {
+            fields.add(fromProperty(property.trim())
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown customer field '" + property + "'")));
+        }
+
+        return fields;
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.ainigma100.customerapi.enums;
+
+/**
+ * What the application does with the Liquibase change log at startup ({@code customer-api.liquibase.mode}).
+ */
+public enum LiquibaseMode {
+
+    /** Applies the pending change sets under the Liquibase lock, then starts as usual */
+    MIGRATE,
+
+    /** Applies the pending change sets and exits, e.g. as an init job before the replicas start */
+    MIGRATE_ONLY,
+
+    /**
+     * Does not migrate and takes no lock, only checks that every change set of the change log has been applied,
+     * and fails the startup otherwise
+     */
+    VALIDATE,
+
+    /** Leaves the database alone */
+    NONE
+
+}
@@ -0,0 +1,21 @@
+package com.ainigma100.customerapi.enums;
+
+/**
+ * Which characters {@code @MaskData} replaces with the mask symbol.
+ */
+public enum MaskStrategy {
+
+    /** Everything except the last {@code visibleCharactersAtEnd} characters, e.g. {@code *******789} */
+    LAST_N_VISIBLE,
+
+    /** Everything except the first {@code visibleCharactersAtStart} and the last {@code visibleCharactersAtEnd} characters, e.g. {@code 69*****789} */
+    MIDDLE,
+
+    /**
+     * The part before the {@code @}, except its first {@code visibleCharactersAtStart} and last
+     * {@code visibleCharactersAtEnd} characters. The domain stays visible, e.g. {@code j*******@tester.com}.
+     * Values without an {@code @} are masked as a whole.
+     */
+    EMAIL_LOCAL_PART
+
+}
@@ -0,0 +1,20 @@
+package com.ainigma100.customerapi.exception;
+
+import lombok.Getter;
+
+/**
+ * A request that is invalid for a reason the validation of the request body cannot check, e.g. a limit that is a
+ * setting. Answered with a 400 by the {@link GlobalExceptionHandler}, with the field in the error.
+ */
+@Getter
+public class BadRequestException extends RuntimeException {
+
+    private final String field;
+
+
+    public BadRequestException(String field, String message) {
+        super(message);
+        this.field = field;
+    }
+
+}
@@ -3,8 +3,11 @@ package com.ainigma100.customerapi.exception;
 import com.ainigma100.customerapi.dto.APIResponse;
 import com.ainigma100.customerapi.dto.ErrorDTO;
 import com.ainigma100.customerapi.enums.Status;
+import com.ainigma100.customerapi.filter.AbortedResponseFilter;
 import jakarta.persistence.EntityExistsException;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import lombok.RequiredArgsConstructor;
@@ -13,6 +16,7 @@ import org.springframework.core.env.Environment;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
@@ -21,6 +25,7 @@ import org.springframework.web.bind.MissingPathVariableException;
 import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -74,6 +79,26 @@ public class GlobalExceptionHandler {
     }
 
 
+    /**
+     * Writing the body failed. Once part of it has been sent, e.g. by the streaming search, an error response would
+     * only be appended to it, so the response is left to {@link AbortedResponseFilter} to abort.
+     */
+    @ExceptionHandler(HttpMessageNotWritableException.class)
+    public ResponseEntity<Object> handleHttpMessageNotWritableException(HttpMessageNotWritableException exception,
+                                                                        HttpServletRequest request,
+                                                                        HttpServletResponse servletResponse) {
+
+        if (servletResponse.isCommitted()) {
+            log.error("HttpMessageNotWritableException occurred after the response was committed, aborting it: {}",
+                    exception.getMessage());
+            request.setAttribute(AbortedResponseFilter.ABORT_EXCEPTION_ATTRIBUTE, exception);
+            return null;
+        }
+
+        return handleRuntimeExceptions(exception);
+    }
+
+
     @ExceptionHandler(HttpRequestMethodNotSupportedException.class)
     public ResponseEntity<Object> handleHttpRequestMethodNotSupportedException(HttpRequestMethodNotSupportedException exception) {
 
@@ -89,7 +114,8 @@ public class GlobalExceptionHandler {
     }
 
 
-    @ExceptionHandler({MethodArgumentNotValidException.class, MissingServletRequestParameterException.class, MissingPathVariableException.class})
+    @ExceptionHandler({MethodArgumentNotValidException.class, HandlerMethodValidationException.class,
+            MissingServletRequestParameterException.class, MissingPathVariableException.class})
     public ResponseEntity<Object> handleValidationExceptions(Exception exception) {
 
         APIResponse<ErrorDTO> response = new APIResponse<>();
@@ -104,6 +130,14 @@ public class GlobalExceptionHandler {
                 errors.add(new ErrorDTO(fieldName, errorMessage));
             });
 
+        } else if (exception instanceof HandlerMethodValidationException ex) {
+
+            // constraints on request parameters, like @ValidCustomerFields on fields
+            ex.getParameterValidationResults().forEach(result -> result.getResolvableErrors().forEach(error -> {
+                String errorMessage = isProduction() ? "Invalid input value" : error.getDefaultMessage();
+                errors.add(new ErrorDTO(result.getMethodParameter().getParameterName(), errorMessage));
+            }));
+
         } else if (exception instanceof MissingServletRequestParameterException ex) {
 
             String errorMessage = isProduction() ? "Required parameter is missing" : "Missing parameter: " + ex.getParameterName();
@@ -156,6 +190,21 @@ public class GlobalExceptionHandler {
     }
 
 
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<APIResponse<ErrorDTO>> handleBadRequestException(BadRequestException ex) {
+
+        APIResponse<ErrorDTO> response = new APIResponse<>();
+        response.setStatus(Status.FAILED.getValue());
+
+        String errorMessage = isProduction() ? "Invalid input data" : ex.getMessage();
+        response.setErrors(Collections.singletonList(new ErrorDTO(ex.getField(), errorMessage)));
+
+        log.error("BadRequestException occurred: {}", ex.getMessage(), ex);
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+
+
     @ExceptionHandler(EntityNotFoundException.class)
     public ResponseEntity<Object> handleEntityNotFoundExceptions(EntityNotFoundException exception) {
 
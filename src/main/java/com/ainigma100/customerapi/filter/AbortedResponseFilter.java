@@ -0,0 +1,30 @@
+package com.ainigma100.customerapi.filter;
+
+import jakarta.servlet.*;
+
+import java.io.IOException;
+
+/**
+ * Aborts a response whose body failed after part of it had been sent, like a streamed search losing its database
+ * connection. Spring MVC treats an exception on a committed response as handled and completes the response, so the
+ * client could take the part it got for the whole body. {@code GlobalExceptionHandler} marks the request with
+ * {@link #ABORT_EXCEPTION_ATTRIBUTE} instead, and the exception is thrown out of the filter chain, where the container
+ * closes the connection before the end of the body.
+ */
+public class AbortedResponseFilter implements Filter {
+
+    public static final String ABORT_EXCEPTION_ATTRIBUTE = AbortedResponseFilter.class.getName() + ".EXCEPTION";
+
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+
+        chain.doFilter(request, response);
+
+        if (request.getAttribute(ABORT_EXCEPTION_ATTRIBUTE) instanceof Exception exception) {
+            throw new ServletException("Response aborted after it was committed", exception);
+        }
+    }
+
+}
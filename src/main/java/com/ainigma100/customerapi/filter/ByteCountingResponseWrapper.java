@@ -0,0 +1,122 @@
+package com.ainigma100.customerapi.filter;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+
+/**
+ * Response wrapper that counts the bytes of the response body as they are written.
+ *
+ * <p>Nothing is buffered, the bytes go straight through to the container's stream. It is only
+ * used for requests that are access-logged.</p>
+ */
+public class ByteCountingResponseWrapper extends HttpServletResponseWrapper {
+
+    private CountingServletOutputStream outputStream;
+    private PrintWriter writer;
+
+
+    public ByteCountingResponseWrapper(HttpServletResponse response) {
+        super(response);
+    }
+
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called for this response");
+        }
+
+        if (outputStream == null) {
+            outputStream = new CountingServletOutputStream(super.getOutputStream());
+        }
+
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+
+        if (writer == null) {
+
+            if (outputStream != null) {
+                throw new IllegalStateException("getOutputStream() has already been called for this response");
+            }
+
+            outputStream = new CountingServletOutputStream(super.getOutputStream());
+            writer = new PrintWriter(new OutputStreamWriter(outputStream, Charset.forName(getCharacterEncoding())));
+        }
+
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+
+        if (writer != null) {
+            writer.flush();
+        }
+
+        super.flushBuffer();
+    }
+
+    public long getBytesWritten() {
+
+        if (writer != null) {
+            writer.flush();
+        }
+
+        return outputStream != null ? outputStream.count : 0L;
+    }
+
+
+    private static final class CountingServletOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+        private long count;
+
+        private CountingServletOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+
+}
@@ -0,0 +1,43 @@
+package com.ainigma100.customerapi.filter;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Resolves the address of the client that sent a request, preferring the {@code Client-IP},
+ * {@code X-Forwarded-For} and {@code X-Real-IP} headers set by proxies over the remote address.
+ *
+ * <p>The headers can be set by the client itself, so the result identifies a client for logging and
+ * rate limiting, not for access decisions.</p>
+ */
+public final class ClientAddress {
+
+    private ClientAddress() {
+        throw new IllegalStateException("Utility class");
+    }
+
+
+    public static String resolve(HttpServletRequest request) {
+
+        String clientIP = request.getHeader("Client-IP");
+
+        if (isUnknown(clientIP)) {
+            clientIP = request.getHeader("X-Forwarded-For");
+        }
+
+        if (isUnknown(clientIP)) {
+            clientIP = request.getHeader("X-Real-IP");
+        }
+
+        if (isUnknown(clientIP)) {
+            clientIP = request.getRemoteAddr();
+        }
+
+        return clientIP != null ? clientIP : "Unknown";
+    }
+
+
+    private static boolean isUnknown(String clientIP) {
+        return clientIP == null || clientIP.isEmpty() || "unknown".equalsIgnoreCase(clientIP);
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.ainigma100.customerapi.filter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@link TokenBucket}s of the clients of one {@link RateLimitRule}, bounded so that clients making up new
+ * identities (a forged {@code X-Forwarded-For} per request) cannot grow it without limit.
+ *
+ * <p>The clients are spread over {@link #STRIPES} maps of bounded size. Looking up a known client is a lock-free
+ * {@link ConcurrentHashMap#get}, only a new client takes the lock of its hash bin. A new client also sweeps its
+ * stripe of the buckets that have been full for the idle timeout, once per idle timeout, or once a second while
+ * the stripe is full. A new client that still finds its stripe full shares one overflow bucket with the others.</p>
+ */
+class ClientBuckets {
+
+    static final int STRIPES = 64;
+
+    // bounds the sweeps of a full stripe, when new clients keep coming while none of the known ones is idle
+    private static final long FULL_SWEEP_INTERVAL_NANOS = 1_000_000_000L;
+
+    private final Map<String, TokenBucket>[] stripes;
+    private final AtomicLongArray lastSweepNanos = new AtomicLongArray(STRIPES);
+    private final int maxClientsPerStripe;
+    private final long idleTimeoutNanos;
+
+    private final TokenBucket overflowBucket;
+    private final LongAdder overflows = new LongAdder();
+
+
+    @SuppressWarnings("unchecked")
+    ClientBuckets(int maxClients, long idleTimeoutNanos, long nowNanos) {
+
+        if (maxClients < STRIPES) {
+            throw new IllegalArgumentException("Expected at least " + STRIPES + " clients, got " + maxClients);
+        }
+
+        this.stripes = new Map[STRIPES];
+        this.maxClientsPerStripe = (maxClients + STRIPES - 1) / STRIPES;
+        this.idleTimeoutNanos = idleTimeoutNanos;
+        this.overflowBucket = new TokenBucket(nowNanos);
+
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+            lastSweepNanos.set(i, nowNanos);
+        }
+    }
+
+
+    TokenBucket get(String client, long nowNanos) {
+
+        int index = stripe(client);
+        Map<String, TokenBucket> stripe = stripes[index];
+
+        TokenBucket bucket = stripe.get(client);
+
+        if (bucket != null) {
+            return bucket;
+        }
+
+        long lastSweep = lastSweepNanos.get(index);
+        boolean full = stripe.size() >= maxClientsPerStripe;
+        long sweepInterval = full ? Math.min(FULL_SWEEP_INTERVAL_NANOS, idleTimeoutNanos) : idleTimeoutNanos;
+
+        // one of the racing threads sweeps, the others go on
+        if (nowNanos - lastSweep >= sweepInterval && lastSweepNanos.compareAndSet(index, lastSweep, nowNanos)) {
+            // a request that has just looked up a removed bucket takes its token from a full bucket,
+            // just like it would from the new one
+            stripe.values().removeIf(candidate -> candidate.isIdle(nowNanos, idleTimeoutNanos));
+            full = stripe.size() >= maxClientsPerStripe;
+        }
+
+        if (full) {
+            overflows.increment();
+            return overflowBucket;
+        }
+
+        return stripe.computeIfAbsent(client, key -> new TokenBucket(nowNanos));
+    }
+
+    int size() {
+
+        int size = 0;
+
+        for (Map<String, TokenBucket> stripe : stripes) {
+            size += stripe.size();
+        }
+
+        return size;
+    }
+
+    long getOverflows() {
+        return overflows.sum();
+    }
+
+
+    private static int stripe(String client) {
+
+        // the low bits pick the bin inside the stripe's map, use the high ones
+        int hash = client.hashCode() * 0x9E3779B9;
+        return hash >>> (Integer.SIZE - Integer.numberOfTrailingZeros(STRIPES));
+    }
+
+}
@@ -0,0 +1,169 @@
+package com.ainigma100.customerapi.filter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An adaptive limit on the number of requests of one kind that run at the same time, following the latency
+ * they observe (a windowed gradient limit, as in Netflix' concurrency-limits).
+ *
+ * <p>The completed requests are collected in windows of at least as many requests as the limit, roughly one round
+ * trip, and the limit only changes once per window, so it does not run ahead of the latency it is waiting for.
+ * An exponential moving average of the window latencies stands for the latency without queueing. When a window is
+ * slower than that (times {@link #TOLERANCE}), requests are queueing somewhere, typically for a database connection,
+ * and the limit shrinks by the same ratio. Otherwise it grows by a small queue allowance, but only when the window
+ * actually used at least half of it. A window with a failed request (a 5xx, e.g. a connection timeout of the pool)
+ * cuts the limit by {@link #BACKOFF_RATIO} instead.</p>
+ */
+public class ConcurrencyLimit {
+
+    // how much slower than the long-term latency a window may be before the limit shrinks
+    private static final double TOLERANCE = 1.5;
+    private static final double BACKOFF_RATIO = 0.9;
+    // weight of a new limit against the current one
+    private static final double SMOOTHING = 0.2;
+
+    private static final int MIN_WINDOW_SIZE = 10;
+    // number of windows the long-term latency is averaged over
+    private static final double LONG_WINDOWS = 30;
+
+    private final int minLimit;
+    private final int maxLimit;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile int limit;
+
+    // guarded by this
+    private double estimatedLimit;
+    private double longLatencyNanos;
+    private int windowSize;
+    private long windowLatencyNanos;
+    private int windowMaxInFlight;
+    private boolean windowFailed;
+
+    /**
+     * The limit before and after one {@link #release}, both read under the same lock, so of all the requests that
+     * complete at the same time only the one whose window moved the limit sees it change.
+     */
+    public record Change(int before, int after) {
+
+        public boolean changed() {
+            return after != before;
+        }
+
+        public boolean increased() {
+            return after > before;
+        }
+    }
+
+
+    public ConcurrencyLimit(int initialLimit, int minLimit, int maxLimit) {
+
+        if (minLimit < 1 || initialLimit < minLimit || maxLimit < initialLimit) {
+            throw new IllegalArgumentException("Expected 1 <= minLimit <= initialLimit <= maxLimit, got "
+                    + minLimit + ", " + initialLimit + ", " + maxLimit);
+        }
+
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+    }
+
+
+    /**
+     * @return true when the request may run, it then has to call {@link #release} once it has completed
+     */
+    public boolean tryAcquire() {
+
+        while (true) {
+            int current = inFlight.get();
+
+            if (current >= limit) {
+                return false;
+            }
+
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @param latencyNanos how long the request took
+     * @param failed       whether it failed in a way that points to an overload
+     * @return the limit before and after this request, they only differ when this request has changed it
+     */
+    public Change release(long latencyNanos, boolean failed) {
+
+        int inFlightBefore = inFlight.getAndDecrement();
+
+        synchronized (this) {
+
+            int before = limit;
+
+            windowSize++;
+            windowLatencyNanos += latencyNanos;
+            windowMaxInFlight = Math.max(windowMaxInFlight, inFlightBefore);
+            windowFailed |= failed;
+
+            if (windowSize >= Math.max(MIN_WINDOW_SIZE, limit)) {
+                this.onWindow();
+            }
+
+            return new Change(before, limit);
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+
+    private void onWindow() {
+
+        double latencyNanos = (double) windowLatencyNanos / windowSize;
+        boolean used = windowMaxInFlight >= estimatedLimit / 2;
+        boolean failed = windowFailed;
+
+        windowSize = 0;
+        windowLatencyNanos = 0;
+        windowMaxInFlight = 0;
+        windowFailed = false;
+
+        if (failed) {
+            estimatedLimit = Math.max(minLimit, estimatedLimit * BACKOFF_RATIO);
+            limit = (int) estimatedLimit;
+            return;
+        }
+
+        if (longLatencyNanos == 0) {
+            longLatencyNanos = latencyNanos;
+            return;
+        }
+
+        longLatencyNanos += (latencyNanos - longLatencyNanos) / LONG_WINDOWS;
+
+        // after a lasting change of the latency the long average would keep shrinking the limit, let it catch up
+        if (longLatencyNanos / latencyNanos > 2) {
+            longLatencyNanos *= 0.95;
+        }
+
+        // a limit that is far from being used says nothing about how much more the backend could take
+        if (!used) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longLatencyNanos / latencyNanos));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+
+        newLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+
+}
@@ -0,0 +1,183 @@
+package com.ainigma100.customerapi.filter;
+
+import com.ainigma100.customerapi.dto.APIResponse;
+import com.ainigma100.customerapi.dto.ErrorDTO;
+import com.ainigma100.customerapi.enums.Status;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Sheds the customer API requests that exceed an adaptive {@link ConcurrencyLimit}, with {@code 503 Service Unavailable}
+ * and a {@code Retry-After} header, before they queue for a database connection and slow down everybody else.
+ *
+ * <p>Reads ({@code GET}, the {@code POST} searches and the multi-get) and writes have limits of their own, so a burst of slow
+ * writes does not starve the reads and the other way round. The filter runs after Spring Security, so a request
+ * without valid credentials never takes a place.</p>
+ *
+ * <p>Metrics, tagged with {@code endpoint=read|write}: {@code customer.api.concurrency.limit},
+ * {@code customer.api.concurrency.in-flight}, {@code customer.api.concurrency.limit.changes} (tagged with the
+ * {@code direction}) and {@code customer.api.concurrency.rejected}.</p>
+ */
+@Slf4j
+public class ConcurrencyLimitFilter implements Filter {
+
+    private static final String API_PATH_PREFIX = "/api/";
+    private static final String SEARCH_PATH_SEGMENT = "/search";
+    private static final String BY_IDS_PATH_SEGMENT = "/by-ids";
+
+    private final Map<EndpointType, ConcurrencyLimit> limits;
+    private final Map<EndpointType, Counter> rejections;
+    private final Map<EndpointType, Map<Boolean, Counter>> limitChanges;
+    private final Duration retryAfter;
+    private final JsonMapper jsonMapper;
+
+    public enum EndpointType {
+        READ, WRITE;
+
+        String tag() {
+            return name().toLowerCase();
+        }
+    }
+
+
+    public ConcurrencyLimitFilter(ConcurrencyLimit readLimit, ConcurrencyLimit writeLimit, Duration retryAfter,
+                                  MeterRegistry meterRegistry, JsonMapper jsonMapper) {
+
+        this.limits = Map.of(EndpointType.READ, readLimit, EndpointType.WRITE, writeLimit);
+        this.retryAfter = retryAfter;
+        this.jsonMapper = jsonMapper;
+
+        this.rejections = Map.of(
+                EndpointType.READ, rejectionCounter(meterRegistry, EndpointType.READ),
+                EndpointType.WRITE, rejectionCounter(meterRegistry, EndpointType.WRITE));
+
+        this.limitChanges = Map.of(
+                EndpointType.READ, limitChangeCounters(meterRegistry, EndpointType.READ),
+                EndpointType.WRITE, limitChangeCounters(meterRegistry, EndpointType.WRITE));
+
+        limits.forEach((type, limit) -> {
+            Gauge.builder("customer.api.concurrency.limit", limit, ConcurrencyLimit::getLimit)
+                    .description("Current adaptive limit of concurrent requests")
+                    .tag("endpoint", type.tag())
+                    .register(meterRegistry);
+
+            Gauge.builder("customer.api.concurrency.in-flight", limit, ConcurrencyLimit::getInFlight)
+                    .description("Requests currently running within the limit")
+                    .tag("endpoint", type.tag())
+                    .register(meterRegistry);
+        });
+    }
+
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+
+        HttpServletRequest httpServletRequest = (HttpServletRequest) request;
+        HttpServletResponse httpServletResponse = (HttpServletResponse) response;
+
+        String servletPath = httpServletRequest.getServletPath();
+
+        if (servletPath == null || !servletPath.startsWith(API_PATH_PREFIX)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        EndpointType type = endpointType(httpServletRequest.getMethod(), servletPath);
+        ConcurrencyLimit limit = limits.get(type);
+
+        if (!limit.tryAcquire()) {
+            rejections.get(type).increment();
+            this.reject(httpServletResponse);
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        boolean failed = true;
+
+        try {
+            chain.doFilter(request, response);
+            failed = httpServletResponse.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+
+        } finally {
+            this.release(type, limit, System.nanoTime() - startNanos, failed);
+        }
+    }
+
+
+    static EndpointType endpointType(String method, String servletPath) {
+
+        return switch (method) {
+            case "GET", "HEAD", "OPTIONS" -> EndpointType.READ;
+            // the searches and the multi-get only read, but need a request body
+            case "POST" -> servletPath.endsWith(SEARCH_PATH_SEGMENT) || servletPath.contains(SEARCH_PATH_SEGMENT + "/")
+                    || servletPath.endsWith(BY_IDS_PATH_SEGMENT)
+                    ? EndpointType.READ
+                    : EndpointType.WRITE;
+            default -> EndpointType.WRITE;
+        };
+    }
+
+    private void release(EndpointType type, ConcurrencyLimit limit, long latencyNanos, boolean failed) {
+
+        ConcurrencyLimit.Change change = limit.release(latencyNanos, failed);
+
+        if (change.changed()) {
+            limitChanges.get(type).get(change.increased()).increment();
+            log.debug("Concurrency limit of the {} endpoints changed from {} to {}", type.tag(), change.before(), change.after());
+        }
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+
+        APIResponse<ErrorDTO> apiResponse = new APIResponse<>();
+        apiResponse.setStatus(Status.FAILED.getValue());
+        apiResponse.setErrors(Collections.singletonList(
+                new ErrorDTO("", "The service is busy, please retry in " + retryAfter.toSeconds() + " seconds")));
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter.toSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+
+        jsonMapper.writeValue(response.getOutputStream(), apiResponse);
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, EndpointType type) {
+
+        return Counter.builder("customer.api.concurrency.rejected")
+                .description("Requests rejected with 503 because the concurrency limit was reached")
+                .tag("endpoint", type.tag())
+                .register(meterRegistry);
+    }
+
+    private static Map<Boolean, Counter> limitChangeCounters(MeterRegistry meterRegistry, EndpointType type) {
+
+        return Map.of(
+                true, limitChangeCounter(meterRegistry, type, "increase"),
+                false, limitChangeCounter(meterRegistry, type, "decrease"));
+    }
+
+    private static Counter limitChangeCounter(MeterRegistry meterRegistry, EndpointType type, String direction) {
+
+        return Counter.builder("customer.api.concurrency.limit.changes")
+                .description("Changes of the adaptive concurrency limit")
+                .tag("endpoint", type.tag())
+                .tag("direction", direction)
+                .register(meterRegistry);
+    }
+
+}
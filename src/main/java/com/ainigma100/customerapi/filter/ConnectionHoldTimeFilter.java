@@ -0,0 +1,74 @@
+package com.ainigma100.customerapi.filter;
+
+import com.ainigma100.customerapi.datasource.ConnectionHoldTimeTracker;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records, per request, how long JDBC connections were held in total and how many were checked out.
+ *
+ * <p>With open-in-view enabled a request keeps a single connection from the first query until the response
+ * has been serialized, with it disabled every transaction checks out and returns its own connection.
+ * Comparing {@code customer.api.request.connection.hold} with {@code hikaricp.connections.acquire} and
+ * the SQL time shows which of the two limits throughput.</p>
+ */
+public class ConnectionHoldTimeFilter implements Filter {
+
+    private static final String HOLD_TIME_METRIC = "customer.api.request.connection.hold";
+    private static final String CHECKOUTS_METRIC = "customer.api.request.connection.checkouts";
+
+    private final MeterRegistry meterRegistry;
+
+
+    public ConnectionHoldTimeFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+
+        ConnectionHoldTimeTracker.Scope scope = ConnectionHoldTimeTracker.begin();
+
+        try {
+            chain.doFilter(request, response);
+
+        } finally {
+            ConnectionHoldTimeTracker.end();
+
+            if (scope.getCheckouts() > 0) {
+                this.record((HttpServletRequest) request, scope);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, ConnectionHoldTimeTracker.Scope scope) {
+
+        Object uriPattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = uriPattern != null ? uriPattern.toString() : "UNKNOWN";
+
+        Timer.builder(HOLD_TIME_METRIC)
+                .description("Total time JDBC connections were held while processing a request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(scope.getTotalHoldNanos(), TimeUnit.NANOSECONDS);
+
+        DistributionSummary.builder(CHECKOUTS_METRIC)
+                .description("Number of JDBC connections checked out while processing a request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(scope.getCheckouts());
+    }
+
+}
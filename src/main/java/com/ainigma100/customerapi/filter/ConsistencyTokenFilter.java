@@ -0,0 +1,47 @@
+package com.ainigma100.customerapi.filter;
+
+import com.ainigma100.customerapi.datasource.ReadYourWrites;
+import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+
+/**
+ * Read-your-writes across requests: a committed write answers with a {@code Consistency-Token} header, the
+ * replication position of the primary after the commit, and a request sending that token back only reads from
+ * replicas that have replayed it, from the primary otherwise.
+ *
+ * <p>A request carrying a token gets it back unless it wrote something newer, so a client can simply keep sending
+ * the last token it has received.</p>
+ */
+public class ConsistencyTokenFilter implements Filter {
+
+    public static final String CONSISTENCY_TOKEN_HEADER = "Consistency-Token";
+
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+
+        HttpServletResponse httpServletResponse = (HttpServletResponse) response;
+
+        String token = ((HttpServletRequest) request).getHeader(CONSISTENCY_TOKEN_HEADER);
+
+        if (token != null) {
+            httpServletResponse.setHeader(CONSISTENCY_TOKEN_HEADER, token);
+        }
+
+        // the commit happens before the response is written, so the header can still be set
+        ReadYourWrites.begin(ReadYourWrites.parseToken(token),
+                position -> httpServletResponse.setHeader(CONSISTENCY_TOKEN_HEADER, Long.toString(position)));
+
+        try {
+            chain.doFilter(request, response);
+
+        } finally {
+            ReadYourWrites.end();
+        }
+    }
+
+}
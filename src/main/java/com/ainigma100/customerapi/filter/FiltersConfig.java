@@ -1,15 +1,25 @@
 package com.ainigma100.customerapi.filter;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.List;
 
 @AllArgsConstructor
 @Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
 public class FiltersConfig {
 
     private final LoggingFilter loggingFilter;
+    private final MeterRegistry meterRegistry;
 
     @Bean
     public FilterRegistrationBean<LoggingFilter> loggingFilterBean() {
@@ -23,4 +33,84 @@ public class FiltersConfig {
         return filterBean;
     }
 
+    @Bean
+    public FilterRegistrationBean<AbortedResponseFilter> abortedResponseFilterBean() {
+
+        final FilterRegistrationBean<AbortedResponseFilter> filterBean = new FilterRegistrationBean<>();
+        filterBean.setFilter(new AbortedResponseFilter());
+        filterBean.addUrlPatterns("/*");
+        // Outside the other application filters, they see the request complete as usual
+        filterBean.setOrder(Integer.MAX_VALUE-5);
+
+        return filterBean;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "customer-api.datasource.hold-time-tracking.enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<ConnectionHoldTimeFilter> connectionHoldTimeFilterBean() {
+
+        final FilterRegistrationBean<ConnectionHoldTimeFilter> filterBean = new FilterRegistrationBean<>();
+        filterBean.setFilter(new ConnectionHoldTimeFilter(meterRegistry));
+        filterBean.addUrlPatterns("/*");
+        // Runs outside the DispatcherServlet, so it also covers the connection kept open by open-in-view
+        filterBean.setOrder(Integer.MAX_VALUE-3);
+
+        return filterBean;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "customer-api.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilterBean(
+            JsonMapper jsonMapper,
+            @Value("${customer-api.concurrency-limit.read.initial:20}") int readInitialLimit,
+            @Value("${customer-api.concurrency-limit.read.min:4}") int readMinLimit,
+            @Value("${customer-api.concurrency-limit.read.max:200}") int readMaxLimit,
+            @Value("${customer-api.concurrency-limit.write.initial:10}") int writeInitialLimit,
+            @Value("${customer-api.concurrency-limit.write.min:2}") int writeMinLimit,
+            @Value("${customer-api.concurrency-limit.write.max:100}") int writeMaxLimit,
+            @Value("${customer-api.concurrency-limit.retry-after:1s}") Duration retryAfter) {
+
+        final FilterRegistrationBean<ConcurrencyLimitFilter> filterBean = new FilterRegistrationBean<>();
+        filterBean.setFilter(new ConcurrencyLimitFilter(
+                new ConcurrencyLimit(readInitialLimit, readMinLimit, readMaxLimit),
+                new ConcurrencyLimit(writeInitialLimit, writeMinLimit, writeMaxLimit),
+                retryAfter, meterRegistry, jsonMapper));
+        filterBean.addUrlPatterns("/*");
+        // Inside the LoggingFilter, so the rejected requests are access-logged as well
+        filterBean.setOrder(Integer.MAX_VALUE);
+
+        return filterBean;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "customer-api.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterBean(JsonMapper jsonMapper, RateLimitProperties properties) {
+
+        List<RateLimitRule> rules = properties.getRules().stream()
+                .map(rule -> new RateLimitRule(rule.getName(), rule.getMethods(), rule.getPath(), rule.getCapacity(),
+                        rule.getRefillPerSecond(), properties.getMaxClients(), properties.getIdleTimeout().toNanos()))
+                .toList();
+
+        final FilterRegistrationBean<RateLimitFilter> filterBean = new FilterRegistrationBean<>();
+        filterBean.setFilter(new RateLimitFilter(rules, meterRegistry, jsonMapper));
+        filterBean.addUrlPatterns("/*");
+        // Before the ConcurrencyLimitFilter, so a client over its rate does not take a place of the others
+        filterBean.setOrder(Integer.MAX_VALUE-1);
+
+        return filterBean;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = {"customer-api.datasource.routing.enabled", "customer-api.datasource.routing.read-your-writes.enabled"}, havingValue = "true")
+    public FilterRegistrationBean<ConsistencyTokenFilter> consistencyTokenFilterBean() {
+
+        final FilterRegistrationBean<ConsistencyTokenFilter> filterBean = new FilterRegistrationBean<>();
+        filterBean.setFilter(new ConsistencyTokenFilter());
+        filterBean.addUrlPatterns("/*");
+        // Before the other application filters, so every query of the request sees the token
+        filterBean.setOrder(Integer.MAX_VALUE-4);
+
+        return filterBean;
+    }
+
 }
@@ -1,25 +1,38 @@
 package com.ainigma100.customerapi.filter;
 
+import com.ainigma100.customerapi.jfr.HttpRequestEvent;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 /**
- * LoggingFilter is a servlet filter that logs HTTP requests and responses.
+ * LoggingFilter is a servlet filter that writes one access-log record per HTTP request.
  *
- * <p>This filter logs the URL and method of incoming requests and the status
- * of outgoing responses. It excludes certain paths from logging, such as those
- * related to Actuator, Swagger, API documentation, favicon, and UI resources.</p>
+ * <p>The record is written after the response has been produced and contains the method, path,
+ * status, response size in bytes, latency and client IP in a single {@code key=value} line.
+ * It is written to the {@code ACCESS_LOG} logger, which {@code logback-spring.xml} routes
+ * through a bounded asynchronous appender that drops records instead of blocking when full.</p>
+ *
+ * <p>Certain paths are excluded from logging, such as those related to Actuator, Swagger,
+ * API documentation, favicon, and UI resources. For those paths the filter does no work
+ * besides the {@link RequestPathClassifier} check.</p>
  *
  */
 @Component
 @Slf4j
 public class LoggingFilter implements Filter {
 
+    public static final String ACCESS_LOG_NAME = "ACCESS_LOG";
+
+    private static final Logger accessLog = LoggerFactory.getLogger(ACCESS_LOG_NAME);
+
 
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
@@ -28,46 +41,101 @@ public class LoggingFilter implements Filter {
         HttpServletRequest httpServletRequest = (HttpServletRequest) request;
         HttpServletResponse httpServletResponse = (HttpServletResponse) response;
 
-        String clientIP = this.getClientIP(httpServletRequest);
+        // JFR event for the whole request, it is only committed while a recording has it enabled
+        HttpRequestEvent event = new HttpRequestEvent();
+        event.begin();
+
+        try {
+            this.doFilterAndLog(httpServletRequest, httpServletResponse, chain);
+
+        } finally {
+            event.end();
+
+            if (event.shouldCommit()) {
+                event.method = httpServletRequest.getMethod();
+                event.path = httpServletRequest.getRequestURI();
+                event.status = httpServletResponse.getStatus();
+                event.commit();
+            }
+        }
+
+    }
+
+    private void doFilterAndLog(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
 
-        if ( this.shouldLogRequest(httpServletRequest) ) {
-            log.info("Client IP: {}, Request URL: {}, Method: {}", clientIP, httpServletRequest.getRequestURL(), httpServletRequest.getMethod());
+        if ( !this.shouldLogRequest(request) ) {
+            chain.doFilter(request, response);
+            return;
         }
 
-        // pre methods call stamps
-        chain.doFilter(request, response);
+        long startNanos = System.nanoTime();
+        ByteCountingResponseWrapper responseWrapper = new ByteCountingResponseWrapper(response);
+
+        try {
+            chain.doFilter(request, responseWrapper);
+
+        } finally {
 
-        // post method calls stamps
-        if ( this.shouldLogRequest(httpServletRequest) ) {
-            log.info("Response status: {}", httpServletResponse.getStatus());
+            if (request.isAsyncStarted()) {
+                // streaming responses are still being written, log once the async request completes
+                request.getAsyncContext().addListener(new AccessLogAsyncListener(request, responseWrapper, startNanos));
+            } else {
+                this.logAccess(request, responseWrapper, startNanos);
+            }
         }
 
     }
 
     private boolean shouldLogRequest(HttpServletRequest request) {
+        return accessLog.isInfoEnabled() && !RequestPathClassifier.isExcluded(request.getServletPath());
+    }
+
+    private void logAccess(HttpServletRequest request, ByteCountingResponseWrapper response, long startNanos) {
 
-        // (?i) enables case-insensitive matching, \b matched as whole words
-        // reference: https://developer.mozilla.org/en-US/docs/Web/JavaScript/Reference/Regular_expressions
-        return !request.getServletPath().matches("(?i).*\\b(actuator|swagger|api-docs|favicon|ui)\\b.*");
+        long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+
+        accessLog.info("method={} path={} status={} bytes={} latencyMicros={} clientIp={}",
+                request.getMethod(),
+                request.getRequestURI(),
+                response.getStatus(),
+                response.getBytesWritten(),
+                latencyMicros,
+                ClientAddress.resolve(request));
     }
 
-    private String getClientIP(HttpServletRequest request) {
 
-        String clientIP = request.getHeader("Client-IP");
+    private final class AccessLogAsyncListener implements AsyncListener {
+
+        private final HttpServletRequest request;
+        private final ByteCountingResponseWrapper response;
+        private final long startNanos;
 
-        if (clientIP == null || clientIP.isEmpty() || "unknown".equalsIgnoreCase(clientIP)) {
-            clientIP = request.getHeader("X-Forwarded-For");
+        private AccessLogAsyncListener(HttpServletRequest request, ByteCountingResponseWrapper response, long startNanos) {
+            this.request = request;
+            this.response = response;
+            this.startNanos = startNanos;
         }
 
-        if (clientIP == null || clientIP.isEmpty() || "unknown".equalsIgnoreCase(clientIP)) {
-            clientIP = request.getHeader("X-Real-IP");
+        @Override
+        public void onComplete(AsyncEvent event) {
+            logAccess(request, response, startNanos);
         }
 
-        if (clientIP == null || clientIP.isEmpty() || "unknown".equalsIgnoreCase(clientIP)) {
-            clientIP = request.getRemoteAddr();
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            // onComplete is still called after a timeout
         }
 
-        return clientIP != null ? clientIP : "Unknown";
+        @Override
+        public void onError(AsyncEvent event) {
+            log.error("Async request failed: {}", request.getRequestURI(), event.getThrowable());
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
     }
 
 }
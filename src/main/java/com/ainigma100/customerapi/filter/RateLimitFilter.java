@@ -0,0 +1,148 @@
+package com.ainigma100.customerapi.filter;
+
+import com.ainigma100.customerapi.dto.APIResponse;
+import com.ainigma100.customerapi.dto.ErrorDTO;
+import com.ainigma100.customerapi.enums.Status;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the request rate of every client with the first matching {@link RateLimitRule}, answering
+ * {@code 429 Too Many Requests} with a {@code Retry-After} header once its token bucket is empty.
+ *
+ * <p>A client is the JWT subject of an authenticated request, so the users behind one proxy do not share a bucket,
+ * otherwise the {@link ClientAddress}. The filter runs after Spring Security, which has authenticated the request
+ * by then. Requests no rule matches are not limited.</p>
+ *
+ * <p>Metrics, tagged with the {@code rule}: {@code customer.api.rate-limit.rejected},
+ * {@code customer.api.rate-limit.clients} (the buckets currently held) and {@code customer.api.rate-limit.overflow}
+ * (new clients that had to share the overflow bucket).</p>
+ */
+public class RateLimitFilter implements Filter {
+
+    private static final String SUBJECT_PREFIX = "subject:";
+    private static final String ADDRESS_PREFIX = "address:";
+
+    private final List<LimitedRule> rules;
+    private final JsonMapper jsonMapper;
+
+    private record LimitedRule(RateLimitRule rule, Counter rejections) {
+    }
+
+
+    public RateLimitFilter(List<RateLimitRule> rules, MeterRegistry meterRegistry, JsonMapper jsonMapper) {
+
+        this.jsonMapper = jsonMapper;
+
+        this.rules = rules.stream()
+                .map(rule -> new LimitedRule(rule, Counter.builder("customer.api.rate-limit.rejected")
+                        .description("Requests rejected with 429 because the client ran out of tokens")
+                        .tag("rule", rule.getName())
+                        .register(meterRegistry)))
+                .toList();
+
+        rules.forEach(rule -> {
+            Gauge.builder("customer.api.rate-limit.clients", rule, RateLimitRule::getClientCount)
+                    .description("Clients with a token bucket")
+                    .tag("rule", rule.getName())
+                    .register(meterRegistry);
+
+            FunctionCounter.builder("customer.api.rate-limit.overflow", rule, RateLimitRule::getOverflows)
+                    .description("New clients that shared the overflow bucket because the rule held too many clients")
+                    .tag("rule", rule.getName())
+                    .register(meterRegistry);
+        });
+    }
+
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+
+        HttpServletRequest httpServletRequest = (HttpServletRequest) request;
+
+        LimitedRule limitedRule = this.matchingRule(httpServletRequest);
+
+        if (limitedRule == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long waitNanos = limitedRule.rule().tryConsume(client(httpServletRequest), System.nanoTime());
+
+        if (waitNanos > 0) {
+            limitedRule.rejections().increment();
+            this.reject((HttpServletResponse) response, waitNanos);
+            return;
+        }
+
+        chain.doFilter(request, response);
+    }
+
+
+    private LimitedRule matchingRule(HttpServletRequest request) {
+
+        String servletPath = request.getServletPath();
+
+        if (servletPath == null || servletPath.isEmpty()) {
+            return null;
+        }
+
+        String method = request.getMethod();
+
+        for (LimitedRule limitedRule : rules) {
+            if (limitedRule.rule().matches(method, servletPath)) {
+                return limitedRule;
+            }
+        }
+
+        return null;
+    }
+
+    private static String client(HttpServletRequest request) {
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (authentication instanceof JwtAuthenticationToken jwtAuthentication
+                && jwtAuthentication.getToken().getSubject() != null) {
+            return SUBJECT_PREFIX + jwtAuthentication.getToken().getSubject();
+        }
+
+        return ADDRESS_PREFIX + ClientAddress.resolve(request);
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+
+        // whole seconds, rounded up
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+
+        APIResponse<ErrorDTO> apiResponse = new APIResponse<>();
+        apiResponse.setStatus(Status.FAILED.getValue());
+        apiResponse.setErrors(Collections.singletonList(
+                new ErrorDTO("", "Too many requests, please retry in " + retryAfterSeconds + " seconds")));
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+
+        jsonMapper.writeValue(response.getOutputStream(), apiResponse);
+    }
+
+}
@@ -0,0 +1,49 @@
+package com.ainigma100.customerapi.filter;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code customer-api.rate-limit} settings of the {@link RateLimitFilter}. The rules are a list, which
+ * {@code @Value} cannot bind.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "customer-api.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // per rule, the clients beyond it share one bucket
+    private int maxClients = 100_000;
+
+    // how long a bucket has to be full before it is dropped
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    // the first rule matching a request applies
+    private List<Rule> rules = new ArrayList<>();
+
+
+    @Getter
+    @Setter
+    public static class Rule {
+
+        private String name;
+
+        // empty for all methods
+        private List<String> methods = new ArrayList<>();
+
+        // a servlet path pattern, e.g. /api/v1/customers/search/**
+        private String path;
+
+        private int capacity;
+
+        private double refillPerSecond;
+    }
+
+}
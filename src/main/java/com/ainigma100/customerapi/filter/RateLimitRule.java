@@ -0,0 +1,131 @@
+package com.ainigma100.customerapi.filter;
+
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * A rate limit for the requests matching some HTTP methods (all of them when none are given) and a servlet path
+ * pattern, with a {@link TokenBucket} of {@code capacity} tokens per client that refills at {@code refillPerSecond}.
+ *
+ * <p>The path pattern is split into segments once: a literal, {@code *} or a {@code {variable}} for any one segment,
+ * and a final {@code **} for any number of them, none included. Matching walks the servlet path without allocating,
+ * unlike {@code PathPattern}, which needs the path parsed into a {@code PathContainer} first, and every limited
+ * request goes through it.</p>
+ */
+public class RateLimitRule {
+
+    @Getter
+    private final String name;
+    private final Set<String> methods;
+    // null for any one segment
+    private final String[] pathSegments;
+    // whether the pattern ends with **
+    private final boolean anyTrailingSegments;
+
+    private final long refillIntervalNanos;
+    private final long capacityNanos;
+
+    private final ClientBuckets buckets;
+
+
+    public RateLimitRule(String name, Collection<String> methods, String pathPattern, int capacity,
+                         double refillPerSecond, int maxClients, long idleTimeoutNanos) {
+
+        if (capacity < 1 || !(refillPerSecond > 0)) {
+            throw new IllegalArgumentException("Expected a positive capacity and refill rate for the rate limit rule "
+                    + name + ", got " + capacity + " and " + refillPerSecond);
+        }
+
+        if (pathPattern == null || !pathPattern.startsWith("/")) {
+            throw new IllegalArgumentException("Expected a path pattern starting with /, got " + pathPattern);
+        }
+
+        boolean trailingWildcard = pathPattern.endsWith("/**");
+
+        if (pathPattern.indexOf("**") != (trailingWildcard ? pathPattern.length() - 2 : -1)) {
+            throw new IllegalArgumentException("** is only supported at the end of a path pattern, got " + pathPattern);
+        }
+
+        this.name = name;
+        this.methods = methods.stream().map(String::toUpperCase).collect(Collectors.toUnmodifiableSet());
+        this.anyTrailingSegments = trailingWildcard;
+        this.pathSegments = parsePathSegments(trailingWildcard
+                ? pathPattern.substring(0, pathPattern.length() - "/**".length())
+                : pathPattern);
+        this.refillIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond);
+        this.capacityNanos = capacity * refillIntervalNanos;
+        this.buckets = new ClientBuckets(maxClients, idleTimeoutNanos, System.nanoTime());
+    }
+
+
+    boolean matches(String method, String servletPath) {
+        return (methods.isEmpty() || methods.contains(method)) && this.matchesPath(servletPath);
+    }
+
+    /**
+     * @return 0 when the client may go on, otherwise how long it has to wait for its next token
+     */
+    long tryConsume(String client, long nowNanos) {
+        return buckets.get(client, nowNanos).tryConsume(nowNanos, refillIntervalNanos, capacityNanos);
+    }
+
+    public int getClientCount() {
+        return buckets.size();
+    }
+
+    public long getOverflows() {
+        return buckets.getOverflows();
+    }
+
+
+    private boolean matchesPath(String servletPath) {
+
+        int position = 0;
+
+        for (String segment : pathSegments) {
+
+            if (position >= servletPath.length() || servletPath.charAt(position) != '/') {
+                return false;
+            }
+
+            int start = position + 1;
+            int end = servletPath.indexOf('/', start);
+            end = end < 0 ? servletPath.length() : end;
+
+            boolean matches = segment == null
+                    ? end > start
+                    : end - start == segment.length() && servletPath.startsWith(segment, start);
+
+            if (!matches) {
+                return false;
+            }
+
+            position = end;
+        }
+
+        return anyTrailingSegments || position == servletPath.length();
+    }
+
+    private static String[] parsePathSegments(String path) {
+
+        // what is left of /**
+        if (path.isEmpty()) {
+            return new String[0];
+        }
+
+        String[] segments = path.substring(1).split("/", -1);
+
+        for (int i = 0; i < segments.length; i++) {
+            if ("*".equals(segments[i]) || segments[i].startsWith("{") && segments[i].endsWith("}")) {
+                segments[i] = null;
+            }
+        }
+
+        return segments;
+    }
+
+}
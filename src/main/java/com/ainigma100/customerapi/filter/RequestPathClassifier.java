@@ -0,0 +1,29 @@
+package com.ainigma100.customerapi.filter;
+
+import java.util.regex.Pattern;
+
+/**
+ * Decides whether a servlet path belongs to the infrastructure endpoints that should not be access-logged.
+ *
+ * <p>The pattern is compiled once and evaluated with {@code find()}, so no {@code .*} prefix/suffix
+ * backtracking is needed and no new {@link Pattern} is compiled per request
+ * (which is what {@code String.matches} does).</p>
+ */
+public final class RequestPathClassifier {
+
+    // (?i) enables case-insensitive matching, \b matched as whole words
+    // reference: https://developer.mozilla.org/en-US/docs/Web/JavaScript/Reference/Regular_expressions
+    private static final Pattern EXCLUDED_PATHS =
+            Pattern.compile("\\b(actuator|swagger|api-docs|favicon|ui)\\b", Pattern.CASE_INSENSITIVE);
+
+
+    private RequestPathClassifier() {
+        throw new IllegalStateException("Utility class");
+    }
+
+
+    public static boolean isExcluded(String servletPath) {
+        return servletPath != null && EXCLUDED_PATHS.matcher(servletPath).find();
+    }
+
+}
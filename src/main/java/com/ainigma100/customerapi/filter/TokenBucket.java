@@ -0,0 +1,55 @@
+package com.ainigma100.customerapi.filter;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * A token bucket of one client, kept as the single timestamp at which it will be full again
+ * (the generic cell rate algorithm), so taking a token is one compare-and-set without a lock.
+ *
+ * <p>Every token moves that timestamp one refill interval further. A request is allowed as long as the timestamp
+ * stays within the capacity (in refill intervals) ahead of now. The capacity and the refill interval belong to the
+ * {@link RateLimitRule}, which keeps the bucket down to one {@code long} per client.</p>
+ */
+class TokenBucket {
+
+    // a field updater instead of an AtomicLong saves an object, and a cache miss, per client
+    private static final AtomicLongFieldUpdater<TokenBucket> FULL_AT_NANOS =
+            AtomicLongFieldUpdater.newUpdater(TokenBucket.class, "fullAtNanos");
+
+    // System.nanoTime() at which the bucket is full again, in the past while it is full
+    private volatile long fullAtNanos;
+
+
+    TokenBucket(long nowNanos) {
+        this.fullAtNanos = nowNanos;
+    }
+
+
+    /**
+     * @return 0 when a token was taken, otherwise how long the client has to wait for the next one
+     */
+    long tryConsume(long nowNanos, long refillIntervalNanos, long capacityNanos) {
+
+        while (true) {
+            long fullAt = fullAtNanos;
+            long next = (fullAt - nowNanos > 0 ? fullAt : nowNanos) + refillIntervalNanos;
+            long waitNanos = next - nowNanos - capacityNanos;
+
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+
+            if (FULL_AT_NANOS.compareAndSet(this, fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * A bucket that has been full for the idle timeout can be dropped, a new one starts full as well.
+     */
+    boolean isIdle(long nowNanos, long idleTimeoutNanos) {
+        return nowNanos - fullAtNanos >= idleTimeoutNanos;
+    }
+
+}
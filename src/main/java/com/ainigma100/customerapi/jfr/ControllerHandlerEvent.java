@@ -0,0 +1,17 @@
+package com.ainigma100.customerapi.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event covering a {@code CustomerController} handler method, excluding the response serialization.
+ */
+@Name("com.ainigma100.customerapi.ControllerHandler")
+@Label("Controller Handler")
+@Category({"Customer API", "Controller"})
+@StackTrace(false)
+public class ControllerHandlerEvent extends Event {
+
+    @Label("Handler")
+    public String handler;
+
+}
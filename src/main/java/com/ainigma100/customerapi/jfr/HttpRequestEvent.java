@@ -0,0 +1,25 @@
+package com.ainigma100.customerapi.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event covering a request from {@code LoggingFilter} down to the response being written,
+ * which includes the handler, the service call and the Jackson serialization.
+ */
+@Name("com.ainigma100.customerapi.HttpRequest")
+@Label("HTTP Request")
+@Category({"Customer API", "Web"})
+@Description("Request processing inside LoggingFilter, including handler execution and response serialization")
+@StackTrace(false)
+public class HttpRequestEvent extends Event {
+
+    @Label("Method")
+    public String method;
+
+    @Label("Path")
+    public String path;
+
+    @Label("Status")
+    public int status;
+
+}
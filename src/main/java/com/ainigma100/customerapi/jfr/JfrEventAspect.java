@@ -0,0 +1,97 @@
+package com.ainigma100.customerapi.jfr;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Emits JFR events around the controller, service and repository layers.
+ *
+ * <p>When no recording has the events enabled, {@code isEnabled()} returns false and the advice only
+ * calls {@code proceed()}. The method name is only resolved for events that are going to be committed.
+ * Set {@code customer-api.jfr.events.enabled=false} to remove the aspect (and its proxies) completely.</p>
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "customer-api.jfr.events.enabled", havingValue = "true", matchIfMissing = true)
+public class JfrEventAspect {
+
+
+    @Around("execution(public * com.ainigma100.customerapi.controller..*(..))")
+    public Object recordControllerHandler(ProceedingJoinPoint joinPoint) throws Throwable {
+
+        ControllerHandlerEvent event = new ControllerHandlerEvent();
+
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+
+        event.begin();
+
+        try {
+            return joinPoint.proceed();
+
+        } finally {
+            event.end();
+
+            if (event.shouldCommit()) {
+                event.handler = joinPoint.getSignature().getName();
+                event.commit();
+            }
+        }
+    }
+
+
+    @Around("execution(public * com.ainigma100.customerapi.service.impl..*(..))")
+    public Object recordServiceMethod(ProceedingJoinPoint joinPoint) throws Throwable {
+
+        ServiceMethodEvent event = new ServiceMethodEvent();
+
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+
+        event.begin();
+
+        try {
+            return joinPoint.proceed();
+
+        } finally {
+            event.end();
+
+            if (event.shouldCommit()) {
+                event.method = joinPoint.getSignature().getName();
+                event.commit();
+            }
+        }
+    }
+
+
+    // Spring Data repositories are proxies of the interface, so match on the proxy type instead of the package
+    @Around("this(com.ainigma100.customerapi.repository.CustomerRepository) && execution(* *(..))")
+    public Object recordRepositoryCall(ProceedingJoinPoint joinPoint) throws Throwable {
+
+        RepositoryCallEvent event = new RepositoryCallEvent();
+
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+
+        event.begin();
+
+        try {
+            return joinPoint.proceed();
+
+        } finally {
+            event.end();
+
+            if (event.shouldCommit()) {
+                event.method = joinPoint.getSignature().getName();
+                event.commit();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,174 @@
+package com.ainigma100.customerapi.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Actuator endpoint to profile a running instance with JDK Flight Recorder, without restarting it.
+ *
+ * <ul>
+ *     <li>{@code GET /actuator/jfr} lists the recordings started through this endpoint</li>
+ *     <li>{@code POST /actuator/jfr/{name}} starts a recording, the name is made of letters, digits, {@code .},
+ *     {@code _} and {@code -}. Optional JSON body:
+ *     {@code {"settings": "profile", "maxAgeSeconds": 600, "maxSizeMb": 250}}</li>
+ *     <li>{@code GET /actuator/jfr/{name}} dumps the recording so far as a {@code .jfr} file</li>
+ *     <li>{@code DELETE /actuator/jfr/{name}} stops and discards the recording</li>
+ * </ul>
+ *
+ * <p>Every recording enables the Customer API events ({@link HttpRequestEvent}, {@link ControllerHandlerEvent},
+ * {@link ServiceMethodEvent}, {@link RepositoryCallEvent} and {@link MaskDataEvent}) on top of the
+ * selected JDK settings ({@code default} or {@code profile}).</p>
+ */
+@Slf4j
+@Component
+@WebEndpoint(id = "jfr")
+public class JfrRecordingEndpoint {
+
+    private static final List<Class<? extends jdk.jfr.Event>> CUSTOMER_API_EVENTS = List.of(
+            HttpRequestEvent.class,
+            ControllerHandlerEvent.class,
+            ServiceMethodEvent.class,
+            RepositoryCallEvent.class,
+            MaskDataEvent.class);
+
+    // the name is part of the dump file name, so no path separators or other characters a file name cannot have
+    private static final Pattern RECORDING_NAME = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]{0,63}");
+
+    private final Map<String, Recording> recordings = new ConcurrentHashMap<>();
+    private final Map<String, Path> dumpFiles = new ConcurrentHashMap<>();
+
+
+    @ReadOperation
+    public Map<String, Object> recordings() {
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        recordings.forEach((name, recording) -> result.put(name, describe(recording)));
+
+        return result;
+    }
+
+
+    @WriteOperation
+    public WebEndpointResponse<Map<String, Object>> start(@Selector String name,
+                                                          @Nullable String settings,
+                                                          @Nullable Long maxAgeSeconds,
+                                                          @Nullable Long maxSizeMb) {
+
+        if (!RECORDING_NAME.matcher(name).matches()) {
+            return new WebEndpointResponse<>(Map.of("error", "Recording names start with a letter or digit and only "
+                    + "contain letters, digits, '.', '_' and '-', up to 64 characters"), WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings != null ? settings : "profile");
+        } catch (IOException | ParseException e) {
+            log.error("Unable to load JFR settings '{}'", settings, e);
+            return new WebEndpointResponse<>(Map.of("error", "Unknown JFR settings: " + settings), WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+
+        Recording recording = new Recording(configuration);
+        recording.setName(name);
+        recording.setToDisk(true);
+        recording.setMaxAge(Duration.ofSeconds(maxAgeSeconds != null ? maxAgeSeconds : 600));
+        recording.setMaxSize((maxSizeMb != null ? maxSizeMb : 250) * 1024 * 1024);
+
+        for (Class<? extends jdk.jfr.Event> eventClass : CUSTOMER_API_EVENTS) {
+            recording.enable(eventClass).withThreshold(Duration.ZERO);
+        }
+
+        if (recordings.putIfAbsent(name, recording) != null) {
+            recording.close();
+            return new WebEndpointResponse<>(Map.of("error", "Recording '" + name + "' is already running"), WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+
+        recording.start();
+        log.info("Started JFR recording '{}' with settings '{}'", name, configuration.getName());
+
+        return new WebEndpointResponse<>(describe(recording), WebEndpointResponse.STATUS_OK);
+    }
+
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> dump(@Selector String name) throws IOException {
+
+        Recording recording = recordings.get(name);
+
+        if (recording == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+
+        Path dumpFile = Files.createTempFile("customer-api-" + name + "-", ".jfr");
+        dumpFile.toFile().deleteOnExit();
+        recording.dump(dumpFile);
+
+        // keep only the latest dump of each recording on disk
+        Path previousDumpFile = dumpFiles.put(name, dumpFile);
+        if (previousDumpFile != null) {
+            Files.deleteIfExists(previousDumpFile);
+        }
+
+        log.info("Dumped JFR recording '{}' to {}", name, dumpFile);
+
+        return new WebEndpointResponse<>(new FileSystemResource(dumpFile), WebEndpointResponse.STATUS_OK);
+    }
+
+
+    @DeleteOperation
+    public WebEndpointResponse<Map<String, Object>> stop(@Selector String name) throws IOException {
+
+        Recording recording = recordings.remove(name);
+
+        if (recording == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+
+        recording.close();
+
+        Path dumpFile = dumpFiles.remove(name);
+        if (dumpFile != null) {
+            Files.deleteIfExists(dumpFile);
+        }
+
+        log.info("Stopped JFR recording '{}'", name);
+
+        return new WebEndpointResponse<>(describe(recording), WebEndpointResponse.STATUS_OK);
+    }
+
+
+    private Map<String, Object> describe(Recording recording) {
+
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("id", recording.getId());
+        details.put("name", recording.getName());
+        details.put("state", recording.getState().name());
+        details.put("startTime", recording.getStartTime());
+        details.put("maxAge", recording.getMaxAge());
+        details.put("maxSizeBytes", recording.getMaxSize());
+
+        return details;
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.ainigma100.customerapi.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event covering the masking and writing of a single {@code @MaskData} value.
+ */
+@Name("com.ainigma100.customerapi.MaskData")
+@Label("Mask Data")
+@Category({"Customer API", "Serialization"})
+@StackTrace(false)
+public class MaskDataEvent extends Event {
+
+    @Label("Value Length")
+    public int length;
+
+}
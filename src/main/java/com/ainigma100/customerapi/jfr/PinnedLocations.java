@@ -0,0 +1,68 @@
+package com.ainigma100.customerapi.jfr;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Where the virtual threads of {@link VirtualThreadPinningMonitor} were pinned: the first class on the stack outside
+ * the JDK. Up to {@code maxLocations} locations are told apart, the ones after that are all {@value #OTHER}, which
+ * bounds both the warnings and the {@code location} tags when the stack traces vary a lot.
+ */
+class PinnedLocations {
+
+    static final String OTHER = "other";
+    static final String UNKNOWN = "unknown";
+
+    private static final List<String> JDK_PACKAGES = List.of("java.", "javax.", "jdk.", "sun.", "com.sun.");
+
+    private final int maxLocations;
+    private final Set<String> locations = ConcurrentHashMap.newKeySet();
+
+
+    PinnedLocations(int maxLocations) {
+        this.maxLocations = maxLocations;
+    }
+
+
+    /**
+     * @param frameTypes the classes of the Java frames of the stack trace, innermost first
+     * @return the location to tag the event with, and whether it is the first event there
+     */
+    Location locate(List<String> frameTypes) {
+
+        String location = location(frameTypes);
+
+        if (locations.contains(location)) {
+            return new Location(location, false);
+        }
+
+        // the check and the add are not atomic, so a few more than maxLocations can get in under contention
+        if (locations.size() >= maxLocations) {
+            return new Location(OTHER, false);
+        }
+
+        return new Location(location, locations.add(location));
+    }
+
+    static String location(List<String> frameTypes) {
+
+        if (frameTypes.isEmpty()) {
+            return UNKNOWN;
+        }
+
+        return frameTypes.stream()
+                .filter(type -> JDK_PACKAGES.stream().noneMatch(type::startsWith))
+                .findFirst()
+                .orElse(frameTypes.getFirst());
+    }
+
+
+    /**
+     * @param tag   the location, or {@value #OTHER} once there are {@code maxLocations}
+     * @param first true only for the first event at a location that is not {@value #OTHER}
+     */
+    record Location(String tag, boolean first) {
+    }
+
+}
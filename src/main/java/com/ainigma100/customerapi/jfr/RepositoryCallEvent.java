@@ -0,0 +1,17 @@
+package com.ainigma100.customerapi.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event covering a repository call, which is the SQL execution plus the Hibernate work around it.
+ */
+@Name("com.ainigma100.customerapi.RepositoryCall")
+@Label("Repository Call")
+@Category({"Customer API", "Repository"})
+@StackTrace(false)
+public class RepositoryCallEvent extends Event {
+
+    @Label("Method")
+    public String method;
+
+}
@@ -0,0 +1,17 @@
+package com.ainigma100.customerapi.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event covering a service method, including the MapStruct mapping and the repository calls it makes.
+ */
+@Name("com.ainigma100.customerapi.ServiceMethod")
+@Label("Service Method")
+@Category({"Customer API", "Service"})
+@StackTrace(false)
+public class ServiceMethodEvent extends Event {
+
+    @Label("Method")
+    public String method;
+
+}
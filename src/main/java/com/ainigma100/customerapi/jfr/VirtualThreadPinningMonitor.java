@@ -0,0 +1,138 @@
+package com.ainigma100.customerapi.jfr;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads that block while pinned to their carrier thread, so the carrier cannot run other
+ * virtual threads in the meantime. A JFR stream of the {@code jdk.VirtualThreadPinned} events above
+ * {@code customer-api.virtual-threads.pinning.threshold} feeds:
+ *
+ * <ul>
+ *     <li>the {@code customer.api.virtual-threads.pinned} timer, tagged with the first frame outside the JDK
+ *     ({@code location}), typically a JDBC driver, the connection pool or a logging appender</li>
+ *     <li>one warning with the stack trace for every new location</li>
+ * </ul>
+ *
+ * <p>Only active when the application runs on virtual threads ({@code spring.threads.virtual.enabled=true}).
+ * Since JDK 24 waiting in {@code synchronized} no longer pins, what is left are native frames and class initializers.</p>
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnProperty(name = "customer-api.virtual-threads.pinning.enabled", havingValue = "true", matchIfMissing = true)
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String PINNED_METRIC = "customer.api.virtual-threads.pinned";
+
+    // bounds the warnings, and the location tags with them, if the stack traces vary a lot
+    private static final int MAX_REPORTED_LOCATIONS = 100;
+    private static final int LOGGED_FRAMES = 15;
+
+    private final MeterRegistry meterRegistry;
+    private final Duration threshold;
+
+    private final PinnedLocations pinnedLocations = new PinnedLocations(MAX_REPORTED_LOCATIONS);
+
+    private volatile RecordingStream recordingStream;
+
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${customer-api.virtual-threads.pinning.threshold:20ms}") Duration threshold) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = threshold;
+    }
+
+
+    @Override
+    public void start() {
+
+        RecordingStream stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+
+        recordingStream = stream;
+
+        log.info("Reporting virtual threads pinned for longer than {} ms", threshold.toMillis());
+    }
+
+    @Override
+    public void stop() {
+
+        RecordingStream stream = recordingStream;
+        recordingStream = null;
+
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return recordingStream != null;
+    }
+
+
+    private void onPinned(RecordedEvent event) {
+
+        PinnedLocations.Location location = pinnedLocations.locate(frameTypes(event.getStackTrace()));
+
+        Timer.builder(PINNED_METRIC)
+                .description("Time virtual threads were blocked while pinned to their carrier thread")
+                .tag("location", location.tag())
+                .register(meterRegistry)
+                .record(event.getDuration());
+
+        if (location.first()) {
+
+            // the reason is only part of the event since JDK 24
+            String reason = event.hasField("pinnedReason") ? " (" + event.getString("pinnedReason") + ")" : "";
+
+            log.warn("Virtual thread pinned to its carrier for {} ms in {}{}:{}",
+                    event.getDuration().toMillis(), location.tag(), reason, stackTrace(event.getStackTrace()));
+        }
+    }
+
+    private static List<String> frameTypes(RecordedStackTrace stackTrace) {
+
+        if (stackTrace == null) {
+            return List.of();
+        }
+
+        return stackTrace.getFrames().stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .map(frame -> frame.getMethod().getType().getName())
+                .toList();
+    }
+
+    private static String stackTrace(RecordedStackTrace stackTrace) {
+
+        if (stackTrace == null) {
+            return "";
+        }
+
+        return stackTrace.getFrames().stream()
+                .limit(LOGGED_FRAMES)
+                .map(frame -> "\n\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + (frame.getLineNumber() > 0 ? ":" + frame.getLineNumber() : ""))
+                .collect(Collectors.joining());
+    }
+
+}
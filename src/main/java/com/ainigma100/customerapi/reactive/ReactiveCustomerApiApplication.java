@@ -0,0 +1,66 @@
+package com.ainigma100.customerapi.reactive;
+
+import com.ainigma100.customerapi.exception.GlobalExceptionHandler;
+import com.ainigma100.customerapi.service.MultiGetProperties;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.data.jpa.autoconfigure.DataJpaRepositoriesAutoConfiguration;
+import org.springframework.boot.hibernate.autoconfigure.HibernateJpaAutoConfiguration;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Profile;
+
+import java.util.Map;
+
+/**
+ * The reactive variant of the customer API: the endpoints of {@code CustomerController}, with the same DTOs,
+ * validation and {@code APIResponse} envelope, on WebFlux (Netty) and R2DBC. A request holds no thread while it
+ * waits for the database or for a slow client, so a few event loop threads serve many concurrent connections.
+ *
+ * <p>It only scans this package. Its beans carry the {@value #PROFILE} profile, which only this application
+ * activates, so the servlet application skips them when it scans the whole code base. Liquibase still migrates the
+ * database of {@code spring.datasource.*} over JDBC, everything else goes through the R2DBC {@code ConnectionFactory}
+ * of {@code spring.r2dbc.*}, which has to point to the same database.</p>
+ *
+ * <pre>
+ * java -cp target/customer-api-v1.0.0.jar -Dloader.main=com.ainigma100.customerapi.reactive.ReactiveCustomerApiApplication org.springframework.boot.loader.launch.PropertiesLauncher
+ * </pre>
+ */
+@Profile(ReactiveCustomerApiApplication.PROFILE)
+@SpringBootApplication(exclude = {HibernateJpaAutoConfiguration.class, DataJpaRepositoriesAutoConfiguration.class,
+        DataSourceTransactionManagerAutoConfiguration.class})
+// the domain exceptions are answered like in the servlet application
+@Import(GlobalExceptionHandler.class)
+// the same cap of the multi-get
+@EnableConfigurationProperties(MultiGetProperties.class)
+public class ReactiveCustomerApiApplication {
+
+    public static final String PROFILE = "reactive";
+
+
+    public static void main(String[] args) {
+        application().run(args);
+    }
+
+
+    /**
+     * A reactive application with the {@value #PROFILE} profile, served under the context path of the servlet one.
+     */
+    public static SpringApplication application() {
+
+        SpringApplication application = new SpringApplication(ReactiveCustomerApiApplication.class);
+        application.setWebApplicationType(WebApplicationType.REACTIVE);
+        application.setAdditionalProfiles(PROFILE);
+        application.setDefaultProperties(Map.of(
+                "spring.webflux.base-path", "${server.servlet.context-path:}",
+                // Spring Boot creates no DataSource next to a ConnectionFactory, Liquibase connects on its own
+                "spring.liquibase.url", "${spring.datasource.url}",
+                "spring.liquibase.user", "${spring.datasource.username:}",
+                "spring.liquibase.password", "${spring.datasource.password:}"));
+
+        return application;
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.ainigma100.customerapi.reactive.config;
+
+import com.ainigma100.customerapi.reactive.ReactiveCustomerApiApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.mapping.R2dbcMappingContext;
+
+@Profile(ReactiveCustomerApiApplication.PROFILE)
+@Configuration
+public class ReactiveDataConfig {
+
+    /**
+     * Spring Data R2DBC quotes the table and column names, and a quoted {@code "customers"} is not the
+     * {@code CUSTOMERS} table the unquoted Liquibase changesets create on H2. Plain identifiers resolve the same way
+     * as in the SQL of the JDBC repositories, on H2 and on PostgreSQL.
+     */
+    @Bean
+    public R2dbcMappingContext r2dbcMappingContext(R2dbcCustomConversions r2dbcCustomConversions) {
+
+        R2dbcMappingContext mappingContext = R2dbcMappingContext.forPlainIdentifiers();
+        mappingContext.setSimpleTypeHolder(r2dbcCustomConversions.getSimpleTypeHolder());
+
+        return mappingContext;
+    }
+
+}
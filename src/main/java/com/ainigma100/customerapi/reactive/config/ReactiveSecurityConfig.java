@@ -0,0 +1,124 @@
+package com.ainigma100.customerapi.reactive.config;
+
+import com.ainigma100.customerapi.dto.APIResponse;
+import com.ainigma100.customerapi.dto.ErrorDTO;
+import com.ainigma100.customerapi.enums.Status;
+import com.ainigma100.customerapi.reactive.ReactiveCustomerApiApplication;
+import com.ainigma100.customerapi.security.config.AbstractSecurityConfig;
+import com.ainigma100.customerapi.security.config.SecurityDevMockConfig;
+import com.ainigma100.customerapi.security.converter.AzureRoleConverter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.ReactiveJwtAuthenticationConverterAdapter;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.header.ReferrerPolicyServerHttpHeadersWriter;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.Collections;
+
+/**
+ * The rules of {@code AbstractSecurityConfig} for the reactive application: the same public URLs and roles, the
+ * same JWT role mapping, and the same {@code APIResponse} bodies for 401 and 403. Outside of {@code prod} the
+ * tokens are decoded by the mocked identity provider of {@code SecurityDevMockConfig}.
+ */
+@Slf4j
+@Profile(ReactiveCustomerApiApplication.PROFILE)
+@Configuration
+@EnableWebFluxSecurity
+@EnableReactiveMethodSecurity
+public class ReactiveSecurityConfig {
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, JsonMapper jsonMapper) {
+
+        JwtAuthenticationConverter jwtAuthenticationConverter = new JwtAuthenticationConverter();
+        jwtAuthenticationConverter.setJwtGrantedAuthoritiesConverter(new AzureRoleConverter());
+
+        http
+                .cors(Customizer.withDefaults())
+
+                // Disable CSRF for REST APIs, the same as the servlet application
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+
+                .authorizeExchange(exchange -> exchange
+                        .pathMatchers(AbstractSecurityConfig.PUBLIC_URLS).permitAll()
+                        .pathMatchers(HttpMethod.OPTIONS, "/**").permitAll() // Allow preflight requests
+                        // The Kubernetes probes carry no token, the probe groups only report the status
+                        .pathMatchers("/actuator/health/liveness", "/actuator/health/readiness").permitAll()
+                        // All authenticated requests must have either Admin or User role
+                        .anyExchange().hasAnyRole("ADMIN", "USER")
+                )
+
+                .oauth2ResourceServer(rsc -> rsc
+                        .jwt(jwt -> jwt.jwtAuthenticationConverter(
+                                new ReactiveJwtAuthenticationConverterAdapter(jwtAuthenticationConverter)))
+                        .authenticationEntryPoint((exchange, exception) ->
+                                writeError(exchange, HttpStatus.UNAUTHORIZED, jsonMapper, exception.getMessage())))
+
+                .headers(headers -> headers
+                        .contentSecurityPolicy(csp -> csp
+                                .policyDirectives("default-src 'self'; frame-ancestors 'self'"))
+                        .referrerPolicy(referrer -> referrer
+                                .policy(ReferrerPolicyServerHttpHeadersWriter.ReferrerPolicy.STRICT_ORIGIN_WHEN_CROSS_ORIGIN))
+                        .xssProtection(ServerHttpSecurity.HeaderSpec.XssProtectionSpec::disable)
+                )
+
+                // Handle 401 and 403 like CustomAuthenticationEntryPoint and CustomAccessDeniedHandler
+                .exceptionHandling(ex -> ex
+                        .authenticationEntryPoint((exchange, exception) ->
+                                writeError(exchange, HttpStatus.UNAUTHORIZED, jsonMapper, exception.getMessage()))
+                        .accessDeniedHandler((exchange, exception) ->
+                                writeError(exchange, HttpStatus.FORBIDDEN, jsonMapper, exception.getMessage())));
+
+        return http.build();
+    }
+
+
+    @Profile("!prod")
+    @Bean
+    public ReactiveJwtDecoder reactiveJwtDecoder() {
+        return token -> Mono.just(SecurityDevMockConfig.mockJwt(token));
+    }
+
+
+    private static Mono<Void> writeError(ServerWebExchange exchange, HttpStatus status, JsonMapper jsonMapper, String message) {
+
+        String errorMessage = message != null ? message
+                : status == HttpStatus.UNAUTHORIZED ? "Authentication is required" : "Authorization failed";
+
+        log.warn("{} {}: method={} path={} reason={}", status.value(), status.getReasonPhrase(),
+                exchange.getRequest().getMethod(), exchange.getRequest().getPath(), errorMessage);
+
+        APIResponse<ErrorDTO> apiResponse = new APIResponse<>();
+        apiResponse.setStatus(Status.FAILED.getValue());
+        apiResponse.setErrors(Collections.singletonList(new ErrorDTO("", errorMessage)));
+
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        if (status == HttpStatus.UNAUTHORIZED) {
+            response.getHeaders().set("luiss-auth-failure", "Authentication failed");
+        } else {
+            response.getHeaders().set("luiss-access-denied", "Access denied: insufficient permissions");
+        }
+
+        return response.writeWith(Mono.fromSupplier(() ->
+                response.bufferFactory().wrap(jsonMapper.writeValueAsBytes(apiResponse))));
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.ainigma100.customerapi.reactive.config;
+
+import com.ainigma100.customerapi.config.JacksonConfig;
+import com.ainigma100.customerapi.reactive.ReactiveCustomerApiApplication;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.cbor.JacksonCborDecoder;
+import org.springframework.http.codec.cbor.JacksonCborEncoder;
+import org.springframework.http.codec.smile.JacksonSmileDecoder;
+import org.springframework.http.codec.smile.JacksonSmileEncoder;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import tools.jackson.databind.JacksonModule;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+/**
+ * The codecs of the binary encodings, built with the mappers of the application context like the message
+ * converters of {@link JacksonConfig}. JSON stays the default.
+ */
+@Profile(ReactiveCustomerApiApplication.PROFILE)
+@RequiredArgsConstructor
+@Configuration
+public class ReactiveWebConfig implements WebFluxConfigurer {
+
+    private final CBORMapper cborMapper;
+    private final SmileMapper smileMapper;
+
+
+    /**
+     * The same Smile mapper as the servlet application, which this one does not scan.
+     */
+    @Bean
+    public static SmileMapper smileMapper(ObjectProvider<JacksonModule> modules) {
+        return JacksonConfig.smileMapper(modules);
+    }
+
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+
+        configurer.defaultCodecs().jacksonCborDecoder(new JacksonCborDecoder(cborMapper));
+        configurer.defaultCodecs().jacksonCborEncoder(new JacksonCborEncoder(cborMapper));
+        configurer.defaultCodecs().jacksonSmileDecoder(new JacksonSmileDecoder(smileMapper));
+        configurer.defaultCodecs().jacksonSmileEncoder(new JacksonSmileEncoder(smileMapper));
+    }
+
+}
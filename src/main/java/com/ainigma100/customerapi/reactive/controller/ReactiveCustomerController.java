@@ -0,0 +1,215 @@
+package com.ainigma100.customerapi.reactive.controller;
+
+
+import com.ainigma100.customerapi.config.JacksonConfig;
+import com.ainigma100.customerapi.dto.*;
+import com.ainigma100.customerapi.enums.CustomerField;
+import com.ainigma100.customerapi.enums.Status;
+import com.ainigma100.customerapi.reactive.ReactiveCustomerApiApplication;
+import com.ainigma100.customerapi.reactive.mapper.ReactiveCustomerMapper;
+import com.ainigma100.customerapi.reactive.service.ReactiveCustomerService;
+import com.ainigma100.customerapi.utils.annotation.ValidCustomerFields;
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.web.PagedModel;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The endpoints of {@code CustomerController} on WebFlux, with the same requests and responses.
+ * A {@code Page} is wrapped in a {@link PagedModel} here, which the servlet application lets Jackson do.
+ */
+@Profile(ReactiveCustomerApiApplication.PROFILE)
+@RequiredArgsConstructor
+// JSON stays the default, the binary encodings are selected with the Accept and Content-Type headers
+@RequestMapping(value = "/api/v1/customers",
+        produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
+@RestController
+public class ReactiveCustomerController {
+
+    private final ReactiveCustomerService customerService;
+    private final ReactiveCustomerMapper customerMapper;
+    private final JsonMapper jsonMapper;
+
+
+    @Operation(summary = "Add a new customer")
+    @PostMapping(consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
+    public Mono<ResponseEntity<APIResponse<CustomerDTO>>> createCustomer(
+            @Valid @RequestBody CustomerRequestDTO customerRequestDTO,
+            UriComponentsBuilder uriComponentsBuilder) {
+
+        CustomerDTO customerDTO = customerMapper.customerRequestDTOToCustomerDTO(customerRequestDTO);
+
+        return customerService.createCustomer(customerDTO)
+                .map(result -> {
+
+                    URI location = uriComponentsBuilder
+                            .path("/api/v1/customers/{id}")
+                            .buildAndExpand(result.getId())
+                            .toUri();
+
+                    return ResponseEntity.created(location).body(success(result));
+                });
+    }
+
+
+    @Operation(summary = "Find customer by ID",
+            description = "Returns a single customer")
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<APIResponse<CustomerDTO>>> getCustomerById(@PathVariable("id") Long id) {
+
+        return customerService.getCustomerById(id)
+                .map(result -> new ResponseEntity<>(success(result), HttpStatus.OK));
+    }
+
+
+    @Operation(summary = "Find customer fields by ID",
+            description = "Returns only the requested fields of a single customer, e.g. ?fields=id,email")
+    @GetMapping(value = "/{id}", params = "fields")
+    public Mono<ResponseEntity<APIResponse<Map<String, Object>>>> getCustomerFieldsById(
+            @PathVariable("id") Long id,
+            @RequestParam("fields") @ValidCustomerFields List<String> fields) {
+
+        return customerService.getCustomerFieldsById(id, CustomerField.setOf(fields))
+                .map(result -> new ResponseEntity<>(success(result), HttpStatus.OK));
+    }
+
+
+    @Operation(summary = "Find customers by a list of IDs",
+            description = "Returns the customers in the order of the IDs, each once, and the IDs that were not found. "
+                    + "Fetched with one query instead of one request per customer")
+    @PostMapping(value = "/by-ids", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
+    public Mono<ResponseEntity<APIResponse<CustomersByIdsDTO>>> getCustomersByIds(
+            @Valid @RequestBody CustomerIdsRequestDTO customerIdsRequestDTO) {
+
+        return customerService.getCustomersByIds(customerIdsRequestDTO.getIds())
+                .map(result -> new ResponseEntity<>(success(result), HttpStatus.OK));
+    }
+
+
+    @Operation(summary = "Update an existing customer")
+    @PutMapping(value = "/{id}", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
+    public Mono<ResponseEntity<APIResponse<CustomerDTO>>> updateCustomer(
+            @PathVariable("id") Long id,
+            @Valid @RequestBody CustomerRequestDTO customerRequestDTO) {
+
+        CustomerDTO customerDTO = customerMapper.customerRequestDTOToCustomerDTO(customerRequestDTO);
+
+        return customerService.updateCustomer(id, customerDTO)
+                .map(result -> new ResponseEntity<>(success(result), HttpStatus.OK));
+    }
+
+    @Operation(summary = "Partially update a customer's email")
+    @PatchMapping(value = "/{id}/email", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
+    public Mono<ResponseEntity<APIResponse<CustomerDTO>>> updateCustomerEmail(
+            @PathVariable("id") Long id,
+            @Valid @RequestBody CustomerEmailUpdateDTO emailUpdateDTO) {
+
+        return customerService.updateCustomerEmail(id, emailUpdateDTO)
+                .map(result -> new ResponseEntity<>(success(result), HttpStatus.OK));
+    }
+
+
+    @Operation(summary = "Delete a customer by ID")
+    @PreAuthorize("hasRole('ADMIN')")
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<APIResponse<String>>> deleteCustomer(@PathVariable("id") Long id) {
+
+        return customerService.deleteCustomer(id)
+                .then(Mono.fromSupplier(() -> new ResponseEntity<>(success("Customer deleted successfully"), HttpStatus.OK)));
+    }
+
+
+    @Operation(summary = "Search customers with pagination",
+            description = "Returns a paginated list of customers based on the search criteria, "
+                    + "limited to the requested fields when there are any")
+    @PostMapping(value = "/search", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
+    public Mono<ResponseEntity<APIResponse<PagedModel<?>>>> getAllCustomersUsingPagination(
+            @Valid @RequestBody CustomerSearchCriteriaDTO customerSearchCriteriaDTO) {
+
+        List<String> fields = customerSearchCriteriaDTO.getFields();
+
+        Mono<? extends Page<?>> result = fields == null || fields.isEmpty()
+                ? customerService.getAllCustomersUsingPagination(customerSearchCriteriaDTO)
+                : customerService.getAllCustomerFieldsUsingPagination(customerSearchCriteriaDTO);
+
+        return result.map(page -> new ResponseEntity<>(success(new PagedModel<>(page)), HttpStatus.OK));
+    }
+
+
+    /**
+     * The response is written while the rows are read: a row is only read from the database once the connection
+     * has taken the previous ones, so a slow client holds neither a thread nor the page in memory. Only the count
+     * runs before the response is started, which is also when a failure still gets an error response.
+     *
+     * <p>The rows are written as JSON, the binary encodings are only served by the search.</p>
+     */
+    @Operation(summary = "Search customers with pagination, streaming the rows",
+            description = "Same request and response as the search, but each row is written from the database result "
+                    + "straight to the response, as fast as the client reads it")
+    @PostMapping(value = "/search/stream", produces = MediaType.APPLICATION_JSON_VALUE,
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
+    public Mono<ResponseEntity<Flux<DataBuffer>>> streamAllCustomersUsingPagination(
+            @Valid @RequestBody CustomerSearchCriteriaDTO customerSearchCriteriaDTO,
+            ServerWebExchange exchange) {
+
+        DataBufferFactory bufferFactory = exchange.getResponse().bufferFactory();
+
+        return customerService.countCustomers(customerSearchCriteriaDTO)
+                .map(totalElements -> {
+
+                    Flux<Map<String, Object>> rows = customerService.streamCustomerFields(customerSearchCriteriaDTO);
+
+                    int size = customerSearchCriteriaDTO.getSize();
+                    long totalPages = (long) Math.ceil((double) totalElements / size);
+
+                    String start = "{\"status\":\"" + Status.SUCCESS.getValue() + "\",\"results\":{\"content\":[";
+                    String end = "],\"page\":{\"size\":" + size + ",\"number\":" + customerSearchCriteriaDTO.getPage()
+                            + ",\"totalElements\":" + totalElements + ",\"totalPages\":" + totalPages + "}}}";
+
+                    Flux<DataBuffer> body = Flux.concat(
+                            Mono.fromSupplier(() -> bufferFactory.wrap(start.getBytes(StandardCharsets.UTF_8))),
+                            rows.index().map(row -> {
+                                byte[] json = jsonMapper.writeValueAsBytes(row.getT2());
+                                DataBuffer buffer = bufferFactory.allocateBuffer(json.length + 1);
+                                if (row.getT1() > 0) {
+                                    buffer.write((byte) ',');
+                                }
+                                return buffer.write(json);
+                            }),
+                            Mono.fromSupplier(() -> bufferFactory.wrap(end.getBytes(StandardCharsets.UTF_8))));
+
+                    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+                });
+    }
+
+
+    private static <T> APIResponse<T> success(T result) {
+
+        // Builder Design pattern
+        return APIResponse
+                .<T>builder()
+                .status(Status.SUCCESS.getValue())
+                .results(result)
+                .build();
+    }
+
+}
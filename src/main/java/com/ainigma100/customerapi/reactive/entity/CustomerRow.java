@@ -0,0 +1,44 @@
+package com.ainigma100.customerapi.reactive.entity;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * The {@code customers} row as Spring Data R2DBC maps it, the counterpart of the JPA {@code Customer}.
+ * The properties map to the snake case columns, the timestamps are set by the service.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("customers")
+public class CustomerRow {
+
+    @Id
+    private Long id;
+
+    private String firstName;
+
+    private String lastName;
+
+    private String email;
+
+    private String phoneNumber;
+
+    private LocalDate dateOfBirth;
+
+    private LocalDateTime createdDate;
+
+    private LocalDateTime updatedDate;
+
+    // null for a new row, then checked and incremented by every update
+    @Version
+    private Long version;
+
+}
@@ -0,0 +1,114 @@
+package com.ainigma100.customerapi.reactive.exception;
+
+import com.ainigma100.customerapi.dto.APIResponse;
+import com.ainigma100.customerapi.dto.ErrorDTO;
+import com.ainigma100.customerapi.enums.Status;
+import com.ainigma100.customerapi.reactive.ReactiveCustomerApiApplication;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.MethodNotAllowedException;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * The WebFlux exceptions that have a servlet counterpart in {@code GlobalExceptionHandler}, answered the same way.
+ * They are all {@link ResponseStatusException}s, which the {@code RuntimeException} handler there would turn into
+ * a 500, so this advice is ordered first.
+ */
+@Slf4j
+@Profile(ReactiveCustomerApiApplication.PROFILE)
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ControllerAdvice
+@RequiredArgsConstructor
+public class ReactiveExceptionHandler {
+
+    private final Environment environment;
+
+    private boolean isProduction() {
+        return Stream.of(environment.getActiveProfiles())
+                .anyMatch(profile -> profile.equalsIgnoreCase("prod") || profile.equalsIgnoreCase("production"));
+    }
+
+
+    // the invalid @Valid request bodies, like MethodArgumentNotValidException
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Object> handleWebExchangeBindException(WebExchangeBindException exception) {
+
+        APIResponse<ErrorDTO> response = new APIResponse<>();
+        response.setStatus(Status.FAILED.getValue());
+
+        List<ErrorDTO> errors = new ArrayList<>();
+        exception.getBindingResult().getAllErrors().forEach(error -> {
+            String fieldName = error instanceof FieldError fieldError ? fieldError.getField() : "";
+            String errorMessage = isProduction() ? "Invalid input value" : error.getDefaultMessage();
+            errors.add(new ErrorDTO(fieldName, errorMessage));
+        });
+
+        log.error("Validation errors: {}", errors, exception);
+
+        response.setErrors(errors);
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
+
+    // a body that cannot be read or a missing parameter, like HttpMessageNotReadableException
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<Object> handleServerWebInputException(ServerWebInputException exception) {
+
+        APIResponse<ErrorDTO> response = new APIResponse<>();
+        response.setStatus(Status.FAILED.getValue());
+
+        String errorMessage = isProduction() ? "Invalid request format" : exception.getReason();
+        response.setErrors(Collections.singletonList(new ErrorDTO("", errorMessage)));
+
+        log.error("ServerWebInputException occurred: {}", exception.getMessage(), exception);
+
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
+
+    @ExceptionHandler(MethodNotAllowedException.class)
+    public ResponseEntity<Object> handleMethodNotAllowedException(MethodNotAllowedException exception) {
+
+        APIResponse<ErrorDTO> response = new APIResponse<>();
+        response.setStatus(Status.FAILED.getValue());
+
+        String errorMessage = isProduction() ? "Method not supported" : "The requested URL does not support this method";
+        response.setErrors(Collections.singletonList(new ErrorDTO("", errorMessage)));
+
+        log.error("MethodNotAllowedException occurred: {}", exception.getMessage(), exception);
+
+        return new ResponseEntity<>(response, HttpStatus.METHOD_NOT_ALLOWED);
+    }
+
+
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<Object> handleResponseStatusException(ResponseStatusException exception) {
+
+        APIResponse<ErrorDTO> response = new APIResponse<>();
+        response.setStatus(Status.FAILED.getValue());
+
+        String errorMessage = isProduction() ? "The request could not be processed" : exception.getReason();
+        response.setErrors(Collections.singletonList(new ErrorDTO("", errorMessage)));
+
+        log.error("ResponseStatusException occurred: {}", exception.getMessage(), exception);
+
+        return new ResponseEntity<>(response, exception.getStatusCode());
+    }
+
+}
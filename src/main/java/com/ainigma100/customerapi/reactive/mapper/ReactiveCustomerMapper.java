@@ -0,0 +1,33 @@
+package com.ainigma100.customerapi.reactive.mapper;
+
+import com.ainigma100.customerapi.dto.CustomerDTO;
+import com.ainigma100.customerapi.dto.CustomerRequestDTO;
+import com.ainigma100.customerapi.reactive.ReactiveCustomerApiApplication;
+import com.ainigma100.customerapi.reactive.entity.CustomerRow;
+import org.mapstruct.AnnotateWith;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.springframework.context.annotation.Profile;
+
+// MapStruct does not copy @Profile to the generated component, which the servlet application would then pick up
+@AnnotateWith(value = Profile.class, elements = @AnnotateWith.Element(strings = ReactiveCustomerApiApplication.PROFILE))
+@Mapper(componentModel = "spring")
+public interface ReactiveCustomerMapper {
+
+    @Mapping(target = "createdDate", ignore = true)
+    @Mapping(target = "updatedDate", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    CustomerRow customerDTOToCustomerRow(CustomerDTO customerDTO);
+
+    CustomerDTO customerRowToCustomerDTO(CustomerRow customerRow);
+
+    CustomerDTO customerRequestDTOToCustomerDTO(CustomerRequestDTO customerRequestDTO);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "createdDate", ignore = true)
+    @Mapping(target = "updatedDate", ignore = true)
+    void updateCustomerRowFromDto(CustomerDTO dto, @MappingTarget CustomerRow row);
+
+}
@@ -0,0 +1,11 @@
+package com.ainigma100.customerapi.reactive.repository;
+
+import com.ainigma100.customerapi.reactive.entity.CustomerRow;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveCustomerRepository extends R2dbcRepository<CustomerRow, Long> {
+
+    Mono<Boolean> existsByEmail(String email);
+
+}
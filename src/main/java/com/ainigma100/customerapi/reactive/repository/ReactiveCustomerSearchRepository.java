@@ -0,0 +1,91 @@
+package com.ainigma100.customerapi.reactive.repository;
+
+import com.ainigma100.customerapi.dto.CustomerSearchCriteriaDTO;
+import com.ainigma100.customerapi.enums.CustomerField;
+import com.ainigma100.customerapi.reactive.ReactiveCustomerApiApplication;
+import com.ainigma100.customerapi.reactive.entity.CustomerRow;
+import com.ainigma100.customerapi.repository.CustomerJdbcRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+
+/**
+ * The R2DBC version of the customer search of {@code CustomerJdbcRepository}: the same filters, only the criteria
+ * that are set, and only the columns of the requested {@link CustomerField}s.
+ *
+ * <p>The rows are emitted as the subscriber requests them. R2DBC reads them from the result in the demanded
+ * amounts, so a slow client slows down the reading instead of having the page buffered.</p>
+ */
+@Profile(ReactiveCustomerApiApplication.PROFILE)
+@Repository
+@RequiredArgsConstructor
+public class ReactiveCustomerSearchRepository {
+
+    private final R2dbcEntityTemplate template;
+
+
+    public Mono<Long> countCustomers(CustomerSearchCriteriaDTO criteria) {
+        return template.count(Query.query(where(criteria)), CustomerRow.class);
+    }
+
+    /**
+     * The rows of one page, in the order of the pageable, with only the columns of the fields set.
+     *
+     * @throws org.springframework.data.core.PropertyReferenceException when the pageable sorts by a property
+     *                                                                  the customer does not have
+     */
+    public Flux<CustomerRow> findCustomers(CustomerSearchCriteriaDTO criteria, Set<CustomerField> fields, Pageable pageable) {
+
+        // the same sortable properties as the other searches, checked before the statement is built
+        CustomerJdbcRepository.checkSortable(pageable.getSort());
+
+        Query query = Query.query(where(criteria))
+                .columns(fields.stream().map(CustomerField::getColumn).toList())
+                .sort(pageable.getSort())
+                .limit(pageable.getPageSize())
+                .offset(pageable.getOffset());
+
+        return template.select(query, CustomerRow.class);
+    }
+
+    public Mono<CustomerRow> findCustomerById(Long id, Set<CustomerField> fields) {
+
+        Query query = Query.query(Criteria.where("id").is(id))
+                .columns(fields.stream().map(CustomerField::getColumn).toList());
+
+        return template.selectOne(query, CustomerRow.class);
+    }
+
+
+    private static Criteria where(CustomerSearchCriteriaDTO criteria) {
+
+        Criteria where = Criteria.empty();
+
+        if (criteria.getFirstName() != null) {
+            where = where.and("firstName").like(criteria.getFirstName() + "%").ignoreCase(true);
+        }
+        if (criteria.getLastName() != null) {
+            where = where.and("lastName").like(criteria.getLastName() + "%").ignoreCase(true);
+        }
+        if (criteria.getEmail() != null) {
+            where = where.and("email").like("%" + criteria.getEmail() + "%").ignoreCase(true);
+        }
+        if (criteria.getPhoneNumber() != null) {
+            where = where.and("phoneNumber").like("%" + criteria.getPhoneNumber() + "%").ignoreCase(true);
+        }
+        if (criteria.getDateOfBirth() != null) {
+            where = where.and("dateOfBirth").is(criteria.getDateOfBirth());
+        }
+
+        return where;
+    }
+
+}
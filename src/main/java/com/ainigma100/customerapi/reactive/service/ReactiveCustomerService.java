@@ -0,0 +1,46 @@
+package com.ainigma100.customerapi.reactive.service;
+
+import com.ainigma100.customerapi.dto.CustomerDTO;
+import com.ainigma100.customerapi.dto.CustomerEmailUpdateDTO;
+import com.ainigma100.customerapi.dto.CustomerSearchCriteriaDTO;
+import com.ainigma100.customerapi.dto.CustomersByIdsDTO;
+import com.ainigma100.customerapi.enums.CustomerField;
+import org.springframework.data.domain.Page;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface ReactiveCustomerService {
+
+    Mono<CustomerDTO> createCustomer(CustomerDTO customerDTO);
+
+    Mono<CustomerDTO> getCustomerById(Long id);
+
+    Mono<Map<String, Object>> getCustomerFieldsById(Long id, Set<CustomerField> fields);
+
+    Mono<CustomersByIdsDTO> getCustomersByIds(List<Long> ids);
+
+    Mono<CustomerDTO> updateCustomer(Long id, CustomerDTO customerDTO);
+
+    Mono<CustomerDTO> updateCustomerEmail(Long id, CustomerEmailUpdateDTO emailUpdateDTO);
+
+    Mono<Void> deleteCustomer(Long id);
+
+    Mono<Page<CustomerDTO>> getAllCustomersUsingPagination(CustomerSearchCriteriaDTO customerSearchCriteriaDTO);
+
+    Mono<Page<Map<String, Object>>> getAllCustomerFieldsUsingPagination(CustomerSearchCriteriaDTO customerSearchCriteriaDTO);
+
+    Mono<Long> countCustomers(CustomerSearchCriteriaDTO customerSearchCriteriaDTO);
+
+    /**
+     * The customers of the page, read as the subscriber requests them, limited to the requested fields.
+     *
+     * @throws org.springframework.data.core.PropertyReferenceException right away, not on subscription, when the
+     *                                                                  criteria sort by an unknown property
+     */
+    Flux<Map<String, Object>> streamCustomerFields(CustomerSearchCriteriaDTO customerSearchCriteriaDTO);
+
+}
@@ -0,0 +1,250 @@
+package com.ainigma100.customerapi.reactive.service.impl;
+
+import com.ainigma100.customerapi.dto.CustomerDTO;
+import com.ainigma100.customerapi.dto.CustomerEmailUpdateDTO;
+import com.ainigma100.customerapi.dto.CustomerSearchCriteriaDTO;
+import com.ainigma100.customerapi.dto.CustomersByIdsDTO;
+import com.ainigma100.customerapi.enums.CustomerField;
+import com.ainigma100.customerapi.exception.BadRequestException;
+import com.ainigma100.customerapi.reactive.ReactiveCustomerApiApplication;
+import com.ainigma100.customerapi.reactive.entity.CustomerRow;
+import com.ainigma100.customerapi.reactive.mapper.ReactiveCustomerMapper;
+import com.ainigma100.customerapi.reactive.repository.ReactiveCustomerRepository;
+import com.ainigma100.customerapi.reactive.repository.ReactiveCustomerSearchRepository;
+import com.ainigma100.customerapi.reactive.service.ReactiveCustomerService;
+import com.ainigma100.customerapi.repository.CustomerJdbcRepository;
+import com.ainigma100.customerapi.service.MultiGetProperties;
+import com.ainigma100.customerapi.utils.Utils;
+import com.ainigma100.customerapi.utils.annotation.DataMasker;
+import jakarta.persistence.EntityExistsException;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The non-blocking version of {@code CustomerServiceImpl}, with the same rules and the same exceptions, so the
+ * {@code GlobalExceptionHandler} answers them the same way. The writes run in R2DBC transactions, the reads in
+ * none since each of them is a single statement.
+ */
+@Profile(ReactiveCustomerApiApplication.PROFILE)
+@RequiredArgsConstructor
+@Service
+public class ReactiveCustomerServiceImpl implements ReactiveCustomerService {
+
+    // the projections are plain maps, so the phone number is masked here instead of by the DTO serializer
+    private static final DataMasker PHONE_NUMBER_MASKER = DataMasker.forField(CustomerDTO.class, "phoneNumber");
+
+    private final ReactiveCustomerRepository customerRepository;
+    private final ReactiveCustomerSearchRepository customerSearchRepository;
+    private final ReactiveCustomerMapper customerMapper;
+    private final MultiGetProperties multiGetProperties;
+
+
+    @Transactional
+    @Override
+    public Mono<CustomerDTO> createCustomer(CustomerDTO customerDTO) {
+
+        return customerRepository.existsByEmail(customerDTO.getEmail())
+                .flatMap(exists -> {
+
+                    if (Boolean.TRUE.equals(exists)) {
+                        return Mono.error(new EntityExistsException("A customer with email '" + customerDTO.getEmail() + "' already exists"));
+                    }
+
+                    CustomerRow recordToBeSaved = customerMapper.customerDTOToCustomerRow(customerDTO);
+                    recordToBeSaved.setId(null);
+
+                    LocalDateTime now = LocalDateTime.now();
+                    recordToBeSaved.setCreatedDate(now);
+                    recordToBeSaved.setUpdatedDate(now);
+
+                    return customerRepository.save(recordToBeSaved);
+                })
+                .map(customerMapper::customerRowToCustomerDTO);
+    }
+
+
+    @Override
+    public Mono<CustomerDTO> getCustomerById(Long id) {
+
+        return findById(id).map(customerMapper::customerRowToCustomerDTO);
+    }
+
+
+    /**
+     * Selects only the columns of the fields.
+     */
+    @Override
+    public Mono<Map<String, Object>> getCustomerFieldsById(Long id, Set<CustomerField> fields) {
+
+        return customerSearchRepository.findCustomerById(id, fields)
+                .switchIfEmpty(Mono.error(() -> notFound(id)))
+                .map(row -> toFields(row, fields));
+    }
+
+
+    /**
+     * One {@code WHERE id IN (...)} query per chunk of ids, like {@link CustomerJdbcRepository#findCustomersByIds}.
+     */
+    @Override
+    public Mono<CustomersByIdsDTO> getCustomersByIds(List<Long> ids) {
+
+        int maxIds = multiGetProperties.getMaxIds();
+
+        if (ids.size() > maxIds) {
+            return Mono.error(new BadRequestException("ids", "at most " + maxIds + " ids per request, got " + ids.size()));
+        }
+
+        return Flux.fromIterable(new LinkedHashSet<>(ids))
+                .buffer(CustomerJdbcRepository.MAX_IN_LIST)
+                .concatMap(customerRepository::findAllById)
+                .map(customerMapper::customerRowToCustomerDTO)
+                .collectMap(CustomerDTO::getId)
+                .map(customersById -> CustomersByIdsDTO.of(ids, customersById));
+    }
+
+
+    @Transactional
+    @Override
+    public Mono<CustomerDTO> updateCustomer(Long id, CustomerDTO customerDTO) {
+
+        return findById(id)
+                .flatMap(recordFromDB -> {
+
+                    customerMapper.updateCustomerRowFromDto(customerDTO, recordFromDB);
+                    recordFromDB.setUpdatedDate(LocalDateTime.now());
+
+                    return customerRepository.save(recordFromDB);
+                })
+                .map(customerMapper::customerRowToCustomerDTO);
+    }
+
+
+    @Transactional
+    @Override
+    public Mono<CustomerDTO> updateCustomerEmail(Long id, CustomerEmailUpdateDTO emailUpdateDTO) {
+
+        return findById(id)
+                .flatMap(recordFromDB -> {
+
+                    recordFromDB.setEmail(emailUpdateDTO.getEmail());
+                    recordFromDB.setUpdatedDate(LocalDateTime.now());
+
+                    return customerRepository.save(recordFromDB);
+                })
+                .map(customerMapper::customerRowToCustomerDTO);
+    }
+
+
+    @Transactional
+    @Override
+    public Mono<Void> deleteCustomer(Long id) {
+
+        return findById(id).flatMap(customerRepository::delete);
+    }
+
+
+    @Override
+    public Mono<Page<CustomerDTO>> getAllCustomersUsingPagination(CustomerSearchCriteriaDTO customerSearchCriteriaDTO) {
+
+        Pageable pageable = Utils.createPageableBasedOnPageAndSizeAndSorting(
+                customerSearchCriteriaDTO.getSortList(), customerSearchCriteriaDTO.getPage(), customerSearchCriteriaDTO.getSize());
+
+        Set<CustomerField> fields = CustomerField.setOf(null);
+
+        return Mono.defer(() -> customerSearchRepository.findCustomers(customerSearchCriteriaDTO, fields, pageable)
+                        .map(customerMapper::customerRowToCustomerDTO)
+                        .collectList())
+                .zipWith(customerSearchRepository.countCustomers(customerSearchCriteriaDTO),
+                        (result, totalElements) -> new PageImpl<>(result, pageable, totalElements));
+    }
+
+
+    /**
+     * The projected version of {@link #getAllCustomersUsingPagination}, the page query only selects the columns of
+     * the requested fields.
+     */
+    @Override
+    public Mono<Page<Map<String, Object>>> getAllCustomerFieldsUsingPagination(CustomerSearchCriteriaDTO customerSearchCriteriaDTO) {
+
+        Pageable pageable = Utils.createPageableBasedOnPageAndSizeAndSorting(
+                customerSearchCriteriaDTO.getSortList(), customerSearchCriteriaDTO.getPage(), customerSearchCriteriaDTO.getSize());
+
+        return Mono.defer(() -> streamCustomerFields(customerSearchCriteriaDTO).collectList())
+                .zipWith(customerSearchRepository.countCustomers(customerSearchCriteriaDTO),
+                        (result, totalElements) -> new PageImpl<>(result, pageable, totalElements));
+    }
+
+
+    @Override
+    public Mono<Long> countCustomers(CustomerSearchCriteriaDTO customerSearchCriteriaDTO) {
+
+        return customerSearchRepository.countCustomers(customerSearchCriteriaDTO);
+    }
+
+
+    @Override
+    public Flux<Map<String, Object>> streamCustomerFields(CustomerSearchCriteriaDTO customerSearchCriteriaDTO) {
+
+        Pageable pageable = Utils.createPageableBasedOnPageAndSizeAndSorting(
+                customerSearchCriteriaDTO.getSortList(), customerSearchCriteriaDTO.getPage(), customerSearchCriteriaDTO.getSize());
+
+        // an unknown sort property has to fail here, before a streamed response is started
+        CustomerJdbcRepository.checkSortable(pageable.getSort());
+
+        Set<CustomerField> fields = CustomerField.setOf(customerSearchCriteriaDTO.getFields());
+
+        return Flux.defer(() -> customerSearchRepository.findCustomers(customerSearchCriteriaDTO, fields, pageable))
+                .map(row -> toFields(row, fields));
+    }
+
+
+    private Mono<CustomerRow> findById(Long id) {
+
+        return customerRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> notFound(id)));
+    }
+
+    private static EntityNotFoundException notFound(Long id) {
+        return new EntityNotFoundException("Customer with id : '" + id + "' not found");
+    }
+
+    /**
+     * The requested properties of the row, in the order of the fields, with the phone number masked.
+     */
+    private static Map<String, Object> toFields(CustomerRow row, Set<CustomerField> fields) {
+
+        Map<String, Object> result = new LinkedHashMap<>();
+
+        for (CustomerField field : fields) {
+
+            Object value = switch (field) {
+                case ID -> row.getId();
+                case FIRST_NAME -> row.getFirstName();
+                case LAST_NAME -> row.getLastName();
+                case EMAIL -> row.getEmail();
+                case PHONE_NUMBER -> row.getPhoneNumber() != null ? PHONE_NUMBER_MASKER.mask(row.getPhoneNumber()) : null;
+                case DATE_OF_BIRTH -> row.getDateOfBirth();
+            };
+
+            result.put(field.getProperty(), value);
+        }
+
+        return result;
+    }
+
+}
@@ -0,0 +1,343 @@
+package com.ainigma100.customerapi.repository;
+
+import com.ainigma100.customerapi.dto.CustomerSearchCriteriaDTO;
+import com.ainigma100.customerapi.entity.Customer;
+import com.ainigma100.customerapi.enums.CustomerField;
+import org.springframework.data.core.PropertyReferenceException;
+import org.springframework.data.core.TypeInformation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Plain JDBC version of {@link CustomerRepository#getAllCustomersUsingPagination}, used by the streaming search
+ * and by the sparse fieldsets. The filters have the same meaning, but only the criteria that are set end up in the
+ * {@code WHERE} clause, and only the columns of the requested {@link CustomerField}s in the select list.
+ *
+ * <p>The rows are handed to a {@link RowCallbackHandler} one by one while the {@code ResultSet} is read,
+ * nothing is collected. A driver only streams the rows in {@link #FETCH_SIZE} batches instead of loading
+ * the whole result when the statement runs inside a transaction (PostgreSQL needs auto-commit disabled).</p>
+ *
+ * <p>With {@code customer-api.sharding} enabled there is one instance per shard, which also stores the whole
+ * {@link Customer} rows of that shard, see {@link ShardedCustomerJdbcRepository}.</p>
+ */
+@Repository
+public class CustomerJdbcRepository {
+
+    private static final int FETCH_SIZE = 256;
+
+    // ids per IN list, some databases refuse longer ones and every distinct length is a statement to plan
+    public static final int MAX_IN_LIST = 1_000;
+
+    // the sortable Customer properties, the same ones the JPA query accepts
+    private static final Map<String, String> COLUMNS = Map.of(
+            "id", "id",
+            "firstName", "first_name",
+            "lastName", "last_name",
+            "email", "email",
+            "phoneNumber", "phone_number",
+            "dateOfBirth", "date_of_birth",
+            "createdDate", "created_date",
+            "updatedDate", "updated_date",
+            "version", "version");
+
+    private static final String CUSTOMER_COLUMNS =
+            "id, first_name, last_name, email, phone_number, date_of_birth, created_date, updated_date, version";
+
+    private static final RowMapper<Customer> CUSTOMER_ROW_MAPPER = (resultSet, rowNum) -> new Customer(
+            resultSet.getLong("id"),
+            resultSet.getString("first_name"),
+            resultSet.getString("last_name"),
+            resultSet.getString("email"),
+            resultSet.getString("phone_number"),
+            resultSet.getObject("date_of_birth", LocalDate.class),
+            resultSet.getObject("created_date", LocalDateTime.class),
+            resultSet.getObject("updated_date", LocalDateTime.class),
+            resultSet.getLong("version"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+
+    public CustomerJdbcRepository(DataSource dataSource) {
+
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setFetchSize(FETCH_SIZE);
+
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(template);
+    }
+
+
+    public long countCustomers(CustomerSearchCriteriaDTO criteria) {
+
+        MapSqlParameterSource parameters = new MapSqlParameterSource();
+        String sql = "SELECT COUNT(*) FROM customers" + where(criteria, parameters);
+
+        Long count = jdbcTemplate.queryForObject(sql, parameters, Long.class);
+        return count != null ? count : 0;
+    }
+
+    public Optional<Map<String, Object>> findCustomerFieldsById(Long id, Set<CustomerField> fields) {
+
+        Set<CustomerField> columns = inDeclarationOrder(fields);
+        String sql = "SELECT " + selectList(columns) + " FROM customers WHERE id = :id";
+
+        List<Map<String, Object>> rows = jdbcTemplate.query(sql, new MapSqlParameterSource("id", id),
+                (resultSet, rowNum) -> readFields(resultSet, columns));
+
+        return rows.stream().findFirst();
+    }
+
+    /**
+     * @return the rows of one page as maps from the requested properties to their values, in {@link CustomerField} order
+     */
+    public List<Map<String, Object>> findCustomerFields(CustomerSearchCriteriaDTO criteria, Set<CustomerField> fields,
+                                                        Pageable pageable) {
+
+        Set<CustomerField> columns = inDeclarationOrder(fields);
+        List<Map<String, Object>> rows = new ArrayList<>(pageable.getPageSize());
+
+        streamCustomers(criteria, columns, pageable, resultSet -> rows.add(readFields(resultSet, columns)));
+
+        return rows;
+    }
+
+    /**
+     * Selects the columns of the fields for one page, in the order of the pageable.
+     *
+     * @throws PropertyReferenceException when the pageable sorts by a property Customer does not have,
+     *                                    like the JPA query does
+     */
+    public void streamCustomers(CustomerSearchCriteriaDTO criteria, Set<CustomerField> fields, Pageable pageable,
+                                RowCallbackHandler rowCallbackHandler) {
+
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("limit", pageable.getPageSize())
+                .addValue("offset", pageable.getOffset());
+
+        String sql = "SELECT " + selectList(inDeclarationOrder(fields)) + " FROM customers"
+                + where(criteria, parameters)
+                + orderBy(pageable.getSort())
+                + " LIMIT :limit OFFSET :offset";
+
+        jdbcTemplate.query(sql, parameters, rowCallbackHandler);
+    }
+
+
+    public Optional<Customer> findCustomerById(Long id) {
+
+        String sql = "SELECT " + CUSTOMER_COLUMNS + " FROM customers WHERE id = :id";
+
+        return jdbcTemplate.query(sql, new MapSqlParameterSource("id", id), CUSTOMER_ROW_MAPPER).stream().findFirst();
+    }
+
+    /**
+     * The customers with the ids, in no particular order and without the ids that do not exist, in one query per
+     * {@value #MAX_IN_LIST} ids.
+     */
+    public List<Customer> findCustomersByIds(Collection<Long> ids) {
+
+        List<Long> distinctIds = List.copyOf(new LinkedHashSet<>(ids));
+        List<Customer> customers = new ArrayList<>(distinctIds.size());
+
+        for (int from = 0; from < distinctIds.size(); from += MAX_IN_LIST) {
+
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + MAX_IN_LIST, distinctIds.size()));
+            String sql = "SELECT " + CUSTOMER_COLUMNS + " FROM customers WHERE id IN (:ids)";
+
+            customers.addAll(jdbcTemplate.query(sql, new MapSqlParameterSource("ids", chunk), CUSTOMER_ROW_MAPPER));
+        }
+
+        return customers;
+    }
+
+    /**
+     * The whole rows of one page, in the order of the pageable.
+     */
+    public List<Customer> findCustomers(CustomerSearchCriteriaDTO criteria, Pageable pageable) {
+
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("limit", pageable.getPageSize())
+                .addValue("offset", pageable.getOffset());
+
+        String sql = "SELECT " + CUSTOMER_COLUMNS + " FROM customers"
+                + where(criteria, parameters)
+                + orderBy(pageable.getSort())
+                + " LIMIT :limit OFFSET :offset";
+
+        return jdbcTemplate.query(sql, parameters, CUSTOMER_ROW_MAPPER);
+    }
+
+    /**
+     * Inserts the customer with the id, creation date and version it already has.
+     */
+    public void insertCustomer(Customer customer) {
+
+        String sql = "INSERT INTO customers (" + CUSTOMER_COLUMNS + ") VALUES (:id, :firstName, :lastName, :email,"
+                + " :phoneNumber, :dateOfBirth, :createdDate, :updatedDate, :version)";
+
+        jdbcTemplate.update(sql, customerParameters(customer));
+    }
+
+    /**
+     * Updates the customer if it still has the version it was read with, and moves the version on.
+     *
+     * @return whether the row was updated, false when it has been changed or deleted in the meantime
+     */
+    public boolean updateCustomer(Customer customer) {
+
+        String sql = "UPDATE customers SET first_name = :firstName, last_name = :lastName, email = :email,"
+                + " phone_number = :phoneNumber, date_of_birth = :dateOfBirth, updated_date = :updatedDate,"
+                + " version = version + 1 WHERE id = :id AND version = :version";
+
+        return jdbcTemplate.update(sql, customerParameters(customer)) == 1;
+    }
+
+    public boolean deleteCustomerById(Long id) {
+        return jdbcTemplate.update("DELETE FROM customers WHERE id = :id", new MapSqlParameterSource("id", id)) == 1;
+    }
+
+    public void deleteAllCustomers() {
+        jdbcTemplate.update("DELETE FROM customers", new MapSqlParameterSource());
+    }
+
+
+    /**
+     * Validates the sort properties before any statement runs.
+     */
+    public static void checkSortable(Sort sort) {
+        orderBy(sort);
+    }
+
+
+    // an EnumSet iterates in declaration order, so the same fields always give the same statement
+    private static Set<CustomerField> inDeclarationOrder(Set<CustomerField> fields) {
+
+        if (fields.isEmpty()) {
+            throw new IllegalArgumentException("At least one customer field has to be selected");
+        }
+
+        return fields instanceof EnumSet<CustomerField> enumSet ? enumSet : EnumSet.copyOf(fields);
+    }
+
+    private static String selectList(Set<CustomerField> fields) {
+
+        StringJoiner selectList = new StringJoiner(", ");
+        for (CustomerField field : fields) {
+            selectList.add(field.getColumn());
+        }
+
+        return selectList.toString();
+    }
+
+    private static Map<String, Object> readFields(ResultSet resultSet, Set<CustomerField> fields) throws SQLException {
+
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (CustomerField field : fields) {
+            values.put(field.getProperty(), field.read(resultSet));
+        }
+
+        return values;
+    }
+
+    private static MapSqlParameterSource customerParameters(Customer customer) {
+
+        return new MapSqlParameterSource()
+                .addValue("id", customer.getId())
+                .addValue("firstName", customer.getFirstName())
+                .addValue("lastName", customer.getLastName())
+                .addValue("email", customer.getEmail())
+                .addValue("phoneNumber", customer.getPhoneNumber())
+                .addValue("dateOfBirth", customer.getDateOfBirth())
+                .addValue("createdDate", customer.getCreatedDate())
+                .addValue("updatedDate", customer.getUpdatedDate())
+                .addValue("version", customer.getVersion());
+    }
+
+    private static String where(CustomerSearchCriteriaDTO criteria, MapSqlParameterSource parameters) {
+
+        StringBuilder where = new StringBuilder();
+
+        if (criteria.getFirstName() != null) {
+            appendCondition(where, "LOWER(first_name) LIKE LOWER(CONCAT(:firstName, '%'))");
+            parameters.addValue("firstName", criteria.getFirstName());
+        }
+        if (criteria.getLastName() != null) {
+            appendCondition(where, "LOWER(last_name) LIKE LOWER(CONCAT(:lastName, '%'))");
+            parameters.addValue("lastName", criteria.getLastName());
+        }
+        if (criteria.getEmail() != null) {
+            appendCondition(where, "LOWER(email) LIKE LOWER(CONCAT('%', :email, '%'))");
+            parameters.addValue("email", criteria.getEmail());
+        }
+        if (criteria.getPhoneNumber() != null) {
+            appendCondition(where, "LOWER(phone_number) LIKE LOWER(CONCAT('%', :phoneNumber, '%'))");
+            parameters.addValue("phoneNumber", criteria.getPhoneNumber());
+        }
+        if (criteria.getDateOfBirth() != null) {
+            appendCondition(where, "date_of_birth = :dateOfBirth");
+            parameters.addValue("dateOfBirth", criteria.getDateOfBirth());
+        }
+
+        return where.toString();
+    }
+
+    private static void appendCondition(StringBuilder where, String condition) {
+        where.append(where.isEmpty() ? " WHERE " : " AND ").append(condition);
+    }
+
+    private static String orderBy(Sort sort) {
+
+        if (sort.isUnsorted()) {
+            return "";
+        }
+
+        StringBuilder orderBy = new StringBuilder(" ORDER BY ");
+
+        for (Sort.Order order : sort) {
+
+            String column = COLUMNS.get(order.getProperty());
+
+            if (column == null) {
+                throw new PropertyReferenceException(order.getProperty(), TypeInformation.of(Customer.class), List.of());
+            }
+
+            if (orderBy.length() > " ORDER BY ".length()) {
+                orderBy.append(", ");
+            }
+
+            orderBy.append(column).append(order.isAscending() ? " ASC" : " DESC");
+
+            switch (order.getNullHandling()) {
+                case NULLS_FIRST -> orderBy.append(" NULLS FIRST");
+                case NULLS_LAST -> orderBy.append(" NULLS LAST");
+                case NATIVE -> {
+                    // where the database puts them
+                }
+            }
+        }
+
+        return orderBy.toString();
+    }
+
+}
@@ -0,0 +1,178 @@
+package com.ainigma100.customerapi.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import liquibase.integration.spring.SpringLiquibase;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * The databases the customers are spread over, each with its connection pool and a {@link CustomerJdbcRepository}.
+ *
+ * <p>A customer lives on the shard {@code hash(id) mod shards}. The id is mixed first, so consecutive ids from the
+ * sequence spread evenly whatever the number of shards. {@link #scatter} runs a query on every shard at once, on
+ * virtual threads, so a scatter-gather query takes as long as the slowest shard, not the sum of all of them.</p>
+ *
+ * <p>Metrics: {@code customer.api.sharding.query}, tagged with the {@code shard}, and the {@code hikaricp.connections.*}
+ * of every shard with its name as {@code pool}.</p>
+ */
+@Slf4j
+public class CustomerShards implements AutoCloseable {
+
+    private final List<Shard> shards = new ArrayList<>();
+    private final Duration queryTimeout;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    record Shard(String name, HikariDataSource dataSource, CustomerJdbcRepository repository, Timer queries) {
+    }
+
+
+    public CustomerShards(ShardingProperties properties, String changeLog, ResourceLoader resourceLoader,
+                          MeterRegistry meterRegistry) {
+
+        if (properties.getShards().isEmpty()) {
+            throw new IllegalArgumentException("Sharding is enabled, but customer-api.sharding.shards is empty");
+        }
+
+        this.queryTimeout = properties.getQueryTimeout();
+
+        try {
+            for (ShardingProperties.Shard shard : properties.getShards()) {
+
+                HikariDataSource dataSource = createPool(shard, meterRegistry);
+
+                shards.add(new Shard(shard.getName(), dataSource, new CustomerJdbcRepository(dataSource),
+                        Timer.builder("customer.api.sharding.query")
+                                .description("Time of the customer queries on one shard")
+                                .tag("shard", shard.getName())
+                                .register(meterRegistry)));
+
+                if (shard.isMigrate()) {
+                    migrate(shard.getName(), dataSource, changeLog, resourceLoader);
+                }
+            }
+
+        } catch (RuntimeException ex) {
+            this.close();
+            throw ex;
+        }
+    }
+
+
+    /**
+     * @return the repository of the shard the customer lives on
+     */
+    CustomerJdbcRepository shardOf(long id) {
+
+        Shard shard = shards.get(Math.floorMod(mix(id), shards.size()));
+
+        return shard.repository();
+    }
+
+    /**
+     * Runs the query on every shard in parallel.
+     *
+     * @return the results in shard order
+     * @throws QueryTimeoutException when not all of them are done within the query timeout
+     */
+    <T> List<T> scatter(Function<CustomerJdbcRepository, T> query) {
+
+        List<Future<T>> futures = shards.stream()
+                .map(shard -> executor.submit(() -> shard.queries().record(() -> query.apply(shard.repository()))))
+                .toList();
+
+        long deadline = System.nanoTime() + queryTimeout.toNanos();
+        List<T> results = new ArrayList<>(futures.size());
+
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            }
+
+        } catch (TimeoutException ex) {
+            throw new QueryTimeoutException("Not all the shards answered within " + queryTimeout.toMillis() + " ms");
+
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new QueryTimeoutException("Interrupted while waiting for the shards");
+
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof DataAccessException dataAccessException) {
+                throw dataAccessException;
+            }
+            throw new IllegalStateException("A shard query failed", ex.getCause());
+
+        } finally {
+            // the queries of the other shards are of no use any more
+            futures.forEach(future -> future.cancel(true));
+        }
+
+        return results;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        shards.forEach(shard -> shard.dataSource().close());
+    }
+
+
+    // the 64-bit finalizer of MurmurHash3
+    private static long mix(long id) {
+
+        long hash = id;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+
+        return hash;
+    }
+
+    private static HikariDataSource createPool(ShardingProperties.Shard shard, MeterRegistry meterRegistry) {
+
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(shard.getName());
+        pool.setJdbcUrl(shard.getUrl());
+        pool.setUsername(shard.getUsername());
+        pool.setPassword(shard.getPassword());
+        pool.setMaximumPoolSize(shard.getMaximumPoolSize());
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+        return pool;
+    }
+
+    private static void migrate(String name, HikariDataSource dataSource, String changeLog, ResourceLoader resourceLoader) {
+
+        log.info("Running the Liquibase change log on the shard {}", name);
+
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog(changeLog);
+        liquibase.setResourceLoader(resourceLoader);
+
+        try {
+            liquibase.afterPropertiesSet();
+
+        } catch (Exception ex) {
+            throw new IllegalStateException("Could not migrate the shard " + name, ex);
+        }
+    }
+
+}
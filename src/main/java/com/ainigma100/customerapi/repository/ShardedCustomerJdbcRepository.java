@@ -0,0 +1,272 @@
+package com.ainigma100.customerapi.repository;
+
+import com.ainigma100.customerapi.dto.CustomerSearchCriteriaDTO;
+import com.ainigma100.customerapi.entity.Customer;
+import com.ainigma100.customerapi.enums.CustomerField;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * The {@link CustomerJdbcRepository} of the sharded storage: a point query or write goes to the shard of its id,
+ * a search to every shard at once (see {@link CustomerShards}), and the partial results are merged here.
+ *
+ * <p>A page from offset {@code o} with {@code n} rows needs the first {@code o + n} rows of every shard, merged by
+ * the requested sort with the id as tie-breaker, so deep pages cost every shard more. The nulls are placed like
+ * PostgreSQL does, last in ascending and first in descending order, and the shards are told so explicitly, since
+ * H2 does it the other way round. The merge compares strings by code point, like PostgreSQL with the {@code C}
+ * collation and H2. With a locale collation the shards may order names differently than the merge does.</p>
+ *
+ * <p>The streaming search gets the rows of the merged page, the page is in memory at that point.</p>
+ */
+public class ShardedCustomerJdbcRepository extends CustomerJdbcRepository {
+
+    private static final String ID = "id";
+
+    // the sortable Customer properties, the same ones CustomerJdbcRepository accepts
+    private static final Map<String, Function<Customer, Comparable<?>>> SORT_KEYS = Map.of(
+            ID, Customer::getId,
+            "firstName", Customer::getFirstName,
+            "lastName", Customer::getLastName,
+            "email", Customer::getEmail,
+            "phoneNumber", Customer::getPhoneNumber,
+            "dateOfBirth", Customer::getDateOfBirth,
+            "createdDate", Customer::getCreatedDate,
+            "updatedDate", Customer::getUpdatedDate,
+            "version", Customer::getVersion);
+
+    private final CustomerShards shards;
+
+
+    /**
+     * @param dataSource the routing index database, only needed by the base class
+     */
+    public ShardedCustomerJdbcRepository(DataSource dataSource, CustomerShards shards) {
+        super(dataSource);
+        this.shards = shards;
+    }
+
+
+    @Override
+    public long countCustomers(CustomerSearchCriteriaDTO criteria) {
+        return shards.scatter(repository -> repository.countCustomers(criteria)).stream().mapToLong(Long::longValue).sum();
+    }
+
+    @Override
+    public Optional<Map<String, Object>> findCustomerFieldsById(Long id, Set<CustomerField> fields) {
+        return shards.shardOf(id).findCustomerFieldsById(id, fields);
+    }
+
+    @Override
+    public List<Map<String, Object>> findCustomerFields(CustomerSearchCriteriaDTO criteria, Set<CustomerField> fields,
+                                                        Pageable pageable) {
+
+        Set<CustomerField> columns = EnumSet.copyOf(fields);
+
+        return new ArrayList<>(this.findCustomers(criteria, pageable).stream()
+                .map(customer -> fieldValues(customer, columns, CustomerField::getProperty))
+                .toList());
+    }
+
+    @Override
+    public void streamCustomers(CustomerSearchCriteriaDTO criteria, Set<CustomerField> fields, Pageable pageable,
+                                RowCallbackHandler rowCallbackHandler) {
+
+        Set<CustomerField> columns = EnumSet.copyOf(fields);
+
+        for (Customer customer : this.findCustomers(criteria, pageable)) {
+            try {
+                rowCallbackHandler.processRow(rowOf(fieldValues(customer, columns, CustomerField::getColumn)));
+
+            } catch (SQLException ex) {
+                throw new IllegalStateException("Could not write the customer " + customer.getId(), ex);
+            }
+        }
+    }
+
+    @Override
+    public Optional<Customer> findCustomerById(Long id) {
+        return shards.shardOf(id).findCustomerById(id);
+    }
+
+    /**
+     * Every shard only looks up its own customers, all of them at once.
+     */
+    @Override
+    public List<Customer> findCustomersByIds(Collection<Long> ids) {
+
+        Map<CustomerJdbcRepository, List<Long>> idsByShard = new IdentityHashMap<>();
+        ids.forEach(id -> idsByShard.computeIfAbsent(shards.shardOf(id), shard -> new ArrayList<>()).add(id));
+
+        List<List<Customer>> partialResults = shards.scatter(repository -> {
+            List<Long> shardIds = idsByShard.get(repository);
+            return shardIds != null ? repository.findCustomersByIds(shardIds) : List.<Customer>of();
+        });
+
+        List<Customer> customers = new ArrayList<>();
+        partialResults.forEach(customers::addAll);
+
+        return customers;
+    }
+
+    @Override
+    public List<Customer> findCustomers(CustomerSearchCriteriaDTO criteria, Pageable pageable) {
+
+        Sort sort = withIdTieBreaker(pageable.getSort());
+        checkSortable(sort);
+
+        long offset = pageable.getOffset();
+        int rowsPerShard = (int) Math.min(Integer.MAX_VALUE, offset + pageable.getPageSize());
+
+        List<List<Customer>> partialPages = shards.scatter(
+                repository -> repository.findCustomers(criteria, PageRequest.of(0, rowsPerShard, sort)));
+
+        // every partial page is sorted already, which the merge sort of List.sort takes advantage of
+        List<Customer> merged = new ArrayList<>();
+        partialPages.forEach(merged::addAll);
+        merged.sort(comparator(sort));
+
+        int from = (int) Math.min(offset, merged.size());
+        int to = (int) Math.min(offset + pageable.getPageSize(), merged.size());
+
+        return new ArrayList<>(merged.subList(from, to));
+    }
+
+    @Override
+    public void insertCustomer(Customer customer) {
+        shards.shardOf(customer.getId()).insertCustomer(customer);
+    }
+
+    @Override
+    public boolean updateCustomer(Customer customer) {
+        return shards.shardOf(customer.getId()).updateCustomer(customer);
+    }
+
+    @Override
+    public boolean deleteCustomerById(Long id) {
+        return shards.shardOf(id).deleteCustomerById(id);
+    }
+
+    @Override
+    public void deleteAllCustomers() {
+
+        shards.scatter(repository -> {
+            repository.deleteAllCustomers();
+            return Boolean.TRUE;
+        });
+    }
+
+
+    // the same order on every shard and in the merge, also for rows that are equal in the requested sort
+    private static Sort withIdTieBreaker(Sort sort) {
+
+        Sort withId = sort.getOrderFor(ID) != null ? sort : sort.and(Sort.by(ID));
+
+        return Sort.by(withId.stream().map(ShardedCustomerJdbcRepository::withNullHandling).toList());
+    }
+
+    private static Sort.Order withNullHandling(Sort.Order order) {
+
+        if (order.getNullHandling() != Sort.NullHandling.NATIVE) {
+            return order;
+        }
+
+        return order.isAscending() ? order.nullsLast() : order.nullsFirst();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparator<Customer> comparator(Sort sort) {
+
+        Comparator<Customer> comparator = null;
+
+        for (Sort.Order order : sort) {
+
+            Function<Customer, Comparable> key = (Function) SORT_KEYS.get(order.getProperty());
+
+            Comparator<Comparable> values = order.isAscending()
+                    ? Comparator.naturalOrder()
+                    : Comparator.reverseOrder();
+            values = order.getNullHandling() == Sort.NullHandling.NULLS_FIRST
+                    ? Comparator.nullsFirst(values)
+                    : Comparator.nullsLast(values);
+
+            Comparator<Customer> byProperty = Comparator.comparing(key, values);
+
+            comparator = comparator == null ? byProperty : comparator.thenComparing(byProperty);
+        }
+
+        return comparator;
+    }
+
+    private static Map<String, Object> fieldValues(Customer customer, Set<CustomerField> fields,
+                                                   Function<CustomerField, String> key) {
+
+        Map<String, Object> values = new LinkedHashMap<>();
+
+        for (CustomerField field : fields) {
+            values.put(key.apply(field), switch (field) {
+                case ID -> customer.getId();
+                case FIRST_NAME -> customer.getFirstName();
+                case LAST_NAME -> customer.getLastName();
+                case EMAIL -> customer.getEmail();
+                case PHONE_NUMBER -> customer.getPhoneNumber();
+                case DATE_OF_BIRTH -> customer.getDateOfBirth();
+            });
+        }
+
+        return values;
+    }
+
+    /**
+     * A read-only {@code ResultSet} positioned on a single row, with the getters {@link CustomerField#read} and the
+     * streaming serializer use.
+     */
+    private static ResultSet rowOf(Map<String, Object> columnValues) {
+
+        Map<String, Object> row = new HashMap<>(columnValues);
+        Object[] lastValue = new Object[1];
+
+        return (ResultSet) Proxy.newProxyInstance(
+                ShardedCustomerJdbcRepository.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getLong" -> {
+                        lastValue[0] = row.get((String) args[0]);
+                        yield lastValue[0] != null ? ((Number) lastValue[0]).longValue() : 0L;
+                    }
+                    case "getString" -> {
+                        lastValue[0] = row.get((String) args[0]);
+                        yield lastValue[0] != null ? lastValue[0].toString() : null;
+                    }
+                    case "getObject" -> {
+                        lastValue[0] = row.get((String) args[0]);
+                        yield args.length > 1 ? ((Class<?>) args[1]).cast(lastValue[0]) : lastValue[0];
+                    }
+                    case "wasNull" -> lastValue[0] == null;
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> "ResultSet" + row;
+                    default -> throw new SQLFeatureNotSupportedException(method.getName() + " on a merged customer row");
+                });
+    }
+
+}
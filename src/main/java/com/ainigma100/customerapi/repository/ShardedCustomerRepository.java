@@ -0,0 +1,291 @@
+package com.ainigma100.customerapi.repository;
+
+import com.ainigma100.customerapi.dto.CustomerSearchCriteriaDTO;
+import com.ainigma100.customerapi.entity.Customer;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * {@link CustomerRepository} over the sharded storage, which replaces the JPA repository when
+ * {@code customer-api.sharding.enabled=true}, so the service layer does not change.
+ *
+ * <p>The {@code spring.datasource} database keeps what cannot be sharded by id: the {@code customer_id_seq} sequence,
+ * since a new customer needs its id before its shard is known, and the {@code customer_shard_index} routing index,
+ * from email to id, for {@link #findByEmail} and the uniqueness of the emails. The rows themselves are read and
+ * written by the {@link ShardedCustomerJdbcRepository}.</p>
+ *
+ * <p>The index is written in the transaction of the service method and the shard row right after it, outside of any
+ * transaction. A failed shard write rolls the index back, but there is no two-phase commit: an index commit failing
+ * after the shard write leaves a row the index does not know of.</p>
+ *
+ * <p>Entities are plain objects here, {@link #save} has to be called for every change, which the service does, and
+ * query by example is not supported.</p>
+ */
+public class ShardedCustomerRepository implements CustomerRepository {
+
+    private static final String NEXT_ID = "SELECT nextval('customer_id_seq')";
+
+    private final NamedParameterJdbcTemplate index;
+    private final ShardedCustomerJdbcRepository shards;
+
+
+    /**
+     * @param dataSource the routing index database
+     */
+    public ShardedCustomerRepository(DataSource dataSource, ShardedCustomerJdbcRepository shards) {
+        this.index = new NamedParameterJdbcTemplate(dataSource);
+        this.shards = shards;
+    }
+
+
+    @Override
+    public Optional<Customer> findByEmail(String email) {
+
+        List<Long> ids = index.queryForList("SELECT customer_id FROM customer_shard_index WHERE email = :email",
+                new MapSqlParameterSource("email", email), Long.class);
+
+        return ids.isEmpty() ? Optional.empty() : shards.findCustomerById(ids.getFirst());
+    }
+
+    @Override
+    public Page<Customer> getAllCustomersUsingPagination(CustomerSearchCriteriaDTO customerSearchCriteriaDTO,
+                                                         Pageable pageable) {
+
+        long totalElements = shards.countCustomers(customerSearchCriteriaDTO);
+
+        List<Customer> content = pageable.getOffset() < totalElements
+                ? shards.findCustomers(customerSearchCriteriaDTO, pageable)
+                : List.of();
+
+        return new PageImpl<>(content, pageable, totalElements);
+    }
+
+    @Override
+    public <S extends Customer> S save(S customer) {
+
+        LocalDateTime now = LocalDateTime.now();
+
+        if (customer.getId() == null) {
+
+            customer.setId(index.getJdbcTemplate().queryForObject(NEXT_ID, Long.class));
+            customer.setCreatedDate(now);
+            customer.setVersion(0L);
+
+            index.update("INSERT INTO customer_shard_index (customer_id, email) VALUES (:id, :email)",
+                    indexParameters(customer));
+            shards.insertCustomer(customer);
+
+            return customer;
+        }
+
+        // a changed email has to be unique as well
+        index.update("UPDATE customer_shard_index SET email = :email WHERE customer_id = :id", indexParameters(customer));
+
+        customer.setUpdatedDate(now);
+
+        if (!shards.updateCustomer(customer)) {
+            throw new ObjectOptimisticLockingFailureException(Customer.class, customer.getId());
+        }
+
+        customer.setVersion(customer.getVersion() + 1);
+
+        return customer;
+    }
+
+    @Override
+    public <S extends Customer> List<S> saveAll(Iterable<S> customers) {
+
+        List<S> saved = new ArrayList<>();
+        customers.forEach(customer -> saved.add(this.save(customer)));
+
+        return saved;
+    }
+
+    @Override
+    public Optional<Customer> findById(Long id) {
+        return shards.findCustomerById(id);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return this.findById(id).isPresent();
+    }
+
+    @Override
+    public List<Customer> findAll() {
+        return this.findAll(Sort.unsorted());
+    }
+
+    @Override
+    public List<Customer> findAll(Sort sort) {
+        return shards.findCustomers(new CustomerSearchCriteriaDTO(), PageRequest.of(0, Integer.MAX_VALUE, sort));
+    }
+
+    @Override
+    public Page<Customer> findAll(Pageable pageable) {
+        return this.getAllCustomersUsingPagination(new CustomerSearchCriteriaDTO(), pageable);
+    }
+
+    @Override
+    public List<Customer> findAllById(Iterable<Long> ids) {
+
+        List<Customer> customers = new ArrayList<>();
+        ids.forEach(id -> this.findById(id).ifPresent(customers::add));
+
+        return customers;
+    }
+
+    @Override
+    public long count() {
+        return shards.countCustomers(new CustomerSearchCriteriaDTO());
+    }
+
+    @Override
+    public void deleteById(Long id) {
+
+        index.update("DELETE FROM customer_shard_index WHERE customer_id = :id", new MapSqlParameterSource("id", id));
+        shards.deleteCustomerById(id);
+    }
+
+    @Override
+    public void delete(Customer customer) {
+        this.deleteById(customer.getId());
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Long> ids) {
+        ids.forEach(this::deleteById);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Customer> customers) {
+        customers.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+
+        index.update("DELETE FROM customer_shard_index", new MapSqlParameterSource());
+        shards.deleteAllCustomers();
+    }
+
+    @Override
+    public void flush() {
+        // every statement runs right away
+    }
+
+    @Override
+    public <S extends Customer> S saveAndFlush(S customer) {
+        return this.save(customer);
+    }
+
+    @Override
+    public <S extends Customer> List<S> saveAllAndFlush(Iterable<S> customers) {
+        return this.saveAll(customers);
+    }
+
+    @Override
+    public void deleteAllInBatch(Iterable<Customer> customers) {
+        this.deleteAll(customers);
+    }
+
+    @Override
+    public void deleteAllByIdInBatch(Iterable<Long> ids) {
+        this.deleteAllById(ids);
+    }
+
+    @Override
+    public void deleteAllInBatch() {
+        this.deleteAll();
+    }
+
+    /**
+     * @deprecated use {@link #getReferenceById(Long)}
+     */
+    @Deprecated
+    @Override
+    public Customer getOne(Long id) {
+        return this.getReferenceById(id);
+    }
+
+    /**
+     * @deprecated use {@link #getReferenceById(Long)}
+     */
+    @Deprecated
+    @Override
+    public Customer getById(Long id) {
+        return this.getReferenceById(id);
+    }
+
+    /**
+     * There are no lazy references, the customer is loaded right away.
+     */
+    @Override
+    public Customer getReferenceById(Long id) {
+        return this.findById(id).orElseThrow(() -> new EntityNotFoundException("Customer with id : '" + id + "' not found"));
+    }
+
+    @Override
+    public <S extends Customer> Optional<S> findOne(Example<S> example) {
+        throw queryByExampleNotSupported();
+    }
+
+    @Override
+    public <S extends Customer> List<S> findAll(Example<S> example) {
+        throw queryByExampleNotSupported();
+    }
+
+    @Override
+    public <S extends Customer> List<S> findAll(Example<S> example, Sort sort) {
+        throw queryByExampleNotSupported();
+    }
+
+    @Override
+    public <S extends Customer> Page<S> findAll(Example<S> example, Pageable pageable) {
+        throw queryByExampleNotSupported();
+    }
+
+    @Override
+    public <S extends Customer> long count(Example<S> example) {
+        throw queryByExampleNotSupported();
+    }
+
+    @Override
+    public <S extends Customer> boolean exists(Example<S> example) {
+        throw queryByExampleNotSupported();
+    }
+
+    @Override
+    public <S extends Customer, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        throw queryByExampleNotSupported();
+    }
+
+
+    private static MapSqlParameterSource indexParameters(Customer customer) {
+
+        return new MapSqlParameterSource()
+                .addValue("id", customer.getId())
+                .addValue("email", customer.getEmail());
+    }
+
+    private static UnsupportedOperationException queryByExampleNotSupported() {
+        return new UnsupportedOperationException("Query by example is not supported by the sharded customer storage");
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.ainigma100.customerapi.repository;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code customer-api.sharding} settings: the databases the customers are spread over. The
+ * {@code spring.datasource} keeps the routing index and the id sequence.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "customer-api.sharding")
+public class ShardingProperties {
+
+    private boolean enabled = false;
+
+    // a customer belongs to shard hash(id) mod the number of shards, which must not change once there is data
+    private List<Shard> shards = new ArrayList<>();
+
+    // for all the shards of a scatter-gather query together
+    private Duration queryTimeout = Duration.ofSeconds(10);
+
+
+    @Getter
+    @Setter
+    public static class Shard {
+
+        private String name;
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        private int maximumPoolSize = 10;
+
+        // runs the Liquibase change log on the shard, e.g. for local H2 databases
+        private boolean migrate = false;
+    }
+
+}
@@ -17,7 +17,8 @@ import org.springframework.security.web.header.writers.ReferrerPolicyHeaderWrite
  */
 public abstract class AbstractSecurityConfig {
 
-    protected static final String[] PUBLIC_URLS = {
+    // public, the security configuration of the reactive application permits the same URLs
+    public static final String[] PUBLIC_URLS = {
             "/api/auth/**", "/ui/**",
             "/swagger-ui-custom.html", "/swagger-ui.html",
             "/swagger-ui/**", "/v3/api-docs/**", "/webjars/**",
@@ -56,6 +57,12 @@ public abstract class AbstractSecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(permittedUrls).permitAll()
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll() // Allow preflight requests
+                        // The Kubernetes probes carry no token, the probe groups only report the status
+                        .requestMatchers("/actuator/health/liveness", "/actuator/health/readiness").permitAll()
+                        // Flight recordings expose the internals of the application, only admins may start or download them
+                        .requestMatchers("/actuator/jfr", "/actuator/jfr/**").hasRole("ADMIN")
+                        // The startup timeline lists every bean of the application
+                        .requestMatchers("/actuator/startup").hasRole("ADMIN")
                         // All authenticated requests must have either Admin or User role
                         .anyRequest().hasAnyRole("ADMIN", "USER")
                 )
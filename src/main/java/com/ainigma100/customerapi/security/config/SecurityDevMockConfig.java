@@ -38,7 +38,15 @@ public class SecurityDevMockConfig extends AbstractSecurityConfig {
 
     @Bean
     public JwtDecoder jwtDecoder() {
-        return token -> Jwt.withTokenValue(token)
+        return SecurityDevMockConfig::mockJwt;
+    }
+
+    /**
+     * The JWT of the mocked identity provider, with the Admin role for {@code admin-token} and the User role for
+     * {@code user-token}. The reactive application decodes its tokens with it too.
+     */
+    public static Jwt mockJwt(String token) {
+        return Jwt.withTokenValue(token)
                 .header("alg", "none")
                 .claim("sub", "test-user")
                 .claim("preferred_username", "test.ext@ainigma100.com")
@@ -46,7 +54,7 @@ public class SecurityDevMockConfig extends AbstractSecurityConfig {
                 .build();
     }
 
-    private List<String> getRoles(String token) {
+    private static List<String> getRoles(String token) {
         if (token.contains("admin-token")) {
             return List.of("Admin");
         } else if (token.contains("user-token")) {
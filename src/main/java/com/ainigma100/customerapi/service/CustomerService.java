@@ -2,15 +2,26 @@ package com.ainigma100.customerapi.service;
 
 import com.ainigma100.customerapi.dto.CustomerDTO;
 import com.ainigma100.customerapi.dto.CustomerEmailUpdateDTO;
+import com.ainigma100.customerapi.dto.CustomerPageStream;
 import com.ainigma100.customerapi.dto.CustomerSearchCriteriaDTO;
+import com.ainigma100.customerapi.dto.CustomersByIdsDTO;
+import com.ainigma100.customerapi.enums.CustomerField;
 import org.springframework.data.domain.Page;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 public interface CustomerService {
 
     CustomerDTO createCustomer(CustomerDTO customerDTO);
 
     CustomerDTO getCustomerById(Long id);
 
+    Map<String, Object> getCustomerFieldsById(Long id, Set<CustomerField> fields);
+
+    CustomersByIdsDTO getCustomersByIds(List<Long> ids);
+
     CustomerDTO updateCustomer(Long id, CustomerDTO customerDTO);
 
     CustomerDTO updateCustomerEmail(Long id, CustomerEmailUpdateDTO emailUpdateDTO);
@@ -19,4 +30,8 @@ public interface CustomerService {
 
     Page<CustomerDTO> getAllCustomersUsingPagination(CustomerSearchCriteriaDTO customerSearchCriteriaDTO);
 
+    Page<Map<String, Object>> getAllCustomerFieldsUsingPagination(CustomerSearchCriteriaDTO customerSearchCriteriaDTO);
+
+    CustomerPageStream streamAllCustomersUsingPagination(CustomerSearchCriteriaDTO customerSearchCriteriaDTO);
+
 }
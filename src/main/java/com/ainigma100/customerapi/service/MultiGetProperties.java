@@ -0,0 +1,18 @@
+package com.ainigma100.customerapi.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * The {@code customer-api.multi-get} settings of {@link CustomerService#getCustomersByIds}, read on every call.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "customer-api.multi-get")
+public class MultiGetProperties {
+
+    // the most ids one request may ask for, more are answered with 400 Bad Request
+    private int maxIds = 1_000;
+
+}
@@ -0,0 +1,30 @@
+package com.ainigma100.customerapi.service.concurrency;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * The {@code customer-api.batch-loader} settings of the {@link CustomerBatchLoader}. {@code enabled} is read on
+ * every lookup, so the switch also works for an application built ahead of time.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "customer-api.batch-loader")
+public class BatchLoaderProperties {
+
+    private boolean enabled = false;
+
+    // how long the first lookup of a batch waits for others, the added latency of a lookup at most
+    private Duration window = Duration.of(500, ChronoUnit.MICROS);
+
+    // a full batch is queried right away
+    private int maxBatchSize = 100;
+
+    // how long a lookup waits for its batch query, then fails with a QueryTimeoutException
+    private Duration waitTimeout = Duration.ofSeconds(10);
+
+}
@@ -0,0 +1,229 @@
+package com.ainigma100.customerapi.service.concurrency;
+
+import com.ainigma100.customerapi.datasource.ReadYourWrites;
+import com.ainigma100.customerapi.entity.Customer;
+import com.ainigma100.customerapi.repository.CustomerJdbcRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Merges the lookups of customers by id that arrive at about the same time into one {@code WHERE id IN (...)} query,
+ * like a DataLoader: the first lookup opens a batch, the lookups of the next {@code window} join it, and the batch is
+ * queried once the window has passed or {@code max-batch-size} ids have joined, whichever comes first. Every lookup
+ * then gets its own customer out of the result.
+ *
+ * <p>Under load this trades up to one window of latency per lookup for one connection checkout and round trip per
+ * batch instead of per lookup. With few concurrent lookups a batch holds a single id and the window is pure added
+ * latency, which is why it is off unless {@code customer-api.batch-loader.enabled} is set.</p>
+ *
+ * <p>A batch is queried on a virtual thread in a read-only transaction of its own, outside the scopes of the
+ * requests it serves. A lookup with a {@code Consistency-Token} is not batched, it may need a more recent replica
+ * than the others.</p>
+ *
+ * <p>A lookup waits at most the {@code wait-timeout} for its batch, then fails with a {@link QueryTimeoutException}.
+ * When the batch query fails, every lookup gets an exception of its own with the query's as the cause, like the
+ * calls waiting in a {@link SingleFlight}. Once closed, the loader rejects new lookups and fails the lookups of a
+ * batch it can no longer query.</p>
+ *
+ * <p>Metrics: {@code customer.api.batch-loader.batch.size} (ids per query), {@code customer.api.batch-loader.wait}
+ * (the latency added to a lookup, from joining the batch to the batch query starting) and
+ * {@code customer.api.batch-loader.query}.</p>
+ */
+public class CustomerBatchLoader implements AutoCloseable {
+
+    private final BatchLoaderProperties properties;
+    private final CustomerJdbcRepository customerJdbcRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final DistributionSummary batchSizes;
+    private final Timer waits;
+    private final Timer queries;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // the batch lookups join, null until the next lookup opens one
+    private Batch open;
+
+    private record Lookup(Long id, long joinedNanos, CompletableFuture<Optional<Customer>> customer) {
+    }
+
+    private static final class Batch {
+
+        private final List<Lookup> lookups = new ArrayList<>();
+        private final AtomicBoolean dispatched = new AtomicBoolean();
+    }
+
+
+    public CustomerBatchLoader(BatchLoaderProperties properties, CustomerJdbcRepository customerJdbcRepository,
+                               PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+
+        if (properties.getMaxBatchSize() < 1) {
+            throw new IllegalArgumentException("Expected a max-batch-size of at least 1, got " + properties.getMaxBatchSize());
+        }
+
+        this.properties = properties;
+        this.customerJdbcRepository = customerJdbcRepository;
+
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+
+        this.batchSizes = DistributionSummary.builder("customer.api.batch-loader.batch.size")
+                .description("Ids per batch query")
+                .baseUnit("ids")
+                .register(meterRegistry);
+
+        this.waits = Timer.builder("customer.api.batch-loader.wait")
+                .description("Time a lookup waits for its batch to be queried")
+                .register(meterRegistry);
+
+        this.queries = Timer.builder("customer.api.batch-loader.query")
+                .description("Time of the batch queries")
+                .register(meterRegistry);
+    }
+
+
+    public boolean isEnabled() {
+        return properties.isEnabled() && ReadYourWrites.minPosition() == ReadYourWrites.ANY_POSITION;
+    }
+
+    public Optional<Customer> findById(Long id) {
+
+        Lookup lookup = new Lookup(id, System.nanoTime(), new CompletableFuture<>());
+        Batch full = null;
+
+        lock.lock();
+        try {
+            if (open == null) {
+                Batch batch = new Batch();
+                Duration window = properties.getWindow();
+
+                // rejected once closed, then no batch is left open that nothing would query
+                executor.submit(() -> {
+                    try {
+                        Thread.sleep(window);
+                    } catch (InterruptedException ex) {
+                        // closed, the batch is queried right away
+                        Thread.currentThread().interrupt();
+                    }
+                    dispatch(batch);
+                });
+
+                open = batch;
+            }
+
+            open.lookups.add(lookup);
+
+            if (open.lookups.size() >= properties.getMaxBatchSize()) {
+                full = open;
+                open = null;
+            }
+
+        } finally {
+            lock.unlock();
+        }
+
+        if (full != null) {
+            Batch batch = full;
+
+            try {
+                executor.submit(() -> dispatch(batch));
+            } catch (RejectedExecutionException ex) {
+                reject(batch, ex);
+            }
+        }
+
+        return await(lookup.customer());
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+
+    private void dispatch(Batch batch) {
+
+        lock.lock();
+        try {
+            // no lookup can join it from now on
+            if (open == batch) {
+                open = null;
+            }
+
+        } finally {
+            lock.unlock();
+        }
+
+        // the window and a full batch both dispatch it, the first one queries
+        if (!batch.dispatched.compareAndSet(false, true)) {
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        batch.lookups.forEach(lookup -> waits.record(startNanos - lookup.joinedNanos(), TimeUnit.NANOSECONDS));
+
+        List<Long> ids = batch.lookups.stream().map(Lookup::id).distinct().toList();
+        batchSizes.record(ids.size());
+
+        try {
+            Map<Long, Customer> customers = queries.record(() -> readOnlyTransaction.execute(status ->
+                    customerJdbcRepository.findCustomersByIds(ids).stream()
+                            .collect(Collectors.toMap(Customer::getId, Function.identity()))));
+
+            batch.lookups.forEach(lookup -> lookup.customer().complete(Optional.ofNullable(customers.get(lookup.id()))));
+
+        } catch (RuntimeException | Error ex) {
+            batch.lookups.forEach(lookup -> lookup.customer().completeExceptionally(ex));
+        }
+    }
+
+    private static void reject(Batch batch, RejectedExecutionException ex) {
+
+        // unless its window already started the query
+        if (batch.dispatched.compareAndSet(false, true)) {
+            batch.lookups.forEach(lookup -> lookup.customer().completeExceptionally(ex));
+        }
+    }
+
+    private Optional<Customer> await(CompletableFuture<Optional<Customer>> customer) {
+
+        Duration waitTimeout = properties.getWaitTimeout();
+
+        try {
+            return customer.get(waitTimeout.toNanos(), TimeUnit.NANOSECONDS);
+
+        } catch (TimeoutException ex) {
+            throw new QueryTimeoutException("The batch query did not complete within " + waitTimeout.toMillis() + " ms");
+
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new QueryTimeoutException("Interrupted while waiting for the batch query");
+
+        } catch (ExecutionException ex) {
+            throw SingleFlight.failure("The batch query", ex.getCause());
+        }
+    }
+
+}
@@ -0,0 +1,119 @@
+package com.ainigma100.customerapi.service.concurrency;
+
+import com.ainigma100.customerapi.datasource.ReadYourWrites;
+import com.ainigma100.customerapi.dto.CustomerDTO;
+import com.ainigma100.customerapi.dto.CustomerSearchCriteriaDTO;
+import com.ainigma100.customerapi.enums.CustomerField;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Shares one database read between the identical reads that arrive while it runs: a customer by id, or a search by
+ * its normalized criteria and page. When a popular customer or search is requested by many clients at the same
+ * moment, only the first request reads, the others wait for it and answer with its result or its exception.
+ *
+ * <p>The results are shared, not copied, and must not be changed. A read only joins one that is still running, so
+ * its result is at most as old as the read it joined. The writes of this instance make the reads that start after
+ * their commit run again, so a client reads its own write. A request with a {@code Consistency-Token} is never
+ * coalesced, it may need a more recent replica than the running read.</p>
+ *
+ * <p>Off with {@code customer-api.single-flight.enabled=false}. Metrics: see {@link SingleFlight}, with the
+ * {@code operation} {@code customer-by-id} or {@code customer-search}.</p>
+ */
+public class CustomerSingleFlight {
+
+    private final SingleFlightProperties properties;
+    private final SingleFlight<Long, CustomerDTO> customers;
+    private final SingleFlight<SearchKey, Page<?>> searches;
+
+    /**
+     * The criteria as the search queries them: the names, email and phone number are compared ignoring case.
+     * {@code fields} is {@code null} for the search of whole customers.
+     */
+    record SearchKey(String firstName, String lastName, String email, String phoneNumber, LocalDate dateOfBirth,
+                     Pageable pageable, Set<CustomerField> fields) {
+
+        static SearchKey of(CustomerSearchCriteriaDTO criteria, Pageable pageable, Set<CustomerField> fields) {
+
+            return new SearchKey(lowerCase(criteria.getFirstName()), lowerCase(criteria.getLastName()),
+                    lowerCase(criteria.getEmail()), lowerCase(criteria.getPhoneNumber()), criteria.getDateOfBirth(),
+                    pageable, fields);
+        }
+
+        private static String lowerCase(String value) {
+            return value != null ? value.toLowerCase(Locale.ROOT) : null;
+        }
+    }
+
+
+    public CustomerSingleFlight(SingleFlightProperties properties, MeterRegistry meterRegistry) {
+
+        this.properties = properties;
+        this.customers = new SingleFlight<>("customer-by-id", properties.getMaxInFlight(), properties.getWaitTimeout(), meterRegistry);
+        this.searches = new SingleFlight<>("customer-search", properties.getMaxInFlight(), properties.getWaitTimeout(), meterRegistry);
+    }
+
+
+    public CustomerDTO getCustomerById(Long id, Supplier<CustomerDTO> read) {
+
+        return coalesce() ? customers.execute(id, read) : read.get();
+    }
+
+    /**
+     * @param fields the requested fields of a projected search, {@code null} for whole customers
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Page<T> search(CustomerSearchCriteriaDTO criteria, Pageable pageable, Set<CustomerField> fields,
+                              Supplier<Page<T>> read) {
+
+        if (!coalesce()) {
+            return read.get();
+        }
+
+        // the fields are part of the key, so the pages of a key all have the same type
+        return (Page<T>) searches.execute(SearchKey.of(criteria, pageable, fields), (Supplier<Page<?>>) (Supplier<?>) read);
+    }
+
+    /**
+     * The customer and the searches are read again from the commit of the current transaction on, or right away
+     * without one.
+     */
+    public void written(Long id) {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            forget(id);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                forget(id);
+            }
+        });
+    }
+
+
+    private boolean coalesce() {
+        return properties.isEnabled() && ReadYourWrites.minPosition() == ReadYourWrites.ANY_POSITION;
+    }
+
+    private void forget(Long id) {
+
+        if (id != null) {
+            customers.forget(id);
+        }
+
+        // any search may include the customer
+        searches.forgetAll();
+    }
+
+}
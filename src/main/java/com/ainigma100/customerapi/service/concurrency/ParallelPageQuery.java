@@ -0,0 +1,137 @@
+package com.ainigma100.customerapi.service.concurrency;
+
+import com.ainigma100.customerapi.datasource.ConnectionHoldTimeTracker;
+import com.ainigma100.customerapi.datasource.ReadYourWrites;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Runs the page query and the count query of a search at the same time, each on a virtual thread in a read-only
+ * transaction of its own, so a search takes as long as the slower of the two instead of their sum. It also holds
+ * two connections at once instead of one after the other, which is why it is off unless
+ * {@code customer-api.search.parallel.enabled} is set.
+ *
+ * <p>The two queries are forked and joined like the subtasks of a {@code StructuredTaskScope} that shuts down on
+ * the first failure: when one of them fails, the other one is cancelled and the failure is thrown; when they are
+ * not both done within the timeout, or the waiting request thread is interrupted, both are cancelled. Neither of
+ * them outlives the call. The request's {@link ReadYourWrites} and {@link ConnectionHoldTimeTracker} scopes are
+ * carried over to the forked queries.</p>
+ *
+ * <p>Metrics: {@code customer.api.search.parallel}, tagged with the {@code query} ({@code content} or {@code count}).</p>
+ */
+public class ParallelPageQuery implements AutoCloseable {
+
+    private final ParallelSearchProperties properties;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Timer contentQueries;
+    private final Timer countQueries;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+
+    public ParallelPageQuery(ParallelSearchProperties properties, PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry) {
+
+        this.properties = properties;
+
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+
+        this.contentQueries = timer("content", meterRegistry);
+        this.countQueries = timer("count", meterRegistry);
+    }
+
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * @param content the rows of the page
+     * @param count   the number of rows of all the pages
+     * @throws QueryTimeoutException when the two are not done within the timeout
+     */
+    public <T> Page<T> fetch(Pageable pageable, Supplier<List<T>> content, LongSupplier count) {
+
+        CompletionService<Object> scope = new ExecutorCompletionService<>(executor);
+
+        Future<Object> rows = scope.submit(fork(() -> contentQueries.record(content)));
+        Future<Object> total = scope.submit(fork(() -> countQueries.record(count)));
+
+        long deadline = System.nanoTime() + properties.getTimeout().toNanos();
+
+        try {
+            // in the order they complete, so the first failure is seen without waiting for the other query
+            for (int done = 0; done < 2; done++) {
+
+                Future<Object> next = scope.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+
+                if (next == null) {
+                    throw new QueryTimeoutException("The search did not complete within "
+                            + properties.getTimeout().toMillis() + " ms");
+                }
+
+                next.get();
+            }
+
+            @SuppressWarnings("unchecked")
+            List<T> page = (List<T>) rows.get();
+
+            return new PageImpl<>(page, pageable, (Long) total.get());
+
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new QueryTimeoutException("Interrupted while waiting for the search");
+
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("A search query failed", ex.getCause());
+
+        } finally {
+            // nothing to do for a query that is done, the other one is of no use any more
+            rows.cancel(true);
+            total.cancel(true);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+
+    private Callable<Object> fork(Supplier<Object> query) {
+
+        Callable<Object> inTransaction = () -> readOnlyTransaction.execute(status -> query.get());
+
+        return ConnectionHoldTimeTracker.propagate(ReadYourWrites.propagate(inTransaction));
+    }
+
+    private static Timer timer(String query, MeterRegistry meterRegistry) {
+
+        return Timer.builder("customer.api.search.parallel")
+                .description("Time of the search queries run in parallel")
+                .tag("query", query)
+                .register(meterRegistry);
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.ainigma100.customerapi.service.concurrency;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * The {@code customer-api.search.parallel} settings of the {@link ParallelPageQuery}. Read on every search, so the
+ * switch also works for an application built ahead of time.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "customer-api.search.parallel")
+public class ParallelSearchProperties {
+
+    // a search holds two connections at once instead of one after the other
+    private boolean enabled = false;
+
+    // for the page and the count together
+    private Duration timeout = Duration.ofSeconds(10);
+
+}
@@ -0,0 +1,216 @@
+package com.ainigma100.customerapi.service.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * The calls in flight of one operation, by key: a call made while one with an equal key is running waits for that
+ * one and gets its result or its exception, instead of running again.
+ *
+ * <p>A waiting call waits at most the {@code waitTimeout}, then fails with a {@link QueryTimeoutException}. It gets
+ * an exception of its own, with the one of the running call as the cause, since an exception is not safe to throw
+ * on many threads at once: each of them would add its suppressed exceptions and stack to the same instance.</p>
+ *
+ * <p>The calls are spread over {@link #STRIPES} maps of bounded size, like the {@code ClientBuckets} of the rate
+ * limit. Joining a running call is a lock-free {@link ConcurrentHashMap#get}, only a call that starts takes the lock
+ * of its hash bin. A call that finds its stripe full runs on its own. A call is removed once it is done, so only a
+ * call that is still running is shared.</p>
+ *
+ * <p>Metrics: {@code customer.api.single-flight.calls}, tagged with the {@code operation} and the {@code result}
+ * ({@code executed}, {@code coalesced} or {@code bypassed} for a full stripe), {@code customer.api.single-flight.in-flight}
+ * and {@code customer.api.single-flight.coalescing.ratio}, the share of the calls that got the result of another one.</p>
+ */
+class SingleFlight<K, V> {
+
+    static final int STRIPES = 64;
+
+    private final Map<K, CompletableFuture<V>>[] stripes;
+    private final int maxCallsPerStripe;
+    private final long waitTimeoutNanos;
+
+    private final Counter executed;
+    private final Counter coalesced;
+    private final Counter bypassed;
+
+
+    @SuppressWarnings("unchecked")
+    SingleFlight(String operation, int maxCalls, Duration waitTimeout, MeterRegistry meterRegistry) {
+
+        if (maxCalls < STRIPES) {
+            throw new IllegalArgumentException("Expected at least " + STRIPES + " calls in flight, got " + maxCalls);
+        }
+
+        this.stripes = new Map[STRIPES];
+        this.maxCallsPerStripe = (maxCalls + STRIPES - 1) / STRIPES;
+        this.waitTimeoutNanos = waitTimeout.toNanos();
+
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+
+        this.executed = counter(operation, "executed", meterRegistry);
+        this.coalesced = counter(operation, "coalesced", meterRegistry);
+        this.bypassed = counter(operation, "bypassed", meterRegistry);
+
+        Gauge.builder("customer.api.single-flight.in-flight", this, SingleFlight::size)
+                .description("Calls running that later equal calls can join")
+                .tag("operation", operation)
+                .register(meterRegistry);
+
+        Gauge.builder("customer.api.single-flight.coalescing.ratio", this, SingleFlight::coalescingRatio)
+                .description("Share of the calls that got the result of an equal call already running")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+
+    /**
+     * @return the result of the call with an equal key that is running, otherwise of this one
+     */
+    V execute(K key, Supplier<V> call) {
+
+        Map<K, CompletableFuture<V>> stripe = stripes[stripe(key)];
+
+        CompletableFuture<V> running = stripe.get(key);
+
+        if (running == null) {
+
+            if (stripe.size() >= maxCallsPerStripe) {
+                bypassed.increment();
+                return call.get();
+            }
+
+            CompletableFuture<V> flight = new CompletableFuture<>();
+            running = stripe.putIfAbsent(key, flight);
+
+            if (running == null) {
+                executed.increment();
+                return run(key, call, flight, stripe);
+            }
+        }
+
+        coalesced.increment();
+        return await(running);
+    }
+
+    /**
+     * The calls with the key made from now on run again, the ones waiting for the running call still get its result.
+     */
+    void forget(K key) {
+        stripes[stripe(key)].remove(key);
+    }
+
+    void forgetAll() {
+
+        for (Map<K, CompletableFuture<V>> stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    int size() {
+
+        int size = 0;
+
+        for (Map<K, CompletableFuture<V>> stripe : stripes) {
+            size += stripe.size();
+        }
+
+        return size;
+    }
+
+    double coalescingRatio() {
+
+        double total = executed.count() + coalesced.count() + bypassed.count();
+
+        return total > 0 ? coalesced.count() / total : 0;
+    }
+
+
+    private V run(K key, Supplier<V> call, CompletableFuture<V> flight, Map<K, CompletableFuture<V>> stripe) {
+
+        try {
+            V result = call.get();
+            flight.complete(result);
+            return result;
+
+        } catch (RuntimeException | Error ex) {
+            flight.completeExceptionally(ex);
+            throw ex;
+
+        } finally {
+            // only this flight, the key may have been forgotten and started again meanwhile
+            stripe.remove(key, flight);
+        }
+    }
+
+    private V await(CompletableFuture<V> running) {
+
+        try {
+            return running.get(waitTimeoutNanos, TimeUnit.NANOSECONDS);
+
+        } catch (TimeoutException ex) {
+            throw new QueryTimeoutException("The equal call did not complete within "
+                    + TimeUnit.NANOSECONDS.toMillis(waitTimeoutNanos) + " ms");
+
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new QueryTimeoutException("Interrupted while waiting for an equal call");
+
+        } catch (ExecutionException ex) {
+            throw failure("The equal call", ex.getCause());
+        }
+    }
+
+    /**
+     * @return an exception of the waiting call for the one the call it waited for threw, also for the lookups of a
+     * {@link CustomerBatchLoader} batch
+     */
+    static RuntimeException failure(String call, Throwable cause) {
+
+        if (cause instanceof Error error) {
+            throw error;
+        }
+
+        // the same type for a customer not found, answered with a 404, and for a timeout
+        if (cause instanceof EntityNotFoundException) {
+            EntityNotFoundException exception = new EntityNotFoundException(cause.getMessage());
+            exception.initCause(cause);
+            return exception;
+        }
+
+        if (cause instanceof QueryTimeoutException) {
+            return new QueryTimeoutException(cause.getMessage(), cause);
+        }
+
+        return new IllegalStateException(call + " failed: " + cause.getMessage(), cause);
+    }
+
+    private static int stripe(Object key) {
+
+        // the low bits pick the bin inside the stripe's map, use the high ones
+        int hash = key.hashCode() * 0x9E3779B9;
+        return hash >>> (Integer.SIZE - Integer.numberOfTrailingZeros(STRIPES));
+    }
+
+    private static Counter counter(String operation, String result, MeterRegistry meterRegistry) {
+
+        return Counter.builder("customer.api.single-flight.calls")
+                .description("Reads by whether they ran, joined an equal read already running, or ran on their own for a full stripe")
+                .tag("operation", operation)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+}
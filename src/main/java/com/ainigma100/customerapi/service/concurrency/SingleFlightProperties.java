@@ -0,0 +1,26 @@
+package com.ainigma100.customerapi.service.concurrency;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * The {@code customer-api.single-flight} settings of the {@link CustomerSingleFlight}. {@code enabled} is read on
+ * every call, so the switch also works for an application built ahead of time.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "customer-api.single-flight")
+public class SingleFlightProperties {
+
+    private boolean enabled = true;
+
+    // per operation, further calls run on their own
+    private int maxInFlight = 10_000;
+
+    // how long a call waits for the equal one running, then fails with a QueryTimeoutException
+    private Duration waitTimeout = Duration.ofSeconds(10);
+
+}
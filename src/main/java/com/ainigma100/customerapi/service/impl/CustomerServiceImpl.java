@@ -2,13 +2,23 @@ package com.ainigma100.customerapi.service.impl;
 
 import com.ainigma100.customerapi.dto.CustomerDTO;
 import com.ainigma100.customerapi.dto.CustomerEmailUpdateDTO;
+import com.ainigma100.customerapi.dto.CustomerPageStream;
 import com.ainigma100.customerapi.dto.CustomerSearchCriteriaDTO;
+import com.ainigma100.customerapi.dto.CustomersByIdsDTO;
 import com.ainigma100.customerapi.entity.Customer;
+import com.ainigma100.customerapi.enums.CustomerField;
+import com.ainigma100.customerapi.exception.BadRequestException;
 import com.ainigma100.customerapi.mapper.CustomerMapper;
+import com.ainigma100.customerapi.repository.CustomerJdbcRepository;
 import com.ainigma100.customerapi.repository.CustomerRepository;
 import com.ainigma100.customerapi.service.CustomerService;
+import com.ainigma100.customerapi.service.MultiGetProperties;
+import com.ainigma100.customerapi.service.concurrency.CustomerBatchLoader;
+import com.ainigma100.customerapi.service.concurrency.CustomerSingleFlight;
+import com.ainigma100.customerapi.service.concurrency.ParallelPageQuery;
 import com.ainigma100.customerapi.utils.SortItem;
 import com.ainigma100.customerapi.utils.Utils;
+import com.ainigma100.customerapi.utils.annotation.DataMasker;
 import com.ainigma100.customerapi.utils.annotation.ExecutionTime;
 import jakarta.persistence.EntityExistsException;
 import jakarta.persistence.EntityNotFoundException;
@@ -18,19 +28,44 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
-
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Reads run in read-only transactions and writes in read-write transactions, so the connection is only
+ * held for the duration of the method when open-in-view is disabled ({@code spring.jpa.open-in-view=false}).
+ */
 @Slf4j
 @RequiredArgsConstructor
 @Service
+@Transactional(readOnly = true)
 public class CustomerServiceImpl implements CustomerService {
 
+    // the projections are plain maps, so the phone number is masked here instead of by the DTO serializer
+    private static final DataMasker PHONE_NUMBER_MASKER = DataMasker.forField(CustomerDTO.class, "phoneNumber");
+
     private final CustomerRepository customerRepository;
     private final CustomerMapper customerMapper;
+    private final CustomerJdbcRepository customerJdbcRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ParallelPageQuery parallelPageQuery;
+    private final CustomerSingleFlight customerSingleFlight;
+    private final CustomerBatchLoader customerBatchLoader;
+    private final MultiGetProperties multiGetProperties;
 
 
     @ExecutionTime
+    @Transactional
     @Override
     public CustomerDTO createCustomer(CustomerDTO customerDTO) {
 
@@ -43,22 +78,71 @@ public class CustomerServiceImpl implements CustomerService {
 
         Customer savedRecord = customerRepository.save(recordToBeSaved);
 
+        customerSingleFlight.written(savedRecord.getId());
+
         return customerMapper.customerToCustomerDTO(savedRecord);
     }
 
 
+    /**
+     * Identical reads at the same time share one (see {@link CustomerSingleFlight}), and the reads of different ids
+     * can be merged into one query (see {@link CustomerBatchLoader}). Without a transaction of its own, so that the
+     * reads waiting for another one hold no connection.
+     */
     @ExecutionTime
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     @Override
     public CustomerDTO getCustomerById(Long id) {
 
-        Customer recordFromDB = customerRepository.findById(id)
+        return customerSingleFlight.getCustomerById(id, () -> {
+
+            Optional<Customer> recordFromDB = customerBatchLoader.isEnabled()
+                    ? customerBatchLoader.findById(id)
+                    : inReadOnlyTransaction(status -> customerRepository.findById(id));
+
+            return customerMapper.customerToCustomerDTO(recordFromDB
+                    .orElseThrow(() -> new EntityNotFoundException("Customer with id : '" + id + "' not found")));
+        });
+    }
+
+
+    /**
+     * Selects only the columns of the fields, without loading the entity.
+     */
+    @ExecutionTime
+    @Override
+    public Map<String, Object> getCustomerFieldsById(Long id, Set<CustomerField> fields) {
+
+        Map<String, Object> recordFromDB = customerJdbcRepository.findCustomerFieldsById(id, fields)
                 .orElseThrow(() -> new EntityNotFoundException("Customer with id : '" + id + "' not found"));
 
-        return customerMapper.customerToCustomerDTO(recordFromDB);
+        return maskPhoneNumber(recordFromDB);
+    }
+
+
+    /**
+     * One {@code WHERE id IN (...)} query per chunk of ids instead of one query per id.
+     */
+    @ExecutionTime
+    @Override
+    public CustomersByIdsDTO getCustomersByIds(List<Long> ids) {
+
+        int maxIds = multiGetProperties.getMaxIds();
+
+        if (ids.size() > maxIds) {
+            throw new BadRequestException("ids", "at most " + maxIds + " ids per request, got " + ids.size());
+        }
+
+        Map<Long, CustomerDTO> customersById = customerJdbcRepository.findCustomersByIds(ids).stream()
+                .map(customerMapper::customerToCustomerDTO)
+                .collect(Collectors.toMap(CustomerDTO::getId, Function.identity()));
+
+        return CustomersByIdsDTO.of(ids, customersById);
     }
 
 
     @ExecutionTime
+    @Transactional
     @Override
     public CustomerDTO updateCustomer(Long id, CustomerDTO customerDTO) {
 
@@ -68,10 +152,13 @@ public class CustomerServiceImpl implements CustomerService {
         customerMapper.updateCustomerFromDto(customerDTO, recordFromDB);
 
         Customer updatedCustomer = customerRepository.save(recordFromDB);
+        customerSingleFlight.written(id);
+
         return customerMapper.customerToCustomerDTO(updatedCustomer);
     }
 
 
+    @Transactional
     @Override
     public CustomerDTO updateCustomerEmail(Long id, CustomerEmailUpdateDTO emailUpdateDTO) {
 
@@ -81,6 +168,7 @@ public class CustomerServiceImpl implements CustomerService {
         recordFromDB.setEmail(emailUpdateDTO.getEmail());
 
         Customer savedRecord = customerRepository.save(recordFromDB);
+        customerSingleFlight.written(id);
 
         return customerMapper.customerToCustomerDTO(savedRecord);
 
@@ -88,6 +176,7 @@ public class CustomerServiceImpl implements CustomerService {
 
 
     @ExecutionTime
+    @Transactional
     @Override
     public void deleteCustomer(Long id) {
 
@@ -95,8 +184,15 @@ public class CustomerServiceImpl implements CustomerService {
                 .orElseThrow(() -> new EntityNotFoundException("Customer with id : '" + id + "' not found"));
 
         customerRepository.delete(recordFromDB);
+        customerSingleFlight.written(id);
     }
 
+    /**
+     * Without a transaction of its own: the page and the count run in one read-only transaction, or each in its own
+     * when {@link ParallelPageQuery} runs them at the same time, without a third connection held meanwhile. Identical
+     * searches at the same time share one (see {@link CustomerSingleFlight}).
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     @Override
     public Page<CustomerDTO> getAllCustomersUsingPagination(
             CustomerSearchCriteriaDTO customerSearchCriteriaDTO) {
@@ -108,11 +204,127 @@ public class CustomerServiceImpl implements CustomerService {
         // this pageable will be used for the pagination.
         Pageable pageable = Utils.createPageableBasedOnPageAndSizeAndSorting(sortList, page, size);
 
-        Page<Customer> recordsFromDb = customerRepository.getAllCustomersUsingPagination(customerSearchCriteriaDTO, pageable);
+        return customerSingleFlight.search(customerSearchCriteriaDTO, pageable, null, () -> {
+
+            Page<Customer> recordsFromDb = readCustomerPage(customerSearchCriteriaDTO, pageable);
+
+            List<CustomerDTO> result = customerMapper.customerListToCustomerDTOList(recordsFromDb.getContent());
+
+            return new PageImpl<>(result, pageable, recordsFromDb.getTotalElements());
+        });
+    }
+
+    /**
+     * The projected version of {@link #getAllCustomersUsingPagination}, the page query only selects the columns of
+     * the requested fields and the rows are never turned into entities.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Override
+    public Page<Map<String, Object>> getAllCustomerFieldsUsingPagination(
+            CustomerSearchCriteriaDTO customerSearchCriteriaDTO) {
+
+        Pageable pageable = Utils.createPageableBasedOnPageAndSizeAndSorting(
+                customerSearchCriteriaDTO.getSortList(), customerSearchCriteriaDTO.getPage(), customerSearchCriteriaDTO.getSize());
+
+        CustomerJdbcRepository.checkSortable(pageable.getSort());
+
+        Set<CustomerField> fields = CustomerField.setOf(customerSearchCriteriaDTO.getFields());
+
+        return customerSingleFlight.search(customerSearchCriteriaDTO, pageable, fields, () -> {
+
+            Page<Map<String, Object>> result = readCustomerFieldsPage(customerSearchCriteriaDTO, fields, pageable);
+
+            result.forEach(this::maskPhoneNumber);
+
+            return result;
+        });
+    }
+
+    /**
+     * The count runs now, the page query only once the response is written (see {@link CustomerPageStream}),
+     * in a read-only transaction of its own since this one has ended by then. The two are not atomic: a write
+     * committed in between shows in the rows but not in {@code totalElements}.
+     */
+    @Override
+    public CustomerPageStream streamAllCustomersUsingPagination(
+            CustomerSearchCriteriaDTO customerSearchCriteriaDTO) {
+
+        Pageable pageable = Utils.createPageableBasedOnPageAndSizeAndSorting(
+                customerSearchCriteriaDTO.getSortList(), customerSearchCriteriaDTO.getPage(), customerSearchCriteriaDTO.getSize());
+
+        // an unknown sort property has to fail before the response is started
+        CustomerJdbcRepository.checkSortable(pageable.getSort());
+
+        long totalElements = customerJdbcRepository.countCustomers(customerSearchCriteriaDTO);
+
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        Set<CustomerField> fields = CustomerField.setOf(customerSearchCriteriaDTO.getFields());
+
+        return new CustomerPageStream(pageable.getPageNumber(), pageable.getPageSize(), totalElements, fields,
+                rowCallbackHandler -> {
+                    // no need to query a page past the last row
+                    if (pageable.getOffset() < totalElements) {
+                        readOnlyTransaction.executeWithoutResult(status ->
+                                customerJdbcRepository.streamCustomers(customerSearchCriteriaDTO, fields, pageable, rowCallbackHandler));
+                    }
+                });
+    }
+
+
+    private Page<Customer> readCustomerPage(CustomerSearchCriteriaDTO customerSearchCriteriaDTO, Pageable pageable) {
+
+        if (parallelPageQuery.isEnabled()) {
+
+            // an unknown sort property fails here, like the JPA query, rather than on one of the forked queries
+            CustomerJdbcRepository.checkSortable(pageable.getSort());
+
+            return parallelPageQuery.fetch(pageable,
+                    () -> customerJdbcRepository.findCustomers(customerSearchCriteriaDTO, pageable),
+                    () -> customerJdbcRepository.countCustomers(customerSearchCriteriaDTO));
+        }
+
+        return inReadOnlyTransaction(status ->
+                customerRepository.getAllCustomersUsingPagination(customerSearchCriteriaDTO, pageable));
+    }
+
+    private Page<Map<String, Object>> readCustomerFieldsPage(CustomerSearchCriteriaDTO customerSearchCriteriaDTO,
+                                                             Set<CustomerField> fields, Pageable pageable) {
+
+        if (parallelPageQuery.isEnabled()) {
+
+            return parallelPageQuery.fetch(pageable,
+                    () -> customerJdbcRepository.findCustomerFields(customerSearchCriteriaDTO, fields, pageable),
+                    () -> customerJdbcRepository.countCustomers(customerSearchCriteriaDTO));
+        }
+
+        return inReadOnlyTransaction(status -> {
+
+            long totalElements = customerJdbcRepository.countCustomers(customerSearchCriteriaDTO);
+
+            // no need to query a page past the last row
+            List<Map<String, Object>> rows = pageable.getOffset() < totalElements
+                    ? customerJdbcRepository.findCustomerFields(customerSearchCriteriaDTO, fields, pageable)
+                    : List.of();
+
+            return new PageImpl<>(rows, pageable, totalElements);
+        });
+    }
+
+    private <T> T inReadOnlyTransaction(TransactionCallback<T> action) {
+
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        return readOnlyTransaction.execute(action);
+    }
 
-        List<CustomerDTO> result = customerMapper.customerListToCustomerDTOList(recordsFromDb.getContent());
+    private Map<String, Object> maskPhoneNumber(Map<String, Object> fields) {
 
-        return new PageImpl<>(result, pageable, recordsFromDb.getTotalElements());
+        fields.computeIfPresent(CustomerField.PHONE_NUMBER.getProperty(),
+                (property, phoneNumber) -> PHONE_NUMBER_MASKER.mask((String) phoneNumber));
 
+        return fields;
     }
 }
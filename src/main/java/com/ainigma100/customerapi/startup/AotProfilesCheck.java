@@ -0,0 +1,77 @@
+package com.ainigma100.customerapi.startup;
+
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.core.env.Environment;
+
+import java.util.Arrays;
+
+/**
+ * Fails the startup when the bean definitions generated by Spring AOT ({@code -Dspring.aot.enabled=true}) were
+ * computed for other profiles than the active ones. AOT fixes the profiles, and with them every {@code @Profile} and
+ * {@code @ConditionalOnProperty}, at build time, so an image built for {@code dev} and started with {@code prod}
+ * would otherwise run with the beans of {@code dev}, the mock {@code JwtDecoder} of {@code SecurityDevMockConfig}
+ * included.
+ *
+ * <p>During the AOT processing, and on every start without AOT, the active profiles are registered as the
+ * {@value #BEAN_NAME} bean. Its definition is part of the generated code, so when the application starts with AOT it
+ * is already there and holds the profiles of the build.</p>
+ */
+public class AotProfilesCheck implements BeanDefinitionRegistryPostProcessor {
+
+    static final String BEAN_NAME = "aotProfiles";
+
+    private final Environment environment;
+
+
+    /**
+     * The profiles the bean definitions were computed for, sorted.
+     */
+    public record AotProfiles(String[] names) {
+    }
+
+
+    public AotProfilesCheck(Environment environment) {
+        this.environment = environment;
+    }
+
+
+    @Override
+    public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) {
+
+        String[] activeProfiles = sorted(environment.getActiveProfiles());
+
+        if (!registry.containsBeanDefinition(BEAN_NAME)) {
+
+            RootBeanDefinition beanDefinition = new RootBeanDefinition(AotProfiles.class);
+            beanDefinition.getConstructorArgumentValues().addIndexedArgumentValue(0, activeProfiles);
+            registry.registerBeanDefinition(BEAN_NAME, beanDefinition);
+            return;
+        }
+
+        ConstructorArgumentValues.ValueHolder names = registry.getBeanDefinition(BEAN_NAME)
+                .getConstructorArgumentValues().getIndexedArgumentValue(0, String[].class);
+        String[] aotProfiles = names != null ? sorted((String[]) names.getValue()) : new String[0];
+
+        if (!Arrays.equals(aotProfiles, activeProfiles)) {
+            throw new IllegalStateException("The AOT-generated bean definitions were built for the profiles "
+                    + Arrays.toString(aotProfiles) + ", but " + Arrays.toString(activeProfiles) + " are active. "
+                    + "Build with -Daot.profiles (AOT_PROFILES of the Dockerfile) set to the active profiles, "
+                    + "or start without -Dspring.aot.enabled=true.");
+        }
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        // everything happens on the registry
+    }
+
+
+    private static String[] sorted(String[] profiles) {
+        return Arrays.stream(profiles).sorted().toArray(String[]::new);
+    }
+
+}
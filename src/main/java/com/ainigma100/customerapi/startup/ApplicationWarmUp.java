@@ -0,0 +1,245 @@
+package com.ainigma100.customerapi.startup;
+
+import com.ainigma100.customerapi.controller.CustomerController;
+import com.ainigma100.customerapi.controller.OpenApiSpecController;
+import com.ainigma100.customerapi.dto.APIResponse;
+import com.ainigma100.customerapi.dto.CustomerDTO;
+import com.ainigma100.customerapi.dto.CustomerIdsRequestDTO;
+import com.ainigma100.customerapi.dto.CustomerSearchCriteriaDTO;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import javax.sql.DataSource;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Warms a new instance up before it takes traffic, with {@code customer-api.warm-up.enabled=true}. Until then the
+ * first requests would run interpreted code, open the pool connections one by one and fill the caches.
+ *
+ * <p>It opens the minimum idle connections of the pool, then calls the {@link CustomerController} in-process with
+ * the request shapes of the API: the searches with and without criteria, sorting and field selection, the streamed
+ * search and the lookups by id and by id list. Every response is serialized, in JSON, CBOR and Smile, to a
+ * discarding stream. Only reads are made, the warm-up never changes the data.</p>
+ *
+ * <p>The application runners run before the {@code ApplicationReadyEvent}, and the readiness state stays
+ * {@code REFUSING_TRAFFIC} until that event, so {@code /actuator/health/readiness} reports the instance as out of
+ * service for as long as the warm-up takes. A failing call stops the warm-up, it does not stop the instance.</p>
+ */
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ApplicationWarmUp implements ApplicationRunner {
+
+    private static final List<String> FIELDS = List.of("id", "firstName", "email");
+
+    private final WarmUpProperties properties;
+    private final ApplicationContext context;
+    private final DataSource dataSource;
+    private final CustomerController customerController;
+    private final JsonMapper jsonMapper;
+    private final CBORMapper cborMapper;
+    private final SmileMapper smileMapper;
+    private final ObjectProvider<OpenApiSpecController> openApiSpecController;
+
+    // of the last warm-up, null before
+    @Getter
+    private volatile Report lastReport;
+
+
+    /**
+     * @param calls          controller calls
+     * @param firstIteration the time of the first pass, with the code still interpreted
+     * @param lastIteration  the time of the last pass
+     */
+    public record Report(int iterations, int calls, Duration duration, Duration firstIteration, Duration lastIteration) {
+    }
+
+
+    @Override
+    public void run(ApplicationArguments args) {
+
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        // the initial state already, published so the probe and the log show why the instance is not ready
+        AvailabilityChangeEvent.publish(context, ReadinessState.REFUSING_TRAFFIC);
+
+        long start = System.nanoTime();
+        long deadline = start + properties.getMaxDuration().toNanos();
+
+        int iterations = 0;
+        int calls = 0;
+        long firstIteration = 0;
+        long lastIteration = 0;
+
+        try {
+            if (properties.isPool()) {
+                log.info("Warm-up: {} pool connections open", this.openPoolConnections());
+            }
+
+            if (properties.isCaches()) {
+                openApiSpecController.ifAvailable(OpenApiSpecController::preload);
+            }
+
+            List<String> searches = this.searches();
+
+            while (iterations < properties.getIterations() && System.nanoTime() < deadline) {
+
+                long iterationStart = System.nanoTime();
+                calls += this.iterate(searches);
+                lastIteration = System.nanoTime() - iterationStart;
+
+                if (iterations++ == 0) {
+                    firstIteration = lastIteration;
+                }
+            }
+
+        } catch (SQLException | RuntimeException ex) {
+            log.warn("Warm-up stopped after {} iteration(s), the instance starts without it", iterations, ex);
+        }
+
+        lastReport = new Report(iterations, calls, Duration.ofNanos(System.nanoTime() - start),
+                Duration.ofNanos(firstIteration), Duration.ofNanos(lastIteration));
+
+        log.info("Warm-up: {} iteration(s), {} calls in {} ms, the first iteration took {} ms, the last {} ms",
+                lastReport.iterations(), lastReport.calls(), lastReport.duration().toMillis(),
+                lastReport.firstIteration().toMillis(), lastReport.lastIteration().toMillis());
+    }
+
+
+    /**
+     * Checks out the minimum idle connections of the application pool at once, so each of them is opened now
+     * instead of by the first concurrent requests. The pools of the replicas and shards warm up with the reads.
+     */
+    private int openPoolConnections() throws SQLException {
+
+        if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+            return 0;
+        }
+
+        HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+        int minimumIdle = Math.min(pool.getMinimumIdle(), pool.getMaximumPoolSize());
+
+        List<Connection> connections = new ArrayList<>(minimumIdle);
+
+        try {
+            for (int i = 0; i < minimumIdle; i++) {
+                connections.add(pool.getConnection());
+            }
+
+        } finally {
+            connections.forEach(JdbcUtils::closeConnection);
+        }
+
+        return minimumIdle;
+    }
+
+
+    /**
+     * The search request bodies, the criteria taken from the first customer, if there is one.
+     */
+    private List<String> searches() {
+
+        List<String> searches = new ArrayList<>(List.of(
+                """
+                        {"page": 0, "size": 20, "sortList": [{"field": "id", "direction": "ASC"}]}""",
+                """
+                        {"page": 1, "size": 50, "sortList": [{"field": "lastName", "direction": "DESC"}, {"field": "id", "direction": "ASC"}]}""",
+                """
+                        {"page": 0, "size": 20, "fields": ["id", "firstName", "email"]}"""));
+
+        Page<?> firstPage = this.search(searches.getFirst()).getResults();
+
+        if (!firstPage.isEmpty() && firstPage.getContent().getFirst() instanceof CustomerDTO customer) {
+            searches.add(jsonMapper.createObjectNode()
+                    .put("lastName", customer.getLastName()).put("page", 0).put("size", 10).toString());
+            searches.add(jsonMapper.createObjectNode()
+                    .put("email", customer.getEmail()).put("page", 0).put("size", 10).toString());
+        }
+
+        return searches;
+    }
+
+
+    /**
+     * One pass over all the request shapes, returns the number of controller calls.
+     */
+    private int iterate(List<String> searches) {
+
+        int calls = 0;
+        List<Long> ids = new ArrayList<>();
+
+        for (String search : searches) {
+
+            APIResponse<Page<?>> response = this.search(search);
+            this.write(response);
+            calls++;
+
+            response.getResults().getContent().stream()
+                    .filter(CustomerDTO.class::isInstance)
+                    .limit(5)
+                    .forEach(customer -> ids.add(((CustomerDTO) customer).getId()));
+        }
+
+        CustomerSearchCriteriaDTO criteria = jsonMapper.readValue(searches.getFirst(), CustomerSearchCriteriaDTO.class);
+        // the rows are read while the response is written, once is enough
+        jsonMapper.writeValue(OutputStream.nullOutputStream(),
+                customerController.streamAllCustomersUsingPagination(criteria).getBody());
+        calls++;
+
+        for (Long id : ids) {
+            this.write(customerController.getCustomerById(id).getBody());
+            this.write(customerController.getCustomerFieldsById(id, FIELDS).getBody());
+            calls += 2;
+        }
+
+        if (!ids.isEmpty()) {
+            this.write(customerController.getCustomersByIds(new CustomerIdsRequestDTO(ids)).getBody());
+            calls++;
+        }
+
+        return calls;
+    }
+
+
+    private APIResponse<Page<?>> search(String body) {
+
+        // read like a request body, the deserialization warms up as well
+        CustomerSearchCriteriaDTO criteria = jsonMapper.readValue(body, CustomerSearchCriteriaDTO.class);
+
+        return customerController.getAllCustomersUsingPagination(criteria).getBody();
+    }
+
+
+    private void write(Object body) {
+
+        for (ObjectMapper mapper : List.of(jsonMapper, cborMapper, smileMapper)) {
+            mapper.writeValue(OutputStream.nullOutputStream(), body);
+        }
+    }
+
+}
@@ -0,0 +1,117 @@
+package com.ainigma100.customerapi.startup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.SpringApplicationEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.Environment;
+import org.springframework.core.metrics.StartupStep;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records the startup steps of the application context with {@code customer-api.startup.timeline.enabled=true}, and
+ * logs the slowest bean instantiations once the application is ready. The whole timeline is available at
+ * {@code /actuator/startup} afterwards.
+ *
+ * <p>The {@link BufferingApplicationStartup} has to be in place before the context is created, so this is a
+ * listener of the {@code SpringApplication} (see {@code CustomerApiApplication}), not a bean. A bean is ranked by
+ * the time of its own, the time spent on the beans it depends on is left out.</p>
+ */
+@Slf4j
+public class StartupTimelineReport implements ApplicationListener<SpringApplicationEvent> {
+
+    private static final String ENABLED = "customer-api.startup.timeline.enabled";
+    private static final String CAPACITY = "customer-api.startup.timeline.capacity";
+    private static final String SLOWEST_BEANS = "customer-api.startup.timeline.slowest-beans";
+
+    private static final String BEAN_INSTANTIATION = "spring.beans.instantiate";
+
+    private int slowestBeans;
+
+
+    /**
+     * A bean instantiation of the timeline.
+     *
+     * @param total with the beans it depends on
+     * @param own   without them
+     */
+    record BeanInstantiation(String beanName, Duration total, Duration own) {
+    }
+
+
+    @Override
+    public void onApplicationEvent(SpringApplicationEvent event) {
+
+        if (event instanceof ApplicationEnvironmentPreparedEvent environmentPrepared) {
+
+            Environment environment = environmentPrepared.getEnvironment();
+
+            if (environment.getProperty(ENABLED, Boolean.class, false)) {
+                slowestBeans = environment.getProperty(SLOWEST_BEANS, Integer.class, 15);
+                environmentPrepared.getSpringApplication().setApplicationStartup(
+                        new BufferingApplicationStartup(environment.getProperty(CAPACITY, Integer.class, 10_000)));
+            }
+
+        } else if (event instanceof ApplicationReadyEvent ready
+                && ready.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup) {
+
+            // not drained, the actuator endpoint still gets the whole timeline
+            List<BeanInstantiation> beans = slowestBeans(startup.getBufferedTimeline(), slowestBeans);
+
+            StringBuilder report = new StringBuilder();
+            beans.forEach(bean -> report.append(String.format("%n%8d ms %8d ms  %s",
+                    bean.own().toMillis(), bean.total().toMillis(), bean.beanName())));
+
+            log.info("Ready {} ms after the JVM start ({} ms in SpringApplication.run), the slowest beans (own, total):{}",
+                    ManagementFactory.getRuntimeMXBean().getUptime(), ready.getTimeTaken().toMillis(), report);
+        }
+    }
+
+
+    /**
+     * @return the bean instantiations of the timeline with the longest own time first
+     */
+    static List<BeanInstantiation> slowestBeans(StartupTimeline timeline, int limit) {
+
+        Map<Long, Duration> ownTimes = new HashMap<>();
+
+        for (StartupTimeline.TimelineEvent event : timeline.getEvents()) {
+            ownTimes.merge(event.getStartupStep().getId(), event.getDuration(), Duration::plus);
+
+            Long parentId = event.getStartupStep().getParentId();
+            if (parentId != null) {
+                ownTimes.merge(parentId, event.getDuration().negated(), Duration::plus);
+            }
+        }
+
+        return timeline.getEvents().stream()
+                .filter(event -> BEAN_INSTANTIATION.equals(event.getStartupStep().getName()))
+                .map(event -> new BeanInstantiation(beanName(event.getStartupStep()), event.getDuration(),
+                        ownTimes.get(event.getStartupStep().getId())))
+                .sorted(Comparator.comparing(BeanInstantiation::own).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+
+    private static String beanName(StartupStep step) {
+
+        for (StartupStep.Tag tag : step.getTags()) {
+            if ("beanName".equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+
+        return "?";
+    }
+
+}
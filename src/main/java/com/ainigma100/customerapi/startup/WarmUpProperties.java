@@ -0,0 +1,31 @@
+package com.ainigma100.customerapi.startup;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * The {@code customer-api.warm-up} settings of the {@link ApplicationWarmUp}. The warm-up stops at whichever of
+ * {@code iterations} and {@code max-duration} is reached first.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "customer-api.warm-up")
+public class WarmUpProperties {
+
+    private boolean enabled = false;
+
+    // passes over all the request shapes
+    private int iterations = 1_000;
+
+    private Duration maxDuration = Duration.ofSeconds(30);
+
+    // open the minimum idle connections of the pool before the first request
+    private boolean pool = true;
+
+    // fill the caches that are otherwise filled by the first request, e.g. the OpenAPI file
+    private boolean caches = true;
+
+}
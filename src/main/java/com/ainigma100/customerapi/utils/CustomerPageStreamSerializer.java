@@ -0,0 +1,102 @@
+package com.ainigma100.customerapi.utils;
+
+import com.ainigma100.customerapi.dto.CustomerDTO;
+import com.ainigma100.customerapi.dto.CustomerPageStream;
+import com.ainigma100.customerapi.enums.CustomerField;
+import com.ainigma100.customerapi.utils.annotation.DataMasker;
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.StreamWriteFeature;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ValueSerializer;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Writes a {@link CustomerPageStream} with the same properties, in the same order, as Jackson writes a
+ * {@code PagedModel<CustomerDTO>}, limited to the selected fields. The customers are written while the
+ * {@code ResultSet} is read, so neither entities nor DTOs nor a list of them are created, whatever the page size.
+ *
+ * <p>When reading the rows fails, the part of the body already sent cannot be taken back. The content is then left
+ * open, without the closing {@code ]} and the {@code page}, and the exception is rethrown, so that the response is
+ * aborted (see {@code GlobalExceptionHandler}) and the client sees an incomplete body rather than a shorter page.</p>
+ */
+@Slf4j
+public class CustomerPageStreamSerializer extends ValueSerializer<CustomerPageStream> {
+
+    // the masking configuration stays on CustomerDTO, where the regular search reads it from
+    private static final DataMasker PHONE_NUMBER_MASKER = DataMasker.forField(CustomerDTO.class, "phoneNumber");
+
+
+    @Override
+    public void serialize(CustomerPageStream value, JsonGenerator gen, SerializationContext serializationContext) {
+
+        gen.writeStartObject();
+
+        gen.writeName("content");
+        gen.writeStartArray();
+
+        int[] rows = {0};
+        try {
+            value.getRows().accept(resultSet -> {
+                writeCustomer(resultSet, value.getFields(), gen);
+                rows[0]++;
+            });
+
+        } catch (RuntimeException ex) {
+            log.error("Streaming search of page {} (size {}) failed after {} rows, aborting the response: {}",
+                    value.getNumber(), value.getSize(), rows[0], ex.getMessage(), ex);
+
+            // closing the generator must not complete the JSON
+            gen.configure(StreamWriteFeature.AUTO_CLOSE_CONTENT, false);
+            throw ex;
+        }
+
+        gen.writeEndArray();
+
+        gen.writeName("page");
+        gen.writeStartObject();
+        gen.writeNumberProperty("size", value.getSize());
+        gen.writeNumberProperty("number", value.getNumber());
+        gen.writeNumberProperty("totalElements", value.getTotalElements());
+        gen.writeNumberProperty("totalPages", (long) Math.ceil((double) value.getTotalElements() / value.getSize()));
+        gen.writeEndObject();
+
+        gen.writeEndObject();
+    }
+
+
+    private static void writeCustomer(ResultSet resultSet, Set<CustomerField> fields, JsonGenerator gen) throws SQLException {
+
+        gen.writeStartObject();
+
+        for (CustomerField field : fields) {
+
+            String property = field.getProperty();
+
+            switch (field) {
+                case ID -> gen.writeNumberProperty(property, resultSet.getLong(field.getColumn()));
+                case PHONE_NUMBER -> {
+                    String phoneNumber = resultSet.getString(field.getColumn());
+                    gen.writeName(property);
+                    if (phoneNumber != null) {
+                        PHONE_NUMBER_MASKER.write(phoneNumber, gen);
+                    } else {
+                        gen.writeNull();
+                    }
+                }
+                case DATE_OF_BIRTH -> {
+                    LocalDate dateOfBirth = resultSet.getObject(field.getColumn(), LocalDate.class);
+                    gen.writeStringProperty(property, dateOfBirth != null ? dateOfBirth.toString() : null);
+                }
+                default -> gen.writeStringProperty(property, resultSet.getString(field.getColumn()));
+            }
+        }
+
+        gen.writeEndObject();
+    }
+
+}
@@ -0,0 +1,137 @@
+package com.ainigma100.customerapi.utils.annotation;
+
+import com.ainigma100.customerapi.enums.MaskStrategy;
+import tools.jackson.core.JsonGenerator;
+
+/**
+ * Masks values according to one {@link MaskData} configuration. Everything that only depends on the annotation
+ * is resolved once in the constructor, and {@link #write(String, JsonGenerator)} copies the visible characters
+ * and the mask symbols into a reusable buffer that is handed to the generator, without intermediate Strings.
+ */
+public final class DataMasker {
+
+    // values whose masked form is longer than this get their own array instead of growing the cached one
+    private static final int MAX_CACHED_BUFFER_LENGTH = 1024;
+
+    private static final ThreadLocal<char[]> buffers = ThreadLocal.withInitial(() -> new char[64]);
+
+    private final MaskStrategy strategy;
+    private final int visibleCharactersAtStart;
+    private final int visibleCharactersAtEnd;
+    private final char[] maskSymbol;
+
+
+    public DataMasker(MaskStrategy strategy, int visibleCharactersAtStart, int visibleCharactersAtEnd, String maskSymbol) {
+        this.strategy = strategy;
+        this.visibleCharactersAtStart = strategy == MaskStrategy.LAST_N_VISIBLE ? 0 : Math.max(0, visibleCharactersAtStart);
+        this.visibleCharactersAtEnd = Math.max(0, visibleCharactersAtEnd);
+        this.maskSymbol = maskSymbol.toCharArray();
+    }
+
+    public static DataMasker of(MaskData maskData) {
+        return new DataMasker(maskData.strategy(), maskData.visibleCharactersAtStart(),
+                maskData.visibleCharactersAtEnd(), maskData.maskSymbol());
+    }
+
+    /**
+     * For the code that writes a property without going through its Jackson serializer,
+     * so the masking configuration stays on the DTO field.
+     */
+    public static DataMasker forField(Class<?> type, String fieldName) {
+
+        try {
+            MaskData maskData = type.getDeclaredField(fieldName).getAnnotation(MaskData.class);
+
+            if (maskData == null) {
+                throw new IllegalStateException(type.getSimpleName() + "." + fieldName + " is not annotated with @MaskData");
+            }
+
+            return of(maskData);
+
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException(type.getSimpleName() + " has no " + fieldName + " field", e);
+        }
+    }
+
+
+    public void write(String value, JsonGenerator generator) {
+
+        char[] buffer = buffer(value.length() * Math.max(1, maskSymbol.length));
+        int length = mask(value, buffer);
+
+        if (length < 0) {
+            generator.writeString(value);
+        } else {
+            generator.writeString(buffer, 0, length);
+        }
+    }
+
+    public String mask(String value) {
+
+        char[] buffer = new char[value.length() * Math.max(1, maskSymbol.length)];
+        int length = mask(value, buffer);
+
+        return length < 0 ? value : new String(buffer, 0, length);
+    }
+
+
+    /**
+     * Writes the masked value into the buffer.
+     *
+     * @return the length of the masked value, or -1 when nothing has to be masked
+     */
+    private int mask(String value, char[] buffer) {
+
+        int valueLength = value.length();
+
+        // the masked characters are [maskFrom, maskTo)
+        int partEnd = valueLength;
+        if (strategy == MaskStrategy.EMAIL_LOCAL_PART) {
+            int at = value.indexOf('@');
+            partEnd = at >= 0 ? at : valueLength;
+        }
+
+        int maskFrom = visibleCharactersAtStart;
+        int maskTo = partEnd - visibleCharactersAtEnd;
+
+        if (maskTo <= maskFrom) {
+            return -1;
+        }
+
+        value.getChars(0, maskFrom, buffer, 0);
+        int position = maskFrom;
+
+        if (maskSymbol.length == 1) {
+            char symbol = maskSymbol[0];
+            for (int i = maskFrom; i < maskTo; i++) {
+                buffer[position++] = symbol;
+            }
+        } else {
+            for (int i = maskFrom; i < maskTo; i++) {
+                System.arraycopy(maskSymbol, 0, buffer, position, maskSymbol.length);
+                position += maskSymbol.length;
+            }
+        }
+
+        value.getChars(maskTo, valueLength, buffer, position);
+
+        return position + valueLength - maskTo;
+    }
+
+    private static char[] buffer(int length) {
+
+        char[] buffer = buffers.get();
+
+        if (buffer.length >= length) {
+            return buffer;
+        }
+
+        buffer = new char[length];
+        if (length <= MAX_CACHED_BUFFER_LENGTH) {
+            buffers.set(buffer);
+        }
+
+        return buffer;
+    }
+
+}
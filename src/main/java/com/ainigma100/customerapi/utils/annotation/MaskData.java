@@ -1,5 +1,6 @@
 package com.ainigma100.customerapi.utils.annotation;
 
+import com.ainigma100.customerapi.enums.MaskStrategy;
 import com.fasterxml.jackson.annotation.JacksonAnnotationsInside;
 import tools.jackson.databind.annotation.JsonSerialize;
 
@@ -14,6 +15,11 @@ import java.lang.annotation.Target;
 @Retention(RetentionPolicy.RUNTIME)
 public @interface MaskData {
 
+    MaskStrategy strategy() default MaskStrategy.LAST_N_VISIBLE;
+
+    // not used by LAST_N_VISIBLE
+    int visibleCharactersAtStart() default 0;
+
     int visibleCharactersAtEnd() default 4;
 
     String maskSymbol() default "*";
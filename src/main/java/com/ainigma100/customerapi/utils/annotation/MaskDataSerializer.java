@@ -1,5 +1,7 @@
 package com.ainigma100.customerapi.utils.annotation;
 
+import com.ainigma100.customerapi.enums.MaskStrategy;
+import com.ainigma100.customerapi.jfr.MaskDataEvent;
 import tools.jackson.core.JsonGenerator;
 import tools.jackson.databind.BeanProperty;
 import tools.jackson.databind.SerializationContext;
@@ -8,18 +10,19 @@ import tools.jackson.databind.ValueSerializer;
 public class MaskDataSerializer extends ValueSerializer<Object> {
 
 
-    private final int visibleCharactersAtEnd;
-    private final String maskSymbol;
+    private final DataMasker dataMasker;
 
 
     public MaskDataSerializer() {
-        this.visibleCharactersAtEnd = 4;
-        this.maskSymbol = "*";
+        this(4, "*");
     }
 
     public MaskDataSerializer(int visibleCharactersAtEnd, String maskSymbol) {
-        this.visibleCharactersAtEnd = visibleCharactersAtEnd;
-        this.maskSymbol = maskSymbol;
+        this(new DataMasker(MaskStrategy.LAST_N_VISIBLE, 0, visibleCharactersAtEnd, maskSymbol));
+    }
+
+    public MaskDataSerializer(DataMasker dataMasker) {
+        this.dataMasker = dataMasker;
     }
 
 
@@ -28,13 +31,19 @@ public class MaskDataSerializer extends ValueSerializer<Object> {
 
         if (value != null) {
 
+            MaskDataEvent event = new MaskDataEvent();
+            event.begin();
+
             String stringValue = value.toString();
 
-            // Mask all characters except the last visibleCharactersAtEnd
-            String regex = String.format(".(?=.{%d})", visibleCharactersAtEnd);
-            String maskedValue = stringValue.replaceAll(regex, this.maskSymbol);
+            // the masked characters are written straight to the generator
+            dataMasker.write(stringValue, gen);
 
-            gen.writeString(maskedValue);
+            event.end();
+            if (event.shouldCommit()) {
+                event.length = stringValue.length();
+                event.commit();
+            }
 
         } else {
             gen.writeNull();
@@ -53,8 +62,8 @@ public class MaskDataSerializer extends ValueSerializer<Object> {
             MaskData maskData = property.getAnnotation(MaskData.class);
 
             if (maskData != null) {
-                // Use the values from the MaskData annotation to create a new instance using the constructor (based on the suggestion of the documentation)
-                return new MaskDataSerializer(maskData.visibleCharactersAtEnd(), maskData.maskSymbol());
+                // Resolve the annotation once per property, Jackson caches the contextual serializer
+                return new MaskDataSerializer(DataMasker.of(maskData));
             }
         }
 
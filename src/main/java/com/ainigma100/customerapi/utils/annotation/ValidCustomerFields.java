@@ -0,0 +1,25 @@
+package com.ainigma100.customerapi.utils.annotation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Rejects a {@code fields=} selection with names that are not {@link com.ainigma100.customerapi.enums.CustomerField}
+ * properties, before any query is built. No selection at all is valid and means every field.
+ */
+@Constraint(validatedBy = ValidCustomerFieldsValidator.class)
+@Target({ ElementType.FIELD, ElementType.PARAMETER })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ValidCustomerFields {
+
+    String message() default "fields may only contain id, firstName, lastName, email, phoneNumber and dateOfBirth";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
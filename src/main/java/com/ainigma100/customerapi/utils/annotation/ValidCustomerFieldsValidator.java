@@ -0,0 +1,21 @@
+package com.ainigma100.customerapi.utils.annotation;
+
+import com.ainigma100.customerapi.enums.CustomerField;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+import java.util.Collection;
+
+public class ValidCustomerFieldsValidator implements ConstraintValidator<ValidCustomerFields, Collection<String>> {
+
+    @Override
+    public boolean isValid(Collection<String> fields, ConstraintValidatorContext context) {
+
+        if (fields == null) {
+            return true;
+        }
+
+        return fields.stream()
+                .allMatch(field -> field != null && CustomerField.fromProperty(field.trim()).isPresent());
+    }
+}
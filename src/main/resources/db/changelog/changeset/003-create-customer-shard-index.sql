@@ -0,0 +1,8 @@
+--comment: Id sequence and email routing index of the sharded customer storage (customer-api.sharding)
+CREATE SEQUENCE IF NOT EXISTS customer_id_seq;
+
+CREATE TABLE IF NOT EXISTS customer_shard_index
+(
+    customer_id BIGINT       NOT NULL PRIMARY KEY,
+    email       VARCHAR(255) NOT NULL UNIQUE
+);
@@ -0,0 +1,52 @@
+package com.ainigma100.customerapi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DataSourceConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(DataSourceAutoConfiguration.class))
+            .withUserConfiguration(DataSourceConfig.class)
+            .withPropertyValues("spring.datasource.url=jdbc:h2:mem:datasource-config-test",
+                    // keeps the HikariDataSource bean unwrapped
+                    "customer-api.datasource.hold-time-tracking.enabled=false");
+
+
+    @Test
+    @DisplayName("On platform threads the connection timeout stays at Hikari's default")
+    void givenPlatformThreads_whenStarted_thenHikariDefaultTimeout() {
+
+        // when/then - verify the output
+        contextRunner.run(context ->
+                assertThat(context.getBean(HikariDataSource.class).getConnectionTimeout()).isEqualTo(30_000));
+    }
+
+    @Test
+    @DisplayName("On virtual threads the connection timeout is lowered to customer-api.virtual-threads.connection-timeout")
+    void givenVirtualThreads_whenStarted_thenLowerTimeout() {
+
+        // when/then - verify the output
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=true")
+                .run(context ->
+                        assertThat(context.getBean(HikariDataSource.class).getConnectionTimeout()).isEqualTo(5_000));
+    }
+
+    @Test
+    @DisplayName("On virtual threads an explicit spring.datasource.hikari.connection-timeout is kept")
+    void givenVirtualThreadsAndExplicitTimeout_whenStarted_thenExplicitTimeout() {
+
+        // when/then - verify the output
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=true",
+                        "spring.datasource.hikari.connection-timeout=12000")
+                .run(context ->
+                        assertThat(context.getBean(HikariDataSource.class).getConnectionTimeout()).isEqualTo(12_000));
+    }
+
+}
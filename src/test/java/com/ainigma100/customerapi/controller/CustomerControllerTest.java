@@ -1,14 +1,19 @@
 package com.ainigma100.customerapi.controller;
 
+import com.ainigma100.customerapi.config.JacksonConfig;
 import com.ainigma100.customerapi.dto.CustomerDTO;
 import com.ainigma100.customerapi.dto.CustomerEmailUpdateDTO;
 import com.ainigma100.customerapi.dto.CustomerRequestDTO;
 import com.ainigma100.customerapi.dto.CustomerSearchCriteriaDTO;
+import com.ainigma100.customerapi.enums.CustomerField;
 import com.ainigma100.customerapi.enums.Status;
 import com.ainigma100.customerapi.mapper.CustomerMapper;
 import com.ainigma100.customerapi.security.config.SecurityDevMockConfig;
 import com.ainigma100.customerapi.service.CustomerService;
+import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
@@ -28,15 +33,22 @@ import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 import java.time.LocalDate;
 import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.CoreMatchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -63,6 +75,12 @@ class CustomerControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private CBORMapper cborMapper;
+
+    @Autowired
+    private SmileMapper smileMapper;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -287,6 +305,144 @@ class CustomerControllerTest {
     }
 
 
+    @Test
+    void givenCborRequest_whenGetAllCustomersUsingPagination_thenReturnCborPagedModel() throws Exception {
+
+        // given - precondition or setup
+        List<CustomerDTO> customerDTOList = Collections.singletonList(customerDTO);
+        Page<CustomerDTO> customerDTOPage = new PageImpl<>(customerDTOList);
+        given(customerService.getAllCustomersUsingPagination(any(CustomerSearchCriteriaDTO.class)))
+                .willReturn(customerDTOPage);
+
+        // when - action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(post("/api/v1/customers/search").with(csrf())
+                .header("Authorization", USER_TOKEN)
+                .contentType(MediaType.APPLICATION_CBOR)
+                .accept(MediaType.APPLICATION_CBOR)
+                .content(cborMapper.writeValueAsBytes(customerSearchCriteriaDTO)));
+
+        // then - verify the output
+        byte[] body = response
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // the page is written as a PagedModel (VIA_DTO) and the phone number is still masked
+        JsonNode json = cborMapper.readTree(body);
+        assertThat(json.path("status").asString()).isEqualTo(Status.SUCCESS.getValue());
+        assertThat(json.path("results").path("content")).hasSize(1);
+        assertThat(json.path("results").path("content").path(0).path("phoneNumber").asString()).isEqualTo("*******789");
+        assertThat(json.path("results").path("page").path("totalElements").asLong()).isEqualTo(1L);
+    }
+
+    @Test
+    void givenSmileRequest_whenCreateCustomer_thenReturnSmileCustomerDTO() throws Exception {
+
+        // given - precondition or setup
+        given(customerMapper.customerRequestDTOToCustomerDTO(any(CustomerRequestDTO.class)))
+                .willReturn(customerDTO);
+
+        given(customerService.createCustomer(any(CustomerDTO.class))).willReturn(customerDTO);
+
+        // when - action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(post("/api/v1/customers").with(csrf())
+                .header("Authorization", USER_TOKEN)
+                .contentType(JacksonConfig.APPLICATION_SMILE_VALUE)
+                .accept(JacksonConfig.APPLICATION_SMILE_VALUE)
+                .content(smileMapper.writeValueAsBytes(customerRequestDTO)));
+
+        // then - verify the output
+        byte[] body = response
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(JacksonConfig.APPLICATION_SMILE_VALUE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode json = smileMapper.readTree(body);
+        assertThat(json.path("results").path("id").asLong()).isEqualTo(customerDTO.getId());
+        assertThat(json.path("results").path("email").asString()).isEqualTo(customerDTO.getEmail());
+    }
+
+    @Test
+    void givenNoAcceptHeader_whenGetCustomerById_thenReturnJson() throws Exception {
+
+        // given - precondition or setup
+        given(customerService.getCustomerById(1L)).willReturn(customerDTO);
+
+        // when - action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/v1/customers/{id}", 1L)
+                .header("Authorization", USER_TOKEN));
+
+        // then - verify the output, JSON stays the default encoding
+        response.andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(jsonPath("$.results.firstName", is(customerDTO.getFirstName())));
+    }
+
+
+    @Test
+    void givenFields_whenGetCustomerFieldsById_thenReturnOnlyThoseFields() throws Exception {
+
+        // given - precondition or setup
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("id", 1L);
+        fields.put("email", customerDTO.getEmail());
+        given(customerService.getCustomerFieldsById(1L, EnumSet.of(CustomerField.ID, CustomerField.EMAIL)))
+                .willReturn(fields);
+
+        // when - action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/v1/customers/{id}", 1L)
+                .param("fields", "email,id")
+                .header("Authorization", USER_TOKEN));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is(Status.SUCCESS.getValue())))
+                .andExpect(jsonPath("$.results.size()", is(2)))
+                .andExpect(jsonPath("$.results.id", is(1)))
+                .andExpect(jsonPath("$.results.email", is(customerDTO.getEmail())));
+    }
+
+
+    @Test
+    void givenUnknownField_whenGetCustomerFieldsById_thenReturnBadRequest() throws Exception {
+
+        // when - action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/v1/customers/{id}", 1L)
+                .param("fields", "id,password")
+                .header("Authorization", USER_TOKEN));
+
+        // then - verify the output, the request is rejected before the service is called
+        response.andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status", is(Status.FAILED.getValue())))
+                .andExpect(jsonPath("$.errors[0].field", is("fields")));
+
+        verifyNoInteractions(customerService);
+    }
+
+
+    @Test
+    void givenUnknownField_whenGetAllCustomersUsingPagination_thenReturnBadRequest() throws Exception {
+
+        // given - precondition or setup
+        customerSearchCriteriaDTO.setFields(List.of("email", "createdDate"));
+
+        // when - action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(post("/api/v1/customers/search").with(csrf())
+                .header("Authorization", USER_TOKEN)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(customerSearchCriteriaDTO)));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status", is(Status.FAILED.getValue())))
+                .andExpect(jsonPath("$.errors[0].field", is("fields")));
+
+        verifyNoInteractions(customerService);
+    }
+
 
     @Test
     void givenNoAuth_whenGetCustomerById_thenUnauthorized() throws Exception {
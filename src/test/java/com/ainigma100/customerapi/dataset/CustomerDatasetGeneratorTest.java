@@ -0,0 +1,77 @@
+package com.ainigma100.customerapi.dataset;
+
+import com.ainigma100.customerapi.dataset.CustomerDatasetGenerator.GeneratedCustomer;
+import com.ainigma100.customerapi.dto.CustomerRequestDTO;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CustomerDatasetGeneratorTest {
+
+    private static final int ROWS = 10_000;
+
+
+    @Test
+    @DisplayName("Same seed and row index generate the same customer")
+    void givenSameSeed_whenGenerate_thenSameCustomers() {
+
+        CustomerDatasetGenerator generator = new CustomerDatasetGenerator(42);
+        CustomerDatasetGenerator sameSeedGenerator = new CustomerDatasetGenerator(42);
+        CustomerDatasetGenerator otherSeedGenerator = new CustomerDatasetGenerator(43);
+
+        assertThat(generator.generate(12_345)).isEqualTo(sameSeedGenerator.generate(12_345));
+        assertThat(generator.generate(12_345)).isNotEqualTo(otherSeedGenerator.generate(12_345));
+    }
+
+    @Test
+    @DisplayName("Generated customers pass the CustomerRequestDTO validation and have unique emails")
+    void givenGeneratedCustomers_whenValidate_thenNoViolations() {
+
+        CustomerDatasetGenerator generator = new CustomerDatasetGenerator(42);
+        Set<String> emails = new HashSet<>();
+
+        try (ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory()) {
+
+            Validator validator = validatorFactory.getValidator();
+
+            for (long row = 0; row < ROWS; row++) {
+
+                GeneratedCustomer customer = generator.generate(row);
+
+                CustomerRequestDTO customerRequestDTO = new CustomerRequestDTO(customer.firstName(), customer.lastName(),
+                        customer.email(), customer.phoneNumber(), customer.dateOfBirth());
+
+                assertThat(validator.validate(customerRequestDTO)).as("row %d: %s", row, customer).isEmpty();
+                assertThat(emails.add(customer.email())).isTrue();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("First names are skewed towards the most popular ones")
+    void givenGeneratedCustomers_whenCountFirstNames_thenDistributionIsSkewed() {
+
+        CustomerDatasetGenerator generator = new CustomerDatasetGenerator(42);
+        Map<String, Integer> counts = new HashMap<>();
+
+        for (long row = 0; row < ROWS; row++) {
+            counts.merge(generator.generate(row).firstName(), 1, Integer::sum);
+        }
+
+        // with a Zipf exponent of 1 the top name is picked far more often than the least popular one
+        int mostPopular = counts.values().stream().max(Integer::compare).orElseThrow();
+        int leastPopular = counts.values().stream().min(Integer::compare).orElseThrow();
+
+        assertThat(mostPopular).isGreaterThan(leastPopular * 10);
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.ainigma100.customerapi.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class ConnectionHoldTimeDataSourceTest {
+
+    private final DataSource pool = mock(DataSource.class);
+    private final ConnectionHoldTimeDataSource dataSource = new ConnectionHoldTimeDataSource(pool);
+
+
+    @AfterEach
+    void tearDown() {
+        ConnectionHoldTimeTracker.end();
+    }
+
+
+    @Test
+    @DisplayName("Every checkout is recorded once, when the connection is closed, however often that is")
+    void givenScope_whenConnectionsClosed_thenOneRecordPerCheckout() throws Exception {
+
+        // given - precondition or setup
+        Connection pooled = mock(Connection.class);
+        given(pool.getConnection()).willReturn(pooled);
+
+        ConnectionHoldTimeTracker.Scope scope = ConnectionHoldTimeTracker.begin();
+
+        // when - action or behaviour that we are going to test
+        Connection first = dataSource.getConnection();
+        Thread.sleep(5);
+
+        // then - verify the output, nothing until the connection is returned
+        assertThat(scope.getCheckouts()).isZero();
+
+        first.close();
+        first.close();
+
+        try (Connection second = dataSource.getConnection()) {
+            second.isValid(1);
+        }
+
+        assertThat(scope.getCheckouts()).isEqualTo(2);
+        assertThat(scope.getTotalHoldNanos()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(5));
+
+        // the pooled connection is still returned on every close
+        verify(pooled, times(3)).close();
+    }
+
+    @Test
+    @DisplayName("The connections of a propagated task count on any thread, those of other threads do not")
+    void givenPropagatedTask_whenRunOnOtherThread_thenCountedInScope() throws Exception {
+
+        // given - precondition or setup
+        given(pool.getConnection()).willAnswer(invocation -> mock(Connection.class));
+
+        ConnectionHoldTimeTracker.Scope scope = ConnectionHoldTimeTracker.begin();
+
+        // when - action or behaviour that we are going to test
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+
+            for (int i = 0; i < 2; i++) {
+                executor.submit(ConnectionHoldTimeTracker.propagate(() -> {
+                    dataSource.getConnection().close();
+                    return null;
+                })).get(5, TimeUnit.SECONDS);
+            }
+
+            executor.submit(() -> {
+                dataSource.getConnection().close();
+                return null;
+            }).get(5, TimeUnit.SECONDS);
+        }
+
+        dataSource.getConnection().close();
+
+        // then - verify the output, the two propagated tasks and the calling thread
+        assertThat(scope.getCheckouts()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Outside a scope, for example at startup, nothing is recorded")
+    void givenNoScope_whenConnectionClosed_thenNothingRecorded() throws Exception {
+
+        // given - precondition or setup
+        given(pool.getConnection()).willReturn(mock(Connection.class));
+
+        // when - action or behaviour that we are going to test
+        dataSource.getConnection().close();
+        ConnectionHoldTimeTracker.Scope scope = ConnectionHoldTimeTracker.begin();
+
+        // then - verify the output
+        assertThat(scope.getCheckouts()).isZero();
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.ainigma100.customerapi.filter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ByteCountingResponseWrapperTest {
+
+    @Test
+    @DisplayName("The bytes written through the writer are counted in the response encoding")
+    void givenWriter_whenWrite_thenEncodedBytesCounted() throws Exception {
+
+        // given - precondition or setup
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        ByteCountingResponseWrapper wrapper = new ByteCountingResponseWrapper(response);
+
+        // when - action or behaviour that we are going to test, é is two bytes in UTF-8
+        PrintWriter writer = wrapper.getWriter();
+        writer.write("{\"name\":\"Zoé\"}");
+
+        // then - verify the output, counted without flushing first and passed through unchanged
+        assertThat(wrapper.getBytesWritten()).isEqualTo(15);
+        assertThat(response.getContentAsByteArray()).hasSize(15);
+        assertThat(response.getContentAsString()).isEqualTo("{\"name\":\"Zoé\"}");
+    }
+
+    @Test
+    @DisplayName("The bytes written through the output stream are counted")
+    void givenOutputStream_whenWrite_thenBytesCounted() throws Exception {
+
+        // given - precondition or setup
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ByteCountingResponseWrapper wrapper = new ByteCountingResponseWrapper(response);
+
+        // when - action or behaviour that we are going to test
+        wrapper.getOutputStream().write(new byte[]{1, 2, 3, 4, 5}, 1, 3);
+        wrapper.getOutputStream().write(6);
+
+        // then - verify the output
+        assertThat(wrapper.getBytesWritten()).isEqualTo(4);
+        assertThat(response.getContentAsByteArray()).containsExactly(2, 3, 4, 6);
+    }
+
+    @Test
+    @DisplayName("Nothing written counts as 0 bytes, and the writer and the stream exclude each other")
+    void givenNoBody_whenGetBytesWritten_thenZero() throws Exception {
+
+        // given - precondition or setup
+        ByteCountingResponseWrapper wrapper = new ByteCountingResponseWrapper(new MockHttpServletResponse());
+
+        // when/then
+        assertThat(wrapper.getBytesWritten()).isZero();
+
+        wrapper.getOutputStream();
+        assertThatThrownBy(wrapper::getWriter).isInstanceOf(IllegalStateException.class);
+    }
+
+}
@@ -0,0 +1,188 @@
+package com.ainigma100.customerapi.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+
+    @Test
+    @DisplayName("Searches and the multi-get count as reads, the other POST, PUT, PATCH and DELETE requests as writes")
+    void givenRequests_whenEndpointType_thenReadsAndWritesSeparated() {
+
+        assertThat(ConcurrencyLimitFilter.endpointType("GET", "/api/v1/customers/1")).isEqualTo(ConcurrencyLimitFilter.EndpointType.READ);
+        assertThat(ConcurrencyLimitFilter.endpointType("POST", "/api/v1/customers/search")).isEqualTo(ConcurrencyLimitFilter.EndpointType.READ);
+        assertThat(ConcurrencyLimitFilter.endpointType("POST", "/api/v1/customers/search/stream")).isEqualTo(ConcurrencyLimitFilter.EndpointType.READ);
+        assertThat(ConcurrencyLimitFilter.endpointType("POST", "/api/v1/customers/by-ids")).isEqualTo(ConcurrencyLimitFilter.EndpointType.READ);
+        assertThat(ConcurrencyLimitFilter.endpointType("POST", "/api/v1/customers")).isEqualTo(ConcurrencyLimitFilter.EndpointType.WRITE);
+        assertThat(ConcurrencyLimitFilter.endpointType("PATCH", "/api/v1/customers/1/email")).isEqualTo(ConcurrencyLimitFilter.EndpointType.WRITE);
+        assertThat(ConcurrencyLimitFilter.endpointType("DELETE", "/api/v1/customers/1")).isEqualTo(ConcurrencyLimitFilter.EndpointType.WRITE);
+    }
+
+    @Test
+    @DisplayName("A request above the limit is rejected with 503, Retry-After and the APIResponse envelope")
+    void givenFullLimit_whenRequest_thenServiceUnavailable() throws Exception {
+
+        // given - precondition or setup, the only read place is taken
+        ConcurrencyLimit readLimit = new ConcurrencyLimit(1, 1, 1);
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(readLimit, new ConcurrencyLimit(1, 1, 1),
+                Duration.ofSeconds(2), meterRegistry, JsonMapper.builder().build());
+
+        assertThat(readLimit.tryAcquire()).isTrue();
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (request, servletResponse) -> {
+            throw new AssertionError("The request should not have been let through");
+        };
+
+        // when - action or behaviour that we are going to test
+        filter.doFilter(request("GET", "/api/v1/customers/1"), response, chain);
+
+        // then - verify the output
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("2");
+        assertThat(response.getContentAsString()).contains("\"status\":\"Failed\"", "\"errors\":[");
+        assertThat(meterRegistry.get("customer.api.concurrency.rejected").tag("endpoint", "read").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("The writes keep their own places while the reads are at their limit")
+    void givenFullReadLimit_whenWrite_thenLetThrough() throws Exception {
+
+        // given - precondition or setup
+        ConcurrencyLimit readLimit = new ConcurrencyLimit(1, 1, 1);
+        ConcurrencyLimit writeLimit = new ConcurrencyLimit(1, 1, 1);
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(readLimit, writeLimit,
+                Duration.ofSeconds(1), meterRegistry, JsonMapper.builder().build());
+
+        assertThat(readLimit.tryAcquire()).isTrue();
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // when - action or behaviour that we are going to test
+        filter.doFilter(request("POST", "/api/v1/customers"), response, (request, servletResponse) ->
+                assertThat(writeLimit.getInFlight()).isEqualTo(1));
+
+        // then - verify the output, the place is given back once the request has completed
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(writeLimit.getInFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("The limit shrinks when the latency rises while it is in use, and grows again once it drops")
+    void givenRisingLatency_whenRelease_thenLimitFollows() {
+
+        ConcurrencyLimit limit = new ConcurrencyLimit(20, 2, 100);
+
+        // the baseline, with every place in use
+        runFullLimit(limit, 200, TimeUnit.MILLISECONDS.toNanos(5));
+        int baselineLimit = limit.getLimit();
+        assertThat(baselineLimit).isGreaterThan(20);
+
+        // the database slows down ten times, before the long-term latency has caught up with it
+        runFullLimit(limit, 5, TimeUnit.MILLISECONDS.toNanos(50));
+        int slowLimit = limit.getLimit();
+        assertThat(slowLimit).isLessThan(baselineLimit);
+
+        // and recovers
+        runFullLimit(limit, 300, TimeUnit.MILLISECONDS.toNanos(5));
+        assertThat(limit.getLimit()).isGreaterThan(slowLimit);
+    }
+
+    @Test
+    @DisplayName("Failed requests back the limit off, but never below the minimum")
+    void givenFailures_whenRelease_thenLimitBacksOffToMinimum() {
+
+        ConcurrencyLimit limit = new ConcurrencyLimit(20, 3, 100);
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(limit.tryAcquire()).isTrue();
+            limit.release(TimeUnit.MILLISECONDS.toNanos(5), true);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(3);
+    }
+
+
+    @Test
+    @DisplayName("Each change of the limit is counted once, also when the requests complete at the same time")
+    void givenConcurrentFailures_whenRequests_thenEachLimitChangeCountedOnce() throws Exception {
+
+        // given - precondition or setup, every window backs the limit off by 10%:
+        // 20, 18, 16, 14, 13, 11, 10, 9, 8, 7, 6, 5, 4, 3, so 13 changes down to the minimum
+        ConcurrencyLimit readLimit = new ConcurrencyLimit(20, 3, 100);
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(readLimit, new ConcurrencyLimit(1, 1, 1),
+                Duration.ofSeconds(1), meterRegistry, JsonMapper.builder().build());
+
+        FilterChain failingChain = (request, response) -> ((MockHttpServletResponse) response).setStatus(500);
+
+        // when - action or behaviour that we are going to test
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+
+            List<Future<?>> clients = new ArrayList<>();
+            for (int client = 0; client < 8; client++) {
+                clients.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        filter.doFilter(request("GET", "/api/v1/customers/1"), new MockHttpServletResponse(), failingChain);
+                    }
+                    return null;
+                }));
+            }
+
+            for (Future<?> client : clients) {
+                client.get(30, TimeUnit.SECONDS);
+            }
+        }
+
+        // then - verify the output
+        assertThat(readLimit.getLimit()).isEqualTo(3);
+        assertThat(meterRegistry.get("customer.api.concurrency.limit.changes").tag("endpoint", "read")
+                .tag("direction", "decrease").counter().count()).isEqualTo(13);
+        assertThat(meterRegistry.get("customer.api.concurrency.limit.changes").tag("endpoint", "read")
+                .tag("direction", "increase").counter().count()).isZero();
+    }
+
+
+    // takes every place, then releases them all with the same latency, the given number of times
+    private static void runFullLimit(ConcurrencyLimit limit, int rounds, long latencyNanos) {
+
+        for (int round = 0; round < rounds; round++) {
+
+            int acquired = 0;
+            while (limit.tryAcquire()) {
+                acquired++;
+            }
+
+            for (int i = 0; i < acquired; i++) {
+                limit.release(latencyNanos, false);
+            }
+        }
+    }
+
+    private static MockHttpServletRequest request(String method, String servletPath) {
+
+        MockHttpServletRequest request = new MockHttpServletRequest(method, servletPath);
+        request.setServletPath(servletPath);
+
+        return request;
+    }
+
+}
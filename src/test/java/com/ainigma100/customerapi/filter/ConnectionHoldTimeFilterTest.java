@@ -0,0 +1,70 @@
+package com.ainigma100.customerapi.filter;
+
+import com.ainigma100.customerapi.datasource.ConnectionHoldTimeDataSource;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class ConnectionHoldTimeFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConnectionHoldTimeFilter filter = new ConnectionHoldTimeFilter(meterRegistry);
+
+
+    @Test
+    @DisplayName("The hold time and checkouts of a request are recorded once, tagged with its method and URI pattern")
+    void givenRequestWithCheckouts_whenDoFilter_thenRecordedOnce() throws Exception {
+
+        // given - precondition or setup
+        DataSource pool = mock(DataSource.class);
+        given(pool.getConnection()).willAnswer(invocation -> mock(Connection.class));
+        DataSource dataSource = new ConnectionHoldTimeDataSource(pool);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/customers/1");
+
+        FilterChain chain = (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/customers/{id}");
+            try {
+                dataSource.getConnection().close();
+                dataSource.getConnection().close();
+            } catch (java.sql.SQLException ex) {
+                throw new IllegalStateException(ex);
+            }
+        };
+
+        // when - action or behaviour that we are going to test
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // then - verify the output
+        Timer holdTime = meterRegistry.get("customer.api.request.connection.hold")
+                .tag("method", "GET").tag("uri", "/api/v1/customers/{id}").timer();
+
+        assertThat(holdTime.count()).isEqualTo(1);
+        assertThat(meterRegistry.get("customer.api.request.connection.checkouts")
+                .tag("method", "GET").tag("uri", "/api/v1/customers/{id}").summary().totalAmount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("A request without a checkout records nothing")
+    void givenRequestWithoutCheckouts_whenDoFilter_thenNothingRecorded() throws Exception {
+
+        // when - action or behaviour that we are going to test
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), new MockHttpServletResponse(), (req, res) -> { });
+
+        // then - verify the output
+        assertThat(meterRegistry.find("customer.api.request.connection.hold").timer()).isNull();
+    }
+
+}
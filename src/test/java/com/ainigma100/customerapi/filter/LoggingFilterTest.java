@@ -0,0 +1,114 @@
+package com.ainigma100.customerapi.filter;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoggingFilterTest {
+
+    private final LoggingFilter filter = new LoggingFilter();
+    private final Logger accessLog = (Logger) LoggerFactory.getLogger(LoggingFilter.ACCESS_LOG_NAME);
+    private final ListAppender<ILoggingEvent> records = new ListAppender<>();
+
+    private Level previousLevel;
+
+
+    @BeforeEach
+    void setUp() {
+
+        previousLevel = accessLog.getLevel();
+        accessLog.setLevel(Level.INFO);
+
+        records.start();
+        accessLog.addAppender(records);
+    }
+
+    @AfterEach
+    void tearDown() {
+
+        accessLog.detachAppender(records);
+        accessLog.setLevel(previousLevel);
+    }
+
+
+    @Test
+    @DisplayName("A request is logged once, with its status and response bytes")
+    void givenRequest_whenDoFilter_thenOneRecord() throws Exception {
+
+        // given - precondition or setup
+        FilterChain chain = (request, response) -> {
+            ((HttpServletResponse) response).setStatus(201);
+            response.getOutputStream().write("created".getBytes(StandardCharsets.UTF_8));
+        };
+
+        // when - action or behaviour that we are going to test
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/v1/customers"), new MockHttpServletResponse(), chain);
+
+        // then - verify the output
+        assertThat(records.list).singleElement()
+                .extracting(ILoggingEvent::getFormattedMessage)
+                .asString()
+                .startsWith("method=POST path=/api/v1/customers status=201 bytes=7 latencyMicros=");
+    }
+
+    @Test
+    @DisplayName("An excluded path is not logged")
+    void givenExcludedPath_whenDoFilter_thenNoRecord() throws Exception {
+
+        // given - precondition or setup
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/health");
+        request.setServletPath("/actuator/health");
+
+        // when - action or behaviour that we are going to test
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> { });
+
+        // then - verify the output
+        assertThat(records.list).isEmpty();
+    }
+
+    @Test
+    @DisplayName("An async request is logged once, when it completes, with the bytes written after the filter returned")
+    void givenAsyncRequest_whenCompleted_thenOneRecord() throws Exception {
+
+        // given - precondition or setup
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/customers/search/stream");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        ByteCountingResponseWrapper[] wrapper = new ByteCountingResponseWrapper[1];
+        FilterChain chain = (req, res) -> {
+            wrapper[0] = (ByteCountingResponseWrapper) res;
+            req.startAsync(req, res);
+        };
+
+        // when - action or behaviour that we are going to test
+        filter.doFilter(request, response, chain);
+
+        // then - verify the output, nothing before the response is complete
+        assertThat(records.list).isEmpty();
+
+        wrapper[0].getOutputStream().write(new byte[10]);
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+
+        assertThat(records.list).singleElement()
+                .extracting(ILoggingEvent::getFormattedMessage)
+                .asString()
+                .contains("path=/api/v1/customers/search/stream", "bytes=10");
+    }
+
+}
@@ -0,0 +1,184 @@
+package com.ainigma100.customerapi.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+    private static final long IDLE_TIMEOUT_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger passed = new AtomicInteger();
+    private final FilterChain chain = (request, response) -> passed.incrementAndGet();
+
+    private final RateLimitFilter filter = new RateLimitFilter(List.of(
+            new RateLimitRule("search", List.of("post"), "/api/v1/customers/search/**", 2, 0.5, 1000, IDLE_TIMEOUT_NANOS),
+            new RateLimitRule("default", List.of(), "/api/**", 5, 0.5, 1000, IDLE_TIMEOUT_NANOS)),
+            meterRegistry, JsonMapper.builder().build());
+
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+
+    @Test
+    @DisplayName("A client that has used up its capacity gets 429, Retry-After and the APIResponse envelope")
+    void givenEmptyBucket_whenRequest_thenTooManyRequests() throws Exception {
+
+        // given - precondition or setup
+        for (int i = 0; i < 2; i++) {
+            filter.doFilter(request("POST", "/api/v1/customers/search", "10.0.0.1"), new MockHttpServletResponse(), chain);
+        }
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // when - action or behaviour that we are going to test
+        filter.doFilter(request("POST", "/api/v1/customers/search", "10.0.0.1"), response, chain);
+
+        // then - verify the output, one token every 2 seconds
+        assertThat(passed).hasValue(2);
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("2");
+        assertThat(response.getContentAsString()).contains("\"status\":\"Failed\"", "\"errors\":[");
+        assertThat(meterRegistry.get("customer.api.rate-limit.rejected").tag("rule", "search").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("The first matching rule applies, every client and every rule has a bucket of its own")
+    void givenRules_whenRequests_thenBucketPerRuleAndClient() throws Exception {
+
+        // when - action or behaviour that we are going to test
+        for (int i = 0; i < 10; i++) {
+            filter.doFilter(request("POST", "/api/v1/customers/search", "10.0.0.1"), new MockHttpServletResponse(), chain);
+            filter.doFilter(request("POST", "/api/v1/customers/search", "10.0.0.2"), new MockHttpServletResponse(), chain);
+            filter.doFilter(request("GET", "/api/v1/customers/1", "10.0.0.1"), new MockHttpServletResponse(), chain);
+            filter.doFilter(request("GET", "/actuator/health", "10.0.0.1"), new MockHttpServletResponse(), chain);
+        }
+
+        // then - verify the output, 2 searches per client, 5 reads and every request outside the rules
+        assertThat(passed).hasValue(2 + 2 + 5 + 10);
+        assertThat(meterRegistry.get("customer.api.rate-limit.clients").tag("rule", "search").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("A path pattern matches literal segments, * and {variable} for one segment and a final ** for any")
+    void givenPathPatterns_whenMatches_thenSegmentsCompared() {
+
+        RateLimitRule search = new RateLimitRule("search", List.of("POST"), "/api/v1/customers/search/**", 1, 1, 1000, IDLE_TIMEOUT_NANOS);
+        RateLimitRule customer = new RateLimitRule("customer", List.of(), "/api/v1/customers/{id}", 1, 1, 1000, IDLE_TIMEOUT_NANOS);
+
+        assertThat(search.matches("POST", "/api/v1/customers/search")).isTrue();
+        assertThat(search.matches("POST", "/api/v1/customers/search/stream")).isTrue();
+        assertThat(search.matches("POST", "/api/v1/customers/searches")).isFalse();
+        assertThat(search.matches("GET", "/api/v1/customers/search")).isFalse();
+
+        assertThat(customer.matches("GET", "/api/v1/customers/1")).isTrue();
+        assertThat(customer.matches("DELETE", "/api/v1/customers/1")).isTrue();
+        assertThat(customer.matches("GET", "/api/v1/customers/")).isFalse();
+        assertThat(customer.matches("GET", "/api/v1/customers/1/email")).isFalse();
+    }
+
+    @Test
+    @DisplayName("An authenticated request is limited by its JWT subject, not by the address it comes from")
+    void givenJwtSubject_whenRequestsFromDifferentAddresses_thenSharedBucket() throws Exception {
+
+        // given - precondition or setup
+        Jwt jwt = Jwt.withTokenValue("user-token").header("alg", "none").claim("sub", "test-user").build();
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt));
+
+        // when - action or behaviour that we are going to test
+        for (int i = 0; i < 10; i++) {
+            filter.doFilter(request("GET", "/api/v1/customers/1", "10.0.0." + i), new MockHttpServletResponse(), chain);
+        }
+
+        // then - verify the output
+        assertThat(passed).hasValue(5);
+    }
+
+    @Test
+    @DisplayName("A bucket refills at its rate, up to its capacity")
+    void givenEmptyBucket_whenTimePasses_thenRefilled() {
+
+        TokenBucket bucket = new TokenBucket(0);
+        long refillIntervalNanos = TimeUnit.MILLISECONDS.toNanos(100);
+        long capacityNanos = 3 * refillIntervalNanos;
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(bucket.tryConsume(0, refillIntervalNanos, capacityNanos)).isZero();
+        }
+        assertThat(bucket.tryConsume(0, refillIntervalNanos, capacityNanos)).isEqualTo(refillIntervalNanos);
+
+        // one token after one interval
+        assertThat(bucket.tryConsume(refillIntervalNanos, refillIntervalNanos, capacityNanos)).isZero();
+        assertThat(bucket.tryConsume(refillIntervalNanos, refillIntervalNanos, capacityNanos)).isPositive();
+
+        // never more than the capacity after a long pause
+        long later = TimeUnit.SECONDS.toNanos(60);
+        for (int i = 0; i < 3; i++) {
+            assertThat(bucket.tryConsume(later, refillIntervalNanos, capacityNanos)).isZero();
+        }
+        assertThat(bucket.tryConsume(later, refillIntervalNanos, capacityNanos)).isPositive();
+
+        // idle once it has been full again for the idle timeout
+        long idleTimeoutNanos = TimeUnit.SECONDS.toNanos(1);
+        assertThat(bucket.isIdle(later + capacityNanos + idleTimeoutNanos - 1, idleTimeoutNanos)).isFalse();
+        assertThat(bucket.isIdle(later + capacityNanos + idleTimeoutNanos, idleTimeoutNanos)).isTrue();
+    }
+
+    @Test
+    @DisplayName("The buckets stay bounded, new clients share the overflow bucket until idle ones have been dropped")
+    void givenManyClients_whenBucketsFull_thenOverflowAndIdleEviction() {
+
+        // given - precondition or setup, one client per stripe
+        int maxClients = ClientBuckets.STRIPES;
+        long idleTimeoutNanos = TimeUnit.SECONDS.toNanos(1);
+        ClientBuckets buckets = new ClientBuckets(maxClients, idleTimeoutNanos, 0);
+
+        // when - action or behaviour that we are going to test
+        for (int i = 0; i < 10_000; i++) {
+            buckets.get("10.0." + (i / 256) + "." + (i % 256), 0).tryConsume(0, idleTimeoutNanos, idleTimeoutNanos);
+        }
+
+        // then - verify the output
+        assertThat(buckets.size()).isLessThanOrEqualTo(maxClients);
+        assertThat(buckets.getOverflows()).isGreaterThanOrEqualTo(10_000 - maxClients);
+
+        // once the buckets have been full for the idle timeout, the next new client in a stripe finds room
+        long overflows = buckets.getOverflows();
+        long later = 3 * idleTimeoutNanos;
+
+        buckets.get("10.1.0.0", later);
+
+        assertThat(buckets.getOverflows()).isEqualTo(overflows);
+        assertThat(buckets.size()).isLessThanOrEqualTo(maxClients);
+    }
+
+
+    private static MockHttpServletRequest request(String method, String servletPath, String clientAddress) {
+
+        MockHttpServletRequest request = new MockHttpServletRequest(method, servletPath);
+        request.setServletPath(servletPath);
+        request.addHeader("X-Forwarded-For", clientAddress);
+
+        return request;
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.ainigma100.customerapi.filter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestPathClassifierTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "/", "/actuator", "/actuator/health", "/ACTUATOR/prometheus", "/swagger-ui/index.html",
+            "/v3/api-docs", "/v3/api-docs/swagger-config", "/favicon.ico", "/ui", "/api/v1/ui/settings",
+            "/api/v1/customers", "/api/v1/customers/1", "/api/v1/customers/search", "/api/v1/actuators",
+            "/api/v1/building", "/api/v1/guide", "/api/v1/customers/by-ids", "/api/v1/api-docsx"})
+    @DisplayName("isExcluded matches like the previous String.matches check")
+    void givenServletPath_whenIsExcluded_thenSameAsStringMatches(String servletPath) {
+
+        // given - precondition or setup, the check LoggingFilter used before
+        boolean excludedBefore = servletPath.matches("(?i).*\\b(actuator|swagger|api-docs|favicon|ui)\\b.*");
+
+        // when/then
+        assertThat(RequestPathClassifier.isExcluded(servletPath)).isEqualTo(excludedBefore);
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.ainigma100.customerapi.integration;
+
+import com.ainigma100.customerapi.entity.Customer;
+import com.ainigma100.customerapi.repository.CustomerRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.core.env.Environment;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The connection hold time of a request (see ConnectionHoldTimeFilter) is recorded with open-in-view on, where the
+ * connection is held until the response is written, and off, where it is returned after each transaction.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConnectionHoldTimeIntegrationH2Test {
+
+    private static final String URI_PATTERN = "/api/v1/customers/{id}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private Environment environment;
+
+
+    @Nested
+    @TestPropertySource(properties = "spring.jpa.open-in-view=true")
+    class OpenInView {
+
+        @Test
+        void givenCustomer_whenGetById_thenHoldTimeRecordedForTheRequest() throws Exception {
+            assertHoldTimeRecorded(true);
+        }
+    }
+
+    @Nested
+    @TestPropertySource(properties = "spring.jpa.open-in-view=false")
+    class NoOpenInView {
+
+        @Test
+        void givenCustomer_whenGetById_thenHoldTimeRecordedForTheRequest() throws Exception {
+            assertHoldTimeRecorded(false);
+        }
+    }
+
+
+    private void assertHoldTimeRecorded(boolean openInView) throws Exception {
+
+        // given - precondition or setup
+        assertThat(environment.getProperty("spring.jpa.open-in-view", Boolean.class)).isEqualTo(openInView);
+
+        Customer customer = new Customer();
+        customer.setFirstName("John");
+        customer.setLastName("Wick");
+        customer.setEmail("jwick-" + System.nanoTime() + "@gmail.com");
+        customer.setPhoneNumber("0123456789");
+        customer.setDateOfBirth(LocalDate.now().minusYears(18));
+        Customer savedCustomer = customerRepository.save(customer);
+
+        long requestsBefore = holdTime() == null ? 0 : holdTime().count();
+        double checkoutsBefore = checkouts() == null ? 0 : checkouts().totalAmount();
+
+        // when - action or behaviour that we are going to test
+        mockMvc.perform(get("/api/v1/customers/{id}", savedCustomer.getId())
+                        .header("Authorization", "Bearer user-token"))
+                .andExpect(status().isOk());
+
+        // then - verify the output, one record for the request, covering its checkouts
+        assertThat(holdTime()).isNotNull();
+        assertThat(holdTime().count()).isEqualTo(requestsBefore + 1);
+        assertThat(checkouts().totalAmount() - checkoutsBefore).isGreaterThanOrEqualTo(1);
+    }
+
+    private Timer holdTime() {
+        return meterRegistry.find("customer.api.request.connection.hold")
+                .tag("method", "GET").tag("uri", URI_PATTERN).timer();
+    }
+
+    private DistributionSummary checkouts() {
+        return meterRegistry.find("customer.api.request.connection.checkouts")
+                .tag("method", "GET").tag("uri", URI_PATTERN).summary();
+    }
+
+}
@@ -1,6 +1,7 @@
 package com.ainigma100.customerapi.integration;
 
 import com.ainigma100.customerapi.dto.CustomerEmailUpdateDTO;
+import com.ainigma100.customerapi.dto.CustomerIdsRequestDTO;
 import com.ainigma100.customerapi.dto.CustomerRequestDTO;
 import com.ainigma100.customerapi.dto.CustomerSearchCriteriaDTO;
 import com.ainigma100.customerapi.entity.Customer;
@@ -16,17 +17,20 @@ import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.json.JsonCompareMode;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.LongStream;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.Matchers.equalTo;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -291,6 +295,184 @@ class CustomerControllerIntegrationH2Test {
                 .andExpect(jsonPath("$.results.content[0].phoneNumber", is("*******881")));
     }
 
+    @Test
+    void givenCustomerSearchCriteria_whenStreamAllCustomersUsingPagination_thenReturnSameBodyAsSearch() throws Exception {
+
+        // given - precondition or setup, including a customer without phone number and date of birth
+        Customer customer = new Customer();
+        customer.setFirstName("John");
+        customer.setLastName("Wick");
+        customer.setEmail("jwick@tester.com");
+        customer.setPhoneNumber("0123456789");
+        customer.setDateOfBirth(LocalDate.of(1970, 9, 2));
+
+        Customer customer1 = new Customer();
+        customer1.setFirstName("Sarah");
+        customer1.setLastName("Wick");
+        customer1.setEmail("swick@tester.com");
+
+        Customer customer2 = new Customer();
+        customer2.setFirstName("Helen");
+        customer2.setLastName("Wick");
+        customer2.setEmail("hwick@tester.com");
+        customer2.setPhoneNumber("5553338881");
+        customer2.setDateOfBirth(LocalDate.of(1975, 3, 14));
+
+        Customer customer3 = new Customer();
+        customer3.setFirstName("Maria");
+        customer3.setLastName("Smith");
+        customer3.setEmail("msmith@gmail.com");
+
+        customerRepository.saveAll(Arrays.asList(customer, customer1, customer2, customer3));
+
+        List<String> searchRequests = List.of(
+                "{\"lastName\": \"wi\", \"page\": 0, \"size\": 2, \"sortList\": [{\"field\": \"firstName\", \"direction\": \"DESC\"}]}",
+                "{\"lastName\": \"wi\", \"page\": 1, \"size\": 2, \"sortList\": [{\"field\": \"firstName\", \"direction\": \"DESC\"}]}",
+                "{\"email\": \"TESTER\", \"page\": 0, \"size\": 10, \"sortList\": [{\"field\": \"id\", \"direction\": \"ASC\"}]}",
+                "{\"firstName\": \"nobody\", \"page\": 0, \"size\": 10}",
+                "{\"page\": 5, \"size\": 10}",
+                "{\"lastName\": \"wi\", \"page\": 0, \"size\": 10, \"fields\": [\"phoneNumber\", \"id\", \"email\"]}",
+                "{\"page\": 0, \"size\": 10, \"fields\": [\"dateOfBirth\"], \"sortList\": [{\"field\": \"email\", \"direction\": \"ASC\"}]}");
+
+        for (String searchRequest : searchRequests) {
+
+            // when - action or behaviour that we are going to test
+            String expected = mockMvc.perform(post("/api/v1/customers/search")
+                            .header("Authorization", "Bearer user-token")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(searchRequest))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+
+            ResultActions response = mockMvc.perform(post("/api/v1/customers/search/stream")
+                    .header("Authorization", "Bearer user-token")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(searchRequest));
+
+            // then - verify the output, the streamed page is written exactly like the regular one
+            response.andExpect(status().isOk())
+                    .andExpect(content().json(expected, JsonCompareMode.STRICT))
+                    .andExpect(content().string(expected));
+        }
+    }
+
+    @Test
+    void givenFields_whenGetCustomerFieldsById_thenReturnOnlyThoseFields() throws Exception {
+
+        // given - precondition or setup
+        Customer customer = new Customer();
+        customer.setFirstName("John");
+        customer.setLastName("Wick");
+        customer.setEmail("jwick@tester.com");
+        customer.setPhoneNumber("0123456789");
+        customer.setDateOfBirth(LocalDate.now().minusYears(18));
+
+        customerRepository.save(customer);
+
+        // when - action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/v1/customers/{id}", customer.getId())
+                .param("fields", "phoneNumber,id,email")
+                .header("Authorization", "Bearer user-token"));
+
+        // then - verify the output, the fields come in the order of CustomerDTO and stay masked
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().string("{\"status\":\"" + Status.SUCCESS.getValue() + "\",\"results\":{\"id\":"
+                        + customer.getId() + ",\"email\":\"jwick@tester.com\",\"phoneNumber\":\"*******789\"}}"));
+    }
+
+    @Test
+    void givenFieldsOfMissingCustomer_whenGetCustomerFieldsById_thenReturnNotFound() throws Exception {
+
+        // when - action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/v1/customers/{id}", 1000L)
+                .param("fields", "id")
+                .header("Authorization", "Bearer user-token"));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status", is(Status.FAILED.getValue())));
+    }
+
+    @Test
+    void givenIds_whenGetCustomersByIds_thenReturnCustomersInRequestOrderAndMissingIds() throws Exception {
+
+        // given - precondition or setup
+        Customer john = new Customer();
+        john.setFirstName("John");
+        john.setLastName("Wick");
+        john.setEmail("jwick@tester.com");
+        john.setPhoneNumber("0123456789");
+        john.setDateOfBirth(LocalDate.now().minusYears(18));
+
+        Customer maria = new Customer();
+        maria.setFirstName("Maria");
+        maria.setLastName("Rena");
+        maria.setEmail("mrena@tester.com");
+        maria.setPhoneNumber("0987654321");
+        maria.setDateOfBirth(LocalDate.now().minusYears(20));
+
+        customerRepository.saveAll(List.of(john, maria));
+
+        long missingId = maria.getId() + 1000;
+        CustomerIdsRequestDTO customerIdsRequestDTO = new CustomerIdsRequestDTO(
+                List.of(maria.getId(), missingId, john.getId(), maria.getId()));
+
+        // when - action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(post("/api/v1/customers/by-ids")
+                .header("Authorization", "Bearer user-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(customerIdsRequestDTO)));
+
+        // then - verify the output, each customer once and masked like the single GET
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is(Status.SUCCESS.getValue())))
+                .andExpect(jsonPath("$.results.customers.size()", is(2)))
+                .andExpect(jsonPath("$.results.customers[0].id", is(maria.getId().intValue())))
+                .andExpect(jsonPath("$.results.customers[0].phoneNumber", is("*******321")))
+                .andExpect(jsonPath("$.results.customers[1].id", is(john.getId().intValue())))
+                .andExpect(jsonPath("$.results.customers[1].email", is(john.getEmail())))
+                .andExpect(jsonPath("$.results.missingIds.size()", is(1)))
+                .andExpect(jsonPath("$.results.missingIds[0]", is((int) missingId)));
+    }
+
+    @Test
+    void givenTooManyIds_whenGetCustomersByIds_thenReturnBadRequest() throws Exception {
+
+        // given - precondition or setup, one more than customer-api.multi-get.max-ids
+        List<Long> ids = LongStream.rangeClosed(1, 1001).boxed().toList();
+
+        // when - action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(post("/api/v1/customers/by-ids")
+                .header("Authorization", "Bearer user-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CustomerIdsRequestDTO(ids))));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status", is(Status.FAILED.getValue())))
+                .andExpect(jsonPath("$.errors[0].field", is("ids")))
+                .andExpect(jsonPath("$.errors[0].errorMessage", is("at most 1000 ids per request, got 1001")));
+    }
+
+    @Test
+    void givenUnknownSortField_whenStreamAllCustomersUsingPagination_thenReturnError() throws Exception {
+
+        // when - action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(post("/api/v1/customers/search/stream")
+                .header("Authorization", "Bearer user-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"page\": 0, \"size\": 10, \"sortList\": [{\"field\": \"password\", \"direction\": \"ASC\"}]}"));
+
+        // then - verify the output, the request fails before the response is started, like the regular search
+        response.andDo(print())
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.status", is(Status.FAILED.getValue())));
+    }
+
     @Test
     void givenNoAuthentication_whenGetCustomer_thenUnauthorized() throws Exception {
         // given - unauthenticated request (no Authorization header)
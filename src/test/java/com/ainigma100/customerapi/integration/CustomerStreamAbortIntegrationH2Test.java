@@ -0,0 +1,143 @@
+package com.ainigma100.customerapi.integration;
+
+import com.ainigma100.customerapi.entity.Customer;
+import com.ainigma100.customerapi.enums.Status;
+import com.ainigma100.customerapi.repository.CustomerJdbcRepository;
+import com.ainigma100.customerapi.repository.CustomerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.willAnswer;
+
+/**
+ * A database error while {@code /search/stream} writes its rows aborts the response: the connection is closed
+ * before the body is complete, so a client cannot take what it got for a shorter page.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class CustomerStreamAbortIntegrationH2Test {
+
+    private static final int CUSTOMERS = 300;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @MockitoSpyBean
+    private CustomerJdbcRepository customerJdbcRepository;
+
+
+    @BeforeEach
+    void setUp() {
+
+        customerRepository.saveAll(IntStream.range(0, CUSTOMERS).mapToObj(i -> {
+            Customer customer = new Customer();
+            customer.setFirstName("John");
+            customer.setLastName("Wick");
+            customer.setEmail("jwick" + i + "@gmail.com");
+            customer.setPhoneNumber("0123456789");
+            customer.setDateOfBirth(LocalDate.now().minusYears(18));
+            return customer;
+        }).toList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        customerRepository.deleteAll();
+    }
+
+
+    @Test
+    void givenDatabaseErrorAfterTheResponseStarted_whenStreamSearch_thenConnectionIsClosedBeforeTheEnd() {
+
+        // given - precondition or setup, the page fails after more rows than the response buffer holds
+        AtomicInteger rows = failAfter(CUSTOMERS - 10);
+
+        // when/then - verify the output
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            assertThatThrownBy(() -> client.send(streamSearch(), HttpResponse.BodyHandlers.ofString()))
+                    .isInstanceOf(IOException.class);
+        }
+
+        assertThat(rows.get()).isGreaterThan(CUSTOMERS - 10);
+    }
+
+    @Test
+    void givenDatabaseErrorBeforeTheResponseStarted_whenStreamSearch_thenErrorResponse() throws Exception {
+
+        // given - precondition or setup, the rows written so far are still in the response buffer
+        failAfter(2);
+
+        // when - action or behaviour that we are going to test
+        HttpResponse<String> response;
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            response = client.send(streamSearch(), HttpResponse.BodyHandlers.ofString());
+        }
+
+        // then - verify the output
+        assertThat(response.statusCode()).isEqualTo(500);
+        assertThat(response.body()).startsWith("{\"status\":\"" + Status.FAILED.getValue() + "\"");
+    }
+
+
+    private AtomicInteger failAfter(int rowsBeforeFailure) {
+
+        AtomicInteger rows = new AtomicInteger();
+        CustomerJdbcRepository repository = new CustomerJdbcRepository(dataSource);
+
+        willAnswer(invocation -> {
+            RowCallbackHandler rowCallbackHandler = invocation.getArgument(3);
+            repository.streamCustomers(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2),
+                    resultSet -> {
+                        if (rows.incrementAndGet() > rowsBeforeFailure) {
+                            throw new DataAccessResourceFailureException("connection lost");
+                        }
+                        rowCallbackHandler.processRow(resultSet);
+                    });
+            return null;
+        }).given(customerJdbcRepository).streamCustomers(any(), any(), any(), any());
+
+        return rows;
+    }
+
+    private HttpRequest streamSearch() {
+
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port
+                        + environment.getProperty("server.servlet.context-path", "") + "/api/v1/customers/search/stream"))
+                .header("Authorization", "Bearer user-token")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"page\": 0, \"size\": " + CUSTOMERS + "}"))
+                .build();
+    }
+
+}
@@ -0,0 +1,157 @@
+package com.ainigma100.customerapi.integration;
+
+import com.ainigma100.customerapi.entity.Customer;
+import com.ainigma100.customerapi.repository.CustomerRepository;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The {@code /actuator/jfr} endpoint (see JfrRecordingEndpoint): ADMIN only, and a recording started through it
+ * contains the events of JfrEventAspect and LoggingFilter.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class JfrRecordingEndpointIntegrationH2Test {
+
+    private static final String RECORDING = "integration-test";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+
+    @AfterEach
+    void tearDown() throws Exception {
+        // stop the recording of a failed test, 404 when there is none
+        mockMvc.perform(delete("/actuator/jfr/{name}", RECORDING).header("Authorization", "Bearer admin-token"));
+    }
+
+
+    @Test
+    void givenRoles_whenListRecordings_thenOnlyAdminAllowed() throws Exception {
+
+        // when/then - verify the output
+        mockMvc.perform(get("/actuator/jfr"))
+                .andExpect(status().isUnauthorized());
+
+        mockMvc.perform(get("/actuator/jfr").header("Authorization", "Bearer user-token"))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(post("/actuator/jfr/{name}", RECORDING).header("Authorization", "Bearer user-token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/actuator/jfr").header("Authorization", "Bearer admin-token"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void givenRecording_whenStartListDumpAndStop_thenDumpHasTheCustomerApiEvents() throws Exception {
+
+        // given - precondition or setup
+        Customer customer = new Customer();
+        customer.setFirstName("John");
+        customer.setLastName("Wick");
+        customer.setEmail("jfr@tester.com");
+        customer.setPhoneNumber("0123456789");
+        customer.setDateOfBirth(LocalDate.now().minusYears(18));
+        customerRepository.save(customer);
+
+        // when - action or behaviour that we are going to test
+        mockMvc.perform(post("/actuator/jfr/{name}", RECORDING).header("Authorization", "Bearer admin-token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"settings\": \"default\", \"maxAgeSeconds\": 60}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is(RECORDING)))
+                .andExpect(jsonPath("$.state", is("RUNNING")));
+
+        mockMvc.perform(get("/actuator/jfr").header("Authorization", "Bearer admin-token"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$." + RECORDING + ".state", is("RUNNING")));
+
+        mockMvc.perform(get("/api/v1/customers/{id}", customer.getId()).header("Authorization", "Bearer user-token"))
+                .andExpect(status().isOk());
+
+        byte[] dump = mockMvc.perform(get("/actuator/jfr/{name}", RECORDING).header("Authorization", "Bearer admin-token"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        mockMvc.perform(delete("/actuator/jfr/{name}", RECORDING).header("Authorization", "Bearer admin-token"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state", is("CLOSED")));
+
+        // then - verify the output
+        Path dumpFile = Files.createTempFile("jfr-endpoint-test-", ".jfr");
+        try {
+            Files.write(dumpFile, dump);
+            List<RecordedEvent> events = RecordingFile.readAllEvents(dumpFile);
+
+            Set<String> eventTypes = events.stream()
+                    .map(event -> event.getEventType().getName())
+                    .collect(Collectors.toSet());
+
+            assertThat(eventTypes).contains(
+                    "com.ainigma100.customerapi.HttpRequest",
+                    "com.ainigma100.customerapi.ControllerHandler",
+                    "com.ainigma100.customerapi.ServiceMethod",
+                    "com.ainigma100.customerapi.RepositoryCall",
+                    "com.ainigma100.customerapi.MaskData");
+
+            assertThat(events)
+                    .filteredOn(event -> event.getEventType().getName().equals("com.ainigma100.customerapi.ControllerHandler"))
+                    .extracting(event -> event.getString("handler"))
+                    .contains("getCustomerById");
+
+        } finally {
+            Files.deleteIfExists(dumpFile);
+        }
+
+        mockMvc.perform(get("/actuator/jfr/{name}", RECORDING).header("Authorization", "Bearer admin-token"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void givenNameThatIsNoFileName_whenStart_thenBadRequest() throws Exception {
+
+        // when/then - verify the output
+        for (String name : List.of("bad name", "-rf", "a".repeat(65))) {
+            mockMvc.perform(post("/actuator/jfr/{name}", name).header("Authorization", "Bearer admin-token")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{}"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error").exists());
+        }
+
+        mockMvc.perform(get("/actuator/jfr").header("Authorization", "Bearer admin-token"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{}"));
+    }
+
+}
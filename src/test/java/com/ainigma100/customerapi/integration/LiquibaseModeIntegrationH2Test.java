@@ -0,0 +1,68 @@
+package com.ainigma100.customerapi.integration;
+
+import com.ainigma100.customerapi.CustomerApiApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The application started in the Liquibase modes against in-memory H2 databases of their own.
+ */
+class LiquibaseModeIntegrationH2Test {
+
+    @Test
+    void givenEmptyDatabase_whenStartedInValidateMode_thenStartupFails() {
+
+        // when/then - and no Liquibase table has been created
+        assertThatThrownBy(() -> run("liquibase-mode-empty", "validate").close())
+                .hasStackTraceContaining("The database has not been migrated");
+
+        try (ConfigurableApplicationContext context = run("liquibase-mode-empty", "none")) {
+
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+            assertThat(jdbcTemplate.queryForList(
+                    "SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES WHERE LOWER(TABLE_NAME) LIKE 'databasechangelog%'",
+                    String.class)).isEmpty();
+        }
+    }
+
+    @Test
+    void givenMigratedDatabase_whenStartedInValidateMode_thenStartsOnlyWhenUpToDate() {
+
+        // given - precondition or setup
+        run("liquibase-mode-migrated", "migrate").close();
+
+        try (ConfigurableApplicationContext context = run("liquibase-mode-behind", "migrate")) {
+            context.getBean(JdbcTemplate.class).update(
+                    "DELETE FROM DATABASECHANGELOG WHERE FILENAME LIKE '%003-create-customer-shard-index.sql'");
+        }
+
+        assertThatThrownBy(() -> run("liquibase-mode-behind", "validate").close())
+                .hasStackTraceContaining("1 change set(s) have not been applied")
+                .hasStackTraceContaining("003-create-customer-shard-index.sql");
+
+        // when - action or behaviour that we are going to test
+        try (ConfigurableApplicationContext context = run("liquibase-mode-migrated", "validate")) {
+
+            // then - verify the output
+            assertThat(context.isActive()).isTrue();
+        }
+    }
+
+
+    private static ConfigurableApplicationContext run(String database, String mode) {
+
+        return new SpringApplication(CustomerApiApplication.class).run(
+                "--spring.profiles.active=test",
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:" + database + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=none",
+                "--customer-api.liquibase.mode=" + mode);
+    }
+
+}
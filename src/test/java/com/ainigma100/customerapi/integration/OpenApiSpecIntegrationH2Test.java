@@ -0,0 +1,96 @@
+package com.ainigma100.customerapi.integration;
+
+import com.ainigma100.customerapi.config.OpenApiSpecGenerator;
+import com.ainigma100.customerapi.controller.OpenApiSpecController;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The OpenAPI file generated from the running application, as the {@code openapi} Maven profile does before
+ * packaging, and served from the cached bytes afterwards.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "customer-api.openapi.spec-location=file:" + OpenApiSpecIntegrationH2Test.SPEC_FILE
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OpenApiSpecIntegrationH2Test {
+
+    static final String SPEC_FILE = "target/openapi-test/openapi.json";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Autowired
+    private Environment environment;
+
+
+    @Test
+    void givenGeneratedSpec_whenGetOpenApiSpec_thenServedWithETag() throws Exception {
+
+        // given - precondition or setup
+        new OpenApiSpecGenerator(context, environment, Path.of(SPEC_FILE)).writeSpec(Path.of(SPEC_FILE));
+
+        // when - action or behaviour that we are going to test
+        String eTag = mockMvc.perform(get("/api-docs/openapi.json"))
+
+                // then - verify the output, without the server url of the generating instance
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", notNullValue()))
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andExpect(jsonPath("$.paths['/api/v1/customers/{id}'].get.operationId", is("getCustomerById")))
+                .andExpect(jsonPath("$.servers[0].url",
+                        is(environment.getProperty("server.servlet.context-path", "/"))))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api-docs/openapi.json").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+
+        // Swagger UI loads the generated file
+        mockMvc.perform(get("/v3/api-docs/swagger-config"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.url", is("/api-docs/openapi.json")));
+    }
+
+    @Test
+    void givenNoGeneratedSpec_whenGetOpenApiSpec_thenRedirectToSpringdoc() {
+
+        // given - precondition or setup
+        OpenApiSpecController controller = new OpenApiSpecController(
+                new FileSystemResource("target/openapi-test/missing.json"), "/v3/api-docs");
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/customer-api/api-docs/openapi.json");
+        request.setContextPath("/customer-api");
+
+        // when - action or behaviour that we are going to test
+        ResponseEntity<byte[]> response = controller.getOpenApiSpec(new ServletWebRequest(request), request);
+
+        // then - verify the output
+        assertThat(response.getStatusCode().value()).isEqualTo(302);
+        assertThat(response.getHeaders().getLocation()).hasToString("/customer-api/v3/api-docs");
+    }
+
+}
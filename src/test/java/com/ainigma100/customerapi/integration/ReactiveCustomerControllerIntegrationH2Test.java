@@ -0,0 +1,316 @@
+package com.ainigma100.customerapi.integration;
+
+import com.ainigma100.customerapi.dto.CustomerEmailUpdateDTO;
+import com.ainigma100.customerapi.dto.CustomerRequestDTO;
+import com.ainigma100.customerapi.enums.Status;
+import com.ainigma100.customerapi.reactive.ReactiveCustomerApiApplication;
+import com.ainigma100.customerapi.reactive.entity.CustomerRow;
+import com.ainigma100.customerapi.reactive.repository.ReactiveCustomerRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.json.JsonCompareMode;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The reactive application, started with its own entry point against an in-memory H2 database of its own,
+ * migrated through JDBC and used through R2DBC.
+ */
+class ReactiveCustomerControllerIntegrationH2Test {
+
+    private static ConfigurableApplicationContext context;
+    private static WebTestClient webTestClient;
+
+    private static ReactiveCustomerRepository customerRepository;
+
+
+    @BeforeAll
+    static void startApplication() {
+
+        context = ReactiveCustomerApiApplication.application().run(
+                "--spring.profiles.active=test",
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:customer-api-reactive;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                "--spring.r2dbc.url=r2dbc:h2:mem:///customer-api-reactive?options=MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+
+        String port = context.getEnvironment().getProperty("local.server.port");
+        String basePath = context.getEnvironment().getProperty("spring.webflux.base-path");
+
+        webTestClient = WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + port + basePath)
+                .build();
+
+        customerRepository = context.getBean(ReactiveCustomerRepository.class);
+    }
+
+    @AfterAll
+    static void stopApplication() {
+        context.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        // clean the database before we start each test
+        customerRepository.deleteAll().block();
+    }
+
+
+    @Test
+    void givenCustomerRequestDTO_whenCreateCustomer_thenReturnCustomerDTO() {
+
+        // given - precondition or setup
+        CustomerRequestDTO customerRequestDTO = new CustomerRequestDTO();
+        customerRequestDTO.setFirstName("John");
+        customerRequestDTO.setLastName("Wick");
+        customerRequestDTO.setEmail("jwick@tester.com");
+        customerRequestDTO.setPhoneNumber("0123456789");
+        customerRequestDTO.setDateOfBirth(LocalDate.now().minusYears(18));
+
+        // when/then - the same envelope and masking as the servlet application
+        webTestClient.post().uri("/api/v1/customers")
+                .header("Authorization", "Bearer user-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(customerRequestDTO)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().valueMatches("Location", ".*/api/v1/customers/\\d+")
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(Status.SUCCESS.getValue())
+                .jsonPath("$.results.email").isEqualTo("jwick@tester.com")
+                .jsonPath("$.results.phoneNumber").isEqualTo("*******789");
+
+        // and a second customer with the same email is refused
+        webTestClient.post().uri("/api/v1/customers")
+                .header("Authorization", "Bearer user-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(customerRequestDTO)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(Status.FAILED.getValue());
+    }
+
+    @Test
+    void givenInvalidCustomerRequestDTO_whenCreateCustomer_thenReturnFieldErrors() {
+
+        // when/then
+        webTestClient.post().uri("/api/v1/customers")
+                .header("Authorization", "Bearer user-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new CustomerRequestDTO())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(Status.FAILED.getValue())
+                .jsonPath("$.errors[?(@.field == 'email')]").exists();
+    }
+
+    @Test
+    void givenCustomer_whenGetUpdateAndDelete_thenReturnCustomerDTO() {
+
+        // given - precondition or setup
+        Long id = saveCustomer("John", "jwick@tester.com").getId();
+
+        // when/then
+        webTestClient.get().uri("/api/v1/customers/{id}", id)
+                .header("Authorization", "Bearer user-token")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.results.firstName").isEqualTo("John");
+
+        webTestClient.get().uri(builder -> builder.path("/api/v1/customers/{id}").queryParam("fields", "phoneNumber,id,email").build(id))
+                .header("Authorization", "Bearer user-token")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().json("{\"status\":\"" + Status.SUCCESS.getValue() + "\",\"results\":{\"id\":" + id
+                        + ",\"email\":\"jwick@tester.com\",\"phoneNumber\":\"*******789\"}}", JsonCompareMode.STRICT);
+
+        CustomerRequestDTO customerRequestDTO = new CustomerRequestDTO();
+        customerRequestDTO.setFirstName("Johnny");
+        customerRequestDTO.setLastName("Wick");
+        customerRequestDTO.setEmail("jwick@tester.com");
+        customerRequestDTO.setPhoneNumber("0123456789");
+        customerRequestDTO.setDateOfBirth(LocalDate.now().minusYears(18));
+
+        webTestClient.put().uri("/api/v1/customers/{id}", id)
+                .header("Authorization", "Bearer user-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(customerRequestDTO)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.results.firstName").isEqualTo("Johnny");
+
+        CustomerEmailUpdateDTO emailUpdateDTO = new CustomerEmailUpdateDTO();
+        emailUpdateDTO.setEmail("johnny@tester.com");
+
+        webTestClient.patch().uri("/api/v1/customers/{id}/email", id)
+                .header("Authorization", "Bearer user-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(emailUpdateDTO)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.results.email").isEqualTo("johnny@tester.com");
+
+        // only admins may delete
+        webTestClient.delete().uri("/api/v1/customers/{id}", id)
+                .header("Authorization", "Bearer user-token")
+                .exchange()
+                .expectStatus().isForbidden()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(Status.FAILED.getValue());
+
+        webTestClient.delete().uri("/api/v1/customers/{id}", id)
+                .header("Authorization", "Bearer admin-token")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.results").isEqualTo("Customer deleted successfully");
+
+        webTestClient.get().uri("/api/v1/customers/{id}", id)
+                .header("Authorization", "Bearer user-token")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.errors[0].errorMessage").isEqualTo("Customer with id : '" + id + "' not found");
+    }
+
+    @Test
+    void givenCustomers_whenSearchAndStream_thenReturnTheSamePage() {
+
+        // given - precondition or setup
+        saveCustomer("John", "jwick@tester.com");
+        saveCustomer("Jane", "jdoe@tester.com");
+        saveCustomer("Jack", "jack@tester.com");
+
+        String searchRequest = "{\"firstName\": \"J\", \"page\": 0, \"size\": 2, "
+                + "\"sortList\": [{\"field\": \"firstName\", \"direction\": \"ASC\"}], \"fields\": [\"firstName\", \"phoneNumber\"]}";
+
+        // when - action or behaviour that we are going to test
+        String expected = "{\"status\":\"" + Status.SUCCESS.getValue() + "\",\"results\":{\"content\":["
+                + "{\"firstName\":\"Jack\",\"phoneNumber\":\"*******789\"},{\"firstName\":\"Jane\",\"phoneNumber\":\"*******789\"}],"
+                + "\"page\":{\"size\":2,\"number\":0,\"totalElements\":3,\"totalPages\":2}}}";
+
+        // then - verify the output, the streamed page is written like the regular one
+        webTestClient.post().uri("/api/v1/customers/search")
+                .header("Authorization", "Bearer user-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(searchRequest)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().json(expected, JsonCompareMode.STRICT);
+
+        webTestClient.post().uri("/api/v1/customers/search/stream")
+                .header("Authorization", "Bearer user-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(searchRequest)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo(expected);
+
+        // and the whole customers when no fields are requested
+        webTestClient.post().uri("/api/v1/customers/search")
+                .header("Authorization", "Bearer user-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"page\": 1, \"size\": 2, \"sortList\": [{\"field\": \"firstName\", \"direction\": \"ASC\"}]}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.results.content.length()").isEqualTo(1)
+                .jsonPath("$.results.content[0].firstName").isEqualTo("John")
+                .jsonPath("$.results.content[0].email").isEqualTo("jwick@tester.com");
+    }
+
+    @Test
+    void givenIds_whenGetCustomersByIds_thenReturnCustomersInRequestOrderAndMissingIds() {
+
+        // given - precondition or setup
+        CustomerRow john = saveCustomer("John", "jwick@tester.com");
+        CustomerRow jane = saveCustomer("Jane", "jdoe@tester.com");
+        long missingId = jane.getId() + 1000;
+
+        // when/then - each customer once, masked like the single GET
+        webTestClient.post().uri("/api/v1/customers/by-ids")
+                .header("Authorization", "Bearer user-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"ids\": [" + jane.getId() + ", " + missingId + ", " + john.getId() + ", " + jane.getId() + "]}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(Status.SUCCESS.getValue())
+                .jsonPath("$.results.customers.length()").isEqualTo(2)
+                .jsonPath("$.results.customers[0].firstName").isEqualTo("Jane")
+                .jsonPath("$.results.customers[0].phoneNumber").isEqualTo("*******789")
+                .jsonPath("$.results.customers[1].firstName").isEqualTo("John")
+                .jsonPath("$.results.missingIds.length()").isEqualTo(1)
+                .jsonPath("$.results.missingIds[0]").isEqualTo(Math.toIntExact(missingId));
+    }
+
+    @Test
+    void givenTooManyIds_whenGetCustomersByIds_thenReturnBadRequest() {
+
+        // given - precondition or setup, one more than customer-api.multi-get.max-ids
+        String ids = LongStream.rangeClosed(1, 1001).mapToObj(Long::toString).collect(Collectors.joining(", "));
+
+        // when/then - the same 400 as the servlet application
+        webTestClient.post().uri("/api/v1/customers/by-ids")
+                .header("Authorization", "Bearer user-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"ids\": [" + ids + "]}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(Status.FAILED.getValue())
+                .jsonPath("$.errors[0].field").isEqualTo("ids")
+                .jsonPath("$.errors[0].errorMessage").isEqualTo("at most 1000 ids per request, got 1001");
+    }
+
+    @Test
+    void givenUnknownSortField_whenStreamAllCustomersUsingPagination_thenReturnError() {
+
+        // when/then - the request fails before the response is started, like the regular search
+        webTestClient.post().uri("/api/v1/customers/search/stream")
+                .header("Authorization", "Bearer user-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"page\": 0, \"size\": 10, \"sortList\": [{\"field\": \"password\", \"direction\": \"ASC\"}]}")
+                .exchange()
+                .expectStatus().is5xxServerError()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(Status.FAILED.getValue());
+    }
+
+    @Test
+    void givenNoAuthentication_whenGetCustomer_thenUnauthorized() {
+
+        // when/then
+        webTestClient.get().uri("/api/v1/customers/{id}", 1L)
+                .exchange()
+                .expectStatus().isUnauthorized()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(Status.FAILED.getValue());
+
+        assertThat(context.getEnvironment().getActiveProfiles()).contains(ReactiveCustomerApiApplication.PROFILE);
+    }
+
+
+    private static CustomerRow saveCustomer(String firstName, String email) {
+
+        LocalDateTime now = LocalDateTime.now();
+
+        return customerRepository.save(new CustomerRow(null, firstName, "Wick", email, "0123456789",
+                LocalDate.now().minusYears(18), now, now, null)).block();
+    }
+
+}
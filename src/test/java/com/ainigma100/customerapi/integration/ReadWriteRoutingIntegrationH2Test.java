@@ -0,0 +1,246 @@
+package com.ainigma100.customerapi.integration;
+
+import com.ainigma100.customerapi.datasource.ReplicaDataSources;
+import com.ainigma100.customerapi.datasource.ReplicaHealthCheck;
+import com.ainigma100.customerapi.datasource.ReplicationPosition;
+import com.ainigma100.customerapi.dto.CustomerRequestDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import tools.jackson.databind.ObjectMapper;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Read/write routing with two in-memory H2 databases standing in for the primary and a replica. Nothing replicates
+ * between them, so a row only the replica has shows that a read went to the replica, and the other way round.
+ * The replication positions are set by the test, and the health checks are run by the test as well.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "customer-api.datasource.routing.enabled=true",
+        "customer-api.datasource.routing.replicas[0].name=replica",
+        "customer-api.datasource.routing.replicas[0].url=" + ReadWriteRoutingIntegrationH2Test.REPLICA_URL,
+        "customer-api.datasource.routing.replicas[0].username=sa",
+        "customer-api.datasource.routing.replicas[0].password=",
+        "customer-api.datasource.routing.replicas[0].migrate=true",
+        "customer-api.datasource.routing.health-check.interval=1h",
+        "customer-api.datasource.routing.health-check.eject-after-failures=3",
+        "customer-api.datasource.routing.read-your-writes.enabled=true"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReadWriteRoutingIntegrationH2Test {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:customer-api-test;MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:customer-api-test-replica;MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+
+    private static final String INSERT_CUSTOMER = "INSERT INTO customers (id, first_name, last_name, email, phone_number, date_of_birth) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate primary = new JdbcTemplate(new DriverManagerDataSource(PRIMARY_URL, "sa", ""));
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StandInReplicationPosition replicationPosition;
+
+    @Autowired
+    private ReplicaHealthCheck replicaHealthCheck;
+
+    @Autowired
+    private ReplicaDataSources replicaDataSources;
+
+
+    @TestConfiguration
+    static class StandInReplicationPositionConfig {
+
+        @Bean
+        StandInReplicationPosition standInReplicationPosition() {
+            return new StandInReplicationPosition();
+        }
+    }
+
+    // H2 does not replicate, the positions are whatever the test says
+    static class StandInReplicationPosition implements ReplicationPosition {
+
+        private final AtomicLong primaryPosition = new AtomicLong();
+        private final AtomicLong replicaPosition = new AtomicLong();
+        private final AtomicBoolean replicaDown = new AtomicBoolean();
+
+        @Override
+        public long primary(Connection connection) {
+            return primaryPosition.get();
+        }
+
+        @Override
+        public long replica(Connection connection) throws SQLException {
+
+            if (replicaDown.get()) {
+                throw new SQLException("The replica is down");
+            }
+
+            return replicaPosition.get();
+        }
+    }
+
+
+    @BeforeEach
+    void setUp() {
+
+        primary.update("DELETE FROM customers");
+        replica.update("DELETE FROM customers");
+
+        replicationPosition.primaryPosition.set(0);
+        replicationPosition.replicaPosition.set(0);
+        replicationPosition.replicaDown.set(false);
+        replicaHealthCheck.checkReplicas();
+    }
+
+
+    @Test
+    @DisplayName("Reads go to the replica and writes to the primary")
+    void givenReplica_whenReadAndWrite_thenRoutedByTransaction() throws Exception {
+
+        // given - precondition or setup, a row only the replica has
+        replica.update(INSERT_CUSTOMER, 1_000_001L, "Only", "OnReplica", "replica@tester.com", "0123456789", LocalDate.of(1990, 1, 1));
+
+        // when/then - the read finds it
+        mockMvc.perform(get("/api/v1/customers/{id}", 1_000_001L)
+                        .header("Authorization", "Bearer user-token"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results.firstName", is("Only")));
+
+        // when/then - the write only lands on the primary
+        long id = this.createCustomer("jwick@tester.com");
+
+        assertThat(primary.queryForObject("SELECT COUNT(*) FROM customers WHERE id = ?", Long.class, id)).isEqualTo(1);
+        assertThat(replica.queryForObject("SELECT COUNT(*) FROM customers WHERE id = ?", Long.class, id)).isZero();
+    }
+
+    @Test
+    @DisplayName("A Consistency-Token keeps the reads on the primary until the replica has replayed the write")
+    void givenConsistencyToken_whenReplicaBehind_thenReadFromPrimary() throws Exception {
+
+        // given - precondition or setup, the replica is behind the primary
+        replicationPosition.primaryPosition.set(5);
+
+        // when - action or behaviour that we are going to test
+        MvcResult created = mockMvc.perform(post("/api/v1/customers")
+                        .header("Authorization", "Bearer user-token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(customerRequest("jwick@tester.com"))))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Consistency-Token", "5"))
+                .andReturn();
+
+        long id = objectMapper.readTree(created.getResponse().getContentAsString()).get("results").get("id").asLong();
+
+        // then - verify the output, the token reads the write, a read without it does not
+        mockMvc.perform(get("/api/v1/customers/{id}", id)
+                        .header("Authorization", "Bearer user-token")
+                        .header("Consistency-Token", "5"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Consistency-Token", "5"))
+                .andExpect(jsonPath("$.results.firstName", is("John")));
+
+        mockMvc.perform(get("/api/v1/customers/{id}", id)
+                        .header("Authorization", "Bearer user-token"))
+                .andExpect(status().isNotFound());
+
+        // once the replica has caught up, the same token reads from it
+        replica.update(INSERT_CUSTOMER, id, "Replayed", "Wick", "jwick@tester.com", "0123456789", LocalDate.of(1990, 1, 1));
+        replicationPosition.replicaPosition.set(5);
+        replicaHealthCheck.checkReplicas();
+
+        mockMvc.perform(get("/api/v1/customers/{id}", id)
+                        .header("Authorization", "Bearer user-token")
+                        .header("Consistency-Token", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results.firstName", is("Replayed")));
+    }
+
+    @Test
+    @DisplayName("A replica failing its health checks is ejected, the reads fall back to the primary until it is readmitted")
+    void givenFailingReplica_whenHealthChecks_thenEjectedAndReadmitted() throws Exception {
+
+        // given - precondition or setup, a row only the primary has
+        long id = this.createCustomer("jwick@tester.com");
+        replicationPosition.replicaDown.set(true);
+
+        // when - action or behaviour that we are going to test
+        replicaHealthCheck.checkReplicas();
+        replicaHealthCheck.checkReplicas();
+        assertThat(replicaDataSources.getHealthyCount()).isEqualTo(1);
+
+        replicaHealthCheck.checkReplicas();
+
+        // then - verify the output
+        assertThat(replicaDataSources.getHealthyCount()).isZero();
+
+        mockMvc.perform(get("/api/v1/customers/{id}", id)
+                        .header("Authorization", "Bearer user-token"))
+                .andExpect(status().isOk());
+
+        replicationPosition.replicaDown.set(false);
+        replicaHealthCheck.checkReplicas();
+
+        assertThat(replicaDataSources.getHealthyCount()).isEqualTo(1);
+
+        mockMvc.perform(get("/api/v1/customers/{id}", id)
+                        .header("Authorization", "Bearer user-token"))
+                .andExpect(status().isNotFound());
+    }
+
+
+    private long createCustomer(String email) throws Exception {
+
+        MvcResult result = mockMvc.perform(post("/api/v1/customers")
+                        .header("Authorization", "Bearer user-token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(customerRequest(email))))
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("results").get("id").asLong();
+    }
+
+    private static CustomerRequestDTO customerRequest(String email) {
+
+        CustomerRequestDTO customerRequestDTO = new CustomerRequestDTO();
+        customerRequestDTO.setFirstName("John");
+        customerRequestDTO.setLastName("Wick");
+        customerRequestDTO.setEmail(email);
+        customerRequestDTO.setPhoneNumber("0123456789");
+        customerRequestDTO.setDateOfBirth(LocalDate.now().minusYears(18));
+
+        return customerRequestDTO;
+    }
+
+}
@@ -0,0 +1,252 @@
+package com.ainigma100.customerapi.integration;
+
+import com.ainigma100.customerapi.dto.CustomerRequestDTO;
+import com.ainigma100.customerapi.entity.Customer;
+import com.ainigma100.customerapi.repository.CustomerRepository;
+import com.ainigma100.customerapi.repository.ShardedCustomerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Sharded storage with three in-memory H2 databases as the shards, the test database keeps the id sequence and the
+ * routing index. The shards are read directly to see where the rows ended up.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "customer-api.sharding.enabled=true",
+        "customer-api.sharding.shards[0].name=shard-0",
+        "customer-api.sharding.shards[0].url=jdbc:h2:mem:customer-api-test-shard-0;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "customer-api.sharding.shards[0].username=sa",
+        "customer-api.sharding.shards[0].migrate=true",
+        "customer-api.sharding.shards[1].name=shard-1",
+        "customer-api.sharding.shards[1].url=jdbc:h2:mem:customer-api-test-shard-1;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "customer-api.sharding.shards[1].username=sa",
+        "customer-api.sharding.shards[1].migrate=true",
+        "customer-api.sharding.shards[2].name=shard-2",
+        "customer-api.sharding.shards[2].url=jdbc:h2:mem:customer-api-test-shard-2;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "customer-api.sharding.shards[2].username=sa",
+        "customer-api.sharding.shards[2].migrate=true"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ShardedCustomerRepositoryIntegrationH2Test {
+
+    private static final int SHARDS = 3;
+
+    private final List<JdbcTemplate> shards = IntStream.range(0, SHARDS)
+            .mapToObj(shard -> new JdbcTemplate(new DriverManagerDataSource(
+                    "jdbc:h2:mem:customer-api-test-shard-" + shard + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "")))
+            .toList();
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+
+    @BeforeEach
+    void setUp() {
+        customerRepository.deleteAll();
+    }
+
+
+    @Test
+    @DisplayName("The customers are spread over the shards, and every point operation reaches the shard of its id")
+    void givenShards_whenCrud_thenRoutedById() throws Exception {
+
+        assertThat(customerRepository).isInstanceOf(ShardedCustomerRepository.class);
+
+        // given - precondition or setup
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            ids.add(this.createCustomer(customerRequest("John", "customer" + i + "@tester.com")));
+        }
+
+        // then - every shard got some of them, each customer exactly once
+        List<Long> rowsPerShard = shards.stream()
+                .map(shard -> shard.queryForObject("SELECT COUNT(*) FROM customers", Long.class))
+                .toList();
+
+        assertThat(rowsPerShard).allSatisfy(rows -> assertThat(rows).isPositive());
+        assertThat(rowsPerShard.stream().mapToLong(Long::longValue).sum()).isEqualTo(12);
+
+        for (Long id : ids) {
+            mockMvc.perform(get("/api/v1/customers/{id}", id)
+                            .header("Authorization", "Bearer user-token"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.results.id", is(id.intValue())));
+        }
+
+        // the routing index keeps the emails unique across the shards
+        mockMvc.perform(post("/api/v1/customers")
+                        .header("Authorization", "Bearer user-token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(customerRequest("Jane", "customer7@tester.com"))))
+                .andExpect(status().isBadRequest());
+
+        // when - action or behaviour that we are going to test
+        long id = ids.getFirst();
+
+        mockMvc.perform(put("/api/v1/customers/{id}", id)
+                        .header("Authorization", "Bearer user-token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(customerRequest("Jonathan", "jwick@tester.com"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results.firstName", is("Jonathan")));
+
+        // then - verify the output
+        assertThat(customerRepository.findByEmail("jwick@tester.com")).get().extracting(Customer::getId).isEqualTo(id);
+        assertThat(customerRepository.findByEmail("customer0@tester.com")).isEmpty();
+        assertThat(customerRepository.findById(id)).get().extracting(Customer::getVersion).isEqualTo(1L);
+
+        mockMvc.perform(delete("/api/v1/customers/{id}", id)
+                        .header("Authorization", "Bearer admin-token"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/customers/{id}", id)
+                        .header("Authorization", "Bearer user-token"))
+                .andExpect(status().isNotFound());
+
+        assertThat(customerRepository.count()).isEqualTo(11);
+        assertThat(customerRepository.findByEmail("jwick@tester.com")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("A search merges the partial pages of the shards in the order of the sortList")
+    void givenSortList_whenSearch_thenPagesMergedAcrossShards() throws Exception {
+
+        // given - precondition or setup, with ties and missing dates of birth
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+
+            Customer customer = new Customer();
+            customer.setFirstName(List.of("Anna", "Bob", "Carl", "Dora").get(i % 4));
+            customer.setLastName(i % 2 == 0 ? "Wick" : "Smith");
+            customer.setEmail("customer" + i + "@tester.com");
+            customer.setDateOfBirth(i % 5 == 0 ? null : LocalDate.of(1980 + i % 3, 1, 1));
+
+            customers.add(customerRepository.save(customer));
+        }
+
+        // nulls last in ascending order, like PostgreSQL, then the id
+        List<String> expected = customers.stream()
+                .sorted(Comparator.comparing(Customer::getDateOfBirth, Comparator.nullsLast(Comparator.naturalOrder()))
+                        .thenComparing(Customer::getFirstName, Comparator.reverseOrder())
+                        .thenComparing(Customer::getId))
+                .map(Customer::getEmail)
+                .toList();
+
+        // when - action or behaviour that we are going to test
+        List<String> emails = new ArrayList<>();
+
+        for (int page = 0; page < 4; page++) {
+
+            String searchRequest = "{\"page\": " + page + ", \"size\": 6, \"sortList\": ["
+                    + "{\"field\": \"dateOfBirth\", \"direction\": \"ASC\"}, {\"field\": \"firstName\", \"direction\": \"DESC\"}]}";
+
+            JsonNode results = this.search("/api/v1/customers/search", searchRequest);
+
+            assertThat(results.path("page").path("totalElements").asLong()).isEqualTo(20);
+            results.path("content").forEach(customer -> emails.add(customer.path("email").asString()));
+
+            // the same page with the projected and the streaming search
+            JsonNode projected = this.search("/api/v1/customers/search",
+                    searchRequest.replace("\"page\"", "\"fields\": [\"email\"], \"page\""));
+
+            assertThat(projected.path("content").findValuesAsString("email"))
+                    .isEqualTo(results.path("content").findValuesAsString("email"));
+
+            String body = this.searchBody("/api/v1/customers/search", searchRequest);
+
+            mockMvc.perform(post("/api/v1/customers/search/stream")
+                            .header("Authorization", "Bearer user-token")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(searchRequest))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string(body));
+        }
+
+        // then - verify the output
+        assertThat(emails).isEqualTo(expected);
+
+        JsonNode filtered = this.search("/api/v1/customers/search",
+                "{\"lastName\": \"wick\", \"page\": 0, \"size\": 20, \"sortList\": [{\"field\": \"id\", \"direction\": \"DESC\"}]}");
+
+        assertThat(filtered.path("content").findValuesAsString("email")).isEqualTo(customers.stream()
+                .filter(customer -> customer.getLastName().equals("Wick"))
+                .sorted(Comparator.comparing(Customer::getId).reversed())
+                .map(Customer::getEmail)
+                .toList());
+    }
+
+
+    private JsonNode search(String path, String searchRequest) throws Exception {
+        return objectMapper.readTree(this.searchBody(path, searchRequest)).path("results");
+    }
+
+    private String searchBody(String path, String searchRequest) throws Exception {
+
+        return mockMvc.perform(post(path)
+                        .header("Authorization", "Bearer user-token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(searchRequest))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private long createCustomer(CustomerRequestDTO customerRequestDTO) throws Exception {
+
+        MvcResult result = mockMvc.perform(post("/api/v1/customers")
+                        .header("Authorization", "Bearer user-token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(customerRequestDTO)))
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("results").get("id").asLong();
+    }
+
+    private static CustomerRequestDTO customerRequest(String firstName, String email) {
+
+        CustomerRequestDTO customerRequestDTO = new CustomerRequestDTO();
+        customerRequestDTO.setFirstName(firstName);
+        customerRequestDTO.setLastName("Wick");
+        customerRequestDTO.setEmail(email);
+        customerRequestDTO.setPhoneNumber("0123456789");
+        customerRequestDTO.setDateOfBirth(LocalDate.now().minusYears(18));
+
+        return customerRequestDTO;
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.ainigma100.customerapi.jfr;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PinnedLocationsTest {
+
+    @Test
+    @DisplayName("The location is the first class on the stack outside the JDK")
+    void givenFrames_whenLocation_thenFirstNonJdkClass() {
+
+        // given - precondition or setup
+        List<String> frameTypes = List.of("java.lang.Object", "jdk.internal.misc.Unsafe", "sun.nio.ch.NioSocketImpl",
+                "org.h2.engine.SessionLocal", "com.zaxxer.hikari.pool.HikariPool");
+
+        // when - action or behaviour that we are going to test
+        String location = PinnedLocations.location(frameTypes);
+
+        // then - verify the output
+        assertThat(location).isEqualTo("org.h2.engine.SessionLocal");
+    }
+
+    @Test
+    @DisplayName("A stack of JDK classes only is located at its innermost frame, an empty one is unknown")
+    void givenJdkOrNoFrames_whenLocation_thenInnermostFrameOrUnknown() {
+
+        // when/then - verify the output
+        assertThat(PinnedLocations.location(List.of("javax.crypto.Cipher", "java.lang.Thread")))
+                .isEqualTo("javax.crypto.Cipher");
+        assertThat(PinnedLocations.location(List.of())).isEqualTo(PinnedLocations.UNKNOWN);
+    }
+
+    @Test
+    @DisplayName("Only the first event at a location is reported")
+    void givenSameLocationTwice_whenLocate_thenFirstOnlyOnce() {
+
+        // given - precondition or setup
+        PinnedLocations pinnedLocations = new PinnedLocations(100);
+
+        // when - action or behaviour that we are going to test
+        PinnedLocations.Location first = pinnedLocations.locate(List.of("java.lang.Object", "org.h2.engine.SessionLocal"));
+        PinnedLocations.Location second = pinnedLocations.locate(List.of("org.h2.engine.SessionLocal"));
+
+        // then - verify the output
+        assertThat(first).isEqualTo(new PinnedLocations.Location("org.h2.engine.SessionLocal", true));
+        assertThat(second).isEqualTo(new PinnedLocations.Location("org.h2.engine.SessionLocal", false));
+    }
+
+    @Test
+    @DisplayName("Past the maximum, new locations are tagged 'other' and not reported, the known ones keep their tag")
+    void givenMaxLocations_whenNewLocation_thenOther() {
+
+        // given - precondition or setup
+        PinnedLocations pinnedLocations = new PinnedLocations(2);
+        pinnedLocations.locate(List.of("com.example.First"));
+        pinnedLocations.locate(List.of("com.example.Second"));
+
+        // when - action or behaviour that we are going to test
+        PinnedLocations.Location third = pinnedLocations.locate(List.of("com.example.Third"));
+        PinnedLocations.Location thirdAgain = pinnedLocations.locate(List.of("com.example.Third"));
+        PinnedLocations.Location known = pinnedLocations.locate(List.of("com.example.First"));
+
+        // then - verify the output
+        assertThat(third).isEqualTo(new PinnedLocations.Location(PinnedLocations.OTHER, false));
+        assertThat(thirdAgain).isEqualTo(new PinnedLocations.Location(PinnedLocations.OTHER, false));
+        assertThat(known).isEqualTo(new PinnedLocations.Location("com.example.First", false));
+    }
+
+}
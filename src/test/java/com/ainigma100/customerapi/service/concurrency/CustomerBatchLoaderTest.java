@@ -0,0 +1,189 @@
+package com.ainigma100.customerapi.service.concurrency;
+
+import com.ainigma100.customerapi.entity.Customer;
+import com.ainigma100.customerapi.repository.CustomerJdbcRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class CustomerBatchLoaderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BatchLoaderProperties properties = new BatchLoaderProperties();
+    private final CustomerJdbcRepository customerJdbcRepository = mock(CustomerJdbcRepository.class);
+
+    private CustomerBatchLoader customerBatchLoader;
+
+
+    @AfterEach
+    void tearDown() {
+        customerBatchLoader.close();
+    }
+
+
+    @Test
+    @DisplayName("The lookups of one window are merged into one query and each gets its own customer")
+    void givenConcurrentLookups_whenFindById_thenOneQuery() throws Exception {
+
+        // given - precondition or setup, a window long enough for all the lookups to join
+        properties.setWindow(Duration.ofMillis(200));
+        customerBatchLoader = newLoader();
+
+        given(customerJdbcRepository.findCustomersByIds(anyCollection()))
+                .willAnswer(invocation -> customers(invocation.getArgument(0)));
+
+        List<Future<Optional<Customer>>> results = new ArrayList<>();
+
+        // when - action or behaviour that we are going to test, id 3 does not exist
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long id = 1; id <= 4; id++) {
+                long customerId = id;
+                results.add(executor.submit(() -> customerBatchLoader.findById(customerId)));
+            }
+
+            // then - verify the output
+            assertThat(results.get(0).get(5, TimeUnit.SECONDS)).get().extracting(Customer::getId).isEqualTo(1L);
+            assertThat(results.get(1).get(5, TimeUnit.SECONDS)).get().extracting(Customer::getId).isEqualTo(2L);
+            assertThat(results.get(2).get(5, TimeUnit.SECONDS)).isEmpty();
+            assertThat(results.get(3).get(5, TimeUnit.SECONDS)).get().extracting(Customer::getId).isEqualTo(4L);
+        }
+
+        verify(customerJdbcRepository, times(1)).findCustomersByIds(anyCollection());
+        assertThat(meterRegistry.get("customer.api.batch-loader.batch.size").summary().max()).isEqualTo(4);
+        assertThat(meterRegistry.get("customer.api.batch-loader.wait").timer().count()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("A full batch is queried without waiting for the window")
+    void givenFullBatch_whenFindById_thenQueriedRightAway() {
+
+        // given - precondition or setup
+        properties.setWindow(Duration.ofMinutes(1));
+        properties.setMaxBatchSize(1);
+        customerBatchLoader = newLoader();
+
+        given(customerJdbcRepository.findCustomersByIds(anyCollection()))
+                .willAnswer(invocation -> customers(invocation.getArgument(0)));
+
+        // when/then
+        assertThat(customerBatchLoader.findById(7L)).get().extracting(Customer::getId).isEqualTo(7L);
+    }
+
+    @Test
+    @DisplayName("A failing batch query fails every lookup of the batch, each with an exception of its own")
+    void givenFailingQuery_whenFindById_thenOwnFailurePerLookup() throws Exception {
+
+        // given - precondition or setup, a window long enough for both lookups to join
+        properties.setWindow(Duration.ofMillis(200));
+        customerBatchLoader = newLoader();
+
+        DataAccessResourceFailureException databaseDown = new DataAccessResourceFailureException("The database is down");
+        given(customerJdbcRepository.findCustomersByIds(anyCollection())).willThrow(databaseDown);
+
+        List<Future<Throwable>> failures = new ArrayList<>();
+
+        // when - action or behaviour that we are going to test
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long id = 1; id <= 2; id++) {
+                long customerId = id;
+                failures.add(executor.submit(() -> catchThrowable(() -> customerBatchLoader.findById(customerId))));
+            }
+
+            // then - verify the output
+            Throwable first = failures.get(0).get(5, TimeUnit.SECONDS);
+            Throwable second = failures.get(1).get(5, TimeUnit.SECONDS);
+
+            assertThat(first).isInstanceOf(IllegalStateException.class)
+                    .hasMessage("The batch query failed: The database is down");
+            assertThat(first.getCause()).isSameAs(databaseDown);
+            assertThat(second.getCause()).isSameAs(databaseDown);
+            assertThat(second).isNotSameAs(first);
+        }
+
+        verify(customerJdbcRepository, times(1)).findCustomersByIds(anyCollection());
+    }
+
+    @Test
+    @DisplayName("A lookup waiting longer than the wait timeout for its batch fails with a QueryTimeoutException")
+    void givenSlowQuery_whenFindById_thenQueryTimeoutException() {
+
+        // given - precondition or setup
+        properties.setWindow(Duration.ofMillis(1));
+        properties.setWaitTimeout(Duration.ofMillis(50));
+        customerBatchLoader = newLoader();
+
+        CountDownLatch release = new CountDownLatch(1);
+        given(customerJdbcRepository.findCustomersByIds(anyCollection())).willAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return customers(invocation.getArgument(0));
+        });
+
+        // when/then
+        try {
+            assertThatThrownBy(() -> customerBatchLoader.findById(1L))
+                    .isInstanceOf(QueryTimeoutException.class)
+                    .hasMessage("The batch query did not complete within 50 ms");
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Once closed, the lookups fail right away instead of joining a batch that is never queried")
+    void givenClosedLoader_whenFindById_thenRejected() {
+
+        // given - precondition or setup
+        customerBatchLoader = newLoader();
+        customerBatchLoader.close();
+
+        // when/then - the second lookup finds no batch left open by the first
+        assertThatThrownBy(() -> customerBatchLoader.findById(1L)).isInstanceOf(RejectedExecutionException.class);
+        assertThatThrownBy(() -> customerBatchLoader.findById(2L)).isInstanceOf(RejectedExecutionException.class);
+
+        verifyNoInteractions(customerJdbcRepository);
+    }
+
+
+    private CustomerBatchLoader newLoader() {
+        return new CustomerBatchLoader(properties, customerJdbcRepository, mock(PlatformTransactionManager.class), meterRegistry);
+    }
+
+    private static List<Customer> customers(Collection<Long> ids) {
+
+        return ids.stream()
+                .filter(id -> id != 3L)
+                .map(id -> {
+                    Customer customer = new Customer();
+                    customer.setId(id);
+                    return customer;
+                })
+                .toList();
+    }
+
+}
@@ -0,0 +1,132 @@
+package com.ainigma100.customerapi.service.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class ParallelPageQueryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ParallelSearchProperties properties = new ParallelSearchProperties();
+    private final ParallelPageQuery parallelPageQuery =
+            new ParallelPageQuery(properties, mock(PlatformTransactionManager.class), meterRegistry);
+
+
+    @AfterEach
+    void tearDown() {
+        parallelPageQuery.close();
+    }
+
+
+    @Test
+    @DisplayName("The page and the count run at the same time and make up one page")
+    void givenPageAndCount_whenFetch_thenBothRunConcurrently() {
+
+        // given - precondition or setup, each query only returns once the other one has started
+        CountDownLatch started = new CountDownLatch(2);
+
+        // when - action or behaviour that we are going to test
+        Page<String> page = parallelPageQuery.fetch(PageRequest.of(1, 2),
+                () -> {
+                    awaitBoth(started);
+                    return List.of("c", "d");
+                },
+                () -> {
+                    awaitBoth(started);
+                    return 5L;
+                });
+
+        // then - verify the output
+        assertThat(page.getContent()).containsExactly("c", "d");
+        assertThat(page.getTotalElements()).isEqualTo(5);
+        assertThat(page.getTotalPages()).isEqualTo(3);
+        assertThat(meterRegistry.get("customer.api.search.parallel").tag("query", "content").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("customer.api.search.parallel").tag("query", "count").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("When one query fails the other one is cancelled and the failure is thrown")
+    void givenFailingCount_whenFetch_thenPageCancelled() throws InterruptedException {
+
+        // given - precondition or setup
+        CountDownLatch cancelled = new CountDownLatch(1);
+
+        // when/then
+        assertThatThrownBy(() -> parallelPageQuery.fetch(PageRequest.of(0, 10),
+                () -> {
+                    try {
+                        Thread.sleep(Duration.ofMinutes(1));
+                    } catch (InterruptedException ex) {
+                        cancelled.countDown();
+                    }
+                    return List.of();
+                },
+                () -> {
+                    throw new DataAccessResourceFailureException("The database is down");
+                }))
+                .isInstanceOf(DataAccessResourceFailureException.class)
+                .hasMessage("The database is down");
+
+        assertThat(cancelled.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Queries that are not done within the timeout are cancelled")
+    void givenSlowQueries_whenFetch_thenQueryTimeout() throws InterruptedException {
+
+        // given - precondition or setup
+        properties.setTimeout(Duration.ofMillis(100));
+        CountDownLatch cancelled = new CountDownLatch(2);
+
+        // when/then
+        assertThatThrownBy(() -> parallelPageQuery.fetch(PageRequest.of(0, 10),
+                () -> {
+                    sleepUntilCancelled(cancelled);
+                    return List.of();
+                },
+                () -> {
+                    sleepUntilCancelled(cancelled);
+                    return 0L;
+                }))
+                .isInstanceOf(QueryTimeoutException.class);
+
+        assertThat(cancelled.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+
+    private static void awaitBoth(CountDownLatch started) {
+
+        started.countDown();
+
+        try {
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleepUntilCancelled(CountDownLatch cancelled) {
+
+        try {
+            Thread.sleep(Duration.ofMinutes(1));
+        } catch (InterruptedException ex) {
+            cancelled.countDown();
+        }
+    }
+
+}
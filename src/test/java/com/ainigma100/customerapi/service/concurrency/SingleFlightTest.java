@@ -0,0 +1,198 @@
+package com.ainigma100.customerapi.service.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight<Long, String> singleFlight = new SingleFlight<>("customer-by-id", 64, Duration.ofSeconds(5), meterRegistry);
+
+
+    @Test
+    @DisplayName("Equal calls made while one runs share its result, the call only runs once")
+    void givenRunningCall_whenEqualCalls_thenCoalesced() throws Exception {
+
+        // given - precondition or setup, the call runs until all the others are waiting for it
+        int callers = 10;
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            // when - action or behaviour that we are going to test
+            results.add(executor.submit(() -> singleFlight.execute(1L, () -> {
+                executions.incrementAndGet();
+                started.countDown();
+                await(release);
+                return "John";
+            })));
+
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            for (int i = 1; i < callers; i++) {
+                results.add(executor.submit(() -> singleFlight.execute(1L, () -> {
+                    executions.incrementAndGet();
+                    return "Johnny";
+                })));
+            }
+
+            // the others have joined once they are counted
+            while (meterRegistry.get("customer.api.single-flight.calls").tag("result", "coalesced").counter().count() < callers - 1) {
+                Thread.sleep(1);
+            }
+
+            release.countDown();
+
+            // then - verify the output
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("John");
+            }
+        }
+
+        assertThat(executions).hasValue(1);
+        assertThat(singleFlight.size()).isZero();
+        assertThat(meterRegistry.get("customer.api.single-flight.calls").tag("result", "executed").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("customer.api.single-flight.coalescing.ratio").gauge().value()).isEqualTo(0.9);
+    }
+
+    @Test
+    @DisplayName("The calls waiting for a failing call get an exception of their own caused by it, a later call runs again")
+    void givenFailingCall_whenEqualCalls_thenOwnExceptionAndNextCallRuns() throws Exception {
+
+        // given - precondition or setup
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        EntityNotFoundException notFound = new EntityNotFoundException("Customer with id : '1' not found");
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            Future<String> first = executor.submit(() -> singleFlight.execute(1L, () -> {
+                started.countDown();
+                await(release);
+                throw notFound;
+            }));
+
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            Future<String> second = executor.submit(() -> singleFlight.execute(1L, () -> "John"));
+
+            while (meterRegistry.get("customer.api.single-flight.calls").tag("result", "coalesced").counter().count() < 1) {
+                Thread.sleep(1);
+            }
+
+            // when - action or behaviour that we are going to test
+            release.countDown();
+
+            // then - verify the output
+            Throwable waiting = catchThrowable(() -> second.get(5, TimeUnit.SECONDS)).getCause();
+
+            assertThat(waiting)
+                    .isInstanceOf(EntityNotFoundException.class)
+                    .isNotSameAs(notFound)
+                    .hasMessage("Customer with id : '1' not found");
+            assertThat(waiting.getCause()).isSameAs(notFound);
+            assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS))
+                    .cause()
+                    .isSameAs(notFound);
+        }
+
+        assertThat(singleFlight.execute(1L, () -> "John")).isEqualTo("John");
+    }
+
+    @Test
+    @DisplayName("A call made after the running one was forgotten runs again")
+    void givenForgottenCall_whenEqualCall_thenRunsAgain() throws Exception {
+
+        // given - precondition or setup
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            Future<String> running = executor.submit(() -> singleFlight.execute(1L, () -> {
+                started.countDown();
+                await(release);
+                return "John";
+            }));
+
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // when - action or behaviour that we are going to test
+            singleFlight.forget(1L);
+            String afterForget = singleFlight.execute(1L, () -> "Johnny");
+
+            // then - verify the output
+            assertThat(afterForget).isEqualTo("Johnny");
+
+            release.countDown();
+            assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("John");
+        }
+
+        assertThat(meterRegistry.get("customer.api.single-flight.calls").tag("result", "executed").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("customer.api.single-flight.calls").tag("result", "coalesced").counter().count()).isZero();
+    }
+
+
+    @Test
+    @DisplayName("A call waiting longer than the wait timeout for the running one fails with a QueryTimeoutException")
+    void givenSlowCall_whenEqualCallWaitsLongerThanTimeout_thenQueryTimeoutException() throws Exception {
+
+        // given - precondition or setup
+        SingleFlight<Long, String> singleFlight =
+                new SingleFlight<>("customer-by-id", 64, Duration.ofMillis(50), new SimpleMeterRegistry());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            Future<String> running = executor.submit(() -> singleFlight.execute(1L, () -> {
+                started.countDown();
+                await(release);
+                return "John";
+            }));
+
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // when - action or behaviour that we are going to test
+            // then - verify the output
+            assertThatThrownBy(() -> singleFlight.execute(1L, () -> "Johnny"))
+                    .isInstanceOf(QueryTimeoutException.class)
+                    .hasMessage("The equal call did not complete within 50 ms");
+
+            release.countDown();
+            assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("John");
+        }
+    }
+
+
+    private static void await(CountDownLatch latch) {
+
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -3,9 +3,18 @@ package com.ainigma100.customerapi.service.impl;
 import com.ainigma100.customerapi.dto.CustomerDTO;
 import com.ainigma100.customerapi.dto.CustomerEmailUpdateDTO;
 import com.ainigma100.customerapi.dto.CustomerSearchCriteriaDTO;
+import com.ainigma100.customerapi.dto.CustomersByIdsDTO;
 import com.ainigma100.customerapi.entity.Customer;
+import com.ainigma100.customerapi.exception.BadRequestException;
 import com.ainigma100.customerapi.mapper.CustomerMapper;
+import com.ainigma100.customerapi.repository.CustomerJdbcRepository;
 import com.ainigma100.customerapi.repository.CustomerRepository;
+import com.ainigma100.customerapi.service.MultiGetProperties;
+import com.ainigma100.customerapi.service.concurrency.CustomerBatchLoader;
+import com.ainigma100.customerapi.service.concurrency.CustomerSingleFlight;
+import com.ainigma100.customerapi.service.concurrency.ParallelPageQuery;
+import com.ainigma100.customerapi.service.concurrency.SingleFlightProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.persistence.EntityExistsException;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,16 +23,20 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -49,6 +62,26 @@ class CustomerServiceImplTest {
     @Mock
     private CustomerMapper customerMapper;
 
+    @Mock
+    private CustomerJdbcRepository customerJdbcRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ParallelPageQuery parallelPageQuery;
+
+    @Mock
+    private CustomerBatchLoader customerBatchLoader;
+
+    // the real one, a call that finds no equal call running runs as usual
+    @Spy
+    private CustomerSingleFlight customerSingleFlight =
+            new CustomerSingleFlight(new SingleFlightProperties(), new SimpleMeterRegistry());
+
+    @Spy
+    private MultiGetProperties multiGetProperties = new MultiGetProperties();
+
     private Customer customer;
     private CustomerDTO customerDTO;
     private CustomerSearchCriteriaDTO customerSearchCriteriaDTO;
@@ -179,6 +212,50 @@ class CustomerServiceImplTest {
     }
 
 
+    @Test
+    @DisplayName("Test retrieving customers by IDs keeps the order of the IDs and lists the missing ones")
+    void givenIds_whenGetCustomersByIds_thenReturnCustomersInOrderAndMissingIds() {
+
+        // given - precondition or setup, the query returns the rows in any order
+        Customer otherCustomer = new Customer();
+        otherCustomer.setId(2L);
+
+        CustomerDTO otherCustomerDTO = new CustomerDTO();
+        otherCustomerDTO.setId(2L);
+
+        List<Long> ids = List.of(2L, 5L, 1L, 2L);
+        given(customerJdbcRepository.findCustomersByIds(ids)).willReturn(List.of(customer, otherCustomer));
+        given(customerMapper.customerToCustomerDTO(customer)).willReturn(customerDTO);
+        given(customerMapper.customerToCustomerDTO(otherCustomer)).willReturn(otherCustomerDTO);
+
+        // when - action or behaviour that we are going to test
+        CustomersByIdsDTO result = customerService.getCustomersByIds(ids);
+
+        // then - verify the output
+        assertThat(result.getCustomers()).containsExactly(otherCustomerDTO, customerDTO);
+        assertThat(result.getMissingIds()).containsExactly(5L);
+
+        verify(customerJdbcRepository, times(1)).findCustomersByIds(ids);
+    }
+
+
+    @Test
+    @DisplayName("Test retrieving more customers by IDs than allowed throws BadRequestException")
+    void givenTooManyIds_whenGetCustomersByIds_thenThrowBadRequestException() {
+
+        // given - precondition or setup
+        multiGetProperties.setMaxIds(2);
+
+        // when/then - verify that the BadRequestException is thrown before any query
+        assertThatThrownBy(() -> customerService.getCustomersByIds(List.of(1L, 2L, 3L)))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("at most 2 ids per request, got 3")
+                .hasFieldOrPropertyWithValue("field", "ids");
+
+        verify(customerJdbcRepository, never()).findCustomersByIds(anyCollection());
+    }
+
+
     @Test
     @DisplayName("Test updating a customer by ID")
     void givenValidIdAndCustomerDTO_whenUpdateCustomer_thenReturnUpdatedCustomerDTO() {
@@ -347,5 +424,33 @@ class CustomerServiceImplTest {
         verify(customerMapper, times(1)).customerListToCustomerDTOList(customerPage.getContent());
     }
 
+    @Test
+    void givenParallelPageQuery_whenGetAllCustomersUsingPagination_thenRunPageAndCountThroughIt() {
+
+        // given - precondition or setup
+        given(parallelPageQuery.isEnabled()).willReturn(true);
+        given(parallelPageQuery.<Customer>fetch(any(Pageable.class), any(), any()))
+                .willAnswer(invocation -> {
+                    Supplier<List<Customer>> content = invocation.getArgument(1);
+                    LongSupplier count = invocation.getArgument(2);
+                    return new PageImpl<>(content.get(), invocation.getArgument(0), count.getAsLong());
+                });
+
+        given(customerJdbcRepository.findCustomers(eq(customerSearchCriteriaDTO), any(Pageable.class)))
+                .willReturn(Collections.singletonList(customer));
+        given(customerJdbcRepository.countCustomers(customerSearchCriteriaDTO)).willReturn(1L);
+
+        given(customerMapper.customerListToCustomerDTOList(Collections.singletonList(customer)))
+                .willReturn(Collections.singletonList(customerDTO));
+
+        // when - action or behaviour that we are going to test
+        Page<CustomerDTO> result = customerService.getAllCustomersUsingPagination(customerSearchCriteriaDTO);
+
+        // then - verify the output
+        assertThat(result.getContent()).containsExactly(customerDTO);
+        assertThat(result.getTotalElements()).isEqualTo(1);
+
+        verify(customerRepository, never()).getAllCustomersUsingPagination(any(), any());
+    }
 
 }
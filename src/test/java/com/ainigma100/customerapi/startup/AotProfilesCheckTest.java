@@ -0,0 +1,54 @@
+package com.ainigma100.customerapi.startup;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatNoException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AotProfilesCheckTest {
+
+    @Test
+    @DisplayName("Without generated definitions the active profiles are registered, and a start with them passes")
+    void givenNoAotProfiles_whenCheck_thenActiveProfilesRegistered() {
+
+        // given - precondition or setup, the AOT processing or a start without AOT
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles("prod", "dataset");
+        DefaultListableBeanFactory registry = new DefaultListableBeanFactory();
+
+        // when - action or behaviour that we are going to test
+        new AotProfilesCheck(environment).postProcessBeanDefinitionRegistry(registry);
+
+        // then - verify the output
+        assertThat(registry.getBean(AotProfilesCheck.BEAN_NAME, AotProfilesCheck.AotProfiles.class).names())
+                .containsExactly("dataset", "prod");
+
+        MockEnvironment sameProfiles = new MockEnvironment();
+        sameProfiles.setActiveProfiles("dataset", "prod");
+        assertThatNoException().isThrownBy(() -> new AotProfilesCheck(sameProfiles).postProcessBeanDefinitionRegistry(registry));
+    }
+
+    @Test
+    @DisplayName("Definitions generated for other profiles than the active ones fail the startup")
+    void givenAotProfilesOfOtherProfiles_whenCheck_thenStartupFails() {
+
+        // given - precondition or setup, the definitions of an AOT build for dev
+        MockEnvironment buildEnvironment = new MockEnvironment();
+        buildEnvironment.setActiveProfiles("dev");
+        DefaultListableBeanFactory registry = new DefaultListableBeanFactory();
+        new AotProfilesCheck(buildEnvironment).postProcessBeanDefinitionRegistry(registry);
+
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles("prod");
+
+        // when/then - verify the output
+        assertThatThrownBy(() -> new AotProfilesCheck(environment).postProcessBeanDefinitionRegistry(registry))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("built for the profiles [dev], but [prod] are active");
+    }
+
+}
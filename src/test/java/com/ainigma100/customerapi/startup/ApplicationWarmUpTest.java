@@ -0,0 +1,64 @@
+package com.ainigma100.customerapi.startup;
+
+import com.ainigma100.customerapi.CustomerApiApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ApplicationWarmUpTest {
+
+    @Test
+    void givenWarmUpEnabled_whenApplicationStarted_thenReadyOnlyAfterWarmUp() {
+
+        // given - precondition or setup
+        List<String> events = new CopyOnWriteArrayList<>();
+
+        SpringApplication application = new SpringApplication(CustomerApiApplication.class);
+        application.addListeners((ApplicationListener<AvailabilityChangeEvent<?>>) event -> {
+            if (event.getState() instanceof ReadinessState state) {
+                // published with the context as the source
+                ApplicationWarmUp warmUp = ((ApplicationContext) event.getSource()).getBean(ApplicationWarmUp.class);
+                events.add(state + (warmUp.getLastReport() == null ? " before" : " after") + " the warm-up");
+            }
+        });
+
+        // when - action or behaviour that we are going to test
+        try (ConfigurableApplicationContext context = application.run(
+                "--spring.profiles.active=test",
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:warm-up;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                "--customer-api.warm-up.enabled=true",
+                "--customer-api.warm-up.iterations=3")) {
+
+            // then - verify the output
+            assertThat(events).containsExactly(
+                    "REFUSING_TRAFFIC before the warm-up",
+                    "ACCEPTING_TRAFFIC after the warm-up");
+
+            ApplicationWarmUp.Report report = context.getBean(ApplicationWarmUp.class).getLastReport();
+            assertThat(report.iterations()).isEqualTo(3);
+            assertThat(report.calls()).isPositive();
+
+            // the probe needs no token
+            String readiness = RestClient.create().get()
+                    .uri("http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                            + context.getEnvironment().getProperty("server.servlet.context-path", "")
+                            + "/actuator/health/readiness")
+                    .retrieve()
+                    .body(String.class);
+
+            assertThat(readiness).contains("\"status\":\"UP\"");
+        }
+    }
+
+}
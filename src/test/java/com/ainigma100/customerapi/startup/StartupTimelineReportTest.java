@@ -0,0 +1,44 @@
+package com.ainigma100.customerapi.startup;
+
+import com.ainigma100.customerapi.CustomerApiApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StartupTimelineReportTest {
+
+    @Test
+    void givenTimelineEnabled_whenApplicationStarted_thenSlowestBeansReported() {
+
+        // given - precondition or setup
+        SpringApplication application = new SpringApplication(CustomerApiApplication.class);
+        application.addListeners(new StartupTimelineReport());
+
+        // when - action or behaviour that we are going to test
+        try (ConfigurableApplicationContext context = application.run(
+                "--spring.profiles.active=test",
+                "--server.port=0",
+                "--customer-api.startup.timeline.enabled=true")) {
+
+            // then - verify the output
+            assertThat(context.getApplicationStartup()).isInstanceOf(BufferingApplicationStartup.class);
+
+            BufferingApplicationStartup startup = (BufferingApplicationStartup) context.getApplicationStartup();
+            List<StartupTimelineReport.BeanInstantiation> beans =
+                    StartupTimelineReport.slowestBeans(startup.getBufferedTimeline(), 1_000);
+
+            assertThat(beans).extracting(StartupTimelineReport.BeanInstantiation::beanName)
+                    .contains("liquibase", "customerController");
+            assertThat(beans).isSortedAccordingTo(
+                    Comparator.comparing(StartupTimelineReport.BeanInstantiation::own).reversed());
+            assertThat(beans).allSatisfy(bean -> assertThat(bean.own()).isLessThanOrEqualTo(bean.total()));
+        }
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.ainigma100.customerapi.utils.annotation;
+
+import com.ainigma100.customerapi.enums.MaskStrategy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DataMaskerTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "7", "789", "6789", "0123456789", "+30 698 123 4567 ext. 1234"})
+    @DisplayName("LAST_N_VISIBLE masks exactly like the previous regex based implementation")
+    void givenLastNVisible_whenMask_thenSameAsRegex(String value) {
+
+        DataMasker dataMasker = new DataMasker(MaskStrategy.LAST_N_VISIBLE, 0, 3, "*");
+
+        assertThat(dataMasker.mask(value)).isEqualTo(value.replaceAll(".(?=.{3})", "*"));
+    }
+
+    @Test
+    @DisplayName("MIDDLE keeps the first and last characters visible")
+    void givenMiddle_whenMask_thenStartAndEndVisible() {
+
+        DataMasker dataMasker = new DataMasker(MaskStrategy.MIDDLE, 2, 3, "*");
+
+        assertThat(dataMasker.mask("6981234567")).isEqualTo("69*****567");
+        assertThat(dataMasker.mask("69123")).isEqualTo("69123");
+    }
+
+    @Test
+    @DisplayName("EMAIL_LOCAL_PART masks only the part before the @")
+    void givenEmailLocalPart_whenMask_thenDomainVisible() {
+
+        DataMasker dataMasker = new DataMasker(MaskStrategy.EMAIL_LOCAL_PART, 1, 0, "*");
+
+        assertThat(dataMasker.mask("jwick@tester.com")).isEqualTo("j****@tester.com");
+        assertThat(dataMasker.mask("jwick")).isEqualTo("j****");
+    }
+
+    @Test
+    @DisplayName("A mask symbol of more than one character is repeated per masked character")
+    void givenMultiCharacterSymbol_whenMask_thenSymbolRepeated() {
+
+        DataMasker dataMasker = new DataMasker(MaskStrategy.LAST_N_VISIBLE, 0, 2, "#$");
+
+        assertThat(dataMasker.mask("12345")).isEqualTo("#$#$#$45");
+    }
+
+    @Test
+    @DisplayName("The serializer applies the strategy configured on each field")
+    void givenAnnotatedFields_whenSerialize_thenEachFieldMaskedWithItsStrategy() {
+
+        JsonNode json = jsonMapper.readTree(jsonMapper.writeValueAsString(new MaskedFields()));
+
+        assertThat(json.get("phoneNumber").asString()).isEqualTo("*******789");
+        assertThat(json.get("email").asString()).isEqualTo("j****@tester.com");
+        assertThat(json.get("nationalId").asString()).isEqualTo("AB****89");
+        assertThat(json.get("missing").isNull()).isTrue();
+    }
+
+
+    static class MaskedFields {
+
+        @MaskData(visibleCharactersAtEnd = 3)
+        public String phoneNumber = "0123456789";
+
+        @MaskData(strategy = MaskStrategy.EMAIL_LOCAL_PART, visibleCharactersAtStart = 1, visibleCharactersAtEnd = 0)
+        public String email = "jwick@tester.com";
+
+        @MaskData(strategy = MaskStrategy.MIDDLE, visibleCharactersAtStart = 2, visibleCharactersAtEnd = 2)
+        public String nationalId = "AB123489";
+
+        @MaskData
+        public String missing = null;
+    }
+
+}